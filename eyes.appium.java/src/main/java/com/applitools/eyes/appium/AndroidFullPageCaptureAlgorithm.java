@@ -58,8 +58,10 @@ public class AndroidFullPageCaptureAlgorithm extends AppiumFullPageCaptureAlgori
                     initialPartSize.getWidth(),
                     scrollViewRegion.getHeight() - stitchingAdjustment);
 
-            currentPosition = new Location(0,
-                    scrollViewRegion.getTop() + ((scrollViewRegion.getHeight()) * (step)) - (stitchingAdjustment*step - stitchingAdjustment));
+            // Every part follows the previous part, whose position may have been corrected by its content
+            int partTop = step == 1 ? scrollViewRegion.getTop() + scrollViewRegion.getHeight()
+                    : currentPosition.getY() + oneScrollStep;
+            currentPosition = new Location(0, partTop);
 
             // We should use original view location for scroll positions due to better calculation positions on the screen
             int startY = scrollViewRegion.getHeight() + originalViewLocation.getY() - 1 - (step != maxScrollSteps ? stitchingAdjustment/2 : 0);
@@ -91,21 +93,29 @@ public class AndroidFullPageCaptureAlgorithm extends AppiumFullPageCaptureAlgori
                         cropFrom,
                         initialPartSize.getWidth(),
                         cropTo);
-                currentPosition = new Location(0,
-                        scrollViewRegion.getTop() + ((scrollViewRegion.getHeight()) * (step)) - (stitchingAdjustment*step));
+                currentPosition = new Location(0, partTop - stitchingAdjustment);
             }
             captureAndStitchCurrentPart(regionToCrop);
+            if (isScrollEndReached) {
+                break;
+            }
         }
 
         int heightUnderScrollableView = initialPartSize.getHeight() - oneScrollStep - scrollViewRegion.getTop();
         if (heightUnderScrollableView > 0) { // check if there is views under the scrollable view
             regionToCrop = new Region(0, scrollViewRegion.getHeight() + scrollViewRegion.getTop() - stitchingAdjustment, initialPartSize.getWidth(), heightUnderScrollableView);
 
-            currentPosition = new Location(0, scrollViewRegion.getTop() + contentSize.getScrollContentHeight() - stitchingAdjustment);
+            // The views under the scrollable view follow the last part of the scrolled content
+            currentPosition = new Location(0, maxScrollSteps > 0 ? stitchedBottom - stitchingAdjustment
+                    : scrollViewRegion.getTop() + contentSize.getScrollContentHeight() - stitchingAdjustment);
 
             captureAndStitchCurrentPart(regionToCrop);
         }
 
+        if (isScrollEndReached) {
+            cropStitchedImage(initialPartSize.getWidth(), stitchedBottom);
+        }
+
         moveToTopLeft();
     }
 
@@ -14,6 +14,7 @@ import com.applitools.eyes.selenium.positioning.RegionPositionCompensation;
 import com.applitools.eyes.selenium.positioning.ScrollPositionProvider;
 import com.applitools.utils.ArgumentGuard;
 import com.applitools.utils.GeneralUtils;
+import com.applitools.utils.ImageRegistration;
 import com.applitools.utils.ImageUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.openqa.selenium.WebElement;
@@ -25,6 +26,9 @@ public class AppiumFullPageCaptureAlgorithm {
 
     protected static final int DEFAULT_STITCHING_ADJUSTMENT = 50;
 
+    // The columns at the right of a part which may show a scroll bar while scrolling
+    private static final int SCROLLBAR_WIDTH = 20;
+
     protected Logger logger;
     protected final String testId;
     private final PositionProvider originProvider;
@@ -53,6 +57,18 @@ public class AppiumFullPageCaptureAlgorithm {
     private final WebElement cutElement;
     protected Integer stitchingAdjustment = DEFAULT_STITCHING_ADJUSTMENT;
 
+    // Scroll gestures may under or overshoot, so the position of every part is registered by its content
+    private boolean isOverlapRegistrationEnabled = true;
+
+    // The bottom of the last stitched part, the stitched image below it is not valid yet
+    protected int stitchedBottom;
+    private Location lastStitchedPosition;
+    private RectangleSize lastStitchedSize;
+    private Long lastPartFingerprint;
+
+    // Set when a part is identical to the previous part, i.e. the scroll didn't move the content
+    protected boolean isScrollEndReached;
+
     public AppiumFullPageCaptureAlgorithm(Logger logger, String testId, PositionProvider originProvider,
                                           PositionProvider positionProvider,
                                           ScrollPositionProvider scrollProvider,
@@ -101,6 +117,10 @@ public class AppiumFullPageCaptureAlgorithm {
         scrollProvider.setScrollRootElement(scrollRootElement);
     }
 
+    public void setOverlapRegistrationEnabled(boolean overlapRegistrationEnabled) {
+        isOverlapRegistrationEnabled = overlapRegistrationEnabled;
+    }
+
     protected RectangleSize captureAndStitchCurrentPart(Region partRegion) {
         GeneralUtils.sleep(waitBeforeScreenshots);
         BufferedImage partImage = imageProvider.getImage();
@@ -111,10 +131,59 @@ public class AppiumFullPageCaptureAlgorithm {
         // about, since from now on we just want the scroll view, not the entire view
         setRegionInScreenshot(partImage, partRegion, new NullRegionPositionCompensation());
 
-        partImage = cropPartToRegion(partImage, partRegion);
+        BufferedImage cutImage = cutPart(partImage);
+        partImage = cropCutPartToRegion(cutImage, partRegion);
+
+        long partFingerprint = ImageUtils.getImageFingerprint(partImage);
+        if (lastPartFingerprint != null && lastPartFingerprint == partFingerprint) {
+            logger.log(testId, Stage.CHECK, Type.CAPTURE_SCREENSHOT,
+                    Pair.of("scrollEndReached", currentPosition));
+            isScrollEndReached = true;
+            currentPosition = lastStitchedPosition;
+            return lastStitchedSize;
+        }
+        lastPartFingerprint = partFingerprint;
+
+        if (isOverlapRegistrationEnabled) {
+            registerPart(cutImage);
+        }
 
         stitchPartIntoContainer(partImage);
-        return new RectangleSize(partImage.getWidth(), partImage.getHeight());
+        RectangleSize partSize = new RectangleSize(partImage.getWidth(), partImage.getHeight());
+        onPartStitched(currentPosition, partSize);
+        return partSize;
+    }
+
+    /**
+     * Corrects the current position by the content of the part. The rows above the part's region in the screenshot
+     * were already stitched from the previous part, so they are looked for in the stitched image.
+     * @param cutImage The screenshot of the part, before it was cropped to the part's region.
+     */
+    private void registerPart(BufferedImage cutImage) {
+        int margin = Math.min(Math.max(stitchingAdjustment, DEFAULT_STITCHING_ADJUSTMENT), regionInScreenshot.getTop());
+        int width = regionInScreenshot.getWidth() - scaleSafe(SCROLLBAR_WIDTH);
+        if (regionInScreenshot.isSizeEmpty() || margin < ImageRegistration.MIN_MATCHING_ROWS || width <= 0) {
+            return;
+        }
+
+        // Only the stitched rows above the expected top of the part are compared, since the stitched part may
+        // continue with views which aren't scrolled (e.g. the views under the scrollable view in the first part)
+        BufferedImage overlappingPart = cutImage.getSubimage(regionInScreenshot.getLeft(),
+                regionInScreenshot.getTop() - margin, regionInScreenshot.getWidth(), regionInScreenshot.getHeight() + margin);
+        Integer overlappingPartTop = ImageRegistration.findTop(stitchedImage,
+                Math.min(stitchedBottom, currentPosition.getY()), overlappingPart, currentPosition.getY() - margin, margin, width);
+        logger.log(testId, Stage.CHECK, Type.CAPTURE_SCREENSHOT,
+                Pair.of("expectedPartTop", currentPosition.getY()),
+                Pair.of("registeredPartTop", overlappingPartTop == null ? null : overlappingPartTop + margin));
+        if (overlappingPartTop != null) {
+            currentPosition = new Location(currentPosition.getX(), overlappingPartTop + margin);
+        }
+    }
+
+    private void onPartStitched(Location position, RectangleSize partSize) {
+        lastStitchedPosition = position;
+        lastStitchedSize = partSize;
+        stitchedBottom = position.getY() + partSize.getHeight();
     }
 
     protected void captureAndStitchTailParts(RectangleSize entireSize, RectangleSize initialPartSize) {
@@ -160,6 +229,9 @@ public class AppiumFullPageCaptureAlgorithm {
                     + (scrollRootElement == null ? 0 : scaleSafe(statusBarHeight)));
 
             lastSuccessfulPartSize = captureAndStitchCurrentPart(regionToCrop);
+            if (isScrollEndReached) {
+                break;
+            }
         }
 
         int heightUnderScrollableView = initialPartSize.getHeight() - scaleSafe(oneScrollStep) - scrollViewRegion.getTop();
@@ -310,7 +382,10 @@ public class AppiumFullPageCaptureAlgorithm {
     }
 
     protected BufferedImage cropPartToRegion(BufferedImage partImage, Region partRegion) {
+        return cropCutPartToRegion(cutPart(partImage), partRegion);
+    }
 
+    private BufferedImage cutPart(BufferedImage partImage) {
         // FIXME - cropping should be overlaid (see previous comment re cropping)
         if (!(cutProvider instanceof NullCutProvider)) {
             partImage = cutProvider.cut(partImage);
@@ -319,6 +394,10 @@ public class AppiumFullPageCaptureAlgorithm {
                             .toStringForFilename());
         }
 
+        return partImage;
+    }
+
+    private BufferedImage cropCutPartToRegion(BufferedImage partImage, Region partRegion) {
         if (!regionInScreenshot.isEmpty()) {
             partImage = ImageUtils.getImagePart(partImage, regionInScreenshot);
             saveDebugScreenshotPart(partImage, partRegion,
@@ -339,15 +418,18 @@ public class AppiumFullPageCaptureAlgorithm {
         int actualImageWidth = lastSuccessfulLocation.getX() + lastSuccessfulPartSize.getWidth();
         int actualImageHeight = lastSuccessfulLocation.getY() + lastSuccessfulPartSize.getHeight();
 
-        if (actualImageWidth < stitchedImage.getWidth() || actualImageHeight < stitchedImage
-                .getHeight()) {
+        cropStitchedImage(actualImageWidth, actualImageHeight);
+
+        debugScreenshotsProvider.save(stitchedImage, "stitched");
+    }
+
+    protected void cropStitchedImage(int width, int height) {
+        if (width < stitchedImage.getWidth() || height < stitchedImage.getHeight()) {
             stitchedImage = ImageUtils.getImagePart(stitchedImage,
                     new Region(0, 0,
-                            Math.min(actualImageWidth, stitchedImage.getWidth()),
-                            Math.min(actualImageHeight, stitchedImage.getHeight())));
+                            Math.min(width, stitchedImage.getWidth()),
+                            Math.min(height, stitchedImage.getHeight())));
         }
-
-        debugScreenshotsProvider.save(stitchedImage, "stitched");
     }
 
     protected void stitchPartIntoContainer(BufferedImage partImage) {
@@ -412,6 +494,9 @@ public class AppiumFullPageCaptureAlgorithm {
                 initialPart.getHeight());
         logger.log(testId, Stage.CHECK, Type.CAPTURE_SCREENSHOT, Pair.of("initialPart", initialPartSize));
         stitchedImage.getRaster().setRect(0, 0, initialPart);
+        lastPartFingerprint = null;
+        isScrollEndReached = false;
+        onPartStitched(new Location(0, 0), initialPartSize);
 
         /* TODO need to determine if there is anything in the initial part which should be cut
            off and reapplied at the bottom of the stitched image. Can do this by checking whether
@@ -9,8 +9,8 @@ import com.applitools.eyes.RectangleSize;
 import com.applitools.eyes.TestResults;
 import com.applitools.eyes.events.ValidationInfo;
 import com.applitools.eyes.events.ValidationResult;
+import com.applitools.utils.JsonWriters;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.MediaType;
@@ -125,10 +125,9 @@ public class RemoteSessionEventHandler extends RestClient {
             public Response call() {
                 Request invocationBuilder = defaultEndPoint.path(autSessionIdFinal).request(MediaType.APPLICATION_JSON);
                 // since the web API requires a root property for this message
-                ObjectMapper jsonMapper = new ObjectMapper();
                 String testResultJson;
                 try {
-                    testResultJson = jsonMapper.writeValueAsString(testResults);
+                    testResultJson = JsonWriters.getWriter().writeValueAsString(testResults);
                 } catch (JsonProcessingException e) {
                     testResultJson = "{}";
                     e.printStackTrace();
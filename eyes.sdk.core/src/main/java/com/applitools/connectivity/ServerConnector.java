@@ -16,11 +16,9 @@ import com.applitools.eyes.logging.Type;
 import com.applitools.eyes.visualgrid.model.*;
 import com.applitools.utils.ArgumentGuard;
 import com.applitools.utils.GeneralUtils;
-import com.fasterxml.jackson.annotation.JsonInclude;
+import com.applitools.utils.JsonWriters;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.http.HttpStatus;
@@ -41,9 +39,13 @@ public class ServerConnector extends UfgConnector {
     static final String MOBILE_DEVICES_PATH = "/app/info/mobile/devices";
     public static final String API_PATH = "/api/sessions/running";
     private static final String LOG_PATH = "/api/sessions/log";
+    private static final int MIN_COMPRESSED_LOGS_LENGTH = 1024;
 
     private static Map<String, MobileDeviceInfo> mobileDevicesInfo = null;
 
+    // Logs are compressed until the server rejects compressed logs
+    private volatile boolean isLogsCompressionSupported = true;
+
     /***
      * @param logger    Logger instance.
      * @param serverUrl The URI of the rest server.
@@ -89,22 +91,69 @@ public class ServerConnector extends UfgConnector {
         restClient = client;
     }
 
-    public void sendLogs(AsyncRequestCallback callback, LogSessionsClientEvents clientEvents) {
+    public void sendLogs(final AsyncRequestCallback callback, LogSessionsClientEvents clientEvents) {
         ArgumentGuard.notNull(clientEvents, "clientEvents");
-        AsyncRequest request = makeEyesRequest(new HttpRequestBuilder() {
+        final String data;
+        try {
+            data = jsonMapper.writeValueAsString(clientEvents);
+        } catch (JsonProcessingException e) {
+            throw new EyesException("Failed converting client events to string", e);
+        }
+
+        if (!isLogsCompressionSupported || data.length() < MIN_COMPRESSED_LOGS_LENGTH) {
+            sendAsyncRequest(makeLogsRequest(false), HttpMethod.POST, callback, data, MediaType.APPLICATION_JSON);
+            return;
+        }
+
+        byte[] compressedData = GeneralUtils.getGzipByteArrayOutputStream(data);
+        sendAsyncRequest(makeLogsRequest(true), HttpMethod.POST, new AsyncRequestCallback() {
+            @Override
+            public void onComplete(Response response) {
+                if (!isClientError(response)) {
+                    callback.onComplete(response);
+                    return;
+                }
+
+                // The server may reject the compression with any client error, so the logs are sent again
+                // uncompressed, and the compression is disabled only if the server accepted them this time
+                response.close();
+                sendAsyncRequest(makeLogsRequest(false), HttpMethod.POST, new AsyncRequestCallback() {
+                    @Override
+                    public void onComplete(Response response) {
+                        if (!isClientError(response)) {
+                            isLogsCompressionSupported = false;
+                        }
+                        callback.onComplete(response);
+                    }
+
+                    @Override
+                    public void onFail(Throwable throwable) {
+                        callback.onFail(throwable);
+                    }
+                }, data, MediaType.APPLICATION_JSON);
+            }
+
+            @Override
+            public void onFail(Throwable throwable) {
+                callback.onFail(throwable);
+            }
+        }, compressedData, MediaType.APPLICATION_JSON);
+    }
+
+    private static boolean isClientError(Response response) {
+        int statusCode = response.getStatusCode();
+        return statusCode >= HttpStatus.SC_BAD_REQUEST && statusCode < HttpStatus.SC_INTERNAL_SERVER_ERROR;
+    }
+
+    private AsyncRequest makeLogsRequest(final boolean isCompressed) {
+        return makeEyesRequest(new HttpRequestBuilder() {
             @Override
             public AsyncRequest build() {
-                return restClient.target(serverUrl).path(LOG_PATH)
+                AsyncRequest request = restClient.target(serverUrl).path(LOG_PATH)
                         .queryParam("apiKey", getApiKey()).asyncRequest(MediaType.APPLICATION_JSON);
+                return isCompressed ? request.header("Content-Encoding", "gzip") : request;
             }
         });
-
-        try {
-            String data = jsonMapper.writeValueAsString(clientEvents);
-            sendAsyncRequest(request, HttpMethod.POST, callback, data, MediaType.APPLICATION_JSON);
-        } catch (JsonProcessingException e) {
-            throw new EyesException("Failed converting client events to string", e);
-        }
     }
 
     /**
@@ -282,10 +331,8 @@ public class ServerConnector extends UfgConnector {
         validStatusCodes.add(HttpStatus.SC_OK);
 
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-            objectMapper.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
-            String json = objectMapper.writeValueAsString(renderRequests);
+            String json = JsonWriters.getRenderWriter(RenderRequest[].class)
+                    .writeValueAsString(renderRequests.toArray(new RenderRequest[0]));
             ResponseParsingCallback<RunningRender[]> callback = new ResponseParsingCallback<>(this, validStatusCodes, new TaskListener<RunningRender[]>() {
                 @Override
                 public void onComplete(RunningRender[] runningRenders) {
@@ -323,10 +370,7 @@ public class ServerConnector extends UfgConnector {
             List<Integer> validStatusCodes = new ArrayList<>();
             validStatusCodes.add(HttpStatus.SC_OK);
 
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-            objectMapper.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
-            String json = objectMapper.writeValueAsString(renderIds);
+            String json = JsonWriters.getRenderWriter(String[].class).writeValueAsString(renderIds.toArray(new String[0]));
 
             ResponseParsingCallback<RenderStatusResults[]> callback = new ResponseParsingCallback<>(this, validStatusCodes, new TaskListener<RenderStatusResults[]>() {
                 @Override
@@ -362,10 +406,7 @@ public class ServerConnector extends UfgConnector {
             List<Integer> validStatusCodes = new ArrayList<>();
             validStatusCodes.add(HttpStatus.SC_OK);
 
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-            objectMapper.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
-            String json = objectMapper.writeValueAsString(hashes);
+            String json = JsonWriters.getRenderWriter(HashObject[].class).writeValueAsString(hashes);
             ResponseParsingCallback<Boolean[]> callback = new ResponseParsingCallback<>(this, validStatusCodes, listener, new TypeReference<Boolean[]>() {});
             sendAsyncRequest(request, HttpMethod.POST, callback, json, MediaType.APPLICATION_JSON);
         } catch (Throwable e) {
@@ -379,10 +420,7 @@ public class ServerConnector extends UfgConnector {
             AsyncRequest request = restClient.target(getRenderInfo().getServiceUrl())
                     .path(RENDERER_INFO).asyncRequest(MediaType.APPLICATION_JSON);
             request.header("X-Auth-Token", getRenderInfo().getAccessToken());
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-            objectMapper.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
-            String json = objectMapper.writeValueAsString(browserInfos);
+            String json = JsonWriters.getRenderWriter(RenderRequest[].class).writeValueAsString(browserInfos);
 
             List<Integer> validStatusCodes = new ArrayList<>();
             validStatusCodes.add(HttpStatus.SC_OK);
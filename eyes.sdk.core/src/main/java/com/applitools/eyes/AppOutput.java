@@ -25,8 +25,9 @@ public class AppOutput {
     @JsonIgnore
     private final EyesScreenshot screenshot;
 
+    // Encoded only when needed, since the screenshot isn't uploaded if it already has a url
     @JsonIgnore
-    private final byte[] screenshotBytes;
+    private byte[] screenshotBytes;
 
     /**
      * @param title           The title of the window.
@@ -40,7 +41,6 @@ public class AppOutput {
         this.screenshotUrl = screenshotUrl;
         this.location = location;
         this.screenshot = screenshot;
-        this.screenshotBytes = screenshot == null ? null : ImageUtils.encodeAsPng(screenshot.getImage());
     }
 
     public AppOutput(String title, EyesScreenshot screenshot, String domUrl, String screenshotUrl, Location location, RectangleSize viewport) {
@@ -52,7 +52,10 @@ public class AppOutput {
         return title;
     }
 
-    public byte[] getScreenshotBytes() {
+    public synchronized byte[] getScreenshotBytes() {
+        if (screenshotBytes == null && screenshot != null) {
+            screenshotBytes = ImageUtils.encodeAsPng(screenshot.getImage());
+        }
         return screenshotBytes;
     }
 
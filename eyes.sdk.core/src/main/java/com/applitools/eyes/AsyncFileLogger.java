@@ -0,0 +1,392 @@
+/*
+ * Applitools software.
+ */
+package com.applitools.eyes;
+
+import com.applitools.eyes.logging.ClientEvent;
+import com.applitools.eyes.logging.TraceLevel;
+import com.applitools.utils.ArgumentGuard;
+import com.applitools.utils.JsonWriters;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes log messages to a file from a dedicated thread. Logging only hands the message to the writer thread,
+ * which formats and writes it. The file is rolled when it reaches its maximum size or when the rolling interval
+ * passes, and the rolled files may be compressed.
+ */
+public class AsyncFileLogger extends LogHandler {
+    public static final long DEFAULT_MAX_FILE_SIZE = 50 * 1024 * 1024;
+    public static final int DEFAULT_MAX_ARCHIVES = 10;
+
+    // Beyond this number of waiting messages, new messages are dropped
+    private static final int MAX_QUEUED_EVENTS = 100 * 1000;
+    private static final long IDLE_FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long CLOSE_TIMEOUT_MS = 10 * 1000;
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private final String filename;
+    private final boolean append;
+    private final ObjectWriter eventWriter = JsonWriters.getWriter();
+    final Queue<ClientEvent> events = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedEvents = new AtomicInteger();
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private long maxFileSize = DEFAULT_MAX_FILE_SIZE;
+    private long rollingIntervalMs = 0;
+    private int maxArchives = DEFAULT_MAX_ARCHIVES;
+    private boolean isCompressingArchives = false;
+
+    private volatile Thread writerThread;
+    private volatile boolean isClosing;
+    // Set by the writer thread before it drops the messages it didn't write, for messages queued after that
+    private volatile boolean isWriterStopped;
+
+    // Used only by the writer thread
+    private OutputStream fileStream;
+    private long fileSize;
+    private long nextRollTime;
+
+    public AsyncFileLogger(String filename, boolean append, TraceLevel level) {
+        super(level);
+        ArgumentGuard.notNullOrEmpty(filename, "filename");
+        this.filename = filename;
+        this.append = append;
+    }
+
+    public AsyncFileLogger(String filename, boolean append, boolean isVerbose) {
+        this(filename, append, isVerbose ? TraceLevel.Debug : TraceLevel.Notice);
+    }
+
+    /**
+     * @param maxFileSize The size in bytes from which the file is rolled, or 0 to roll regardless of the size.
+     */
+    public AsyncFileLogger setMaxFileSize(long maxFileSize) {
+        ArgumentGuard.greaterThanOrEqualToZero(maxFileSize, "maxFileSize");
+        this.maxFileSize = maxFileSize;
+        return this;
+    }
+
+    /**
+     * @param rollingIntervalMs The time from opening a file until it is rolled, or 0 to roll regardless of the time.
+     */
+    public AsyncFileLogger setRollingInterval(long rollingIntervalMs) {
+        ArgumentGuard.greaterThanOrEqualToZero(rollingIntervalMs, "rollingIntervalMs");
+        this.rollingIntervalMs = rollingIntervalMs;
+        return this;
+    }
+
+    /**
+     * @param maxArchives The number of rolled files to keep, the oldest files are deleted.
+     */
+    public AsyncFileLogger setMaxArchives(int maxArchives) {
+        ArgumentGuard.greaterThanOrEqualToZero(maxArchives, "maxArchives");
+        this.maxArchives = maxArchives;
+        return this;
+    }
+
+    /**
+     * @param isCompressingArchives If true, the rolled files are compressed with gzip.
+     */
+    public AsyncFileLogger setCompressingArchives(boolean isCompressingArchives) {
+        this.isCompressingArchives = isCompressingArchives;
+        return this;
+    }
+
+    /**
+     * @return The number of messages which were dropped because the writer thread couldn't keep up or had stopped.
+     */
+    public long getDroppedEventsCount() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Opens the log file and starts the writer thread. If the writer thread of the previous opening didn't stop yet,
+     * waits for it to stop, so two threads never write the same file.
+     */
+    @Override
+    public synchronized void open() {
+        Thread previousThread = writerThread;
+        if (previousThread != null) {
+            if (!isClosing) {
+                return;
+            }
+
+            try {
+                previousThread.join(CLOSE_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (previousThread.isAlive()) {
+                throw new EyesException("The previous writer thread of the log file didn't stop");
+            }
+        }
+
+        isClosing = false;
+        isWriterStopped = false;
+        openFile(append);
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeEvents();
+            }
+        }, "AsyncFileLogger");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    @Override
+    public void onMessageInner(ClientEvent clientEvent) {
+        Thread thread = writerThread;
+        if (thread == null || isClosing) {
+            return;
+        }
+
+        if (queuedEvents.incrementAndGet() > MAX_QUEUED_EVENTS) {
+            queuedEvents.decrementAndGet();
+            droppedEvents.incrementAndGet();
+            return;
+        }
+
+        events.offer(clientEvent);
+        LockSupport.unpark(thread);
+
+        // The writer thread may have stopped after the check above, then the message is dropped here
+        if (isWriterStopped) {
+            dropEvents();
+        }
+    }
+
+    /**
+     * Writes the waiting messages, stops the writer thread and closes the log file.
+     * If the writer thread doesn't stop in time, it is interrupted and drops the messages which weren't written.
+     */
+    @Override
+    public synchronized void close() {
+        Thread thread = writerThread;
+        if (thread == null) {
+            return;
+        }
+
+        isClosing = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // The reference is kept until the thread stops, so open() doesn't start another writer of the same file
+        if (thread.isAlive()) {
+            thread.interrupt();
+        } else {
+            writerThread = null;
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return writerThread != null && !isClosing;
+    }
+
+    private void writeEvents() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                ClientEvent event = events.poll();
+                if (event != null) {
+                    queuedEvents.decrementAndGet();
+                    writeEvent(event);
+                    continue;
+                }
+
+                // The messages are flushed only when there are no more messages to write
+                flushFile();
+                if (isClosing) {
+                    break;
+                }
+
+                LockSupport.parkNanos(this, getParkTime());
+                if (isRollingDue()) {
+                    rollFile();
+                }
+            }
+        } finally {
+            closeFile();
+            isWriterStopped = true;
+            dropEvents();
+        }
+    }
+
+    private void dropEvents() {
+        while (events.poll() != null) {
+            queuedEvents.decrementAndGet();
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    private void writeEvent(ClientEvent event) {
+        try {
+            byte[] line = eventWriter.writeValueAsBytes(event);
+            if (isRollingDue()) {
+                rollFile();
+            }
+
+            if (fileStream != null) {
+                fileStream.write(line);
+                fileStream.write(LINE_SEPARATOR);
+                fileSize += line.length + LINE_SEPARATOR.length;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private long getParkTime() {
+        if (rollingIntervalMs == 0) {
+            return IDLE_FLUSH_INTERVAL_NANOS;
+        }
+
+        long untilRolling = TimeUnit.MILLISECONDS.toNanos(nextRollTime - System.currentTimeMillis());
+        return Math.max(1, Math.min(IDLE_FLUSH_INTERVAL_NANOS, untilRolling));
+    }
+
+    private boolean isRollingDue() {
+        return (maxFileSize > 0 && fileSize >= maxFileSize)
+                || (rollingIntervalMs > 0 && fileSize > 0 && System.currentTimeMillis() >= nextRollTime);
+    }
+
+    private void openFile(boolean append) {
+        try {
+            File file = new File(filename);
+            File path = file.getParentFile();
+            if (path != null && !path.exists() && !path.mkdirs()) {
+                System.out.printf("Failed creating folder %s%n", path.getAbsolutePath());
+            }
+
+            fileStream = new BufferedOutputStream(new FileOutputStream(file, append), 64 * 1024);
+            fileSize = append ? file.length() : 0;
+            nextRollTime = System.currentTimeMillis() + rollingIntervalMs;
+        } catch (IOException e) {
+            throw new EyesException("Failed to create log file!", e);
+        }
+    }
+
+    private void flushFile() {
+        try {
+            if (fileStream != null) {
+                fileStream.flush();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void closeFile() {
+        try {
+            if (fileStream != null) {
+                fileStream.close();
+            }
+        } catch (IOException ignored) {
+        }
+        fileStream = null;
+    }
+
+    /**
+     * Renames the current file with the rolling time, compresses it if required and starts a new file.
+     */
+    private void rollFile() {
+        closeFile();
+        File file = new File(filename);
+        String suffix = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+        File archive = new File(filename + "." + suffix);
+        for (int i = 1; archive.exists() || new File(archive.getPath() + ".gz").exists(); i++) {
+            archive = new File(filename + "." + suffix + "-" + i);
+        }
+
+        if (file.renameTo(archive)) {
+            if (isCompressingArchives) {
+                compressArchive(archive);
+            }
+            deleteOldArchives(file);
+        } else {
+            System.out.printf("Failed rolling log file %s%n", file.getAbsolutePath());
+        }
+
+        try {
+            openFile(false);
+        } catch (EyesException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void compressArchive(File archive) {
+        File compressedArchive = new File(archive.getPath() + ".gz");
+        try (InputStream input = new FileInputStream(archive);
+             OutputStream output = new GZIPOutputStream(new FileOutputStream(compressedArchive))) {
+            byte[] buffer = new byte[64 * 1024];
+            int length;
+            while ((length = input.read(buffer)) != -1) {
+                output.write(buffer, 0, length);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        if (!archive.delete()) {
+            System.out.printf("Failed deleting log file %s%n", archive.getAbsolutePath());
+        }
+    }
+
+    private void deleteOldArchives(File file) {
+        final String prefix = file.getName() + ".";
+        File directory = file.getAbsoluteFile().getParentFile();
+        File[] archives = directory == null ? null : directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith(prefix);
+            }
+        });
+        if (archives == null || archives.length <= maxArchives) {
+            return;
+        }
+
+        Arrays.sort(archives, new Comparator<File>() {
+            @Override
+            public int compare(File file1, File file2) {
+                int result = Long.compare(file1.lastModified(), file2.lastModified());
+                return result != 0 ? result : file1.getName().compareTo(file2.getName());
+            }
+        });
+        for (int i = 0; i < archives.length - maxArchives; i++) {
+            if (!archives[i].delete()) {
+                System.out.printf("Failed deleting log file %s%n", archives[i].getAbsolutePath());
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof AsyncFileLogger) {
+            return ((AsyncFileLogger) other).filename.equals(filename);
+        }
+
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(filename);
+    }
+}
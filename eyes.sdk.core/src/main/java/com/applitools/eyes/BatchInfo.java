@@ -174,6 +174,19 @@ public class BatchInfo {
         isCompleted = completed;
     }
 
+    /**
+     * @return A copy of the batch, with the same id.
+     */
+    public BatchInfo copy() {
+        BatchInfo copy = new BatchInfo(id, sequenceName, name, startedAt);
+        copy.notifyOnCompletion = notifyOnCompletion;
+        copy.isCompleted = isCompleted;
+        for (Map<String, String> property : properties) {
+            copy.properties.add(new HashMap<>(property));
+        }
+        return copy;
+    }
+
     public BatchInfo addProperty(final String name, final String value) {
         properties.add(new HashMap<String, String>() {{put("name", name);put("value", value);}});
         return this;
@@ -1,5 +1,7 @@
 package com.applitools.eyes;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * Encapsulates settings for the "Exact" match level.
  */
@@ -37,6 +39,8 @@ public class ExactMatchSettings {
      */
     private float matchThreshold;
 
+    private int modificationCount = 0;
+
 
     @SuppressWarnings("UnusedDeclaration")
     /**
@@ -54,6 +58,7 @@ public class ExactMatchSettings {
      *                         difference.
      */
     public void setMinDiffIntensity(int minDiffIntensity) {
+        modificationCount++;
         this.minDiffIntensity = minDiffIntensity;
     }
 
@@ -72,6 +77,7 @@ public class ExactMatchSettings {
      * @param minDiffWidth The minimal non-ignorable diff region width.
      */
     public void setMinDiffWidth(int minDiffWidth) {
+        modificationCount++;
         this.minDiffWidth = minDiffWidth;
     }
 
@@ -90,6 +96,7 @@ public class ExactMatchSettings {
      * @param minDiffHeight The minimal non-ignorable diff region height.
      */
     public void setMinDiffHeight(int minDiffHeight) {
+        modificationCount++;
         this.minDiffHeight = minDiffHeight;
     }
 
@@ -110,9 +117,18 @@ public class ExactMatchSettings {
      *                       are considered mismatching.
      */
     public void setMatchThreshold(float matchThreshold) {
+        modificationCount++;
         this.matchThreshold = matchThreshold;
     }
 
+    /**
+     * @return The number of times the settings were changed by their setters.
+     */
+    @JsonIgnore
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
     public String toString() {
         return String.format("[min diff intensity: %d, min diff width %d, " +
                 "min diff height %d, match threshold: %f]", minDiffIntensity,
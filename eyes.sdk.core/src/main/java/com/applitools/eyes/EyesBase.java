@@ -14,6 +14,7 @@ import com.applitools.eyes.exceptions.NewTestException;
 import com.applitools.eyes.exceptions.TestFailedException;
 import com.applitools.eyes.fluent.CheckSettings;
 import com.applitools.eyes.fluent.ICheckSettingsInternal;
+import com.applitools.eyes.fluent.IGetRegions;
 import com.applitools.eyes.locators.BaseOcrRegion;
 import com.applitools.eyes.logging.Stage;
 import com.applitools.eyes.logging.TraceLevel;
@@ -32,13 +33,20 @@ import com.applitools.eyes.visualgrid.model.DeviceSize;
 import com.applitools.eyes.visualgrid.model.RenderingInfo;
 import com.applitools.utils.*;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Applitools Eyes Base for Java API .
@@ -77,6 +85,7 @@ public abstract class EyesBase implements IEyesBase {
     private boolean isViewportSizeSet;
 
     private int validationId;
+    private volatile Pair<Configuration, RawValue> agentSetupConfiguration = null;
     protected DebugScreenshotsProvider debugScreenshotsProvider;
 
     public EyesBase() {
@@ -691,12 +700,11 @@ public abstract class EyesBase implements IEyesBase {
                                               String tag, boolean replaceLast,
                                               ImageMatchSettings imageMatchSettings, String renderId, String source) {
         String agentSetupStr = "";
-        Object agentSetup = logger.createMessageFromLog(Collections.singleton(getTestId()), Stage.CHECK, null,
-                Pair.of("configuration", getConfiguration()),
-                Pair.of("checkSettings", checkSettingsInternal));
-        ObjectMapper jsonMapper = new ObjectMapper();
         try {
-            agentSetupStr = jsonMapper.writeValueAsString(agentSetup);
+            Object agentSetup = logger.createMessageFromLog(Collections.singleton(getTestId()), Stage.CHECK, null,
+                    Pair.of("configuration", getAgentSetupConfiguration()),
+                    Pair.of("checkSettings", checkSettingsInternal));
+            agentSetupStr = JsonWriters.getWriter().writeValueAsString(agentSetup);
         } catch (JsonProcessingException e) {
             GeneralUtils.logExceptionStackTrace(logger, Stage.CHECK, e, getTestId());
         }
@@ -709,6 +717,20 @@ public abstract class EyesBase implements IEyesBase {
                 false, options, agentSetupStr, renderId);
     }
 
+    /**
+     * @return The JSON of the configuration in the agent setup, which is serialized once per configuration version.
+     */
+    private RawValue getAgentSetupConfiguration() throws JsonProcessingException {
+        // A new snapshot is taken only when the configuration changes
+        Configuration configuration = getConfigurationSnapshot();
+        Pair<Configuration, RawValue> cached = agentSetupConfiguration;
+        if (cached == null || cached.getLeft() != configuration) {
+            cached = Pair.of(configuration, new RawValue(JsonWriters.getWriter().writeValueAsString(configuration)));
+            agentSetupConfiguration = cached;
+        }
+        return cached.getRight();
+    }
+
     public MatchResult performMatch(MatchWindowData data) {
         MatchResult result = runner.check(getTestId(), data);
         if (result == null) {
@@ -718,6 +740,20 @@ public abstract class EyesBase implements IEyesBase {
         return result;
     }
 
+    /**
+     * Uploads the screenshots of the matches concurrently, and performs the matches in order.
+     * @param data The match data of each match.
+     * @return The results of the matches, in the order of the match data.
+     */
+    public List<MatchResult> performMatches(List<MatchWindowData> data) {
+        List<MatchResult> results = runner.checkAll(getTestId(), data);
+        if (results.contains(null)) {
+            throw new EyesException("Failed performing match with the server");
+        }
+
+        return results;
+    }
+
     /**
      * See {@link #checkWindowBase(Region, String, int, String)}.
      * {@code retryTimeout} defaults to {@code USE_DEFAULT_TIMEOUT}.
@@ -793,11 +829,24 @@ public abstract class EyesBase implements IEyesBase {
 
     protected abstract String tryCaptureDom();
 
+    /**
+     * Writes the dom of the page to the given writer. By default, writes the result of {@link #tryCaptureDom()}.
+     * @return Whether there was a dom to write.
+     */
+    protected boolean tryCaptureDom(Writer writer) throws IOException {
+        String domJson = tryCaptureDom();
+        if (domJson == null) {
+            return false;
+        }
+
+        writer.write(domJson);
+        return true;
+    }
+
     protected String tryCaptureAndPostDom() {
         String domUrl = null;
         try {
-            String domJson = tryCaptureDom();
-            domUrl = tryPostDomCapture(domJson);
+            domUrl = tryPostDomCapture();
             logger.log(getTestId(), Stage.CHECK, Type.DOM_SCRIPT, Pair.of("domUrl", domUrl));
         } catch (Exception ex) {
             GeneralUtils.logExceptionStackTrace(logger, Stage.CHECK, Type.DOM_SCRIPT, ex, getTestId());
@@ -818,14 +867,21 @@ public abstract class EyesBase implements IEyesBase {
         return validationInfo;
     }
 
-    private String tryPostDomCapture(String domJson) {
-        if (domJson != null) {
-            byte[] resultStream = GeneralUtils.getGzipByteArrayOutputStream(domJson);
-            SyncTaskListener<String> listener = new SyncTaskListener<>(logger, String.format("tryUploadData %s", runningSession));
-            serverConnector.uploadData(listener, resultStream, "application/octet-stream", "application/json");
-            return listener.get();
+    private String tryPostDomCapture() throws IOException {
+        // The dom is compressed while it is written, so only the compressed dom is held in memory
+        ByteArrayOutputStream resultStream = new ByteArrayOutputStream();
+        boolean hasDom;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(resultStream), StandardCharsets.UTF_8))) {
+            hasDom = tryCaptureDom(writer);
         }
-        return null;
+
+        if (!hasDom) {
+            return null;
+        }
+
+        SyncTaskListener<String> listener = new SyncTaskListener<>(logger, String.format("tryUploadData %s", runningSession));
+        serverConnector.uploadData(listener, resultStream.toByteArray(), "application/octet-stream", "application/json");
+        return listener.get();
     }
 
     protected void validateResult(MatchResult result) {
@@ -882,7 +938,7 @@ public abstract class EyesBase implements IEyesBase {
                 configGetter.getParentBranchName(), configGetter.getBaselineBranchName(), configGetter.getSaveDiffs(),
                 properties, agentSessionId, agentRunId, configGetter.getAbortIdleTestTimeout());
 
-        logger.log(TraceLevel.Info, getTestId(), Stage.OPEN, Pair.of("configuration", getConfiguration()));
+        logger.log(TraceLevel.Info, getTestId(), Stage.OPEN, Pair.of("configuration", getConfigurationSnapshot()));
         return sessionStartInfo;
     }
 
@@ -982,6 +1038,14 @@ public abstract class EyesBase implements IEyesBase {
      */
     protected abstract EyesScreenshot getScreenshot(Region targetRegion, ICheckSettingsInternal checkSettingsInternal);
 
+    /**
+     * Called before the regions of the check are collected, so the SDK can resolve all of them at once.
+     * @return The context relative regions of the elements of each resolved region, used only by the current check.
+     */
+    protected Map<IGetRegions<?>, List<Region>> resolveRegions(ICheckSettingsInternal checkSettingsInternal) {
+        return Collections.emptyMap();
+    }
+
     /**
      * @return The current title of of the AUT.
      */
@@ -1226,6 +1290,13 @@ public abstract class EyesBase implements IEyesBase {
         return new Configuration(getConfigurationInstance());
     }
 
+    /**
+     * @return Immutable snapshot of the configuration, shared until the configuration changes
+     */
+    public Configuration getConfigurationSnapshot() {
+        return getConfigurationInstance().getSnapshot();
+    }
+
     public void closeAsync() {
         close(false);
     }
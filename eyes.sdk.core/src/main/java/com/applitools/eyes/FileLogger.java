@@ -6,7 +6,7 @@ package com.applitools.eyes;
 import com.applitools.eyes.logging.ClientEvent;
 import com.applitools.eyes.logging.TraceLevel;
 import com.applitools.utils.ArgumentGuard;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.applitools.utils.JsonWriters;
 
 import java.io.BufferedWriter;
 import java.io.File;
@@ -78,7 +78,7 @@ public class FileLogger extends LogHandler {
         if (fileWriter != null) {
             try {
                 synchronized (fileWriter) {
-                    fileWriter.write(new ObjectMapper().writeValueAsString(clientEvent));
+                    fileWriter.write(JsonWriters.getWriter().writeValueAsString(clientEvent));
                     fileWriter.newLine();
                     fileWriter.flush();
                 }
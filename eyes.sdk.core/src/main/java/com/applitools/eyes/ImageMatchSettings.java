@@ -1,6 +1,7 @@
 package com.applitools.eyes;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSetter;
 
 /**
@@ -21,6 +22,9 @@ public class ImageMatchSettings {
     private AccessibilityRegionByRectangle[] accessibility = new AccessibilityRegionByRectangle[0];
     private AccessibilitySettings accessibilitySettings;
 
+    // Bumped by every setter, so the owner of the settings knows when they were changed in place
+    private int modificationCount = 0;
+
     public ImageMatchSettings(MatchLevel matchLevel, ExactMatchSettings exact, boolean useDom) {
         this.matchLevel = matchLevel;
         this.exact = exact;
@@ -70,6 +74,7 @@ public class ImageMatchSettings {
      * @param matchLevel The "strictness" level of the match.
      */
     public void setMatchLevel(MatchLevel matchLevel) {
+        modificationCount++;
         this.matchLevel = matchLevel;
     }
 
@@ -86,6 +91,8 @@ public class ImageMatchSettings {
      * @param exact The parameters for the "exact" match settings.
      */
     public void setExact(ExactMatchSettings exact) {
+        // Keeps the total count growing when the exact settings are replaced by ones which were changed less
+        modificationCount = getModificationCount() + 1 - getModificationCount(exact);
         this.exact = exact;
     }
 
@@ -102,6 +109,7 @@ public class ImageMatchSettings {
     }
 
     public void setUseDom(boolean useDom) {
+        modificationCount++;
         this.useDom = useDom;
     }
 
@@ -111,6 +119,7 @@ public class ImageMatchSettings {
      */
     @JsonSetter("Ignore")
     public void setIgnoreRegions(Region[] ignoreRegions) {
+        modificationCount++;
         this.ignoreRegions = ignoreRegions;
     }
 
@@ -120,6 +129,7 @@ public class ImageMatchSettings {
      */
     @JsonSetter("Layout")
     public void setLayoutRegions(Region[] layoutRegions) {
+        modificationCount++;
         this.layoutRegions = layoutRegions;
     }
 
@@ -129,6 +139,7 @@ public class ImageMatchSettings {
      */
     @JsonSetter("Strict")
     public void setStrictRegions(Region[] strictRegions) {
+        modificationCount++;
         this.strictRegions = strictRegions;
     }
 
@@ -139,6 +150,7 @@ public class ImageMatchSettings {
 
     @JsonSetter("Content")
     public void setContentRegions(Region[] contentRegions) {
+        modificationCount++;
         this.contentRegions = contentRegions;
     }
 
@@ -186,6 +198,7 @@ public class ImageMatchSettings {
      */
     @JsonSetter("Floating")
     public void setFloatingRegions(FloatingMatchSettings[] floatingRegions) {
+        modificationCount++;
         this.floatingMatchSettings = floatingRegions;
     }
 
@@ -202,6 +215,7 @@ public class ImageMatchSettings {
      * @param ignoreCaret The parameters for the "ignoreCaret" match settings.
      */
     public void setIgnoreCaret(Boolean ignoreCaret) {
+        modificationCount++;
         this.ignoreCaret = ignoreCaret;
     }
 
@@ -216,10 +230,12 @@ public class ImageMatchSettings {
     }
 
     public void setEnablePatterns(boolean enablePatterns) {
+        modificationCount++;
         this.enablePatterns = enablePatterns;
     }
 
     public void setIgnoreDisplacements(boolean ignoreDisplacements) {
+        modificationCount++;
         this.ignoreDisplacements = ignoreDisplacements;
     }
 
@@ -228,6 +244,7 @@ public class ImageMatchSettings {
     }
 
     public void setAccessibility(AccessibilityRegionByRectangle[] accessibilityValidation) {
+        modificationCount++;
         this.accessibility = accessibilityValidation;
     }
 
@@ -236,10 +253,24 @@ public class ImageMatchSettings {
     }
 
     public void setAccessibilitySettings(AccessibilitySettings accessibilitySettings) {
+        modificationCount++;
         this.accessibilitySettings = accessibilitySettings;
     }
 
     public AccessibilityRegionByRectangle[] getAccessibility() {
         return accessibility;
     }
+
+    /**
+     * @return The number of times the settings were changed by their setters, including the changes of the exact
+     * settings.
+     */
+    @JsonIgnore
+    public int getModificationCount() {
+        return modificationCount + getModificationCount(exact);
+    }
+
+    private static int getModificationCount(ExactMatchSettings exact) {
+        return exact == null ? 0 : exact.getModificationCount();
+    }
 }
@@ -11,18 +11,22 @@ import com.applitools.eyes.visualgrid.model.MutableRegion;
 import com.applitools.eyes.visualgrid.model.VisualGridSelector;
 import com.applitools.utils.ArgumentGuard;
 import com.applitools.utils.GeneralUtils;
+import com.applitools.utils.ImageUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public class MatchWindowTask {
 
     private static final int MATCH_INTERVAL = 500; // Milliseconds
+    private static final int MIN_MATCH_INTERVAL = 100; // Milliseconds
     private EyesScreenshot lastScreenshot = null;
-    private String lastScreenshotHash;
+    private Long lastScreenshotFingerprint;
+    private long lastCaptureDuration = 0;
     private final int defaultRetryTimeout;
 
     protected Logger logger;
@@ -58,9 +62,10 @@ public class MatchWindowTask {
 
     public static void collectRegions(EyesBase eyes, EyesScreenshot screenshot,
                                       ICheckSettingsInternal checkSettingsInternal, ImageMatchSettings imageMatchSettings) {
-        collectSimpleRegions(eyes, checkSettingsInternal, imageMatchSettings, screenshot);
-        collectFloatingRegions(checkSettingsInternal, imageMatchSettings, screenshot);
-        collectAccessibilityRegions(checkSettingsInternal, imageMatchSettings, screenshot);
+        Map<IGetRegions<?>, List<Region>> resolvedRegions = eyes.resolveRegions(checkSettingsInternal);
+        collectSimpleRegions(eyes, checkSettingsInternal, imageMatchSettings, screenshot, resolvedRegions);
+        collectFloatingRegions(checkSettingsInternal, imageMatchSettings, screenshot, resolvedRegions);
+        collectAccessibilityRegions(checkSettingsInternal, imageMatchSettings, screenshot, resolvedRegions);
     }
 
     public static void collectRegions(ImageMatchSettings imageMatchSettings, ICheckSettingsInternal checkSettingsInternal) {
@@ -211,11 +216,12 @@ public class MatchWindowTask {
 
     private static void collectFloatingRegions(ICheckSettingsInternal checkSettingsInternal,
                                                ImageMatchSettings imageMatchSettings,
-                                               EyesScreenshot screenshot) {
+                                               EyesScreenshot screenshot,
+                                               Map<IGetRegions<?>, List<Region>> resolvedRegions) {
         List<FloatingMatchSettings> floatingRegions = new ArrayList<>();
         for (GetFloatingRegion floatingRegion : checkSettingsInternal.getFloatingRegions()) {
-            List<FloatingMatchSettings> regions = floatingRegion.getRegions(screenshot);
-            floatingRegions.addAll(regions);
+            List<FloatingMatchSettings> regions = getResolvedRegions(floatingRegion, screenshot, resolvedRegions);
+            floatingRegions.addAll(regions != null ? regions : floatingRegion.getRegions(screenshot));
         }
         imageMatchSettings.setFloatingRegions(floatingRegions.toArray(new FloatingMatchSettings[0]));
 
@@ -249,19 +255,22 @@ public class MatchWindowTask {
     private static void collectSimpleRegions(EyesBase eyes,
                                              ICheckSettingsInternal checkSettingsInternal,
                                              ImageMatchSettings imageMatchSettings,
-                                             EyesScreenshot screenshot) {
-        imageMatchSettings.setIgnoreRegions(collectSimpleRegions(eyes, checkSettingsInternal.getIgnoreRegions(), screenshot));
-        imageMatchSettings.setLayoutRegions(collectSimpleRegions(eyes, checkSettingsInternal.getLayoutRegions(), screenshot));
-        imageMatchSettings.setStrictRegions(collectSimpleRegions(eyes, checkSettingsInternal.getStrictRegions(), screenshot));
-        imageMatchSettings.setContentRegions(collectSimpleRegions(eyes, checkSettingsInternal.getContentRegions(), screenshot));
+                                             EyesScreenshot screenshot,
+                                             Map<IGetRegions<?>, List<Region>> resolvedRegions) {
+        imageMatchSettings.setIgnoreRegions(collectSimpleRegions(eyes, checkSettingsInternal.getIgnoreRegions(), screenshot, resolvedRegions));
+        imageMatchSettings.setLayoutRegions(collectSimpleRegions(eyes, checkSettingsInternal.getLayoutRegions(), screenshot, resolvedRegions));
+        imageMatchSettings.setStrictRegions(collectSimpleRegions(eyes, checkSettingsInternal.getStrictRegions(), screenshot, resolvedRegions));
+        imageMatchSettings.setContentRegions(collectSimpleRegions(eyes, checkSettingsInternal.getContentRegions(), screenshot, resolvedRegions));
     }
 
-    private static Region[] collectSimpleRegions(EyesBase eyes, GetSimpleRegion[] regionProviders, EyesScreenshot screenshot) {
+    private static Region[] collectSimpleRegions(EyesBase eyes, GetSimpleRegion[] regionProviders, EyesScreenshot screenshot,
+                                                 Map<IGetRegions<?>, List<Region>> resolvedRegions) {
 
         List<Region> regions = new ArrayList<>();
         for (GetSimpleRegion regionProvider : regionProviders) {
             try {
-                regions.addAll(regionProvider.getRegions(screenshot));
+                List<Region> providerRegions = getResolvedRegions(regionProvider, screenshot, resolvedRegions);
+                regions.addAll(providerRegions != null ? providerRegions : regionProvider.getRegions(screenshot));
             } catch (OutOfBoundsException ex) {
                 GeneralUtils.logExceptionStackTrace(eyes.getLogger(), Stage.CHECK, ex, eyes.getTestId());
             }
@@ -277,13 +286,11 @@ public class MatchWindowTask {
      */
     public static ImageMatchSettings createImageMatchSettings(ICheckSettingsInternal checkSettingsInternal, EyesScreenshot screenshot, EyesBase eyesBase) {
         eyesBase.getLogger().log(TraceLevel.Info, eyesBase.getTestId(), Stage.CHECK,
-                Pair.of("configuration", eyesBase.getConfiguration()),
+                Pair.of("configuration", eyesBase.getConfigurationSnapshot()),
                 Pair.of("checkSettings", checkSettingsInternal));
         ImageMatchSettings imageMatchSettings = createImageMatchSettings(checkSettingsInternal, eyesBase);
         if (imageMatchSettings != null) {
-            collectSimpleRegions(eyesBase, checkSettingsInternal, imageMatchSettings, screenshot);
-            collectFloatingRegions(checkSettingsInternal, imageMatchSettings, screenshot);
-            collectAccessibilityRegions(checkSettingsInternal, imageMatchSettings, screenshot);
+            collectRegions(eyesBase, screenshot, checkSettingsInternal, imageMatchSettings);
         }
 
         return imageMatchSettings;
@@ -318,7 +325,8 @@ public class MatchWindowTask {
                                           ImageMatchSettings imageMatchSettings,
                                           int retryTimeout, String source) {
         EyesScreenshot screenshot;
-        lastScreenshotHash = null;
+        lastScreenshotFingerprint = null;
+        lastCaptureDuration = 0;
 
         // If the wait to load time is 0, or "run once" is true,
         // we perform a single check window.
@@ -347,8 +355,9 @@ public class MatchWindowTask {
         // The match retry loop.
         while (retry < retryTimeout) {
 
-            // Wait before trying again.
-            GeneralUtils.sleep(MATCH_INTERVAL);
+            // Wait before trying again. The time the capture takes is a part of the interval.
+            long interval = Math.max(MIN_MATCH_INTERVAL, MATCH_INTERVAL - lastCaptureDuration);
+            GeneralUtils.sleep(Math.min(interval, retryTimeout - retry));
 
             screenshot = tryTakeScreenshot(userInputs, region, tag, checkSettingsInternal, imageMatchSettings, source);
 
@@ -369,18 +378,22 @@ public class MatchWindowTask {
     private EyesScreenshot tryTakeScreenshot(Trigger[] userInputs, Region region, String tag,
                                              ICheckSettingsInternal checkSettingsInternal,
                                              ImageMatchSettings imageMatchSettings, String source) {
+        long captureStart = System.currentTimeMillis();
         AppOutput appOutput = appOutputProvider.getAppOutput(region, checkSettingsInternal, imageMatchSettings);
+        lastCaptureDuration = System.currentTimeMillis() - captureStart;
         EyesScreenshot screenshot = appOutput.getScreenshot();
-        String currentScreenshotHash = GeneralUtils.getSha256hash(appOutput.getScreenshotBytes());
-        if (currentScreenshotHash.equals(lastScreenshotHash)) {
+
+        // Identical retry screenshots are detected by their pixels, so they are never encoded
+        long currentScreenshotFingerprint = ImageUtils.getImageFingerprint(screenshot.getImage());
+        if (lastScreenshotFingerprint != null && currentScreenshotFingerprint == lastScreenshotFingerprint) {
             return screenshot;
         }
 
         ImageMatchSettings matchSettings = createImageMatchSettings(checkSettingsInternal, screenshot, eyes);
-        MatchWindowData data = eyes.prepareForMatch(checkSettingsInternal, Arrays.asList(userInputs), appOutput, tag, lastScreenshotHash != null,
+        MatchWindowData data = eyes.prepareForMatch(checkSettingsInternal, Arrays.asList(userInputs), appOutput, tag, lastScreenshotFingerprint != null,
                 matchSettings, null, source);
         matchResult = eyes.performMatch(data);
-        lastScreenshotHash = currentScreenshotHash;
+        lastScreenshotFingerprint = currentScreenshotFingerprint;
         return screenshot;
     }
 
@@ -396,12 +409,29 @@ public class MatchWindowTask {
 
     private static void collectAccessibilityRegions(ICheckSettingsInternal checkSettingsInternal,
                                                     ImageMatchSettings imageMatchSettings,
-                                                    EyesScreenshot screenshot) {
+                                                    EyesScreenshot screenshot,
+                                                    Map<IGetRegions<?>, List<Region>> resolvedRegions) {
         List<AccessibilityRegionByRectangle> accessibilityRegions = new ArrayList<>();
         for (GetAccessibilityRegion regionProvider : checkSettingsInternal.getAccessibilityRegions()) {
-            accessibilityRegions.addAll(regionProvider.getRegions(screenshot));
+            List<AccessibilityRegionByRectangle> regions = getResolvedRegions(regionProvider, screenshot, resolvedRegions);
+            accessibilityRegions.addAll(regions != null ? regions : regionProvider.getRegions(screenshot));
         }
         imageMatchSettings.setAccessibility(accessibilityRegions.toArray(new AccessibilityRegionByRectangle[0]));
 
     }
+
+    /**
+     * @return The regions of the provider from the regions of its elements which were resolved for the check, or
+     * null if they weren't resolved.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> getResolvedRegions(GetRegion regionProvider, EyesScreenshot screenshot,
+                                                  Map<IGetRegions<?>, List<Region>> resolvedRegions) {
+        List<Region> elementsRegions = resolvedRegions.get(regionProvider);
+        if (elementsRegions == null) {
+            return null;
+        }
+
+        return ((IGetRegions<T>) regionProvider).getRegions(screenshot, elementsRegions);
+    }
 }
\ No newline at end of file
@@ -13,19 +13,52 @@ import org.apache.http.HttpStatus;
 import java.util.Calendar;
 import java.util.Objects;
 import java.util.TimeZone;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Sends log events to the server in batches. Logging only queues the event, and the batches are sent by a
+ * background thread when enough events were queued or when the oldest queued event waited long enough.
+ * Each handler sends a single batch at a time, and the next batch is sent when the server responds.
+ * When the server can't keep up, low level events are sampled and then dropped, so logging never blocks.
+ */
 public class NetworkLogHandler extends LogHandler {
 
     private static final int MAX_EVENTS_SIZE = 100;
+    private static final int MAX_QUEUED_EVENTS = 10 * MAX_EVENTS_SIZE;
+    private static final long FLUSH_INTERVAL_MS = 1000;
+    private static final long SEND_TIMEOUT_MS = 30 * 1000;
+
+    // When the queue is half full, only one of every SAMPLING_RATE events below the warning level is kept
+    private static final int SAMPLING_RATE = 4;
+
+    // Shared by all the handlers. It never waits for the server, so a slow server doesn't delay other handlers.
+    private static final ScheduledExecutorService SHIPPER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "NetworkLogShipper");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
 
     private final ServerConnector serverConnector;
-    final LogSessionsClientEvents clientEvents;
+    final BlockingQueue<ClientEvent> clientEvents = new ArrayBlockingQueue<>(MAX_QUEUED_EVENTS);
+    private final AtomicBoolean isFlushScheduled = new AtomicBoolean();
+    private final AtomicBoolean isImmediateFlushScheduled = new AtomicBoolean();
+    private final AtomicReference<LogSessionsClientEvents> batchInFlight = new AtomicReference<>();
+    private final AtomicLongArray droppedEvents = new AtomicLongArray(TraceLevel.values().length);
+    private final AtomicLongArray sampledEvents = new AtomicLongArray(TraceLevel.values().length);
+
+    // Notified when a batch is done, for close() to wait for the last batches
+    private final Object batchDoneLock = new Object();
 
     protected NetworkLogHandler(ServerConnector serverConnector) {
         super(TraceLevel.Notice);
         ArgumentGuard.notNull(serverConnector, "serverConnector");
         this.serverConnector = serverConnector;
-        this.clientEvents = new LogSessionsClientEvents();
     }
 
     @Override
@@ -33,17 +66,38 @@ public class NetworkLogHandler extends LogHandler {
 
     @Override
     public void onMessageInner(ClientEvent event) {
-        synchronized (clientEvents) {
-            clientEvents.addEvent(event);
-            if (clientEvents.size() >= MAX_EVENTS_SIZE) {
-                sendLogs();
-            }
+        if (!isAccepted(event) || !enqueue(event)) {
+            droppedEvents.incrementAndGet(event.getLevel().ordinal());
+            return;
+        }
+
+        // A full batch is sent right away, otherwise the events wait for the next interval
+        if (clientEvents.size() >= MAX_EVENTS_SIZE) {
+            scheduleFlush(0, isImmediateFlushScheduled);
+        } else {
+            scheduleFlush(FLUSH_INTERVAL_MS, isFlushScheduled);
         }
     }
 
+    /**
+     * Sends all the queued events, and waits for the server up to the send timeout of each batch.
+     */
     @Override
     public void close() {
-        sendLogs();
+        synchronized (batchDoneLock) {
+            while (!clientEvents.isEmpty() || batchInFlight.get() != null) {
+                sendNextBatch();
+                try {
+                    // A batch is done when the server responds or when its send timeout passes
+                    if (batchInFlight.get() != null) {
+                        batchDoneLock.wait(FLUSH_INTERVAL_MS);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
     }
 
     @Override
@@ -51,31 +105,156 @@ public class NetworkLogHandler extends LogHandler {
         return false;
     }
 
-    private void sendLogs() {
-        synchronized (clientEvents) {
-            if (clientEvents.size() == 0) {
-                return;
-            }
+    /**
+     * @return The number of events which weren't sent because the queue was full, because they were sampled, or
+     * because their batch failed.
+     */
+    public long getDroppedEventsCount() {
+        long count = 0;
+        for (TraceLevel level : TraceLevel.values()) {
+            count += getDroppedEventsCount(level);
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of events of the given level which weren't sent because the queue was full, because they
+     * were sampled, or because their batch failed.
+     */
+    public long getDroppedEventsCount(TraceLevel level) {
+        ArgumentGuard.notNull(level, "level");
+        return droppedEvents.get(level.ordinal());
+    }
+
+    private boolean isAccepted(ClientEvent event) {
+        if (event.getLevel().isHigherThan(TraceLevel.Warn) || clientEvents.size() < MAX_QUEUED_EVENTS / 2) {
+            return true;
+        }
+
+        return sampledEvents.incrementAndGet(event.getLevel().ordinal()) % SAMPLING_RATE == 0;
+    }
+
+    /**
+     * Queues the event. When the queue is full, warnings and errors take the place of the oldest events.
+     */
+    private boolean enqueue(ClientEvent event) {
+        if (clientEvents.offer(event)) {
+            return true;
+        }
+
+        if (!event.getLevel().isHigherThan(TraceLevel.Warn)) {
+            return false;
+        }
+
+        ClientEvent oldestEvent = clientEvents.poll();
+        if (oldestEvent != null) {
+            droppedEvents.incrementAndGet(oldestEvent.getLevel().ordinal());
+        }
+        return clientEvents.offer(event);
+    }
 
-            final SyncTaskListener<Void> listener = new SyncTaskListener<>(null, "sendLogs");
+    /**
+     * Schedules sending the next batch, unless it was already scheduled.
+     * @param isScheduled Whether a flush with the same delay is already scheduled.
+     */
+    private void scheduleFlush(long delay, final AtomicBoolean isScheduled) {
+        if (!isScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            SHIPPER.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    isScheduled.set(false);
+                    sendNextBatch();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            isScheduled.set(false);
+        }
+    }
+
+    /**
+     * Sends the next batch of queued events without waiting for the server, unless a batch is already being sent.
+     */
+    private void sendNextBatch() {
+        final LogSessionsClientEvents batch = new LogSessionsClientEvents();
+        if (!batchInFlight.compareAndSet(null, batch)) {
+            return;
+        }
+
+        ClientEvent event;
+        while (batch.size() < MAX_EVENTS_SIZE && (event = clientEvents.poll()) != null) {
+            batch.addEvent(event);
+        }
+
+        if (batch.size() == 0) {
+            onBatchDone(batch, true);
+            return;
+        }
+
+        try {
             serverConnector.sendLogs(new AsyncRequestCallback() {
                 @Override
                 public void onComplete(Response response) {
-                    if (response.getStatusCode() != HttpStatus.SC_OK) {
+                    boolean isSent = response.getStatusCode() == HttpStatus.SC_OK;
+                    if (!isSent) {
                         System.out.printf("Failed sending logs. Status code %d%n", response.getStatusCode());
                     }
-                    listener.onComplete(null);
+                    onBatchDone(batch, isSent);
                 }
 
                 @Override
                 public void onFail(Throwable throwable) {
                     System.out.printf("Failed sending logs: %s%n", throwable);
-                    listener.onComplete(null);
+                    onBatchDone(batch, false);
                 }
-            }, clientEvents);
+            }, batch);
+        } catch (Throwable t) {
+            System.out.printf("Failed sending logs: %s%n", t);
+            onBatchDone(batch, false);
+            return;
+        }
+
+        // The next batch doesn't wait for a server which doesn't respond
+        try {
+            SHIPPER.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (batchInFlight.get() == batch) {
+                        System.out.printf("Failed sending logs: no response after %d ms%n", SEND_TIMEOUT_MS);
+                        onBatchDone(batch, false);
+                    }
+                }
+            }, SEND_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            onBatchDone(batch, true);
+        }
+    }
+
+    /**
+     * Lets the next batch be sent. Only the first call for a batch counts, so a batch which timed out and then
+     * failed is counted as dropped once.
+     * @param isSent Whether the server accepted the batch. Otherwise, its events are counted as dropped.
+     */
+    private void onBatchDone(LogSessionsClientEvents batch, boolean isSent) {
+        if (!batchInFlight.compareAndSet(batch, null)) {
+            return;
+        }
+
+        if (!isSent) {
+            for (ClientEvent droppedEvent : batch.getEvents()) {
+                droppedEvents.incrementAndGet(droppedEvent.getLevel().ordinal());
+            }
+        }
+
+        synchronized (batchDoneLock) {
+            batchDoneLock.notifyAll();
+        }
 
-           listener.get();
-           clientEvents.clear();
+        if (!clientEvents.isEmpty()) {
+            scheduleFlush(0, isImmediateFlushScheduled);
         }
     }
 
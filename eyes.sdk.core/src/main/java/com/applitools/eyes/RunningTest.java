@@ -13,12 +13,20 @@ import com.applitools.utils.GeneralUtils;
 import java.util.List;
 
 public abstract class RunningTest extends EyesBase implements IBatchCloser {
+    /**
+     * Notified when something that can make the test ready to close has changed.
+     */
+    public interface CloseReadinessListener {
+        void onCloseReadinessChanged(RunningTest runningTest);
+    }
+
     protected final RenderBrowserInfo browserInfo;
     protected Throwable error = null;
 
     private Boolean isAbortIssued = null;
     private boolean inOpenProcess = false;
     private boolean startedCloseProcess = false;
+    private CloseReadinessListener closeReadinessListener = null;
 
     protected RunningTest(ClassicRunner runner) {
         super(runner);
@@ -30,6 +38,16 @@ public abstract class RunningTest extends EyesBase implements IBatchCloser {
         this.logger = logger;
     }
 
+    public void setCloseReadinessListener(CloseReadinessListener closeReadinessListener) {
+        this.closeReadinessListener = closeReadinessListener;
+    }
+
+    protected void notifyCloseReadinessChanged() {
+        if (closeReadinessListener != null) {
+            closeReadinessListener.onCloseReadinessChanged(this);
+        }
+    }
+
     public boolean isCloseTaskIssued() {
         return isAbortIssued != null;
     }
@@ -48,11 +66,13 @@ public abstract class RunningTest extends EyesBase implements IBatchCloser {
     public void openCompleted(RunningSession result) {
         inOpenProcess = false;
         super.openCompleted(result);
+        notifyCloseReadinessChanged();
     }
 
     public void openFailed(Throwable e) {
         inOpenProcess = false;
         setTestInExceptionMode(e);
+        notifyCloseReadinessChanged();
     }
 
     public abstract MatchWindowData prepareForMatch(CheckTask checkTask);
@@ -67,6 +87,7 @@ public abstract class RunningTest extends EyesBase implements IBatchCloser {
         }
 
         isAbortIssued = false;
+        notifyCloseReadinessChanged();
     }
 
     public void issueAbort(Throwable error, boolean forceAbort) {
@@ -78,6 +99,7 @@ public abstract class RunningTest extends EyesBase implements IBatchCloser {
         if (this.error == null) {
             this.error = error;
         }
+        notifyCloseReadinessChanged();
     }
 
     public void closeCompleted(TestResults testResults) {
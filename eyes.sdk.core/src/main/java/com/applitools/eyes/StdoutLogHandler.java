@@ -2,8 +2,8 @@ package com.applitools.eyes;
 
 import com.applitools.eyes.logging.ClientEvent;
 import com.applitools.eyes.logging.TraceLevel;
+import com.applitools.utils.JsonWriters;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Writes log messages to the standard output stream.
@@ -38,7 +38,7 @@ public class StdoutLogHandler extends LogHandler {
     @Override
     public void onMessageInner(ClientEvent event) {
         try {
-            System.out.println(new ObjectMapper().writeValueAsString(event));
+            System.out.println(JsonWriters.getWriter().writeValueAsString(event));
         } catch (JsonProcessingException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,12 @@
+package com.applitools.eyes.capture;
+
+/**
+ * An image provider which can return the image before it is decoded, so the decoding can be done on another thread.
+ * The decoded image must be the same image returned by {@link #getImage()}.
+ */
+public interface EncodedImageProvider extends ImageProvider {
+    /**
+     * @return The image encoded as base64, or null if the image is only returned decoded by {@link #getImage()}.
+     */
+    String getBase64Image();
+}
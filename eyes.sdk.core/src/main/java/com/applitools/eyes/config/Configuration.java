@@ -65,14 +65,23 @@ public class Configuration implements IConfiguration {
     //Rendering Configuration
     private Boolean isRenderingConfig = false;
 
-    private List<RenderBrowserInfo> browsersInfo = new ArrayList<>();
+    private List<RenderBrowserInfo> browsersInfo = new TrackedList<>(null);
 
     private Set<Feature> features = new HashSet<>();
 
-    private List<VisualGridOption> visualGridOptions = new ArrayList<>();
+    private List<VisualGridOption> visualGridOptions = new TrackedList<>(null);
 
     private boolean isDefaultLayoutBreakpointsSet = false;
-    private List<Integer> layoutBreakpoints = new ArrayList<>();
+    private List<Integer> layoutBreakpoints = new TrackedList<>(null);
+
+    // Bumped by every setter and by changes to the lists, so the snapshot is rebuilt only after the configuration
+    // changed
+    private volatile int version = 0;
+    private boolean isSnapshot = false;
+    private volatile Configuration snapshot = null;
+    // The modification count of the values changed in place when the snapshot was taken, the default match settings
+    // and the browsers
+    private int nestedModificationCount = 0;
 
     public Configuration(Configuration other) {
         this.branchName = other.getBranchName();
@@ -82,7 +91,7 @@ public class Configuration implements IConfiguration {
         this.environmentName = other.getEnvironmentName();
         this.saveDiffs = other.getSaveDiffs();
         this.sessionType = other.getSessionType();
-        this.batch = other.getBatch();
+        this.batch = other.batch;
         this.baselineEnvName = other.getBaselineEnvName();
         this.appName = other.getAppName();
         this.testName = other.getTestName();
@@ -123,12 +132,12 @@ public class Configuration implements IConfiguration {
         this.defaultMatchSettings = new ImageMatchSettings(other.getDefaultMatchSettings());
         this.isVisualGrid = other.isVisualGrid();
         this.features = new HashSet<>(other.getFeatures());
-        this.visualGridOptions = other.getVisualGridOptions();
+        this.visualGridOptions.addAll(other.getVisualGridOptions());
         this.disableBrowserFetching = other.isDisableBrowserFetching();
         this.useCookies = other.isUseCookies();
         this.debugResourceWriter = other.getDebugResourceWriter();
         this.isDefaultLayoutBreakpointsSet = other.isDefaultLayoutBreakpointsSet();
-        this.layoutBreakpoints = other.getLayoutBreakpoints();
+        this.layoutBreakpoints.addAll(other.getLayoutBreakpoints());
     }
 
     public Configuration() {
@@ -139,11 +148,53 @@ public class Configuration implements IConfiguration {
 
     }
 
+    /**
+     * Returns an immutable copy of the configuration, which is shared by all readers until the configuration changes.
+     * Use it instead of copying the configuration when it is only read. The lists of a snapshot are unmodifiable, and
+     * its match settings and batch are returned as copies.
+     * @return The snapshot of the current configuration.
+     */
+    @JsonIgnore
+    public Configuration getSnapshot() {
+        if (isSnapshot) {
+            return this;
+        }
+
+        Configuration current = snapshot;
+        int nestedModificationCount = getNestedModificationCount();
+        if (current == null || current.version != version
+                || current.nestedModificationCount != nestedModificationCount) {
+            current = new Configuration(this);
+            current.version = version;
+            current.nestedModificationCount = nestedModificationCount;
+            current.isSnapshot = true;
+            snapshot = current;
+        }
+        return current;
+    }
+
+    private int getNestedModificationCount() {
+        int count = defaultMatchSettings == null ? 0 : defaultMatchSettings.getModificationCount();
+        if (browsersInfo != null) {
+            for (RenderBrowserInfo browser : browsersInfo) {
+                if (browser != null) {
+                    count += browser.getModificationCount();
+                }
+            }
+        }
+        return count;
+    }
+
+    private void modify() {
+        if (isSnapshot) {
+            throw new UnsupportedOperationException("A configuration snapshot can't be modified");
+        }
+        version++;
+    }
+
     public Configuration(RectangleSize viewportSize) {
         this();
-        ArrayList<RenderBrowserInfo> browsersInfo = new ArrayList<>();
-        browsersInfo.add(new RenderBrowserInfo(viewportSize.getWidth(), viewportSize.getHeight(), BrowserType.CHROME, null));
-        this.browsersInfo = browsersInfo;
+        this.browsersInfo.add(new RenderBrowserInfo(viewportSize.getWidth(), viewportSize.getHeight(), BrowserType.CHROME, null));
     }
 
     public Configuration(String testName) {
@@ -152,11 +203,9 @@ public class Configuration implements IConfiguration {
 
     public Configuration(String appName, String testName, RectangleSize viewportSize) {
         this();
-        ArrayList<RenderBrowserInfo> browsersInfo = new ArrayList<>();
         if (viewportSize != null) {
-            browsersInfo.add(new RenderBrowserInfo(viewportSize.getWidth(), viewportSize.getHeight(), BrowserType.CHROME, null));
+            this.browsersInfo.add(new RenderBrowserInfo(viewportSize.getWidth(), viewportSize.getHeight(), BrowserType.CHROME, null));
         }
-        this.browsersInfo = browsersInfo;
         this.testName = testName;
         this.viewportSize = viewportSize;
         this.setAppName(appName);
@@ -169,6 +218,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setSaveNewTests(boolean saveNewTests) {
+        modify();
         this.saveNewTests = saveNewTests;
         return this;
     }
@@ -180,17 +230,22 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setSaveFailedTests(boolean saveFailedTests) {
+        modify();
         this.saveFailedTests = saveFailedTests;
         return this;
     }
 
     @Override
     public ImageMatchSettings getDefaultMatchSettings() {
+        if (isSnapshot) {
+            return new ImageMatchSettings(defaultMatchSettings);
+        }
         return defaultMatchSettings;
     }
 
     @Override
     public Configuration setDefaultMatchSettings(ImageMatchSettings defaultMatchSettings) {
+        modify();
         this.defaultMatchSettings = defaultMatchSettings;
         return this;
     }
@@ -202,6 +257,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setMatchTimeout(int matchTimeout) {
+        modify();
         this.matchTimeout = matchTimeout;
         return this;
     }
@@ -213,6 +269,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setHostApp(String hostApp) {
+        modify();
         this.hostApp = hostApp;
         return this;
     }
@@ -224,6 +281,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setHostOS(String hostOS) {
+        modify();
         this.hostOS = hostOS;
         return this;
     }
@@ -235,23 +293,29 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setStitchOverlap(int stitchOverlap) {
+        modify();
         this.stitchOverlap = stitchOverlap;
         return this;
     }
 
     @Override
     public Configuration setBatch(BatchInfo batch) {
+        modify();
         this.batch = batch;
         return this;
     }
 
     @Override
     public BatchInfo getBatch() {
+        if (isSnapshot && batch != null) {
+            return batch.copy();
+        }
         return batch;
     }
 
     @Override
     public Configuration setBranchName(String branchName) {
+        modify();
         this.branchName = branchName;
         return this;
     }
@@ -268,6 +332,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setAgentId(String agentId) {
+        modify();
         this.agentId = agentId;
         return this;
     }
@@ -279,6 +344,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setParentBranchName(String parentBranchName) {
+        modify();
         this.parentBranchName = parentBranchName;
         return this;
     }
@@ -290,6 +356,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setBaselineBranchName(String baselineBranchName) {
+        modify();
         this.baselineBranchName = baselineBranchName;
         return this;
     }
@@ -301,6 +368,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setBaselineEnvName(String baselineEnvName) {
+        modify();
         this.baselineEnvName = baselineEnvName;
         return this;
     }
@@ -312,6 +380,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setEnvironmentName(String environmentName) {
+        modify();
         this.environmentName = environmentName;
         return this;
     }
@@ -323,6 +392,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setSaveDiffs(Boolean saveDiffs) {
+        modify();
         this.saveDiffs = saveDiffs;
         return this;
     }
@@ -334,6 +404,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setAppName(String appName) {
+        modify();
         this.appName = appName;
         return this;
     }
@@ -345,6 +416,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setTestName(String testName) {
+        modify();
         this.testName = testName;
         return this;
     }
@@ -360,6 +432,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setViewportSize(RectangleSize viewportSize) {
+        modify();
         this.viewportSize = viewportSize;
         return this;
     }
@@ -371,6 +444,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setSessionType(SessionType sessionType) {
+        modify();
         this.sessionType = sessionType;
         return this;
     }
@@ -380,6 +454,7 @@ public class Configuration implements IConfiguration {
      */
     @Override
     public Configuration setFailureReports(FailureReports failureReports) {
+        modify();
         this.failureReports = failureReports;
         return this;
     }
@@ -419,6 +494,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setSendDom(boolean sendDom) {
+        modify();
         isSendDom = sendDom;
         return this;
     }
@@ -438,6 +514,7 @@ public class Configuration implements IConfiguration {
      */
     @Override
     public Configuration setIgnoreCaret(boolean value) {
+        modify();
         defaultMatchSettings.setIgnoreCaret(value);
         return this;
     }
@@ -449,6 +526,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setApiKey(String apiKey) {
+        modify();
         this.apiKey = apiKey;
         return this;
     }
@@ -463,6 +541,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setServerUrl(String serverUrl) {
+        modify();
         this.serverUrl = serverUrl;
         return this;
     }
@@ -474,6 +553,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setProxy(AbstractProxySettings proxy) {
+        modify();
         this.proxy = proxy;
         return this;
     }
@@ -490,12 +570,14 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setMatchLevel(MatchLevel matchLevel) {
+        modify();
         this.defaultMatchSettings.setMatchLevel(matchLevel);
         return this;
     }
 
     @Override
     public Configuration setIgnoreDisplacements(boolean isIgnoreDisplacements) {
+        modify();
         this.defaultMatchSettings.setIgnoreDisplacements(isIgnoreDisplacements);
         this.ignoreDisplacements = isIgnoreDisplacements;
         return this;
@@ -503,11 +585,12 @@ public class Configuration implements IConfiguration {
 
     @Override
     public AccessibilitySettings getAccessibilityValidation() {
-        return this.accessibilitySettings != null ? this.accessibilitySettings : getDefaultMatchSettings().getAccessibilitySettings();
+        return this.accessibilitySettings != null ? this.accessibilitySettings : defaultMatchSettings.getAccessibilitySettings();
     }
 
     @Override
     public Configuration setAccessibilityValidation(AccessibilitySettings accessibilitySettings) {
+        modify();
         if (accessibilitySettings == null) {
             this.defaultMatchSettings.setAccessibilitySettings(null);
             this.accessibilitySettings = null;
@@ -525,6 +608,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setUseDom(boolean useDom) {
+        modify();
         this.defaultMatchSettings.setUseDom(useDom);
         this.useDom = useDom;
         return this;
@@ -537,6 +621,7 @@ public class Configuration implements IConfiguration {
 
     @Override
     public Configuration setEnablePatterns(boolean enablePatterns) {
+        modify();
         this.defaultMatchSettings.setEnablePatterns(enablePatterns);
         this.enablePatterns = enablePatterns;
         return this;
@@ -556,6 +641,7 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setWaitBeforeScreenshots(int waitBeforeScreenshots) {
+        modify();
         if (waitBeforeScreenshots <= 0) {
             this.waitBeforeScreenshots = DEFAULT_WAIT_BEFORE_SCREENSHOTS;
         } else {
@@ -569,6 +655,7 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setStitchMode(StitchMode stitchMode) {
+        modify();
         this.stitchMode = stitchMode;
         return this;
     }
@@ -578,6 +665,7 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setHideScrollbars(boolean hideScrollbars) {
+        modify();
         this.hideScrollbars = hideScrollbars;
         return this;
     }
@@ -587,11 +675,13 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setHideCaret(boolean hideCaret) {
+        modify();
         this.hideCaret = hideCaret;
         return this;
     }
 
     public Configuration addBrowsers(IRenderingBrowserInfo... browserInfos) {
+        modify();
         for (IRenderingBrowserInfo browserInfo : browserInfos) {
             addBrowser(browserInfo);
         }
@@ -609,38 +699,45 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration addBrowser(RenderBrowserInfo renderBrowserInfo) {
+        modify();
         this.browsersInfo.add(renderBrowserInfo);
         return this;
     }
 
     public Configuration addBrowser(DesktopBrowserInfo desktopBrowserInfo) {
+        modify();
         this.browsersInfo.add(desktopBrowserInfo.getRenderBrowserInfo());
         return this;
     }
 
     public Configuration addBrowser(ChromeEmulationInfo chromeEmulationInfo) {
+        modify();
         RenderBrowserInfo renderBrowserInfo = new RenderBrowserInfo(chromeEmulationInfo);
         this.browsersInfo.add(renderBrowserInfo);
         return this;
     }
 
     public Configuration addBrowser(IosDeviceInfo iosDeviceInfo) {
+        modify();
         RenderBrowserInfo renderBrowserInfo = new RenderBrowserInfo(iosDeviceInfo);
         this.browsersInfo.add(renderBrowserInfo);
         return this;
     }
 
     public Configuration addBrowser(int width, int height, BrowserType browserType, String baselineEnvName) {
+        modify();
         RenderBrowserInfo browserInfo = new RenderBrowserInfo(width, height, browserType, baselineEnvName);
         addBrowser(browserInfo);
         return this;
     }
 
     public Configuration addBrowser(int width, int height, BrowserType browserType) {
+        modify();
         return addBrowser(width, height, browserType, baselineEnvName);
     }
 
     public Configuration addDeviceEmulation(DeviceName deviceName, ScreenOrientation orientation) {
+        modify();
         EmulationBaseInfo emulationInfo = new ChromeEmulationInfo(deviceName, orientation);
         RenderBrowserInfo browserInfo = new RenderBrowserInfo(emulationInfo, baselineEnvName);
         this.browsersInfo.add(browserInfo);
@@ -648,6 +745,7 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration addDeviceEmulation(DeviceName deviceName) {
+        modify();
         EmulationBaseInfo emulationInfo = new ChromeEmulationInfo(deviceName, ScreenOrientation.PORTRAIT);
         RenderBrowserInfo browserInfo = new RenderBrowserInfo(emulationInfo, baselineEnvName);
         this.browsersInfo.add(browserInfo);
@@ -655,6 +753,7 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration addDeviceEmulation(DeviceName deviceName, String baselineEnvName) {
+        modify();
         EmulationBaseInfo emulationInfo = new ChromeEmulationInfo(deviceName, ScreenOrientation.PORTRAIT);
         RenderBrowserInfo browserInfo = new RenderBrowserInfo(emulationInfo, baselineEnvName);
         this.browsersInfo.add(browserInfo);
@@ -662,6 +761,7 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration addDeviceEmulation(DeviceName deviceName, ScreenOrientation orientation, String baselineEnvName) {
+        modify();
         EmulationBaseInfo emulationInfo = new ChromeEmulationInfo(deviceName, orientation);
         RenderBrowserInfo browserInfo = new RenderBrowserInfo(emulationInfo, baselineEnvName);
         this.browsersInfo.add(browserInfo);
@@ -681,7 +781,8 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setBrowsersInfo(List<RenderBrowserInfo> browsersInfo) {
-        this.browsersInfo = browsersInfo;
+        modify();
+        this.browsersInfo = browsersInfo == null ? null : new TrackedList<>(browsersInfo);
         return this;
     }
 
@@ -690,6 +791,7 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setForceFullPageScreenshot(boolean forceFullPageScreenshot) {
+        modify();
         this.forceFullPageScreenshot = forceFullPageScreenshot;
         return this;
     }
@@ -699,11 +801,13 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setRenderingConfig(boolean renderingConfig) {
+        modify();
         isRenderingConfig = renderingConfig;
         return this;
     }
 
     public Configuration setIsVisualGrid(boolean isVisualGrid) {
+        modify();
         this.isVisualGrid = isVisualGrid;
         return this;
     }
@@ -717,6 +821,7 @@ public class Configuration implements IConfiguration {
      * Overrides existing features.
      */
     public Configuration setFeatures(Feature feature, Feature... features) {
+        modify();
         this.features.clear();
         this.features.add(feature);
         this.features.addAll(Arrays.asList(features));
@@ -733,6 +838,7 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setVisualGridOptions(VisualGridOption option, VisualGridOption... options) {
+        modify();
         this.visualGridOptions.clear();
         this.visualGridOptions.add(option);
         this.visualGridOptions.addAll(Arrays.asList(options));
@@ -741,6 +847,9 @@ public class Configuration implements IConfiguration {
     }
 
     public List<VisualGridOption> getVisualGridOptions() {
+        if (isSnapshot) {
+            return Collections.unmodifiableList(visualGridOptions);
+        }
         return visualGridOptions;
     }
 
@@ -749,6 +858,7 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setDeviceInfo(String deviceInfo) {
+        modify();
         this.deviceInfo = deviceInfo;
         return this;
     }
@@ -758,6 +868,7 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setHostingAppInfo(String hostingAppInfo) {
+        modify();
         this.hostingAppInfo = hostingAppInfo;
         return this;
     }
@@ -767,6 +878,7 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setOsInfo(String osInfo) {
+        modify();
         this.osInfo = osInfo;
         return this;
     }
@@ -776,6 +888,7 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setDisableBrowserFetching(boolean disableBrowserFetching) {
+        modify();
         this.disableBrowserFetching = disableBrowserFetching;
         return this;
     }
@@ -785,6 +898,7 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setUseCookies(boolean useCookies) {
+        modify();
         this.useCookies = useCookies;
         return this;
     }
@@ -794,6 +908,7 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setDebugResourceWriter(IDebugResourceWriter debugResourceWriter) {
+        modify();
         this.debugResourceWriter = debugResourceWriter;
         return this;
     }
@@ -803,11 +918,13 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setAbortIdleTestTimeout(Integer abortIdleTestTimeout) {
+        modify();
         this.abortIdleTestTimeout = abortIdleTestTimeout;
         return this;
     }
 
     public Configuration setLayoutBreakpoints(boolean shouldSet) {
+        modify();
         this.isDefaultLayoutBreakpointsSet = shouldSet;
         layoutBreakpoints.clear();
         return this;
@@ -818,6 +935,7 @@ public class Configuration implements IConfiguration {
     }
 
     public Configuration setLayoutBreakpoints(int... breakpoints) {
+        modify();
         isDefaultLayoutBreakpointsSet = false;
         layoutBreakpoints.clear();
         if (breakpoints == null || breakpoints.length == 0) {
@@ -834,6 +952,51 @@ public class Configuration implements IConfiguration {
     }
 
     public List<Integer> getLayoutBreakpoints() {
+        if (isSnapshot) {
+            return Collections.unmodifiableList(layoutBreakpoints);
+        }
         return layoutBreakpoints;
     }
+
+    /**
+     * A list of the configuration, which is changed in place by the users. Every change bumps the version of the
+     * configuration, and changing the lists of a snapshot fails.
+     */
+    private class TrackedList<T> extends AbstractList<T> {
+        private final List<T> items = new ArrayList<>();
+
+        TrackedList(List<T> items) {
+            if (items != null) {
+                this.items.addAll(items);
+            }
+        }
+
+        @Override
+        public T get(int index) {
+            return items.get(index);
+        }
+
+        @Override
+        public int size() {
+            return items.size();
+        }
+
+        @Override
+        public T set(int index, T item) {
+            modify();
+            return items.set(index, item);
+        }
+
+        @Override
+        public void add(int index, T item) {
+            modify();
+            items.add(index, item);
+        }
+
+        @Override
+        public T remove(int index) {
+            modify();
+            return items.remove(index);
+        }
+    }
 }
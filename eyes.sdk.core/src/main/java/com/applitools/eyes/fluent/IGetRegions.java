@@ -0,0 +1,20 @@
+package com.applitools.eyes.fluent;
+
+import com.applitools.eyes.EyesScreenshot;
+import com.applitools.eyes.Region;
+
+import java.util.List;
+
+/**
+ * Regions of elements which may be resolved in advance, together with the other regions of the check.
+ * @param <T> The type of the regions.
+ */
+public interface IGetRegions<T> extends GetRegion {
+
+    /**
+     * @param screenshot      The screenshot the regions are located in.
+     * @param elementsRegions The context relative regions of the elements, resolved for the current check.
+     * @return The regions of the elements.
+     */
+    List<T> getRegions(EyesScreenshot screenshot, List<Region> elementsRegions);
+}
@@ -7,18 +7,35 @@ import com.applitools.eyes.logging.Type;
 import com.applitools.eyes.services.CheckService;
 import com.applitools.eyes.services.CloseService;
 import com.applitools.eyes.services.OpenService;
+import com.applitools.eyes.visualgrid.model.RGridResource;
 import com.applitools.eyes.visualgrid.services.ServiceTaskListener;
 import com.applitools.utils.GeneralUtils;
+import com.applitools.utils.LruCache;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 public class ClassicRunner extends EyesRunner {
+    private static final int CSS_RESOURCES_CACHE_SIZE = 500;
+    private static final long CSS_RESOURCES_CACHE_TTL_MS = 10 * 60 * 1000;
+
+    private static final int MAX_UPLOADER_THREADS = 4;
+
     private final OpenService openService;
     private final CheckService checkService;
     private final CloseService closeService;
     private final List<TestResultContainer> allTestResult = new ArrayList<>();
 
+    // Encodes and uploads the screenshots of checks which are matched together, until the results are collected
+    private ExecutorService uploader;
+
+    // The stylesheets downloaded for the dom capture, shared by all the checks of the runner
+    private final LruCache<String, RGridResource> cssResourcesCache =
+            new LruCache<>(CSS_RESOURCES_CACHE_SIZE, CSS_RESOURCES_CACHE_TTL_MS);
+
     public ClassicRunner() {
         openService = new OpenService(logger, serverConnector, 1);
         checkService = new CheckService(logger, serverConnector);
@@ -27,6 +44,7 @@ public class ClassicRunner extends EyesRunner {
 
     @Override
     public TestResultsSummary getAllTestResultsImpl(boolean shouldThrowException) {
+        shutdownUploader();
         if (shouldThrowException) {
             for (TestResultContainer testResults : allTestResult) {
                 if (testResults.getException() != null) {
@@ -38,6 +56,10 @@ public class ClassicRunner extends EyesRunner {
         return new TestResultsSummary(allTestResult);
     }
 
+    public LruCache<String, RGridResource> getCssResourcesCache() {
+        return cssResourcesCache;
+    }
+
     public void aggregateResult(TestResultContainer testResult) {
         this.allTestResult.add(testResult);
     }
@@ -103,6 +125,84 @@ public class ClassicRunner extends EyesRunner {
         return matchListener.get();
     }
 
+    /**
+     * Encodes and uploads the screenshots concurrently, and performs the matches in the order of the match data, each
+     * after the previous match completed, since the server records the steps of a test in the order they arrive.
+     * @return The results of the matches in the order of the match data, or null for matches which failed.
+     */
+    public List<MatchResult> checkAll(final String testId, List<MatchWindowData> matchWindowDataList) {
+        List<SyncTaskListener<Boolean>> uploadListeners = new ArrayList<>();
+        for (final MatchWindowData matchWindowData : matchWindowDataList) {
+            final SyncTaskListener<Boolean> uploadListener = new SyncTaskListener<>(logger, String.format("uploadImage %s", matchWindowData.getRunningSession()));
+            uploadListeners.add(uploadListener);
+            getUploader().submit(new Runnable() {
+                @Override
+                public void run() {
+                    checkService.tryUploadImage(testId, matchWindowData, new ServiceTaskListener<Void>() {
+                        @Override
+                        public void onComplete(Void taskResponse) {
+                            uploadListener.onComplete(true);
+                        }
+
+                        @Override
+                        public void onFail(Throwable t) {
+                            GeneralUtils.logExceptionStackTrace(logger, Stage.CHECK, Type.UPLOAD_COMPLETE, t, testId);
+                            uploadListener.onFail();
+                        }
+                    });
+                }
+            });
+        }
+
+        List<MatchResult> results = new ArrayList<>(matchWindowDataList.size());
+        for (int i = 0; i < matchWindowDataList.size(); i++) {
+            Boolean isUploaded = uploadListeners.get(i).get();
+            if (isUploaded == null || !isUploaded) {
+                results.add(null);
+                continue;
+            }
+
+            MatchWindowData matchWindowData = matchWindowDataList.get(i);
+            final SyncTaskListener<MatchResult> matchListener = new SyncTaskListener<>(logger, String.format("performMatch %s", matchWindowData.getRunningSession()));
+            checkService.matchWindow(testId, matchWindowData, new ServiceTaskListener<MatchResult>() {
+                @Override
+                public void onComplete(MatchResult taskResponse) {
+                    matchListener.onComplete(taskResponse);
+                }
+
+                @Override
+                public void onFail(Throwable t) {
+                    GeneralUtils.logExceptionStackTrace(logger, Stage.CHECK, Type.MATCH_COMPLETE, t, testId);
+                    matchListener.onFail();
+                }
+            });
+            results.add(matchListener.get());
+        }
+        return results;
+    }
+
+    private synchronized ExecutorService getUploader() {
+        if (uploader == null || uploader.isShutdown()) {
+            int threads = Math.min(MAX_UPLOADER_THREADS, Runtime.getRuntime().availableProcessors());
+            uploader = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ClassicRunnerUploader");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return uploader;
+    }
+
+    private synchronized void shutdownUploader() {
+        if (uploader != null) {
+            uploader.shutdown();
+            uploader = null;
+        }
+    }
+
     public TestResults close(final String testId, SessionStopInfo sessionStopInfo) {
         final SyncTaskListener<TestResults> listener = new SyncTaskListener<>(logger, String.format("stop session %s. isAborted: %b", sessionStopInfo.getRunningSession(), sessionStopInfo.isAborted()));
         closeService.operate(testId, sessionStopInfo, new ServiceTaskListener<TestResults>() {
@@ -9,14 +9,16 @@ import com.applitools.eyes.visualgrid.services.ServiceTaskListener;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class CheckService extends EyesService<MatchWindowData, MatchResult> {
 
     // Queue for tests that finished uploading and waiting for match window
-    private final List<Pair<String, MatchWindowData>> matchWindowQueue = Collections.synchronizedList(new ArrayList<Pair<String, MatchWindowData>>());
+    private final Queue<Pair<String, MatchWindowData>> matchWindowQueue = new ConcurrentLinkedQueue<>();
 
-    private final Set<String> inUploadProcess = Collections.synchronizedSet(new HashSet<String>());
-    private final Set<String> inMatchWindowProcess = Collections.synchronizedSet(new HashSet<String>());
+    private final Set<String> inUploadProcess = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final Set<String> inMatchWindowProcess = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
     public CheckService(Logger logger, ServerConnector serverConnector) {
         super(logger, serverConnector);
@@ -24,8 +26,9 @@ public class CheckService extends EyesService<MatchWindowData, MatchResult> {
 
     @Override
     public void run() {
-        while (!inputQueue.isEmpty()) {
-            final Pair<String, MatchWindowData> nextInput = inputQueue.remove(0);
+        Pair<String, MatchWindowData> input;
+        while ((input = pollInput()) != null) {
+            final Pair<String, MatchWindowData> nextInput = input;
             final MatchWindowData matchWindowData = nextInput.getRight();
             inUploadProcess.add(nextInput.getLeft());
             tryUploadImage(nextInput.getLeft(), matchWindowData, new ServiceTaskListener<Void>() {
@@ -33,31 +36,33 @@ public class CheckService extends EyesService<MatchWindowData, MatchResult> {
                 public void onComplete(Void output) {
                     inUploadProcess.remove(nextInput.getLeft());
                     matchWindowQueue.add(Pair.of(nextInput.getLeft(), matchWindowData));
+                    workSignal.raise();
                 }
 
                 @Override
                 public void onFail(Throwable t) {
                     inUploadProcess.remove(nextInput.getLeft());
-                    errorQueue.add(Pair.of(nextInput.getLeft(), t));
+                    addError(nextInput.getLeft(), t);
                 }
             });
         }
 
-        while (!matchWindowQueue.isEmpty()) {
-            final Pair<String, MatchWindowData> nextInput = matchWindowQueue.remove(0);
+        Pair<String, MatchWindowData> uploadedInput;
+        while ((uploadedInput = matchWindowQueue.poll()) != null) {
+            final Pair<String, MatchWindowData> nextInput = uploadedInput;
             final MatchWindowData matchWindowData = nextInput.getRight();
             inMatchWindowProcess.add(nextInput.getLeft());
             ServiceTaskListener<MatchResult> listener = new ServiceTaskListener<MatchResult>() {
                 @Override
                 public void onComplete(MatchResult taskResponse) {
                     inMatchWindowProcess.remove(nextInput.getLeft());
-                    outputQueue.add(Pair.of(nextInput.getLeft(), taskResponse));
+                    addOutput(nextInput.getLeft(), taskResponse);
                 }
 
                 @Override
                 public void onFail(Throwable t) {
                     inMatchWindowProcess.remove(nextInput.getLeft());
-                    errorQueue.add(Pair.of(nextInput.getLeft(), t));
+                    addError(nextInput.getLeft(), t);
                 }
             };
 
@@ -7,12 +7,12 @@ import com.applitools.eyes.visualgrid.services.ServiceTaskListener;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class CloseService extends EyesService<SessionStopInfo, TestResults> {
 
-    private final Set<String> inProgressTests = Collections.synchronizedSet(new HashSet<String>());
+    private final Set<String> inProgressTests = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
     public CloseService(Logger logger, ServerConnector serverConnector) {
         super(logger, serverConnector);
@@ -20,20 +20,21 @@ public class CloseService extends EyesService<SessionStopInfo, TestResults> {
 
     @Override
     public void run() {
-        while (!inputQueue.isEmpty()) {
-            final Pair<String, SessionStopInfo> nextInput = inputQueue.remove(0);
+        Pair<String, SessionStopInfo> input;
+        while ((input = pollInput()) != null) {
+            final Pair<String, SessionStopInfo> nextInput = input;
             inProgressTests.add(nextInput.getLeft());
             operate(nextInput.getLeft(), nextInput.getRight(), new ServiceTaskListener<TestResults>() {
                 @Override
                 public void onComplete(TestResults output) {
                     inProgressTests.remove(nextInput.getLeft());
-                    outputQueue.add(Pair.of(nextInput.getLeft(), output));
+                    addOutput(nextInput.getLeft(), output);
                 }
 
                 @Override
                 public void onFail(Throwable t) {
                     inProgressTests.remove(nextInput.getLeft());
-                    errorQueue.add(Pair.of(nextInput.getLeft(), t));
+                    addError(nextInput.getLeft(), t);
                 }
             });
         }
@@ -4,17 +4,33 @@ import com.applitools.connectivity.ServerConnector;
 import com.applitools.eyes.Logger;
 import org.apache.commons.lang3.tuple.Pair;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class EyesService<INPUT, OUTPUT> {
     protected Logger logger;
     protected ServerConnector serverConnector;
+    protected WorkSignal workSignal = new WorkSignal();
 
-    protected final List<Pair<String, INPUT>> inputQueue = new ArrayList<>();
-    protected final List<Pair<String, OUTPUT>> outputQueue = Collections.synchronizedList(new ArrayList<Pair<String, OUTPUT>>());
-    protected final List<Pair<String, Throwable>> errorQueue = Collections.synchronizedList(new ArrayList<Pair<String, Throwable>>());
+    // The queues are written by the user threads and the connectivity threads and consumed only by the services thread
+    protected final Queue<Pair<String, INPUT>> inputQueue = new ConcurrentLinkedQueue<>();
+    protected final Queue<Pair<String, OUTPUT>> outputQueue = new ConcurrentLinkedQueue<>();
+    protected final Queue<Pair<String, Throwable>> errorQueue = new ConcurrentLinkedQueue<>();
+
+    // The size of a concurrent queue isn't a constant time operation, so it is counted separately
+    private final AtomicInteger inputQueueSize = new AtomicInteger();
+
+    // Timestamps for the queue statistics
+    private final Map<String, Long> queuedTasks = new ConcurrentHashMap<>();
+    private final Map<String, Long> startedTasks = new ConcurrentHashMap<>();
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong startedTasksCount = new AtomicLong();
+    private final AtomicLong totalWaitTime = new AtomicLong();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+    private final AtomicLong totalProcessTime = new AtomicLong();
 
     public EyesService(Logger logger, ServerConnector serverConnector) {
         this.logger = logger;
@@ -30,25 +46,129 @@ public abstract class EyesService<INPUT, OUTPUT> {
         this.serverConnector = serverConnector;
     }
 
+    public void setWorkSignal(WorkSignal workSignal) {
+        this.workSignal = workSignal;
+    }
+
     public abstract void run();
 
+    /**
+     * @return true if the service has to be run periodically even if no new work was signaled.
+     */
+    public boolean isPollingRequired() {
+        return false;
+    }
+
     public void addInput(String id, INPUT input) {
+        queuedTasks.put(id, System.currentTimeMillis());
         inputQueue.add(Pair.of(id, input));
+        inputQueueSize.incrementAndGet();
+        workSignal.raise();
     }
 
-    public List<Pair<String, OUTPUT>> getSucceededTasks() {
-        synchronized (outputQueue) {
-            List<Pair<String, OUTPUT>> succeededTasks = new ArrayList<>(outputQueue);
-            outputQueue.clear();
-            return succeededTasks;
+    /**
+     * Takes the next task from the input queue and marks it as started.
+     * @return The next task or null if the queue is empty.
+     */
+    protected Pair<String, INPUT> pollInput() {
+        Pair<String, INPUT> nextInput = inputQueue.poll();
+        if (nextInput == null) {
+            return null;
+        }
+
+        inputQueueSize.decrementAndGet();
+        onTaskStarted(nextInput.getLeft());
+        return nextInput;
+    }
+
+    /**
+     * Takes all the tasks from the input queue and marks them as started.
+     */
+    protected List<Pair<String, INPUT>> drainInputs() {
+        List<Pair<String, INPUT>> inputs = new ArrayList<>();
+        Pair<String, INPUT> nextInput;
+        while ((nextInput = pollInput()) != null) {
+            inputs.add(nextInput);
         }
+        return inputs;
+    }
+
+    protected void addOutput(String id, OUTPUT output) {
+        onTaskFinished(id);
+        outputQueue.add(Pair.of(id, output));
+        workSignal.raise();
+    }
+
+    protected void addError(String id, Throwable t) {
+        onTaskFinished(id);
+        errorQueue.add(Pair.of(id, t));
+        workSignal.raise();
+    }
+
+    /**
+     * @return true if there are finished tasks waiting to be collected.
+     */
+    public boolean hasFinishedTasks() {
+        return !outputQueue.isEmpty() || !errorQueue.isEmpty();
+    }
+
+    public List<Pair<String, OUTPUT>> getSucceededTasks() {
+        return drain(outputQueue);
     }
 
     public List<Pair<String, Throwable>> getFailedTasks() {
-        synchronized (errorQueue) {
-            List<Pair<String, Throwable>> failedTasks = new ArrayList<>(errorQueue);
-            errorQueue.clear();
-            return failedTasks;
+        return drain(errorQueue);
+    }
+
+    public ServiceStatistics getStatistics() {
+        long started = startedTasksCount.get();
+        long completed = completedTasks.get();
+        return new ServiceStatistics(getClass().getSimpleName(), inputQueueSize.get(), startedTasks.size(), completed,
+                started == 0 ? 0 : totalWaitTime.get() / started, maxWaitTime.get(),
+                completed == 0 ? 0 : totalProcessTime.get() / completed);
+    }
+
+    /**
+     * Removes all the elements currently in the queue and returns them in their insertion order.
+     */
+    protected static <T> List<T> drain(Queue<T> queue) {
+        if (queue.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<T> batch = new ArrayList<>();
+        T element;
+        while ((element = queue.poll()) != null) {
+            batch.add(element);
         }
+        return batch;
+    }
+
+    private void onTaskStarted(String id) {
+        long now = System.currentTimeMillis();
+        startedTasks.put(id, now);
+        Long queueTime = queuedTasks.remove(id);
+        if (queueTime == null) {
+            return;
+        }
+
+        long waitTime = now - queueTime;
+        startedTasksCount.incrementAndGet();
+        totalWaitTime.addAndGet(waitTime);
+        long currentMax = maxWaitTime.get();
+        while (waitTime > currentMax && !maxWaitTime.compareAndSet(currentMax, waitTime)) {
+            currentMax = maxWaitTime.get();
+        }
+    }
+
+    private void onTaskFinished(String id) {
+        queuedTasks.remove(id);
+        Long startTime = startedTasks.remove(id);
+        if (startTime == null) {
+            return;
+        }
+
+        completedTasks.incrementAndGet();
+        totalProcessTime.addAndGet(System.currentTimeMillis() - startTime);
     }
 }
@@ -6,26 +6,43 @@ import com.applitools.eyes.*;
 import com.applitools.eyes.logging.Stage;
 import com.applitools.eyes.visualgrid.model.*;
 import com.applitools.eyes.visualgrid.services.CheckTask;
-import com.applitools.eyes.visualgrid.services.IEyes;
 import com.applitools.eyes.visualgrid.services.VisualGridRunningTest;
 import com.applitools.utils.GeneralUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-public class EyesServiceRunner extends Thread {
+public class EyesServiceRunner extends Thread implements RunningTest.CloseReadinessListener {
     private static final String FULLPAGE = "full-page";
     private static final String VIEWPORT = "viewport";
 
+    // How often to run the services while one of them must be polled
+    static final int POLLING_INTERVAL = 10;
+
+    // How long to sleep when no service signaled new work
+    static final int IDLE_INTERVAL = 100;
+
+    // How long to wait for the memory budget before checking the runner is still alive
+    private static final int MEMORY_BUDGET_WAIT_INTERVAL = 1000;
+
     private final AtomicBoolean isRunning = new AtomicBoolean(true);
+    private final WorkSignal workSignal = new WorkSignal();
     private Throwable error = null;
 
     private Logger logger;
     private RenderingInfo renderingInfo;
 
-    private final Set<IEyes> allEyes;
-    private final Map<String, Pair<FrameData, List<CheckTask>>> resourceCollectionTasksMapping = new HashMap<>();
+    // All the tests which were opened by this runner and weren't closed yet
+    private final Map<String, RunningTest> runningTests = new ConcurrentHashMap<>();
+
+    // Tests which had a change that might have made them ready to close
+    private final Queue<String> closeCandidates = new ConcurrentLinkedQueue<>();
+    private final Map<String, Pair<FrameData, List<CheckTask>>> resourceCollectionTasksMapping = new ConcurrentHashMap<>();
+    private final Map<String, Long> resourceCollectionTasksSizes = new ConcurrentHashMap<>();
+    private MemoryBudget memoryBudget = new MemoryBudget(Runtime.getRuntime().maxMemory() / 4);
     private final List<RenderRequest> waitingRenderRequests = new ArrayList<>();
     private final Map<String, CheckTask> waitingCheckTasks = new HashMap<>();
 
@@ -35,16 +52,22 @@ public class EyesServiceRunner extends Thread {
     private final ResourceCollectionService resourceCollectionService;
     private final RenderService renderService;
 
-    public EyesServiceRunner(Logger logger, ServerConnector serverConnector, Set<IEyes> allEyes, int testConcurrency,
+    public EyesServiceRunner(Logger logger, ServerConnector serverConnector, int testConcurrency,
                              IDebugResourceWriter debugResourceWriter, Map<String, RGridResource> resourcesCacheMap) {
         this.logger = logger;
-        this.allEyes = allEyes;
 
         openService = new OpenService(logger, serverConnector, testConcurrency);
         checkService = new CheckService(logger, serverConnector);
         closeService = new CloseService(logger, serverConnector);
         resourceCollectionService = new ResourceCollectionService(logger, serverConnector, debugResourceWriter, resourcesCacheMap);
         renderService = new RenderService(logger, serverConnector);
+        for (EyesService<?, ?> service : getServices()) {
+            service.setWorkSignal(workSignal);
+        }
+    }
+
+    private List<EyesService<?, ?>> getServices() {
+        return Arrays.<EyesService<?, ?>>asList(openService, resourceCollectionService, renderService, checkService, closeService);
     }
 
     public void setRenderingInfo(RenderingInfo renderingInfo) {
@@ -82,21 +105,102 @@ public class EyesServiceRunner extends Thread {
         renderService.setServerConnector(serverConnector);
     }
 
+    /**
+     * Sets the maximum amount of memory dom snapshots can hold while waiting for resource collection.
+     */
+    public void setMemoryBudget(MemoryBudget memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    public MemoryBudget getMemoryBudget() {
+        return memoryBudget;
+    }
+
     public void openTests(Collection<VisualGridRunningTest> runningTests) {
         for (VisualGridRunningTest runningTest : runningTests) {
+            this.runningTests.put(runningTest.getTestId(), runningTest);
+            runningTest.setCloseReadinessListener(this);
             openService.addInput(runningTest.getTestId(), runningTest.prepareForOpen());
         }
     }
 
-    public void addResourceCollectionTask(FrameData domData, List<CheckTask> checkTasks) {
+    @Override
+    public void onCloseReadinessChanged(RunningTest runningTest) {
+        closeCandidates.add(runningTest.getTestId());
+        workSignal.raise();
+    }
+
+    /**
+     * Blocks the calling thread while the dom snapshots waiting for resource collection exceed the memory budget.
+     * Should be called outside of any lock shared with other checks, so they aren't blocked meanwhile.
+     * @param domData The dom snapshot to acquire memory for.
+     * @return The amount of memory acquired, to pass to {@link #addResourceCollectionTask(FrameData, List, long)}.
+     */
+    public long acquireMemoryBudget(FrameData domData) {
+        long domSize = countBlobChars(domData);
+        try {
+            while (!memoryBudget.tryAcquire(domSize, MEMORY_BUDGET_WAIT_INTERVAL)) {
+                if (!isRunning.get()) {
+                    throw new EyesException("Services runner stopped while waiting for memory budget", error);
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new EyesException("Interrupted while waiting for memory budget", e);
+        }
+
+        return domSize;
+    }
+
+    /**
+     * Queues a dom snapshot for resource collection. The memory acquired for it is released once its resources are
+     * collected.
+     * @param domData    The dom snapshot.
+     * @param checkTasks The checks of the snapshot.
+     * @param domSize    The amount of memory acquired by {@link #acquireMemoryBudget(FrameData)}.
+     */
+    public void addResourceCollectionTask(FrameData domData, List<CheckTask> checkTasks, long domSize) {
         String resourceCollectionTaskId = UUID.randomUUID().toString();
         Set<String> testIds = new HashSet<>();
         for (CheckTask checkTask : checkTasks) {
             testIds.add(checkTask.getTestId());
         }
         domData.setTestIds(testIds);
-        resourceCollectionService.addInput(resourceCollectionTaskId, domData);
+
+        resourceCollectionTasksSizes.put(resourceCollectionTaskId, domSize);
         resourceCollectionTasksMapping.put(resourceCollectionTaskId, Pair.of(domData, checkTasks));
+        resourceCollectionService.addInput(resourceCollectionTaskId, domData);
+    }
+
+    /**
+     * Counts the characters of the blobs of a dom snapshot and its frames.
+     * This is an approximation of the memory held by the snapshot in bytes: the blobs are usually most of the
+     * snapshot, and as base64 text they take a byte per character. The dom nodes and the urls aren't counted.
+     */
+    private static long countBlobChars(FrameData frameData) {
+        long chars = 0;
+        if (frameData.getBlobs() != null) {
+            for (BlobData blob : frameData.getBlobs()) {
+                if (blob.getValue() != null) {
+                    chars += blob.getValue().length();
+                }
+            }
+        }
+
+        if (frameData.getFrames() != null) {
+            for (FrameData frame : frameData.getFrames()) {
+                chars += countBlobChars(frame);
+            }
+        }
+
+        return chars;
+    }
+
+    private void releaseResourceCollectionTask(String resourceCollectionTaskId) {
+        resourceCollectionTasksMapping.remove(resourceCollectionTaskId);
+        Long domSize = resourceCollectionTasksSizes.remove(resourceCollectionTaskId);
+        if (domSize != null) {
+            memoryBudget.release(domSize);
+        }
     }
 
     @Override
@@ -108,10 +212,7 @@ public class EyesServiceRunner extends Thread {
                 renderServiceIteration();
                 checkServiceIteration();
                 closeServiceIteration();
-
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException ignored) {}
+                waitForWork();
             }
         } catch (Throwable e) {
             isRunning.set(false);
@@ -126,6 +227,36 @@ public class EyesServiceRunner extends Thread {
 
     public void stopServices() {
         isRunning.set(false);
+        workSignal.raise();
+    }
+
+    /**
+     * Wakes up the services thread. Should be called when a change that isn't signaled by the services happens.
+     */
+    public void wakeUp() {
+        workSignal.raise();
+    }
+
+    /**
+     * @return The queue statistics of all the services, ordered by their stage in the check process.
+     */
+    public List<ServiceStatistics> getStatistics() {
+        List<ServiceStatistics> statistics = new ArrayList<>();
+        for (EyesService<?, ?> service : getServices()) {
+            statistics.add(service.getStatistics());
+        }
+        return statistics;
+    }
+
+    private void waitForWork() {
+        boolean isPollingRequired = false;
+        for (EyesService<?, ?> service : getServices()) {
+            isPollingRequired = isPollingRequired || service.isPollingRequired();
+        }
+
+        try {
+            workSignal.await(isPollingRequired ? POLLING_INTERVAL : IDLE_INTERVAL);
+        } catch (InterruptedException ignored) {}
     }
 
     private void openServiceIteration() {
@@ -156,36 +287,37 @@ public class EyesServiceRunner extends Thread {
     }
 
     private void closeServiceIteration() {
-        // Check if tests are ready to be closed
-        synchronized (allEyes) {
-            for (IEyes eyes : allEyes) {
-                synchronized (eyes.getAllRunningTests()) {
-                    for (RunningTest runningTest : eyes.getAllRunningTests().values()) {
-                        if (runningTest.isTestReadyToClose()) {
-                            if (!runningTest.getIsOpen()) {
-                                // If the test isn't open and is ready to close, it means the open failed
-                                openService.decrementConcurrency();
-                                runningTest.closeFailed(new EyesException("Eyes never opened"));
-                                continue;
-                            }
-
-                            SessionStopInfo sessionStopInfo = runningTest.prepareStopSession(runningTest.isTestAborted());
-                            closeService.addInput(runningTest.getTestId(), sessionStopInfo);
-                        }
-                    }
-                }
+        // Check if tests are ready to be closed. Only tests which had a relevant change are checked.
+        String candidateId;
+        while ((candidateId = closeCandidates.poll()) != null) {
+            RunningTest runningTest = runningTests.get(candidateId);
+            if (runningTest == null || !runningTest.isTestReadyToClose()) {
+                continue;
             }
+
+            if (!runningTest.getIsOpen()) {
+                // If the test isn't open and is ready to close, it means the open failed
+                runningTests.remove(candidateId);
+                openService.decrementConcurrency();
+                runningTest.closeFailed(new EyesException("Eyes never opened"));
+                continue;
+            }
+
+            SessionStopInfo sessionStopInfo = runningTest.prepareStopSession(runningTest.isTestAborted());
+            closeService.addInput(runningTest.getTestId(), sessionStopInfo);
         }
 
         closeService.run();
         for (Pair<String, TestResults> pair : closeService.getSucceededTasks()) {
             RunningTest runningTest = findTestById(pair.getLeft());
+            runningTests.remove(pair.getLeft());
             runningTest.closeCompleted(pair.getRight());
             openService.decrementConcurrency();
         }
 
         for (Pair<String, Throwable> pair : closeService.getFailedTasks()) {
             RunningTest runningTest = findTestById(pair.getLeft());
+            runningTests.remove(pair.getLeft());
             runningTest.closeFailed(pair.getRight());
             openService.decrementConcurrency();
         }
@@ -193,14 +325,14 @@ public class EyesServiceRunner extends Thread {
 
     private void resourceCollectionServiceIteration() {
         resourceCollectionService.run();
-        if (resourceCollectionService.outputQueue.isEmpty() && resourceCollectionService.errorQueue.isEmpty()) {
+        if (!resourceCollectionService.hasFinishedTasks()) {
             return;
         }
 
         for (Pair<String, Map<String, RGridResource>> pair : resourceCollectionService.getSucceededTasks()) {
             Pair<FrameData, List<CheckTask>> checkTasks = resourceCollectionTasksMapping.get(pair.getLeft());
             queueRenderRequests(checkTasks.getLeft(), pair.getRight(), checkTasks.getRight());
-            resourceCollectionTasksMapping.remove(pair.getLeft());
+            releaseResourceCollectionTask(pair.getLeft());
         }
 
         for (Pair<String, Throwable> pair : resourceCollectionService.getFailedTasks()) {
@@ -209,10 +341,8 @@ public class EyesServiceRunner extends Thread {
                 checkTask.onFail(pair.getRight());
             }
 
-            resourceCollectionTasksMapping.remove(pair.getLeft());
+            releaseResourceCollectionTask(pair.getLeft());
         }
-
-        System.gc();
     }
 
     private void renderServiceIteration() {
@@ -254,15 +384,12 @@ public class EyesServiceRunner extends Thread {
     }
 
     private RunningTest findTestById(String testId) {
-        synchronized (allEyes) {
-            for (IEyes eyes : allEyes) {
-                if (eyes.getAllRunningTests().containsKey(testId)) {
-                    return eyes.getAllRunningTests().get(testId);
-                }
-            }
+        RunningTest runningTest = runningTests.get(testId);
+        if (runningTest == null) {
+            throw new IllegalStateException(String.format("Didn't find test id %s", testId));
         }
 
-        throw new IllegalStateException(String.format("Didn't find test id %s", testId));
+        return runningTest;
     }
 
     private void queueRenderRequests(FrameData result, Map<String, RGridResource> resourceMapping, List<CheckTask> checkTasks) {
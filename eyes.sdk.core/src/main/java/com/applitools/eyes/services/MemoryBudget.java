@@ -0,0 +1,64 @@
+package com.applitools.eyes.services;
+
+import com.applitools.utils.ArgumentGuard;
+
+/**
+ * Limits the amount of memory held by objects waiting to be processed by the services.
+ * Threads which try to acquire more than the remaining budget are blocked until enough memory is released.
+ */
+public class MemoryBudget {
+    private final long maxBytes;
+    private long heldBytes = 0;
+    private long releasedBytes = 0;
+    private long peakBytes = 0;
+
+    public MemoryBudget(long maxBytes) {
+        ArgumentGuard.greaterThanZero(maxBytes, "maxBytes");
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Acquires memory from the budget, waiting until enough memory is available.
+     * A request is always granted if nothing is held, so a single object larger than the budget can't block forever.
+     * @param bytes The amount of memory to acquire.
+     * @param timeout The maximum time to wait in milliseconds.
+     * @return true if the memory was acquired, false if the timeout passed.
+     */
+    public synchronized boolean tryAcquire(long bytes, long timeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        while (heldBytes > 0 && heldBytes + bytes > maxBytes) {
+            long timeLeft = deadline - System.currentTimeMillis();
+            if (timeLeft <= 0) {
+                return false;
+            }
+
+            wait(timeLeft);
+        }
+
+        heldBytes += bytes;
+        peakBytes = Math.max(peakBytes, heldBytes);
+        return true;
+    }
+
+    public synchronized void release(long bytes) {
+        heldBytes = Math.max(0, heldBytes - bytes);
+        releasedBytes += bytes;
+        notifyAll();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getHeldBytes() {
+        return heldBytes;
+    }
+
+    public synchronized long getReleasedBytes() {
+        return releasedBytes;
+    }
+
+    public synchronized long getPeakBytes() {
+        return peakBytes;
+    }
+}
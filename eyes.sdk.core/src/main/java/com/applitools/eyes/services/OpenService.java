@@ -11,6 +11,7 @@ import org.apache.commons.lang3.tuple.Pair;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class OpenService extends EyesService<SessionStartInfo, RunningSession> {
@@ -20,7 +21,7 @@ public class OpenService extends EyesService<SessionStartInfo, RunningSession> {
     private final AtomicInteger currentTestAmount = new AtomicInteger();
     private boolean isServerConcurrencyLimitReached = false;
 
-    private final Set<String> inProgressTests = Collections.synchronizedSet(new HashSet<String>());
+    private final Set<String> inProgressTests = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
     public OpenService(Logger logger, ServerConnector serverConnector, int eyesConcurrency) {
         super(logger, serverConnector);
@@ -29,23 +30,26 @@ public class OpenService extends EyesService<SessionStartInfo, RunningSession> {
 
     @Override
     public void run() {
-        while (!inputQueue.isEmpty() && !isServerConcurrencyLimitReached && this.eyesConcurrency > currentTestAmount.get()) {
+        while (!isServerConcurrencyLimitReached && this.eyesConcurrency > currentTestAmount.get()) {
+            final Pair<String, SessionStartInfo> nextInput = pollInput();
+            if (nextInput == null) {
+                return;
+            }
+
             currentTestAmount.incrementAndGet();
             logger.log(TraceLevel.Info, new HashSet<String>(), Stage.OPEN, null, Pair.of("testAmount", currentTestAmount.get()));
-
-            final Pair<String, SessionStartInfo> nextInput = inputQueue.remove(0);
             inProgressTests.add(nextInput.getLeft());
             operate(nextInput.getLeft(), nextInput.getRight(), new ServiceTaskListener<RunningSession>() {
                 @Override
                 public void onComplete(RunningSession output) {
                     inProgressTests.remove(nextInput.getLeft());
-                    outputQueue.add(Pair.of(nextInput.getLeft(), output));
+                    addOutput(nextInput.getLeft(), output);
                 }
 
                 @Override
                 public void onFail(Throwable t) {
                     inProgressTests.remove(nextInput.getLeft());
-                    errorQueue.add(Pair.of(nextInput.getLeft(), t));
+                    addError(nextInput.getLeft(), t);
                 }
             });
         }
@@ -104,5 +108,8 @@ public class OpenService extends EyesService<SessionStartInfo, RunningSession> {
     public void decrementConcurrency() {
         int currentAmount = this.currentTestAmount.decrementAndGet();
         logger.log(TraceLevel.Info, new HashSet<String>(), Stage.CLOSE, null, Pair.of("testAmount", currentAmount));
+
+        // A test slot was released, so waiting tests can be opened
+        workSignal.raise();
     }
 }
@@ -14,24 +14,51 @@ import com.applitools.eyes.visualgrid.model.RunningRender;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class RenderService extends EyesService<RenderRequest, RenderStatusResults> {
     int RENDER_STATUS_POLLING_TIMEOUT = 60 * 60 * 1000;
 
-    private final AtomicBoolean isTimeElapsed = new AtomicBoolean(false);
+    // Limits for the interval between render status requests
+    static final int MIN_POLLING_INTERVAL = 200;
+    static final int MAX_POLLING_INTERVAL = 1500;
+    static final int DEFAULT_POLLING_INTERVAL = 500;
 
-    // Queue for tests that are in a render process
-    private final List<Pair<String, String>> renderingQueue = Collections.synchronizedList(new ArrayList<Pair<String, String>>());
+    // The weight of a new render duration in the average render duration
+    private static final double RENDER_DURATION_WEIGHT = 0.2;
 
-    private class TimeoutTask extends TimerTask {
-        @Override
-        public void run() {
-            logger.log(TraceLevel.Error, new HashSet<String>(), Stage.RENDER, Type.TIMEOUT);
-            isTimeElapsed.set(true);
+    private static class RenderInProgress {
+        private final String testId;
+        private final String renderId;
+        private final long startTime = System.currentTimeMillis();
+
+        RenderInProgress(String testId, String renderId) {
+            this.testId = testId;
+            this.renderId = renderId;
         }
     }
 
+    // Renders that were started and didn't finish yet, mapped by their render id
+    private final Map<String, RenderInProgress> rendersInProgress = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean isPolling = new AtomicBoolean(false);
+    private final AtomicBoolean isWakeUpScheduled = new AtomicBoolean(false);
+    private final AtomicLong nextPollTime = new AtomicLong(0);
+    private final AtomicLong averageRenderDuration = new AtomicLong(0);
+
+    // Only wakes up the services threads when the next poll is due. The polling itself is done asynchronously.
+    // Shared by all the runners, as its tasks only raise a signal.
+    private static final ScheduledExecutorService POLLING_SCHEDULER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "VG_RenderStatusPoller");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
     public RenderService(Logger logger, ServerConnector serverConnector) {
         super(logger, serverConnector);
     }
@@ -39,44 +66,43 @@ public class RenderService extends EyesService<RenderRequest, RenderStatusResult
     @Override
     public void run() {
         sendAllRenderRequests();
-
-        if (renderingQueue.isEmpty()) {
+        if (rendersInProgress.isEmpty()) {
             return;
         }
 
-        List<Pair<String, String>> list;
-        synchronized (renderingQueue) {
-            list = new ArrayList<>(renderingQueue);
-            renderingQueue.clear();
+        if (System.currentTimeMillis() < nextPollTime.get()) {
+            scheduleWakeUp();
+            return;
         }
 
-        final List<String> testIds = new ArrayList<>();
-        final List<String> renderIds = new ArrayList<>();
-        for (Pair<String, String> pair : list) {
-            testIds.add(pair.getLeft());
-            renderIds.add(pair.getRight());
+        if (!isPolling.compareAndSet(false, true)) {
+            return;
         }
 
+        // All the renders in progress are checked in a single request
+        List<RenderInProgress> renders = new ArrayList<>(rendersInProgress.values());
         try {
-            pollRenderingStatus(testIds, renderIds);
+            pollRenderingStatus(renders);
         } catch (Throwable t) {
-            setRenderErrorToTasks(testIds, t);
+            isPolling.set(false);
+            for (RenderInProgress render : renders) {
+                rendersInProgress.remove(render.renderId);
+                addError(render.testId, t);
+            }
         }
     }
 
     private void sendAllRenderRequests() {
-        if (inputQueue.isEmpty()) {
+        List<Pair<String, RenderRequest>> inputs = drainInputs();
+        if (inputs.isEmpty()) {
             return;
         }
 
         List<RenderRequest> renderRequests = new ArrayList<>();
         final List<String> testIds = new ArrayList<>();
-        synchronized (inputQueue) {
-            for (Pair<String, RenderRequest> stringRenderRequestPair : inputQueue) {
-                renderRequests.add(stringRenderRequestPair.getRight());
-                testIds.add(stringRenderRequestPair.getLeft());
-            }
-            inputQueue.clear();
+        for (Pair<String, RenderRequest> stringRenderRequestPair : inputs) {
+            renderRequests.add(stringRenderRequestPair.getRight());
+            testIds.add(stringRenderRequestPair.getLeft());
         }
 
         final TaskListener<List<RunningRender>> renderListener = new TaskListener<List<RunningRender>>() {
@@ -100,8 +126,13 @@ public class RenderService extends EyesService<RenderRequest, RenderStatusResult
                     }
 
                     for (int i = 0; i < runningRenders.size(); i++) {
-                        renderingQueue.add(Pair.of(testIds.get(i), runningRenders.get(i).getRenderId()));
+                        String renderId = runningRenders.get(i).getRenderId();
+                        rendersInProgress.put(renderId, new RenderInProgress(testIds.get(i), renderId));
                     }
+
+                    // New renders are polled on the next run without waiting for the interval
+                    nextPollTime.set(0);
+                    workSignal.raise();
                 } catch (Throwable t) {
                     setRenderErrorToTasks(testIds, t);
                 }
@@ -120,9 +151,14 @@ public class RenderService extends EyesService<RenderRequest, RenderStatusResult
         }
     }
 
-    private void pollRenderingStatus(final List<String> testIds, final List<String> renderIds) {
-        final Timer timer = new Timer("VG_StopWatch", true);
-        timer.schedule(new TimeoutTask(), RENDER_STATUS_POLLING_TIMEOUT);
+    private void pollRenderingStatus(final List<RenderInProgress> renders) {
+        final List<String> testIds = new ArrayList<>();
+        final List<String> renderIds = new ArrayList<>();
+        for (RenderInProgress render : renders) {
+            testIds.add(render.testId);
+            renderIds.add(render.renderId);
+        }
+
         serverConnector.renderStatusById(new TaskListener<List<RenderStatusResults>>() {
             @Override
             public void onComplete(List<RenderStatusResults> renderStatusResultsList) {
@@ -132,87 +168,110 @@ public class RenderService extends EyesService<RenderRequest, RenderStatusResult
                 }
 
                 for (int i = 0; i < renderStatusResultsList.size(); i++) {
+                    RenderInProgress render = renders.get(i);
                     RenderStatusResults renderStatusResults = renderStatusResultsList.get(i);
                     if (renderStatusResults == null) {
-                        renderStatusResults = RenderStatusResults.createError(renderIds.get(i));
+                        renderStatusResults = RenderStatusResults.createError(render.renderId);
                     }
 
-                    logger.log(TraceLevel.Info, Collections.singleton(testIds.get(i)), Stage.RENDER, Type.RENDER_STATUS,
+                    logger.log(TraceLevel.Info, Collections.singleton(render.testId), Stage.RENDER, Type.RENDER_STATUS,
                             Pair.of("renderStatusResults", renderStatusResults));
                     RenderStatus renderStatus = renderStatusResults.getStatus();
                     if (!renderStatus.equals(RenderStatus.RENDERED) && !renderStatus.equals(RenderStatus.ERROR)) {
                         continue;
                     }
 
-                    String testId = testIds.get(i);
+                    rendersInProgress.remove(render.renderId);
+                    updateAverageRenderDuration(System.currentTimeMillis() - render.startTime);
                     String error = renderStatusResults.getError();
                     if (error != null) {
-                        synchronized (errorQueue) {
-                            Throwable t = new EyesException(error);
-                            errorQueue.add(Pair.of(testId, t));
-                        }
+                        addError(render.testId, new EyesException(error));
                     } else {
-                        synchronized (outputQueue) {
-                            outputQueue.add(Pair.of(testId, renderStatusResults));
-                        }
+                        addOutput(render.testId, renderStatusResults);
                     }
-
-                    renderIds.remove(i);
-                    testIds.remove(i);
-                    renderStatusResultsList.remove(i);
-                    i--;
                 }
 
-                if (renderIds.isEmpty()) {
-                    timer.cancel();
-                    return;
-                }
+                onPollFinished(getNextPollingInterval());
+            }
 
-                try {
-                    Thread.sleep(1500);
-                } catch (InterruptedException ignored) {}
+            @Override
+            public void onFail() {
+                onPollFinished(DEFAULT_POLLING_INTERVAL);
+            }
+        }, testIds, renderIds);
+    }
 
-                if (!isTimeElapsed.get()) {
-                    serverConnector.renderStatusById(this, testIds, renderIds);
-                    return;
-                }
+    private void onPollFinished(long interval) {
+        failTimedOutRenders();
+        nextPollTime.set(System.currentTimeMillis() + interval);
+        isPolling.set(false);
+        if (!rendersInProgress.isEmpty()) {
+            scheduleWakeUp();
+        }
+    }
 
-                onFail();
+    private void failTimedOutRenders() {
+        long now = System.currentTimeMillis();
+        for (RenderInProgress render : rendersInProgress.values()) {
+            if (now - render.startTime < RENDER_STATUS_POLLING_TIMEOUT) {
+                continue;
             }
 
+            logger.log(TraceLevel.Error, Collections.singleton(render.testId), Stage.RENDER, Type.TIMEOUT, Pair.of("renderId", render.renderId));
+            rendersInProgress.remove(render.renderId);
+            addError(render.testId, new EyesException(String.format("Render timeout. TestId: %s, RenderId: %s", render.testId, render.renderId)));
+        }
+    }
+
+    /**
+     * Wakes up the services thread when the next poll is due
+     */
+    private void scheduleWakeUp() {
+        if (!isWakeUpScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        long delay = Math.max(0, nextPollTime.get() - System.currentTimeMillis());
+        POLLING_SCHEDULER.schedule(new Runnable() {
             @Override
-            public void onFail() {
-                try {
-                    Thread.sleep(500);
-                } catch (InterruptedException ignored) {}
+            public void run() {
+                isWakeUpScheduled.set(false);
+                workSignal.raise();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
 
-                if (!renderIds.isEmpty() && !isTimeElapsed.get()) {
-                    serverConnector.renderStatusById(this, testIds, renderIds);
-                    return;
-                }
+    private void updateAverageRenderDuration(long duration) {
+        // Retrying until the update succeeds, so renders finishing concurrently are all counted
+        long average;
+        long newAverage;
+        do {
+            average = averageRenderDuration.get();
+            newAverage = average == 0 ? duration : (long) (average * (1 - RENDER_DURATION_WEIGHT) + duration * RENDER_DURATION_WEIGHT);
+        } while (!averageRenderDuration.compareAndSet(average, newAverage));
+    }
 
-                timer.cancel();
-                if (renderIds.isEmpty()) {
-                    return;
-                }
+    /**
+     * Calculates when the next render in progress is expected to finish according to the observed render durations.
+     */
+    long getNextPollingInterval() {
+        long average = averageRenderDuration.get();
+        if (average == 0) {
+            return DEFAULT_POLLING_INTERVAL;
+        }
 
-                for (int i = 0; i < testIds.size(); i++) {
-                    String renderId = renderIds.get(i);
-                    String testId = testIds.get(i);
-                    Throwable t = new EyesException(String.format("Render timeout. TestId: %s, RenderId: %s", testId, renderId));
-                    synchronized (errorQueue) {
-                        errorQueue.add(Pair.of(testId, t));
-                    }
-                }
-            }
-        }, testIds, renderIds);
+        long now = System.currentTimeMillis();
+        long interval = MAX_POLLING_INTERVAL;
+        for (RenderInProgress render : rendersInProgress.values()) {
+            interval = Math.min(interval, render.startTime + average - now);
+        }
+
+        return Math.max(MIN_POLLING_INTERVAL, interval);
     }
 
     private void setRenderErrorToTasks(List<String> testIds, Throwable t) {
-        synchronized (errorQueue) {
-            for (String id : testIds) {
-                errorQueue.add(Pair.of(id, t));
-            }
+        for (String id : testIds) {
+            addError(id, t);
         }
     }
 }
@@ -12,6 +12,8 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class ResourceCollectionService extends EyesService<FrameData, Map<String, RGridResource>> {
     final Map<String, RGridResource> resourcesCacheMap;
@@ -19,9 +21,8 @@ public class ResourceCollectionService extends EyesService<FrameData, Map<String
 
     final Map<String, SyncTaskListener<Void>> uploadedResourcesCache = Collections.synchronizedMap(new HashMap<String, SyncTaskListener<Void>>());
 
-    final Map<String, DomAnalyzer> tasksInDomAnalyzingProcess = Collections.synchronizedMap(new HashMap<String, DomAnalyzer>());
-    protected final List<Pair<String, Pair<RGridDom, Map<String, RGridResource>>>> waitingForUploadQueue =
-            Collections.synchronizedList(new ArrayList<Pair<String, Pair<RGridDom, Map<String, RGridResource>>>>());
+    final Map<String, DomAnalyzer> tasksInDomAnalyzingProcess = new ConcurrentHashMap<>();
+    protected final Queue<Pair<String, Pair<RGridDom, Map<String, RGridResource>>>> waitingForUploadQueue = new ConcurrentLinkedQueue<>();
 
     private final UfgConnector resourcesConnector;
     private boolean isAutProxySet = false;
@@ -53,8 +54,9 @@ public class ResourceCollectionService extends EyesService<FrameData, Map<String
 
     @Override
     public void run() {
-        while (!inputQueue.isEmpty()) {
-            final Pair<String, FrameData> nextInput = inputQueue.remove(0);
+        Pair<String, FrameData> input;
+        while ((input = pollInput()) != null) {
+            final Pair<String, FrameData> nextInput = input;
             final FrameData frameData = nextInput.getRight();
 
             try {
@@ -66,31 +68,28 @@ public class ResourceCollectionService extends EyesService<FrameData, Map<String
                         dom.setTestIds(frameData.getTestIds());
                         waitingForUploadQueue.add(Pair.of(nextInput.getLeft(), Pair.of(dom, resourceMap)));
                         tasksInDomAnalyzingProcess.remove(nextInput.getLeft());
+                        workSignal.raise();
                     }
 
                     @Override
                     public void onFail() {
-                        errorQueue.add(Pair.<String, Throwable>of(nextInput.getLeft(), new EyesException("Dom analyzer failed")));
+                        addError(nextInput.getLeft(), new EyesException("Dom analyzer failed"));
                         tasksInDomAnalyzingProcess.remove(nextInput.getLeft());
                     }
                 });
                 tasksInDomAnalyzingProcess.put(nextInput.getLeft(), domAnalyzer);
             } catch (Throwable t) {
-                errorQueue.add(Pair.of(nextInput.getLeft(), t));
+                addError(nextInput.getLeft(), t);
             }
         }
 
-        List<DomAnalyzer> domAnalyzers;
-        synchronized (tasksInDomAnalyzingProcess) {
-            domAnalyzers = new ArrayList<>(tasksInDomAnalyzingProcess.values());
-        }
-
-        for (DomAnalyzer domAnalyzer : domAnalyzers) {
+        for (DomAnalyzer domAnalyzer : tasksInDomAnalyzingProcess.values()) {
             domAnalyzer.run();
         }
 
-        while (!waitingForUploadQueue.isEmpty()) {
-            final Pair<String, Pair<RGridDom, Map<String, RGridResource>>> nextInput = waitingForUploadQueue.remove(0);
+        Pair<String, Pair<RGridDom, Map<String, RGridResource>>> analyzedInput;
+        while ((analyzedInput = waitingForUploadQueue.poll()) != null) {
+            final Pair<String, Pair<RGridDom, Map<String, RGridResource>>> nextInput = analyzedInput;
             final Pair<RGridDom, Map<String, RGridResource>> pair = nextInput.getRight();
             ServiceTaskListener<List<RGridResource>> checkResourceListener = new ServiceTaskListener<List<RGridResource>>() {
                 @Override
@@ -102,12 +101,12 @@ public class ResourceCollectionService extends EyesService<FrameData, Map<String
                         return;
                     }
 
-                    outputQueue.add(Pair.of(nextInput.getLeft(), pair.getRight()));
+                    addOutput(nextInput.getLeft(), pair.getRight());
                 }
 
                 @Override
                 public void onFail(Throwable t) {
-                    errorQueue.add(Pair.of(nextInput.getLeft(), t));
+                    addError(nextInput.getLeft(), t);
                 }
             };
 
@@ -119,6 +118,14 @@ public class ResourceCollectionService extends EyesService<FrameData, Map<String
         }
     }
 
+    /**
+     * The dom analyzers advance only when they are run, so the service must be polled while they are working.
+     */
+    @Override
+    public boolean isPollingRequired() {
+        return !tasksInDomAnalyzingProcess.isEmpty();
+    }
+
     /**
      * Checks with the server what resources are missing.
      */
@@ -0,0 +1,78 @@
+package com.applitools.eyes.services;
+
+/**
+ * A snapshot of the queue state of a single {@link EyesService}.
+ */
+public class ServiceStatistics {
+    private final String serviceName;
+    private final int queueDepth;
+    private final int inProgress;
+    private final long completedTasks;
+    private final long averageWaitTime;
+    private final long maxWaitTime;
+    private final long averageProcessTime;
+
+    public ServiceStatistics(String serviceName, int queueDepth, int inProgress, long completedTasks,
+                             long averageWaitTime, long maxWaitTime, long averageProcessTime) {
+        this.serviceName = serviceName;
+        this.queueDepth = queueDepth;
+        this.inProgress = inProgress;
+        this.completedTasks = completedTasks;
+        this.averageWaitTime = averageWaitTime;
+        this.maxWaitTime = maxWaitTime;
+        this.averageProcessTime = averageProcessTime;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    /**
+     * @return The number of tasks waiting in the input queue of the service.
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * @return The number of tasks the service started and didn't finish yet.
+     */
+    public int getInProgress() {
+        return inProgress;
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks;
+    }
+
+    /**
+     * @return The average time in milliseconds a task waited in the input queue before the service started it.
+     */
+    public long getAverageWaitTime() {
+        return averageWaitTime;
+    }
+
+    public long getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    /**
+     * @return The average time in milliseconds from the moment the service started a task until it finished.
+     */
+    public long getAverageProcessTime() {
+        return averageProcessTime;
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceStatistics{" +
+                "serviceName='" + serviceName + '\'' +
+                ", queueDepth=" + queueDepth +
+                ", inProgress=" + inProgress +
+                ", completedTasks=" + completedTasks +
+                ", averageWaitTime=" + averageWaitTime +
+                ", maxWaitTime=" + maxWaitTime +
+                ", averageProcessTime=" + averageProcessTime +
+                '}';
+    }
+}
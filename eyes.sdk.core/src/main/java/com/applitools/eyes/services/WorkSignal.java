@@ -0,0 +1,29 @@
+package com.applitools.eyes.services;
+
+/**
+ * A signal shared between the services and the {@link EyesServiceRunner}.
+ * The services raise it whenever new work is queued, so the runner can sleep until there is something to do.
+ */
+public class WorkSignal {
+    private boolean isRaised = false;
+
+    public synchronized void raise() {
+        isRaised = true;
+        notifyAll();
+    }
+
+    /**
+     * Waits until the signal is raised or until the timeout passes, and then resets the signal.
+     * @param timeout The maximum time to wait in milliseconds.
+     * @return true if the signal was raised.
+     */
+    public synchronized boolean await(long timeout) throws InterruptedException {
+        if (!isRaised && timeout > 0) {
+            wait(timeout);
+        }
+
+        boolean wasRaised = isRaised;
+        isRaised = false;
+        return wasRaised;
+    }
+}
@@ -2,6 +2,7 @@ package com.applitools.eyes.visualgrid.model;
 
 import com.applitools.eyes.RectangleSize;
 import com.applitools.eyes.selenium.BrowserType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 public class RenderBrowserInfo implements IRenderingBrowserInfo {
 
@@ -12,7 +13,7 @@ public class RenderBrowserInfo implements IRenderingBrowserInfo {
     private IosDeviceInfo iosDeviceInfo;
     private final String sizeMode = "full-page";
     private String baselineEnvName;
-
+    private int modificationCount = 0;
 
     public RenderBrowserInfo(RectangleSize viewportSize, BrowserType browserType, String baselineEnvName) {
         this.viewportSize = viewportSize;
@@ -82,6 +83,7 @@ public class RenderBrowserInfo implements IRenderingBrowserInfo {
     }
 
     public void setEmulationDeviceSize(DeviceSize size) {
+        modificationCount++;
         if (size != null && emulationInfo != null) {
             if (emulationInfo.screenOrientation.equals(ScreenOrientation.PORTRAIT)) {
                 emulationInfo.size = size.getPortrait();
@@ -92,6 +94,7 @@ public class RenderBrowserInfo implements IRenderingBrowserInfo {
     }
 
     public void setIosDeviceSize(DeviceSize size) {
+        modificationCount++;
         if (size != null && iosDeviceInfo != null) {
             if (iosDeviceInfo.getScreenOrientation().equals(ScreenOrientation.PORTRAIT)) {
                 iosDeviceInfo.size = size.getPortrait();
@@ -166,9 +169,18 @@ public class RenderBrowserInfo implements IRenderingBrowserInfo {
     }
 
     public void setViewportSize(RectangleSize viewportSize) {
+        modificationCount++;
         this.viewportSize = viewportSize;
     }
 
+    /**
+     * @return The number of times the browser was changed by its setters.
+     */
+    @JsonIgnore
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
     @Override
     public String toString() {
         return "RenderBrowserInfo{" +
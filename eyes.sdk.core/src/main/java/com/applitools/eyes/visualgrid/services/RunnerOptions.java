@@ -12,6 +12,8 @@ public class RunnerOptions {
     private boolean isAutProxySet = false;
     private AbstractProxySettings autProxy = null;
 
+    private Long domSnapshotsMemoryBudget = null;
+
     public RunnerOptions testConcurrency(int testConcurrency) {
         this.testConcurrency = testConcurrency;
         return this;
@@ -66,4 +68,18 @@ public class RunnerOptions {
     public boolean isAutProxySet() {
         return isAutProxySet;
     }
+
+    /**
+     * Setting the maximum amount of memory in bytes that dom snapshots waiting for resource collection can hold.
+     * When the budget is exceeded, check calls are blocked until enough snapshots are processed.
+     * The default is a quarter of the maximum heap size.
+     */
+    public RunnerOptions domSnapshotsMemoryBudget(long domSnapshotsMemoryBudget) {
+        this.domSnapshotsMemoryBudget = domSnapshotsMemoryBudget;
+        return this;
+    }
+
+    public Long getDomSnapshotsMemoryBudget() {
+        return domSnapshotsMemoryBudget;
+    }
 }
@@ -4,15 +4,20 @@ import com.applitools.connectivity.ServerConnector;
 import com.applitools.eyes.*;
 import com.applitools.eyes.logging.Stage;
 import com.applitools.eyes.logging.TraceLevel;
+import com.applitools.eyes.logging.Type;
 import com.applitools.eyes.services.EyesServiceRunner;
+import com.applitools.eyes.services.MemoryBudget;
 import com.applitools.eyes.visualgrid.model.FrameData;
 import com.applitools.eyes.visualgrid.model.IDebugResourceWriter;
+import com.applitools.eyes.visualgrid.model.JobInfo;
 import com.applitools.eyes.visualgrid.model.RGridResource;
+import com.applitools.eyes.visualgrid.model.RenderRequest;
 import com.applitools.eyes.visualgrid.model.RenderingInfo;
 import com.applitools.utils.ArgumentGuard;
 import com.applitools.utils.GeneralUtils;
+import com.applitools.utils.JsonWriters;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -48,6 +53,9 @@ public class VisualGridRunner extends EyesRunner {
     final Set<IEyes> allEyes = Collections.synchronizedSet(new HashSet<IEyes>());
     private final Map<String, RGridResource> resourcesCacheMap = Collections.synchronizedMap(new HashMap<String, RGridResource>());
 
+    // The requested job info of every browser, device and platform, keyed by the job info request
+    private final Map<String, SyncTaskListener<JobInfo>> jobInfoCache = new HashMap<>();
+
     private RenderingInfo renderingInfo;
     private IDebugResourceWriter debugResourceWriter;
     private boolean isDisabled;
@@ -83,6 +91,9 @@ public class VisualGridRunner extends EyesRunner {
         setApiKey(runnerOptions.getApiKey());
         setServerUrl(runnerOptions.getServerUrl());
         init(suiteName);
+        if (runnerOptions.getDomSnapshotsMemoryBudget() != null) {
+            eyesServiceRunner.setMemoryBudget(new MemoryBudget(runnerOptions.getDomSnapshotsMemoryBudget()));
+        }
         if (runnerOptions.isAutProxySet()) {
             eyesServiceRunner.setAutProxy(runnerOptions.getAutProxy());
         } else {
@@ -95,7 +106,7 @@ public class VisualGridRunner extends EyesRunner {
 
     private void init(String suiteName) {
         this.suiteName = suiteName;
-        eyesServiceRunner = new EyesServiceRunner(logger, serverConnector, allEyes, testConcurrency.actualConcurrency, debugResourceWriter, resourcesCacheMap);
+        eyesServiceRunner = new EyesServiceRunner(logger, serverConnector, testConcurrency.actualConcurrency, debugResourceWriter, resourcesCacheMap);
         eyesServiceRunner.start();
     }
 
@@ -122,12 +133,91 @@ public class VisualGridRunner extends EyesRunner {
         }
 
         this.addBatch(eyes.getBatchId(), eyes.getBatchCloser());
+        resolveJobInfos(newTests);
         eyesServiceRunner.openTests(newTests);
     }
 
-    public synchronized void check(FrameData domData, List<CheckTask> checkTasks) {
-        eyesServiceRunner.addResourceCollectionTask(domData, checkTasks);
-        logMemoryUsage();
+    /**
+     * Requests the job info of all the tests in a single request, for the browsers which weren't requested before.
+     * It doesn't wait for the server, the tests wait for their job info when they need it. If the request fails,
+     * every test requests its job info by itself.
+     */
+    void resolveJobInfos(List<VisualGridRunningTest> tests) {
+        ObjectWriter requestWriter = JsonWriters.getRenderWriter(RenderRequest.class);
+        final Map<String, RenderRequest> requests = new LinkedHashMap<>();
+        final Map<String, SyncTaskListener<JobInfo>> listeners = new HashMap<>();
+        synchronized (jobInfoCache) {
+            for (VisualGridRunningTest test : tests) {
+                RenderRequest request = test.createJobInfoRequest();
+                String key;
+                try {
+                    key = requestWriter.writeValueAsString(request);
+                } catch (JsonProcessingException e) {
+                    GeneralUtils.logExceptionStackTrace(logger, Stage.OPEN, Type.JOB_INFO, e, test.getTestId());
+                    continue;
+                }
+
+                // The job info may still be on its way, then the test waits for the request of the previous open
+                SyncTaskListener<JobInfo> jobInfoListener = jobInfoCache.get(key);
+                if (jobInfoListener == null) {
+                    jobInfoListener = new SyncTaskListener<>(logger, String.format("getJobInfo %s", key));
+                    request.setTestId(test.getTestId());
+                    requests.put(key, request);
+                    listeners.put(key, jobInfoListener);
+                    jobInfoCache.put(key, jobInfoListener);
+                }
+                test.setJobInfoListener(jobInfoListener);
+            }
+        }
+
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        TaskListener<JobInfo[]> listener = new TaskListener<JobInfo[]>() {
+            @Override
+            public void onComplete(JobInfo[] jobInfos) {
+                if (jobInfos == null || jobInfos.length != requests.size()) {
+                    onFail();
+                    return;
+                }
+
+                int i = 0;
+                for (String key : requests.keySet()) {
+                    listeners.get(key).onComplete(jobInfos[i++]);
+                }
+            }
+
+            @Override
+            public void onFail() {
+                logger.log(TraceLevel.Warn, Collections.<String>emptySet(), Stage.OPEN, Type.JOB_INFO,
+                        Pair.of("message", "Failed getting the job info of all the browsers"),
+                        Pair.of("browsersCount", requests.size()));
+                synchronized (jobInfoCache) {
+                    jobInfoCache.keySet().removeAll(requests.keySet());
+                }
+                for (SyncTaskListener<JobInfo> jobInfoListener : listeners.values()) {
+                    jobInfoListener.onComplete(null);
+                }
+            }
+        };
+
+        try {
+            serverConnector.getJobInfo(listener, requests.values().toArray(new RenderRequest[0]));
+        } catch (Throwable t) {
+            GeneralUtils.logExceptionStackTrace(logger, Stage.OPEN, Type.JOB_INFO, t);
+            listener.onFail();
+        }
+    }
+
+    public void check(FrameData domData, List<CheckTask> checkTasks) {
+        // Waiting for the memory budget without holding the runner, so other eyes can keep checking meanwhile
+        long domSize = eyesServiceRunner.acquireMemoryBudget(domData);
+        synchronized (this) {
+            eyesServiceRunner.addResourceCollectionTask(domData, checkTasks, domSize);
+            logMemoryUsage();
+            logServicesStatistics();
+        }
     }
 
     public TestResultsSummary getAllTestResultsImpl(boolean throwException) {
@@ -137,6 +227,7 @@ public class VisualGridRunner extends EyesRunner {
                 eyes.closeAsync();
             }
         }
+        eyesServiceRunner.wakeUp();
 
         boolean isRunning = true;
         while (isRunning && getError() == null) {
@@ -217,11 +308,10 @@ public class VisualGridRunner extends EyesRunner {
 
         wasConcurrencyLogSent = true;
         String key = testConcurrency.isDefault ? "defaultConcurrency" : testConcurrency.isLegacy ? "concurrency" : "testConcurrency";
-        ObjectMapper objectMapper = new ObjectMapper();
-        ObjectNode objectNode = objectMapper.createObjectNode();
+        ObjectNode objectNode = JsonWriters.createObjectNode();
         objectNode.put("type", "runnerStarted");
         objectNode.put(key, testConcurrency.userConcurrency);
-        return objectMapper.writeValueAsString(objectNode);
+        return JsonWriters.getWriter().writeValueAsString(objectNode);
     }
 
     public Map<String, RGridResource> getResourcesCacheMap() {
@@ -248,6 +338,13 @@ public class VisualGridRunner extends EyesRunner {
         logger.log(TraceLevel.Debug, Collections.<String>emptySet(), Stage.GENERAL, null,
                 Pair.of("totalMemory", Runtime.getRuntime().totalMemory()),
                 Pair.of("freeMemory", Runtime.getRuntime().freeMemory()),
-                Pair.of("maxMemory", Runtime.getRuntime().maxMemory()));
+                Pair.of("maxMemory", Runtime.getRuntime().maxMemory()),
+                Pair.of("domSnapshotsBytesHeld", eyesServiceRunner.getMemoryBudget().getHeldBytes()),
+                Pair.of("domSnapshotsBytesReleased", eyesServiceRunner.getMemoryBudget().getReleasedBytes()));
+    }
+
+    public void logServicesStatistics() {
+        logger.log(TraceLevel.Debug, Collections.<String>emptySet(), Stage.GENERAL, null,
+                Pair.of("servicesStatistics", eyesServiceRunner.getStatistics()));
     }
 }
@@ -23,7 +23,8 @@ public class VisualGridRunningTest extends RunningTest {
 
     private final Configuration configuration;
     final List<CheckTask> checkTasks = new ArrayList<>();
-    private JobInfo jobInfo;
+    private volatile JobInfo jobInfo;
+    private volatile SyncTaskListener<JobInfo> jobInfoListener;
 
     VisualGridRunningTest(Logger logger, String eyesId, RenderBrowserInfo browserInfo, Configuration configuration) {
         super(browserInfo, logger);
@@ -97,7 +98,7 @@ public class VisualGridRunningTest extends RunningTest {
         }
 
         logger.log(TraceLevel.Info, getTestId(), Stage.CHECK,
-                Pair.of("configuration", getConfiguration()),
+                Pair.of("configuration", getConfigurationSnapshot()),
                 Pair.of("checkSettings", checkSettingsInternal));
         ImageMatchSettings imageMatchSettings = MatchWindowTask.createImageMatchSettings(checkSettingsInternal, this);
         String tag = checkSettingsInternal.getName();
@@ -118,6 +119,7 @@ public class VisualGridRunningTest extends RunningTest {
     public void checkCompleted(CheckTask checkTask, MatchResult matchResult) {
         validateResult(matchResult);
         checkTasks.remove(checkTask);
+        notifyCloseReadinessChanged();
     }
 
     @Override
@@ -125,6 +127,7 @@ public class VisualGridRunningTest extends RunningTest {
         super.issueAbort(error, forceAbort);
         if (isTestAborted()) {
             removeAllCheckTasks();
+            notifyCloseReadinessChanged();
         }
     }
 
@@ -161,10 +164,18 @@ public class VisualGridRunningTest extends RunningTest {
             return jobInfo;
         }
 
+        // Waits for the job info requested when the test was opened. If that request failed, the test requests it
+        SyncTaskListener<JobInfo> openListener = jobInfoListener;
+        if (openListener != null) {
+            JobInfo result = openListener.get();
+            if (result != null) {
+                jobInfo = result;
+                return jobInfo;
+            }
+        }
+
         SyncTaskListener<JobInfo[]> listener = new SyncTaskListener<>(logger, String.format("getJobInfo %s", browserInfo));
-        RenderInfo renderInfo = new RenderInfo(browserInfo.getWidth(), browserInfo.getHeight(), null, null,
-                null, browserInfo.getEmulationInfo(), browserInfo.getIosDeviceInfo());
-        RenderRequest renderRequest = new RenderRequest(renderInfo, browserInfo.getPlatform(), browserInfo.getBrowserType());
+        RenderRequest renderRequest = createJobInfoRequest();
         renderRequest.setTestId(getTestId());
         getServerConnector().getJobInfo(listener, new RenderRequest[]{renderRequest});
         JobInfo[] jobInfos = listener.get();
@@ -175,6 +186,22 @@ public class VisualGridRunningTest extends RunningTest {
         return jobInfo;
     }
 
+    /**
+     * Sets the listener of the job info requested for several tests at once, so the test doesn't request it by itself.
+     */
+    void setJobInfoListener(SyncTaskListener<JobInfo> jobInfoListener) {
+        this.jobInfoListener = jobInfoListener;
+    }
+
+    /**
+     * @return A job info request for the browser of the test, without the test id.
+     */
+    RenderRequest createJobInfoRequest() {
+        RenderInfo renderInfo = new RenderInfo(browserInfo.getWidth(), browserInfo.getHeight(), null, null,
+                null, browserInfo.getEmulationInfo(), browserInfo.getIosDeviceInfo());
+        return new RenderRequest(renderInfo, browserInfo.getPlatform(), browserInfo.getBrowserType());
+    }
+
     public String getRenderer() {
         return getJobInfo().getRenderer();
     }
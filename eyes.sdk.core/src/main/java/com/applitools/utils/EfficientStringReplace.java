@@ -1,7 +1,6 @@
 package com.applitools.utils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.util.Map;
 
@@ -74,10 +73,9 @@ public class EfficientStringReplace {
             return "";
         }
 
-        ObjectMapper objectMapper = new ObjectMapper();
         String cleaned;
         try {
-            cleaned = objectMapper.writeValueAsString(s);
+            cleaned = JsonWriters.getWriter().writeValueAsString(s);
             // Remove quotes
             cleaned = cleaned.substring(1, cleaned.length() - 1);
         } catch (JsonProcessingException e) {
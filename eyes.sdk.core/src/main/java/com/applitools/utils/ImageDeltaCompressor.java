@@ -7,7 +7,10 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
 import java.io.*;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 
@@ -18,6 +21,11 @@ public class ImageDeltaCompressor {
 
     private static final byte[] PREAMBLE;
     private static final byte COMPRESS_BY_RAW_BLOCKS_FORMAT = 3;
+    // Channel index (1 byte) and block number (4 bytes).
+    private static final int BLOCK_HEADER_LENGTH = 5;
+    // Below this amount of pixels per band, splitting the comparison costs
+    // more than it saves.
+    private static final int MIN_PIXELS_PER_BAND = 256 * 1024;
 
     // Init the preamble (needs to be in a static init block since we must
     // handle encoding exception).
@@ -35,119 +43,187 @@ public class ImageDeltaCompressor {
     }
 
     /**
-     * Encapsulates a result for the CompareAndCopyBlockChannelData function.
+     * Compares the blocks of a band of consecutive block rows in a single
+     * pass over all the channels. The channel bytes of blocks which differ
+     * from the source are written to a separate buffer per channel, already
+     * in the format of the compressed stream, so the buffers of all the bands
+     * can simply be concatenated in order.
      */
-    private static class CompareAndCopyBlockChannelDataResult {
-        private boolean isIdentical;
-        private byte[] buffer;
+    private static class CompareBandTask extends RecursiveAction {
+        private final byte[] sourcePixels;
+        private final byte[] targetPixels;
+        private final Dimension imageSize;
+        private final int pixelLength;
+        private final int blockSize;
+        private final int blockColumnsCount;
+        private final int firstBlockRow;
+        private final int lastBlockRow;
+        private final BlocksBuffer[] channelBuffers = new BlocksBuffer[3];
 
         /**
-         *
-         * @param isIdentical Whether or not the target block was identical to
-         *                    the source block.
-         * @param buffer The target block's pixel values for a specific channel.
+         * @param firstBlockRow The first block row of the band (inclusive).
+         * @param lastBlockRow The last block row of the band (exclusive).
          */
-        public CompareAndCopyBlockChannelDataResult(boolean isIdentical,
-                byte[] buffer) {
-            this.isIdentical = isIdentical;
-            this.buffer = buffer;
+        CompareBandTask(byte[] sourcePixels, byte[] targetPixels,
+                Dimension imageSize, int pixelLength, int blockSize,
+                int blockColumnsCount, int firstBlockRow, int lastBlockRow) {
+            this.sourcePixels = sourcePixels;
+            this.targetPixels = targetPixels;
+            this.imageSize = imageSize;
+            this.pixelLength = pixelLength;
+            this.blockSize = blockSize;
+            this.blockColumnsCount = blockColumnsCount;
+            this.firstBlockRow = firstBlockRow;
+            this.lastBlockRow = lastBlockRow;
+            for (int channel = 0; channel < 3; ++channel) {
+                channelBuffers[channel] = new BlocksBuffer();
+            }
         }
 
-        /**
-         * @return Whether or not the target block was identical to the
-         * source block.
-         */
-        public boolean getIsIdentical() {
-            return isIdentical;
-        }
+        @Override
+        protected void compute() {
+            int stride = imageSize.width * pixelLength;
+            // The image is RGB, so all that's left is to skip the Alpha
+            // channel if there is one.
+            int channelOffset = (pixelLength == 4) ? 1 : 0;
+            int blockArea = blockSize * blockSize;
+
+            // Scratch buffer for the channel bytes of a single block, reused
+            // for all the blocks of the band.
+            byte[] blockBytes = new byte[blockArea * 3];
+
+            for (int blockRow = firstBlockRow; blockRow < lastBlockRow;
+                    ++blockRow) {
+                // Getting the actual amount of model in the blocks of the row
+                int actualBlockHeight = Math.min(
+                        imageSize.height - (blockRow * blockSize), blockSize);
+                for (int blockColumn = 0; blockColumn < blockColumnsCount;
+                        ++blockColumn) {
+                    int actualBlockWidth = Math.min(
+                            imageSize.width - (blockColumn * blockSize),
+                            blockSize);
+
+                    // Any bit set means the channel isn't identical
+                    int diff0 = 0, diff1 = 0, diff2 = 0;
+                    int i = 0;
+                    for (int h = 0; h < actualBlockHeight; ++h) {
+                        int offset = (((blockSize * blockRow) + h) * stride) +
+                                (blockSize * blockColumn * pixelLength) +
+                                channelOffset;
+                        for (int w = 0; w < actualBlockWidth; ++w) {
+                            byte target0 = targetPixels[offset];
+                            byte target1 = targetPixels[offset + 1];
+                            byte target2 = targetPixels[offset + 2];
+                            diff0 |= target0 ^ sourcePixels[offset];
+                            diff1 |= target1 ^ sourcePixels[offset + 1];
+                            diff2 |= target2 ^ sourcePixels[offset + 2];
+                            blockBytes[i] = target0;
+                            blockBytes[blockArea + i] = target1;
+                            blockBytes[2 * blockArea + i] = target2;
+                            ++i;
+                            offset += pixelLength;
+                        }
+                    }
 
-        /**
-         * @return The target block's pixel values for a specific channel.
-         */
-        public byte[] getBuffer() {
-            return buffer;
+                    int blockNumber = (blockRow * blockColumnsCount) +
+                            blockColumn;
+                    if (diff0 != 0) {
+                        channelBuffers[0].writeBlock(0, blockNumber,
+                                blockBytes, 0, i);
+                    }
+                    if (diff1 != 0) {
+                        channelBuffers[1].writeBlock(1, blockNumber,
+                                blockBytes, blockArea, i);
+                    }
+                    if (diff2 != 0) {
+                        channelBuffers[2].writeBlock(2, blockNumber,
+                                blockBytes, 2 * blockArea, i);
+                    }
+                }
+            }
         }
     }
 
     /**
-     * Computes the width and height of the image model contained in the block
-     * at the input column and row.
-     * @param imageSize The image size in pixels.
-     * @param blockSize The block size for which we would like to compute the
-     *                  image model width and height.
-     * @param blockColumn The block column index
-     * @param blockRow The block row index
-     * @return The width and height of the image model contained in the block.
+     * A growing byte buffer holding compressed stream entries of blocks,
+     * i.e., the channel index, the block number (Big endian) and the block's
+     * channel bytes.
      */
-    private static Dimension getActualBlockSize(Dimension imageSize,
-            int blockSize, int blockColumn, int blockRow) {
-        int actualWidth = Math.min(imageSize.width - (blockColumn * blockSize),
-                blockSize);
-        int actualHeight = Math.min(imageSize.height - (blockRow * blockSize),
-                                blockSize);
-
-        return new Dimension(actualWidth, actualHeight);
+    private static class BlocksBuffer {
+        private byte[] data = new byte[0];
+        private int size = 0;
+
+        void writeBlock(int channel, int blockNumber, byte[] bytes,
+                int offset, int length) {
+            int requiredSize = size + BLOCK_HEADER_LENGTH + length;
+            if (requiredSize > data.length) {
+                data = Arrays.copyOf(data,
+                        Math.max(requiredSize, data.length * 2));
+            }
+
+            data[size++] = (byte) channel;
+            data[size++] = (byte) (blockNumber >>> 24);
+            data[size++] = (byte) (blockNumber >>> 16);
+            data[size++] = (byte) (blockNumber >>> 8);
+            data[size++] = (byte) blockNumber;
+            System.arraycopy(bytes, offset, data, size, length);
+            size += length;
+        }
     }
 
     /**
-     * Compares a block of pixels between the source and target images.
-     * @param sourcePixels The pixels of the source block.
-     * @param targetPixels The pixels of the target block
-     * @param imageSize The image size in pixels.
-     * @param pixelLength Bytes per pixel. Since pixel might include alpha.
-     * @param blockSize The block size in pixels.
-     * @param blockColumn The column index of the block to compare.
-     * @param blockRow The row index of the block to compare.
-     * @param channel The channel for which we compare the blocks
-     * @return Whether the source and target blocks are identical,
-     * and a copy of the target block's channel bytes.
+     * Compresses a target image based on a difference from a source image.
+     *
+     * @param target The image we want to compress. (type is TYPE_4BYTE_ABGR)
+     * @param targetEncoded The image we want to compress in its png bytes
+     *                      representation.
+     * @param source The baseline image by which a compression will be
+     *               performed. (type is TYPE_4BYTE_ABGR)
+     * @param blockSize How many pixels per block.
+     * @return The compression result, or the {@code targetEncoded} if the
+     * compressed bytes count is greater than the uncompressed bytes count.
+     * @throws java.io.IOException If there was a problem reading/writing
+     * from/to the streams which are created during the process.
      */
-    @SuppressWarnings("SpellCheckingInspection")
-    private static CompareAndCopyBlockChannelDataResult
-            CompareAndCopyBlockChannelData(
-                byte[] sourcePixels, byte[] targetPixels,
-                Dimension imageSize, int pixelLength, int blockSize,
-            int blockColumn, int blockRow, int channel) {
-
-        boolean isIdentical = true; // initial default
-
-        // Getting the actual amount of model in the block we wish to copy
-        Dimension actualBlockSize =
-                getActualBlockSize(imageSize, blockSize, blockColumn, blockRow);
-
-        int actualBlockHeight = actualBlockSize.height;
-        int actualBlockWidth = actualBlockSize.width;
-
-        int stride = imageSize.width * pixelLength;
-
-        // The number of bytes actually contained in the block for the
-        // current channel (might be less than blockSize*blockSize)
-        byte[] channelBytes = new byte[actualBlockHeight*actualBlockWidth];
-        int channelBytesOffset = 0;
-
-        // Actually comparing and copying the pixels
-        byte sourceByte, targetByte;
-        for (int h = 0; h < actualBlockHeight; ++h) {
-            int offset = (((blockSize * blockRow) + h) * stride) +
-                    (blockSize * blockColumn * pixelLength) + channel;
-            for (int w = 0; w < actualBlockWidth; ++w) {
-                sourceByte = sourcePixels[offset];
-                targetByte = targetPixels[offset];
-                if (sourceByte != targetByte) {
-                    isIdentical = false;
-                }
-
-                channelBytes[channelBytesOffset++] = targetByte;
-                offset += pixelLength;
-            }
-        }
+    public static byte[] compressByRawBlocks(BufferedImage target,
+            byte[] targetEncoded, BufferedImage source, int blockSize)
+                throws IOException {
+        return compressByRawBlocks(target, targetEncoded, source, blockSize,
+                Deflater.BEST_COMPRESSION);
+    }
 
-        return new CompareAndCopyBlockChannelDataResult(isIdentical,
-                channelBytes);
+    /**
+     * Compresses a target image based on a difference from a source image.
+     * The image is split to bands of block rows which are compared in
+     * parallel.
+     *
+     * @param target The image we want to compress. (type is TYPE_4BYTE_ABGR)
+     * @param targetEncoded The image we want to compress in its png bytes
+     *                      representation.
+     * @param source The baseline image by which a compression will be
+     *               performed. (type is TYPE_4BYTE_ABGR)
+     * @param blockSize How many pixels per block.
+     * @param deflateLevel The deflate compression level (0-9), see
+     *                     {@link Deflater}.
+     * @return The compression result, or the {@code targetEncoded} if the
+     * compressed bytes count is greater than the uncompressed bytes count.
+     * @throws java.io.IOException If there was a problem reading/writing
+     * from/to the streams which are created during the process.
+     */
+    public static byte[] compressByRawBlocks(BufferedImage target,
+            byte[] targetEncoded, BufferedImage source, int blockSize,
+            int deflateLevel) throws IOException {
+        ArgumentGuard.greaterThanZero(blockSize, "blockSize");
+        // Small images aren't worth splitting.
+        int bandBlockRows = Math.max(1,
+                MIN_PIXELS_PER_BAND / (target.getWidth() * blockSize));
+        return compressByRawBlocks(target, targetEncoded, source, blockSize,
+                deflateLevel, bandBlockRows);
     }
 
     /**
      * Compresses a target image based on a difference from a source image.
+     * The result doesn't depend on the number of block rows per band.
      *
      * @param target The image we want to compress. (type is TYPE_4BYTE_ABGR)
      * @param targetEncoded The image we want to compress in its png bytes
@@ -155,14 +231,19 @@ public class ImageDeltaCompressor {
      * @param source The baseline image by which a compression will be
      *               performed. (type is TYPE_4BYTE_ABGR)
      * @param blockSize How many pixels per block.
+     * @param deflateLevel The deflate compression level (0-9), see
+     *                     {@link Deflater}.
+     * @param bandBlockRows How many block rows are compared by a single task.
      * @return The compression result, or the {@code targetEncoded} if the
      * compressed bytes count is greater than the uncompressed bytes count.
      * @throws java.io.IOException If there was a problem reading/writing
      * from/to the streams which are created during the process.
      */
     public static byte[] compressByRawBlocks(BufferedImage target,
-            byte[] targetEncoded, BufferedImage source, int blockSize)
-                throws IOException {
+            byte[] targetEncoded, BufferedImage source, int blockSize,
+            int deflateLevel, int bandBlockRows) throws IOException {
+        ArgumentGuard.greaterThanZero(blockSize, "blockSize");
+        ArgumentGuard.greaterThanZero(bandBlockRows, "bandBlockRows");
 
         // If there's no image to compare to, or the images are in different
         // sizes, we simply return the encoded target.
@@ -190,6 +271,19 @@ public class ImageDeltaCompressor {
         int blockRowsCount = (target.getHeight() / blockSize)
                 + ((target.getHeight() % blockSize) == 0 ? 0 : 1);
 
+        // Comparing the bands in parallel.
+        bandBlockRows = Math.min(bandBlockRows, blockRowsCount);
+        List<CompareBandTask> bands = new ArrayList<>();
+        for (int firstBlockRow = 0; firstBlockRow < blockRowsCount;
+                firstBlockRow += bandBlockRows) {
+            bands.add(new CompareBandTask(sourcePixels, targetPixels,
+                    imageSize, pixelLength, blockSize, blockColumnsCount,
+                    firstBlockRow,
+                    Math.min(firstBlockRow + bandBlockRows, blockRowsCount)));
+        }
+
+        ImageUtils.invokeAll(bands);
+
         // We'll use a stream for the compression.
         ByteArrayOutputStream resultStream = new ByteArrayOutputStream();
         CountingOutputStream resultCountingStream =
@@ -198,60 +292,42 @@ public class ImageDeltaCompressor {
         DataOutputStream resultDataOutputStream =
                 new DataOutputStream(resultCountingStream);
         // This will be used for doing actual model compression
-        DeflaterOutputStream compressed =
-                new DeflaterOutputStream(resultCountingStream,
-                        new Deflater(Deflater.BEST_COMPRESSION,true));
-
-        DataOutputStream compressedDos = new DataOutputStream(compressed);
-
-        // Writing the header
-        resultStream.write(PREAMBLE, 0, PREAMBLE.length);
-        resultStream.write(COMPRESS_BY_RAW_BLOCKS_FORMAT);
-        // since we don't have a source ID, we write 0 length (Big endian).
-        resultDataOutputStream.writeShort(0);
-
-        // Writing the block size (Big endian)
-        resultDataOutputStream.writeShort(blockSize);
-
-        CompareAndCopyBlockChannelDataResult compareResult;
-        for (int channel = 0; channel < 3; ++channel) {
-
-            // The image is RGB, so all that's left is to skip the Alpha
-            // channel if there is one.
-            int actualChannelIndex = (pixelLength == 4) ? channel + 1 : channel;
-
-            int blockNumber = 0;
-            for (int blockRow = 0; blockRow < blockRowsCount; ++blockRow) {
-                for (int blockColumn = 0; blockColumn < blockColumnsCount;
-                        ++blockColumn) {
-
-                    compareResult = CompareAndCopyBlockChannelData
-                            (sourcePixels, targetPixels, imageSize,
-                                    pixelLength, blockSize, blockColumn,
-                                    blockRow, actualChannelIndex);
-
-                    if (!compareResult.getIsIdentical()) {
-                        compressed.write(channel);
-                        compressedDos.writeInt(blockNumber); // Big endian
-                        byte[] channelBytes = compareResult.getBuffer();
-                        compressed.write(channelBytes, 0, channelBytes.length);
-
-                        // If the number of bytes already written is greater
-                        // then the number of bytes for the uncompressed
-                        // target, we just return the uncompressed target.
-                        if (resultCountingStream.getBytesCount()
+        Deflater deflater = new Deflater(deflateLevel, true);
+        try {
+            DeflaterOutputStream compressed =
+                    new DeflaterOutputStream(resultCountingStream, deflater);
+
+            // Writing the header
+            resultStream.write(PREAMBLE, 0, PREAMBLE.length);
+            resultStream.write(COMPRESS_BY_RAW_BLOCKS_FORMAT);
+            // since we don't have a source ID, we write 0 length (Big endian).
+            resultDataOutputStream.writeShort(0);
+
+            // Writing the block size (Big endian)
+            resultDataOutputStream.writeShort(blockSize);
+
+            // The blocks are written channel by channel, so the bands are
+            // concatenated once for each channel.
+            for (int channel = 0; channel < 3; ++channel) {
+                for (CompareBandTask band : bands) {
+                    BlocksBuffer blocks = band.channelBuffers[channel];
+                    compressed.write(blocks.data, 0, blocks.size);
+
+                    // If the number of bytes already written is greater
+                    // then the number of bytes for the uncompressed
+                    // target, we just return the uncompressed target.
+                    if (resultCountingStream.getBytesCount()
                             > targetEncoded.length) {
-                            compressedDos.close();
-                            return Arrays.copyOf(targetEncoded,
-                                                    targetEncoded.length);
-                        }
+                        compressed.close();
+                        return Arrays.copyOf(targetEncoded,
+                                                targetEncoded.length);
                     }
-
-                    ++blockNumber;
                 }
             }
+            compressed.close(); // flushing + closing the compression.
+        } finally {
+            deflater.end();
         }
-        compressedDos.close(); // flushing + closing the compression.
 
         if (resultCountingStream.getBytesCount() > targetEncoded.length) {
             return targetEncoded;
@@ -0,0 +1,109 @@
+package com.applitools.utils;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Finds the vertical offset between overlapping images, e.g. consecutive parts of a scrolled view, by matching hashes
+ * of their rows. Rows of a single color appear in every image (backgrounds, separators), so they aren't used as
+ * evidence for an offset.
+ */
+public class ImageRegistration {
+    // The minimum number of rows that must match for an offset to be trusted
+    public static final int MIN_MATCHING_ROWS = 8;
+
+    // The minimum part of the compared rows that must match, allowing for shadows and animations in the overlap
+    private static final double MIN_MATCHING_RATIO = 0.9;
+
+    private static final long UNIFORM_ROW = 0;
+    private static final long ROW_HASH_SEED = 0xcbf29ce484222325L;
+    private static final long ROW_HASH_PRIME = 0x100000001b3L;
+
+    /**
+     * Finds where an image continues a reference image. The top rows of the image are expected to be the same
+     * as rows of the reference above {@code referenceBottom}, near {@code expectedTop}.
+     * @param reference       The reference image, e.g. the stitched image so far.
+     * @param referenceBottom The row below the last valid row of the reference.
+     * @param image           The image to find in the reference.
+     * @param expectedTop     The expected top of the image in the reference.
+     * @param maxDeviation    The maximum distance between the expected and the actual top of the image.
+     * @param width           The number of columns to compare, from the left of the images. Columns which change
+     *                        between the images regardless of their content (e.g. scroll bars) should be excluded.
+     * @return The top of the image in the reference, or {@code null} if no offset was matched with certainty.
+     */
+    public static Integer findTop(BufferedImage reference, int referenceBottom, BufferedImage image,
+                                  int expectedTop, int maxDeviation, int width) {
+        ArgumentGuard.notNull(reference, "reference");
+        ArgumentGuard.notNull(image, "image");
+        ArgumentGuard.greaterThanOrEqualToZero(maxDeviation, "maxDeviation");
+        ArgumentGuard.greaterThanZero(width, "width");
+        width = Math.min(width, Math.min(reference.getWidth(), image.getWidth()));
+        referenceBottom = Math.min(referenceBottom, reference.getHeight());
+
+        // Only the rows which may overlap are hashed
+        int windowTop = Math.max(0, expectedTop - maxDeviation);
+        int windowBottom = referenceBottom - MIN_MATCHING_ROWS;
+        if (windowTop > windowBottom) {
+            return null;
+        }
+
+        long[] referenceRows = getRowHashes(reference, windowTop, referenceBottom - windowTop, width);
+        long[] imageRows = getRowHashes(image, 0, Math.min(image.getHeight(), referenceBottom - windowTop), width);
+
+        Integer bestTop = null;
+        double bestRatio = 0;
+        int lastTop = Math.min(expectedTop + maxDeviation, windowBottom);
+        for (int top = windowTop; top <= lastTop; top++) {
+            int overlap = Math.min(imageRows.length, referenceBottom - top);
+            int comparedRows = 0;
+            int matchingRows = 0;
+            for (int i = 0; i < overlap; i++) {
+                long imageRow = imageRows[i];
+                long referenceRow = referenceRows[top - windowTop + i];
+                if (imageRow == UNIFORM_ROW && referenceRow == UNIFORM_ROW) {
+                    continue;
+                }
+
+                comparedRows++;
+                if (imageRow == referenceRow) {
+                    matchingRows++;
+                }
+            }
+
+            double ratio = (double) matchingRows / comparedRows;
+            if (matchingRows < MIN_MATCHING_ROWS || ratio < MIN_MATCHING_RATIO) {
+                continue;
+            }
+
+            // Repeating content matches several offsets equally well, the one nearest to the expected top wins
+            if (bestTop == null || ratio > bestRatio
+                    || (ratio == bestRatio && Math.abs(top - expectedTop) < Math.abs(bestTop - expectedTop))) {
+                bestRatio = ratio;
+                bestTop = top;
+            }
+        }
+
+        return bestTop;
+    }
+
+    /**
+     * @return The hashes of the rows of the image in the columns {@code [0, width)}.
+     * Rows of a single color have the hash {@link #UNIFORM_ROW}.
+     */
+    static long[] getRowHashes(BufferedImage image, int top, int height, int width) {
+        long[] hashes = new long[height];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, top + y, width, 1, row, 0, width);
+            boolean isUniform = true;
+            long hash = ROW_HASH_SEED;
+            for (int pixel : row) {
+                isUniform &= pixel == row[0];
+                hash = (hash ^ pixel) * ROW_HASH_PRIME;
+            }
+
+            hashes[y] = isUniform || hash == UNIFORM_ROW ? UNIFORM_ROW : hash;
+        }
+
+        return hashes;
+    }
+}
@@ -0,0 +1,325 @@
+package com.applitools.utils;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scales {@link ImageView}s exactly like {@link ImageUtils#scaleImage(BufferedImage, double, boolean)}, working
+ * directly on the rows of the views. The intermediate and destination buffers are kept and reused by the following
+ * scales, so a scaled view is valid only until the next scale, and a scaler mustn't be used by several threads at once.
+ * The interpolation weights are computed once per scale, and the rows are interpolated by parallel tasks in bands.
+ */
+public class ImageScaler {
+    private static final int PIXEL_LENGTH = ImageView.PIXEL_LENGTH;
+
+    // Below this amount of bytes per task, splitting the rows costs more than it saves
+    private static final int MIN_BYTES_PER_TASK = 256 * 1024;
+
+    // Interpolated rows, with the width of the destination (times the reduction multiple) and the height of the source
+    private byte[] rowsBuffer = new byte[0];
+
+    // Interpolated rows and columns, with the size of the destination
+    private byte[] columnsBuffer = new byte[0];
+
+    // Reduced from the interpolated rows and columns, when the destination is smaller than half the source
+    private byte[] reducedBuffer = new byte[0];
+
+    /**
+     * @see ImageUtils#scaleImage(BufferedImage, double, boolean)
+     */
+    public ImageView scale(ImageView source, double scaleRatio, boolean isMobile) {
+        ArgumentGuard.notNull(source, "source");
+        if (scaleRatio == 1) {
+            return source;
+        }
+
+        int targetWidth = (int) Math.ceil(source.getWidth() * scaleRatio);
+        int targetHeight;
+        if (isMobile) {
+            double imageRatio = (double) source.getHeight() / (double) source.getWidth();
+            targetHeight = (int) Math.ceil(targetWidth * imageRatio);
+        } else {
+            targetHeight = (int) Math.ceil(source.getHeight() * scaleRatio);
+        }
+
+        return resize(source, targetWidth, targetHeight);
+    }
+
+    public ImageView scale(ImageView source, double scaleRatio) {
+        return scale(source, scaleRatio, false);
+    }
+
+    /**
+     * @see ImageUtils#resizeImage(BufferedImage, int, int)
+     */
+    public ImageView resize(ImageView source, int targetWidth, int targetHeight) {
+        ArgumentGuard.notNull(source, "source");
+        if (source.getWidth() == targetWidth && source.getHeight() == targetHeight) {
+            return source;
+        }
+
+        // The interpolation reads two pixels in each direction
+        if (source.getWidth() < 2 || source.getHeight() < 2) {
+            return ImageView.of(ImageUtils.resizeImage(source.toBufferedImage(), targetWidth, targetHeight));
+        }
+
+        if (targetWidth > source.getWidth() || targetHeight > source.getHeight()) {
+            return scaleBicubic(source, targetWidth, targetHeight);
+        }
+
+        // Scaling down incrementally, every step reads its source only before writing its destination,
+        // so the buffers can be reused by the steps.
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            int previousWidth = currentWidth;
+            int previousHeight = currentHeight;
+            if (currentWidth > targetWidth) {
+                currentWidth = Math.max(targetWidth, currentWidth - currentWidth / 2);
+            }
+            if (currentHeight > targetHeight) {
+                currentHeight = Math.max(targetHeight, currentHeight - currentHeight / 2);
+            }
+            if (previousWidth == currentWidth && previousHeight == currentHeight) {
+                break;
+            }
+
+            source = scaleBicubic(source, currentWidth, currentHeight);
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+
+        return source;
+    }
+
+    private ImageView scaleBicubic(ImageView source, int targetWidth, int targetHeight) {
+        int wSrc = source.getWidth();
+        int hSrc = source.getHeight();
+
+        // when dst smaller than src/2, interpolate first to a multiple between 0.5 and 1.0 src, then sum squares
+        int wM = Math.max(1, wSrc / targetWidth);
+        int wDst2 = targetWidth * wM;
+        int hM = Math.max(1, hSrc / targetHeight);
+        int hDst2 = targetHeight * hM;
+        int rowLength = wDst2 * PIXEL_LENGTH;
+
+        // Pass 1 - interpolate rows
+        rowsBuffer = ensureCapacity(rowsBuffer, rowLength * hSrc);
+        Weights columnWeights = new Weights(wSrc, wDst2);
+        List<RecursiveAction> rowTasks = new ArrayList<>();
+        for (int firstRow = 0; firstRow < hSrc; firstRow += rowsPerTask(rowLength)) {
+            rowTasks.add(new InterpolateRowsTask(source, rowsBuffer, rowLength, columnWeights, firstRow,
+                    Math.min(hSrc, firstRow + rowsPerTask(rowLength))));
+        }
+        ImageUtils.invokeAll(rowTasks);
+
+        // Pass 2 - interpolate columns, a whole row at a time. When reducing, the interpolated rows are summed
+        // directly into the destination instead of being kept for a third pass.
+        Weights rowWeights = new Weights(hSrc, hDst2);
+        byte[] destination;
+        int destinationRowLength;
+        if (wM == 1 && hM == 1) {
+            columnsBuffer = ensureCapacity(columnsBuffer, rowLength * hDst2);
+            destination = columnsBuffer;
+            destinationRowLength = rowLength;
+        } else {
+            reducedBuffer = ensureCapacity(reducedBuffer, targetWidth * targetHeight * PIXEL_LENGTH);
+            destination = reducedBuffer;
+            destinationRowLength = targetWidth * PIXEL_LENGTH;
+        }
+
+        List<RecursiveAction> columnTasks = new ArrayList<>();
+        int rowsPerTask = Math.max(1, rowsPerTask(rowLength * hM) / hM);
+        for (int firstRow = 0; firstRow < targetHeight; firstRow += rowsPerTask) {
+            columnTasks.add(new InterpolateColumnsTask(rowsBuffer, destination, rowLength, hSrc, rowWeights,
+                    targetWidth, wM, hM, firstRow, Math.min(targetHeight, firstRow + rowsPerTask)));
+        }
+        ImageUtils.invokeAll(columnTasks);
+
+        return new ImageView(destination, 0, destinationRowLength, targetWidth, targetHeight);
+    }
+
+    private static int rowsPerTask(int rowLength) {
+        return Math.max(1, MIN_BYTES_PER_TASK / rowLength);
+    }
+
+    /**
+     * Like {@link ImageUtils#interpolateCubic(int, int, int, int, double)}, with the powers of {@code t} computed
+     * in advance. The terms are added in the same order, so the results are identical.
+     */
+    private static int interpolateCubic(int x0, int x1, int x2, int x3, double t, double t2, double t3) {
+        int a0 = x3 - x2 - x0 + x1;
+        int a1 = x0 - x1 - a0;
+        int a2 = x2 - x0;
+        double value = (a0 * t3) + (a1 * t2) + (a2 * t) + (x1);
+        return value <= 0 ? 0 : value >= 255 ? 255 : (int) value;
+    }
+
+    /**
+     * The source position and the interpolation weights of every destination position along one axis.
+     */
+    private static class Weights {
+        private final int[] positions;
+        private final double[] t;
+        private final double[] t2;
+        private final double[] t3;
+
+        Weights(int sourceLength, int destinationLength) {
+            positions = new int[destinationLength];
+            t = new double[destinationLength];
+            t2 = new double[destinationLength];
+            t3 = new double[destinationLength];
+            for (int i = 0; i < destinationLength; i++) {
+                double position = (double) i * (sourceLength - 1) / destinationLength;
+                positions[i] = (int) Math.floor(position);
+                t[i] = position - positions[i];
+                t2[i] = t[i] * t[i];
+                t3[i] = t[i] * t[i] * t[i];
+            }
+        }
+    }
+
+    /**
+     * Interpolates a band of source rows to the destination width.
+     */
+    private static class InterpolateRowsTask extends RecursiveAction {
+        private final ImageView source;
+        private final byte[] rows;
+        private final int rowLength;
+        private final Weights weights;
+        private final int firstRow;
+        private final int lastRow;
+
+        InterpolateRowsTask(ImageView source, byte[] rows, int rowLength, Weights weights, int firstRow, int lastRow) {
+            this.source = source;
+            this.rows = rows;
+            this.rowLength = rowLength;
+            this.weights = weights;
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+        }
+
+        @Override
+        protected void compute() {
+            byte[] sourceData = source.getData();
+            int wSrc = source.getWidth();
+            int wDst2 = weights.positions.length;
+            for (int i = firstRow; i < lastRow; i++) {
+                int sourceRow = source.getRowOffset(i);
+                int rowsPos = i * rowLength;
+                for (int j = 0; j < wDst2; j++) {
+                    int xPos = weights.positions[j];
+                    double t = weights.t[j];
+                    double t2 = weights.t2[j];
+                    double t3 = weights.t3[j];
+                    int srcPos = sourceRow + xPos * PIXEL_LENGTH;
+                    for (int k = 0; k < PIXEL_LENGTH; k++) {
+                        int kPos = srcPos + k;
+                        int x1 = sourceData[kPos] & 0xff;
+                        int x2 = sourceData[kPos + 4] & 0xff;
+                        int x0 = (xPos > 0) ? sourceData[kPos - 4] & 0xff : 2 * x1 - x2;
+                        int x3 = (xPos < wSrc - 2) ? sourceData[kPos + 8] & 0xff : 2 * x2 - x1;
+                        rows[rowsPos++] = (byte) interpolateCubic(x0, x1, x2, x3, t, t2, t3);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Interpolates the rows to the destination height for a band of destination rows. When reducing by a multiple,
+     * every destination pixel is the average of the interpolated pixels it covers.
+     */
+    private static class InterpolateColumnsTask extends RecursiveAction {
+        private final byte[] rows;
+        private final byte[] destination;
+        private final int rowLength;
+        private final int hSrc;
+        private final Weights weights;
+        private final int targetWidth;
+        private final int wM;
+        private final int hM;
+        private final int firstRow;
+        private final int lastRow;
+
+        InterpolateColumnsTask(byte[] rows, byte[] destination, int rowLength, int hSrc, Weights weights,
+                               int targetWidth, int wM, int hM, int firstRow, int lastRow) {
+            this.rows = rows;
+            this.destination = destination;
+            this.rowLength = rowLength;
+            this.hSrc = hSrc;
+            this.weights = weights;
+            this.targetWidth = targetWidth;
+            this.wM = wM;
+            this.hM = hM;
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (wM == 1 && hM == 1) {
+                for (int i = firstRow; i < lastRow; i++) {
+                    interpolateRow(i, destination, i * rowLength);
+                }
+                return;
+            }
+
+            // Reducing by 2 (the usual halving step of retina screenshots) or any other multiple
+            byte[] interpolated = new byte[rowLength];
+            int[] sums = new int[targetWidth * PIXEL_LENGTH];
+            int m = wM * hM;
+            for (int i = firstRow; i < lastRow; i++) {
+                Arrays.fill(sums, 0);
+                for (int y = 0; y < hM; y++) {
+                    interpolateRow(i * hM + y, interpolated, 0);
+                    if (wM == 2) {
+                        for (int p = 0, q = 0; p < sums.length; p += PIXEL_LENGTH, q += 2 * PIXEL_LENGTH) {
+                            sums[p] += (interpolated[q] & 0xff) + (interpolated[q + 4] & 0xff);
+                            sums[p + 1] += (interpolated[q + 1] & 0xff) + (interpolated[q + 5] & 0xff);
+                            sums[p + 2] += (interpolated[q + 2] & 0xff) + (interpolated[q + 6] & 0xff);
+                            sums[p + 3] += (interpolated[q + 3] & 0xff) + (interpolated[q + 7] & 0xff);
+                        }
+                    } else {
+                        for (int p = 0, q = 0; p < sums.length; p += PIXEL_LENGTH) {
+                            for (int x = 0; x < wM; x++, q += PIXEL_LENGTH) {
+                                sums[p] += interpolated[q] & 0xff;
+                                sums[p + 1] += interpolated[q + 1] & 0xff;
+                                sums[p + 2] += interpolated[q + 2] & 0xff;
+                                sums[p + 3] += interpolated[q + 3] & 0xff;
+                            }
+                        }
+                    }
+                }
+
+                int pos = i * sums.length;
+                for (int p = 0; p < sums.length; p++) {
+                    destination[pos++] = (byte) (sums[p] / m);
+                }
+            }
+        }
+
+        private void interpolateRow(int i, byte[] output, int outputPos) {
+            int yPos = weights.positions[i];
+            double t = weights.t[i];
+            double t2 = weights.t2[i];
+            double t3 = weights.t3[i];
+            int row1 = yPos * rowLength;
+            int row2 = row1 + rowLength;
+            int row0 = (yPos > 0) ? row1 - rowLength : -1;
+            int row3 = (yPos < hSrc - 2) ? row2 + rowLength : -1;
+            for (int p = 0; p < rowLength; p++) {
+                int y1 = rows[row1 + p] & 0xff;
+                int y2 = rows[row2 + p] & 0xff;
+                int y0 = row0 >= 0 ? rows[row0 + p] & 0xff : 2 * y1 - y2;
+                int y3 = row3 >= 0 ? rows[row3 + p] & 0xff : 2 * y2 - y1;
+                output[outputPos + p] = (byte) interpolateCubic(y0, y1, y2, y3, t, t2, t3);
+            }
+        }
+    }
+
+    private static byte[] ensureCapacity(byte[] buffer, int length) {
+        return buffer.length >= length ? buffer : new byte[length];
+    }
+}
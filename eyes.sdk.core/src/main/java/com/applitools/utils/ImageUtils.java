@@ -10,17 +10,33 @@ import org.imgscalr.Scalr;
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
 import java.awt.image.DataBuffer;
 import java.awt.image.DataBufferByte;
 import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
 import java.io.*;
 import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class ImageUtils {
 
     @SuppressWarnings("WeakerAccess")
     public static final int REQUIRED_IMAGE_TYPE = BufferedImage.TYPE_4BYTE_ABGR;
 
+    private static final PngEncoder PNG_ENCODER = new PngEncoder();
+    private static final PngDecoder PNG_DECODER = new PngDecoder();
+
+    // FNV-1a parameters, applied on 4 bytes at a time
+    private static final long FINGERPRINT_SEED = 0xcbf29ce484222325L;
+    private static final long FINGERPRINT_PRIME = 0x100000001b3L;
+
+    // Shared by the image operations which are split to tasks running in parallel
+    private static final ForkJoinPool PROCESSING_POOL = new ForkJoinPool();
+
     public static BufferedImage normalizeImageType(BufferedImage image) {
         if (image.getType() == REQUIRED_IMAGE_TYPE) {
             return image;
@@ -38,6 +54,10 @@ public class ImageUtils {
 
         ArgumentGuard.notNull(image, "image");
 
+        if (PngEncoder.isSupported(image)) {
+            return PNG_ENCODER.encode(image);
+        }
+
         byte[] encodedImage; // PNG representation.
         ByteArrayOutputStream pngBytesStream = new ByteArrayOutputStream();
 
@@ -137,8 +157,29 @@ public class ImageUtils {
      */
     public static BufferedImage imageFromBase64(String image64) throws
             EyesException {
+        return imageFromBase64(image64, null);
+    }
+
+    /**
+     * Creates a {@code BufferedImage} instance from a base64 encoding of an
+     * image's bytes, reusing the pixels of a given image when possible.
+     * @param image64 The base64 encoding of an image's bytes.
+     * @param target  An image which is no longer used, whose pixels are
+     *                overwritten if it is of the same size, or {@code null}.
+     * @return A {@code BufferedImage} instance, which may be {@code target}.
+     * @throws com.applitools.eyes.EyesException If there was a problem
+     *                                           creating the {@code BufferedImage} instance.
+     */
+    public static BufferedImage imageFromBase64(String image64, BufferedImage target) throws
+            EyesException {
         ArgumentGuard.notNullOrEmpty(image64, "image64");
 
+        // Screenshots are decoded directly into their pixels, other images are read by ImageIO
+        BufferedImage image = PNG_DECODER.decode(image64, target);
+        if (image != null) {
+            return image;
+        }
+
         // Get the image bytes
         byte[] imageBytes =
                 Base64.decodeBase64(image64.getBytes(Charset.forName("UTF-8")));
@@ -260,6 +301,123 @@ public class ImageUtils {
         return true;
     }
 
+    /**
+     * Computes a 64 bit fingerprint of the pixels of an image, without encoding it.
+     * Identical images always have the same fingerprint, and different images have the same fingerprint with a
+     * negligible probability.
+     * @param image The image to compute the fingerprint for.
+     * @return The fingerprint of the image.
+     */
+    public static long getImageFingerprint(BufferedImage image) {
+        ArgumentGuard.notNull(image, "image");
+        int width = image.getWidth();
+        int height = image.getHeight();
+        long hash = FINGERPRINT_SEED ^ (((long) width << 32) | height);
+
+        WritableRaster raster = image.getRaster();
+        if (raster.getDataBuffer() instanceof DataBufferByte
+                && raster.getSampleModel() instanceof ComponentSampleModel) {
+            // Reading the bytes of every row directly, sub images share the data of their parent
+            DataBufferByte dataBuffer = (DataBufferByte) raster.getDataBuffer();
+            ComponentSampleModel sampleModel = (ComponentSampleModel) raster.getSampleModel();
+            byte[] data = dataBuffer.getData();
+            int stride = sampleModel.getScanlineStride();
+            int pixelStride = sampleModel.getPixelStride();
+            int offset = dataBuffer.getOffset() - raster.getSampleModelTranslateY() * stride
+                    - raster.getSampleModelTranslateX() * pixelStride;
+            int rowLength = width * pixelStride;
+            for (int y = 0; y < height; y++) {
+                int i = offset + y * stride;
+                int end = i + rowLength;
+                for (; i + 4 <= end; i += 4) {
+                    int word = (data[i] & 0xff) | (data[i + 1] & 0xff) << 8
+                            | (data[i + 2] & 0xff) << 16 | data[i + 3] << 24;
+                    hash = (hash ^ word) * FINGERPRINT_PRIME;
+                }
+                for (; i < end; i++) {
+                    hash = (hash ^ data[i]) * FINGERPRINT_PRIME;
+                }
+            }
+        } else {
+            int[] row = new int[width];
+            for (int y = 0; y < height; y++) {
+                image.getRGB(0, y, width, 1, row, 0, width);
+                for (int pixel : row) {
+                    hash = (hash ^ pixel) * FINGERPRINT_PRIME;
+                }
+            }
+        }
+
+        // Mixing the bits of the last words into the whole hash
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Copies the pixels of an image into another image, without an intermediate copy of the source pixels.
+     * Pixels outside the destination image are ignored.
+     * @param destination The image to paste into.
+     * @param source      The image to paste.
+     * @param x           The left of the pasted image in the destination.
+     * @param y           The top of the pasted image in the destination.
+     */
+    public static void pasteImage(BufferedImage destination, BufferedImage source, int x, int y) {
+        ArgumentGuard.notNull(destination, "destination");
+        ArgumentGuard.notNull(source, "source");
+        WritableRaster destinationRaster = destination.getRaster();
+        WritableRaster sourceRaster = source.getRaster();
+        if (!haveSameByteLayout(destinationRaster, sourceRaster)) {
+            destinationRaster.setRect(x, y, sourceRaster);
+            return;
+        }
+
+        int left = Math.max(0, x);
+        int top = Math.max(0, y);
+        int right = Math.min(destination.getWidth(), x + source.getWidth());
+        int bottom = Math.min(destination.getHeight(), y + source.getHeight());
+        if (left >= right || top >= bottom) {
+            return;
+        }
+
+        // Copying whole rows, sub images share the data of their parent
+        DataBufferByte destinationBuffer = (DataBufferByte) destinationRaster.getDataBuffer();
+        DataBufferByte sourceBuffer = (DataBufferByte) sourceRaster.getDataBuffer();
+        ComponentSampleModel destinationModel = (ComponentSampleModel) destinationRaster.getSampleModel();
+        ComponentSampleModel sourceModel = (ComponentSampleModel) sourceRaster.getSampleModel();
+        int pixelStride = destinationModel.getPixelStride();
+        int destinationStride = destinationModel.getScanlineStride();
+        int sourceStride = sourceModel.getScanlineStride();
+        int destinationOffset = destinationBuffer.getOffset()
+                + (top - destinationRaster.getSampleModelTranslateY()) * destinationStride
+                + (left - destinationRaster.getSampleModelTranslateX()) * pixelStride;
+        int sourceOffset = sourceBuffer.getOffset()
+                + (top - y - sourceRaster.getSampleModelTranslateY()) * sourceStride
+                + (left - x - sourceRaster.getSampleModelTranslateX()) * pixelStride;
+        int rowLength = (right - left) * pixelStride;
+        for (int row = top; row < bottom; row++) {
+            System.arraycopy(sourceBuffer.getData(), sourceOffset, destinationBuffer.getData(), destinationOffset,
+                    rowLength);
+            destinationOffset += destinationStride;
+            sourceOffset += sourceStride;
+        }
+    }
+
+    private static boolean haveSameByteLayout(WritableRaster raster1, WritableRaster raster2) {
+        if (!(raster1.getDataBuffer() instanceof DataBufferByte) || !(raster2.getDataBuffer() instanceof DataBufferByte)
+                || !(raster1.getSampleModel() instanceof ComponentSampleModel)
+                || !(raster2.getSampleModel() instanceof ComponentSampleModel)) {
+            return false;
+        }
+
+        ComponentSampleModel model1 = (ComponentSampleModel) raster1.getSampleModel();
+        ComponentSampleModel model2 = (ComponentSampleModel) raster2.getSampleModel();
+        return model1.getPixelStride() == model2.getPixelStride()
+                && model1.getPixelStride() == model1.getNumBands()
+                && Arrays.equals(model1.getBandOffsets(), model2.getBandOffsets());
+    }
+
     /**
      * Creates a copy of an image with an updated image type.
      * @param src         The image to copy.
@@ -344,7 +502,7 @@ public class ImageUtils {
         return normalizeImageType(resizedImage);
     }
 
-    private static int interpolateCubic(int x0, int x1, int x2, int x3, double t) {
+    static int interpolateCubic(int x0, int x1, int x2, int x3, double t) {
         int a0 = x3 - x2 - x0 + x1;
         int a1 = x0 - x1 - a0;
         int a2 = x2 - x0;
@@ -535,6 +693,24 @@ public class ImageUtils {
         return normalizeImageType(croppedImage);
     }
 
+    /**
+     * Runs the tasks in the shared processing pool and waits for all of them to finish.
+     * The last task is run by the current thread.
+     */
+    static void invokeAll(List<? extends ForkJoinTask<?>> tasks) {
+        for (int i = 0; i < tasks.size() - 1; i++) {
+            PROCESSING_POOL.execute(tasks.get(i));
+        }
+
+        if (!tasks.isEmpty()) {
+            tasks.get(tasks.size() - 1).invoke();
+        }
+
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
     /**
      * Save image to local file system
      * @param image    The image to save.
@@ -0,0 +1,194 @@
+package com.applitools.utils;
+
+import com.applitools.eyes.Region;
+
+import java.awt.image.*;
+import java.util.Arrays;
+
+/**
+ * A rectangle of {@link BufferedImage#TYPE_4BYTE_ABGR} pixels, stored row by row in a byte array.
+ * Views share the pixels they were created from, so cropping a view or wrapping it as an image doesn't copy pixels.
+ */
+public class ImageView {
+    static final int PIXEL_LENGTH = 4;
+
+    // ABGR band offsets of the red, green, blue and alpha samples
+    private static final int[] ABGR_BAND_OFFSETS = {3, 2, 1, 0};
+    private static final ColorModel ABGR_COLOR_MODEL =
+            new BufferedImage(1, 1, BufferedImage.TYPE_4BYTE_ABGR).getColorModel();
+
+    private final byte[] data;
+    private final int offset;
+    private final int stride;
+    private final int width;
+    private final int height;
+
+    /**
+     * @param data   The pixels.
+     * @param offset The index of the first byte of the top left pixel.
+     * @param stride The number of bytes between the starts of two consecutive rows.
+     * @param width  The width in pixels.
+     * @param height The height in pixels.
+     */
+    public ImageView(byte[] data, int offset, int stride, int width, int height) {
+        ArgumentGuard.notNull(data, "data");
+        ArgumentGuard.greaterThanOrEqualToZero(width, "width");
+        ArgumentGuard.greaterThanOrEqualToZero(height, "height");
+        if (height > 0 && offset + (long) (height - 1) * stride + (long) width * PIXEL_LENGTH > data.length) {
+            throw new IllegalArgumentException("The view exceeds the data");
+        }
+
+        this.data = data;
+        this.offset = offset;
+        this.stride = stride;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Creates a view of an image. If the image isn't {@link BufferedImage#TYPE_4BYTE_ABGR}, it is converted first.
+     */
+    public static ImageView of(BufferedImage image) {
+        ArgumentGuard.notNull(image, "image");
+        if (!isSupported(image)) {
+            image = ImageUtils.copyImageWithType(image, ImageUtils.REQUIRED_IMAGE_TYPE);
+        }
+
+        WritableRaster raster = image.getRaster();
+        DataBufferByte dataBuffer = (DataBufferByte) raster.getDataBuffer();
+        int stride = ((ComponentSampleModel) raster.getSampleModel()).getScanlineStride();
+
+        // Sub images share the data of their parent
+        int offset = dataBuffer.getOffset() - raster.getSampleModelTranslateY() * stride
+                - raster.getSampleModelTranslateX() * PIXEL_LENGTH;
+        return new ImageView(dataBuffer.getData(), offset, stride, image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * @return true if a view of the image can be created without converting it.
+     */
+    public static boolean isSupported(BufferedImage image) {
+        if (image.getType() != BufferedImage.TYPE_4BYTE_ABGR) {
+            return false;
+        }
+
+        WritableRaster raster = image.getRaster();
+        return raster.getDataBuffer() instanceof DataBufferByte
+                && raster.getSampleModel() instanceof ComponentSampleModel
+                && ((ComponentSampleModel) raster.getSampleModel()).getPixelStride() == PIXEL_LENGTH
+                && Arrays.equals(((ComponentSampleModel) raster.getSampleModel()).getBandOffsets(), ABGR_BAND_OFFSETS);
+    }
+
+    /**
+     * Creates a view with new pixels.
+     */
+    public static ImageView allocate(int width, int height) {
+        return new ImageView(new byte[width * height * PIXEL_LENGTH], 0, width * PIXEL_LENGTH, width, height);
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getStride() {
+        return stride;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return The index of the first byte of the row.
+     */
+    public int getRowOffset(int y) {
+        return offset + y * stride;
+    }
+
+    /**
+     * Crops the view like {@link ImageUtils#cropImage(BufferedImage, Region)}, without copying pixels.
+     * @param region The region to crop.
+     * @return A view of the intersection of the region with this view, or this view if they don't intersect.
+     */
+    public ImageView crop(Region region) {
+        Region viewRegion = new Region(0, 0, width, height);
+        viewRegion.intersect(region);
+        if (viewRegion.isSizeEmpty()) {
+            return this;
+        }
+
+        return new ImageView(data, getRowOffset(viewRegion.getTop()) + viewRegion.getLeft() * PIXEL_LENGTH, stride,
+                viewRegion.getWidth(), viewRegion.getHeight());
+    }
+
+    /**
+     * Copies the pixels of the view into an image. Pixels outside the image are ignored.
+     * @param destination The image to paste into.
+     * @param x           The left of the view in the destination.
+     * @param y           The top of the view in the destination.
+     */
+    public void pasteInto(BufferedImage destination, int x, int y) {
+        ArgumentGuard.notNull(destination, "destination");
+        if (!isSupported(destination)) {
+            destination.getRaster().setRect(x, y, toBufferedImage().getRaster());
+            return;
+        }
+
+        ImageView destinationView = of(destination);
+        int left = Math.max(0, x);
+        int top = Math.max(0, y);
+        int right = Math.min(destination.getWidth(), x + width);
+        int bottom = Math.min(destination.getHeight(), y + height);
+        if (left >= right) {
+            return;
+        }
+
+        int rowLength = (right - left) * PIXEL_LENGTH;
+        for (int row = top; row < bottom; row++) {
+            System.arraycopy(data, getRowOffset(row - y) + (left - x) * PIXEL_LENGTH,
+                    destinationView.data, destinationView.getRowOffset(row) + left * PIXEL_LENGTH, rowLength);
+        }
+    }
+
+    /**
+     * @return A compact copy of the view, which doesn't share its pixels.
+     */
+    public ImageView copy() {
+        ImageView copy = allocate(width, height);
+        int rowLength = width * PIXEL_LENGTH;
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(data, getRowOffset(y), copy.data, copy.getRowOffset(y), rowLength);
+        }
+        return copy;
+    }
+
+    /**
+     * Wraps the view as a {@link BufferedImage#TYPE_4BYTE_ABGR} image, which shares the pixels of the view.
+     * Views which aren't aligned to whole pixels are copied.
+     */
+    public BufferedImage toBufferedImage() {
+        if (stride <= 0 || stride % PIXEL_LENGTH != 0 || offset % PIXEL_LENGTH != 0) {
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_4BYTE_ABGR);
+            pasteInto(image, 0, 0);
+            return image;
+        }
+
+        // The view is wrapped as a sub image of the pixels from the start of the data, since byte rasters don't
+        // respect the offset of their data buffer when reading whole pixels.
+        int left = (offset % stride) / PIXEL_LENGTH;
+        int top = offset / stride;
+        SampleModel sampleModel = new PixelInterleavedSampleModel(DataBuffer.TYPE_BYTE, left + width, top + height,
+                PIXEL_LENGTH, stride, ABGR_BAND_OFFSETS);
+        WritableRaster raster = Raster.createWritableRaster(sampleModel, new DataBufferByte(data, data.length), null);
+        BufferedImage image = new BufferedImage(ABGR_COLOR_MODEL, raster, false, null);
+        return left == 0 && top == 0 ? image : image.getSubimage(left, top, width, height);
+    }
+}
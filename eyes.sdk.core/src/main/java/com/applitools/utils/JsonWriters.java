@@ -0,0 +1,58 @@
+package com.applitools.utils;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared JSON writers, so a new {@link ObjectMapper} isn't created and configured for every payload.
+ * Writers are immutable and thread safe.
+ */
+public class JsonWriters {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // The rendering service gets the properties which aren't null, sorted alphabetically
+    private static final ObjectMapper RENDER_MAPPER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
+
+    private static final ObjectWriter WRITER = MAPPER.writer();
+    private static final ConcurrentMap<Class<?>, ObjectWriter> RENDER_WRITERS = new ConcurrentHashMap<>();
+
+    /**
+     * @return The writer with the default settings, for log events and other payloads.
+     */
+    public static ObjectWriter getWriter() {
+        return WRITER;
+    }
+
+    /**
+     * @param type The type of the payload.
+     * @return The writer of payloads of the rendering service of the given type.
+     */
+    public static ObjectWriter getRenderWriter(Class<?> type) {
+        ArgumentGuard.notNull(type, "type");
+        ObjectWriter writer = RENDER_WRITERS.get(type);
+        if (writer == null) {
+            writer = RENDER_MAPPER.writerFor(type);
+            ObjectWriter existing = RENDER_WRITERS.putIfAbsent(type, writer);
+            if (existing != null) {
+                writer = existing;
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * @return A new empty JSON object.
+     */
+    public static ObjectNode createObjectNode() {
+        return MAPPER.createObjectNode();
+    }
+}
@@ -0,0 +1,92 @@
+package com.applitools.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread safe cache which holds up to a fixed number of entries, and evicts the least recently used entry when full.
+ * Entries expire a fixed time after they were put in the cache.
+ */
+public class LruCache<K, V> {
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expirationTime;
+
+        private Entry(V value, long expirationTime) {
+            this.value = value;
+            this.expirationTime = expirationTime;
+        }
+    }
+
+    private final int maxSize;
+    private final long timeToLiveMs;
+    private final Map<K, Entry<V>> entries;
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    /**
+     * @param maxSize      The maximum number of entries in the cache.
+     * @param timeToLiveMs The time in milliseconds an entry is kept in the cache, or 0 to keep the entries until evicted.
+     */
+    public LruCache(final int maxSize, long timeToLiveMs) {
+        ArgumentGuard.greaterThanZero(maxSize, "maxSize");
+        ArgumentGuard.greaterThanOrEqualToZero(timeToLiveMs, "timeToLiveMs");
+        this.maxSize = maxSize;
+        this.timeToLiveMs = timeToLiveMs;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return The value of the key, or null if the key isn't in the cache or its entry expired.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && timeToLiveMs > 0 && System.currentTimeMillis() >= entry.expirationTime) {
+            entries.remove(key);
+            entry = null;
+        }
+
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        ArgumentGuard.notNull(value, "value");
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + timeToLiveMs));
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+}
@@ -0,0 +1,349 @@
+package com.applitools.utils;
+
+import com.applitools.eyes.EyesException;
+import org.apache.commons.codec.binary.Base64InputStream;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.WritableRaster;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes PNG images straight into the pixels of a {@link BufferedImage#TYPE_4BYTE_ABGR} image.
+ * The PNG is read as a stream and inflated row by row, so neither the PNG bytes nor an intermediate image are held
+ * in memory, and the pixels of a previously decoded image of the same size may be reused.
+ * Only non interlaced 8 bit RGB and RGBA images are supported, which are the images taken by browsers.
+ */
+public class PngDecoder {
+
+    private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+    private static final int IHDR = 0x49484452;
+    private static final int IDAT = 0x49444154;
+    private static final int IEND = 0x49454e44;
+    private static final int IHDR_LENGTH = 13;
+    private static final int COLOR_TYPE_RGB = 2;
+    private static final int COLOR_TYPE_RGBA = 6;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * @return true if the pixels of the image can be reused by the decoder.
+     */
+    public static boolean isReusable(BufferedImage image) {
+        if (!PngEncoder.isSupported(image)) {
+            return false;
+        }
+
+        // Sub images share the data of their parent, so they can't be written as a whole
+        WritableRaster raster = image.getRaster();
+        return raster.getParent() == null
+                && ((ComponentSampleModel) raster.getSampleModel()).getScanlineStride() == image.getWidth() * 4
+                && ((DataBufferByte) raster.getDataBuffer()).getOffset() == 0;
+    }
+
+    /**
+     * Decodes a base64 encoded PNG image.
+     * @param image64 The base64 encoding of the PNG bytes.
+     * @param target  An image to decode into if it is reusable and of the same size, or {@code null}.
+     * @return The decoded image, or {@code null} if the image isn't a PNG supported by the decoder.
+     * @throws EyesException If the PNG is malformed.
+     */
+    public BufferedImage decode(String image64, BufferedImage target) {
+        ArgumentGuard.notNullOrEmpty(image64, "image64");
+        return decode(new Base64InputStream(new StringInputStream(image64)), target);
+    }
+
+    /**
+     * Decodes a PNG image.
+     * @param stream The PNG bytes.
+     * @param target An image to decode into if it is reusable and of the same size, or {@code null}.
+     * @return The decoded image, or {@code null} if the image isn't a PNG supported by the decoder.
+     * @throws EyesException If the PNG is malformed.
+     */
+    public BufferedImage decode(InputStream stream, BufferedImage target) {
+        ArgumentGuard.notNull(stream, "stream");
+        Decoding decoding = new Decoding(stream);
+        try {
+            return decoding.decode(target);
+        } catch (IOException | DataFormatException e) {
+            throw new EyesException("Failed decoding the PNG image", e);
+        } finally {
+            decoding.inflater.end();
+        }
+    }
+
+    /**
+     * The state of decoding a single image.
+     */
+    private static class Decoding {
+        private final InputStream stream;
+        private final Inflater inflater = new Inflater();
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private final byte[] intBytes = new byte[4];
+
+        // The bytes left in the current IDAT chunk
+        private int idatRemaining = 0;
+        private boolean isImageDataEnded = false;
+
+        Decoding(InputStream stream) {
+            this.stream = stream;
+        }
+
+        BufferedImage decode(BufferedImage target) throws IOException, DataFormatException {
+            byte[] signature = new byte[SIGNATURE.length];
+            if (!readAtMost(signature) || !Arrays.equals(signature, SIGNATURE)) {
+                return null;
+            }
+
+            if (readInt() != IHDR_LENGTH || readInt() != IHDR) {
+                throw new EyesException("The PNG image doesn't start with a header");
+            }
+
+            int width = readInt();
+            int height = readInt();
+            byte[] header = new byte[5];
+            readFully(header, 0, header.length);
+            readInt(); // CRC
+            int bitDepth = header[0];
+            int colorType = header[1];
+            int interlace = header[4];
+            if (bitDepth != 8 || (colorType != COLOR_TYPE_RGB && colorType != COLOR_TYPE_RGBA) || interlace != 0) {
+                return null;
+            }
+            if (width <= 0 || height <= 0) {
+                throw new EyesException(String.format("Invalid PNG image size %dx%d", width, height));
+            }
+
+            BufferedImage image = target;
+            if (image == null || image.getWidth() != width || image.getHeight() != height || !isReusable(image)) {
+                image = new BufferedImage(width, height, BufferedImage.TYPE_4BYTE_ABGR);
+            }
+
+            readPixels(image, colorType == COLOR_TYPE_RGB ? 3 : 4);
+            return image;
+        }
+
+        private void readPixels(BufferedImage image, int bytesPerPixel) throws IOException, DataFormatException {
+            byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+            int width = image.getWidth();
+            int rowLength = width * bytesPerPixel;
+            byte[] previous = new byte[rowLength];
+            byte[] current = new byte[rowLength];
+            byte[] filterType = new byte[1];
+            for (int y = 0; y < image.getHeight(); y++) {
+                inflateFully(filterType, 1);
+                inflateFully(current, rowLength);
+                unfilter(filterType[0], current, previous, bytesPerPixel);
+
+                int out = y * width * 4;
+                if (bytesPerPixel == 3) {
+                    for (int i = 0; i < rowLength; i += 3, out += 4) {
+                        pixels[out] = (byte) 0xff;
+                        pixels[out + 1] = current[i + 2];
+                        pixels[out + 2] = current[i + 1];
+                        pixels[out + 3] = current[i];
+                    }
+                } else {
+                    for (int i = 0; i < rowLength; i += 4, out += 4) {
+                        pixels[out] = current[i + 3];
+                        pixels[out + 1] = current[i + 2];
+                        pixels[out + 2] = current[i + 1];
+                        pixels[out + 3] = current[i];
+                    }
+                }
+
+                byte[] temp = previous;
+                previous = current;
+                current = temp;
+            }
+        }
+
+        private static void unfilter(byte filterType, byte[] current, byte[] previous, int bpp) {
+            switch (filterType) {
+                case 0:
+                    break;
+                case 1:
+                    for (int i = bpp; i < current.length; i++) {
+                        current[i] += current[i - bpp];
+                    }
+                    break;
+                case 2:
+                    for (int i = 0; i < current.length; i++) {
+                        current[i] += previous[i];
+                    }
+                    break;
+                case 3:
+                    for (int i = 0; i < bpp; i++) {
+                        current[i] += (previous[i] & 0xff) >>> 1;
+                    }
+                    for (int i = bpp; i < current.length; i++) {
+                        current[i] += ((current[i - bpp] & 0xff) + (previous[i] & 0xff)) >>> 1;
+                    }
+                    break;
+                case 4:
+                    for (int i = 0; i < bpp; i++) {
+                        current[i] += previous[i];
+                    }
+                    for (int i = bpp; i < current.length; i++) {
+                        current[i] += paethPredictor(current[i - bpp] & 0xff, previous[i] & 0xff, previous[i - bpp] & 0xff);
+                    }
+                    break;
+                default:
+                    throw new EyesException("Invalid PNG filter type " + filterType);
+            }
+        }
+
+        private static int paethPredictor(int left, int up, int upLeft) {
+            int estimate = left + up - upLeft;
+            int distanceLeft = Math.abs(estimate - left);
+            int distanceUp = Math.abs(estimate - up);
+            int distanceUpLeft = Math.abs(estimate - upLeft);
+            if (distanceLeft <= distanceUp && distanceLeft <= distanceUpLeft) {
+                return left;
+            }
+            return distanceUp <= distanceUpLeft ? up : upLeft;
+        }
+
+        /**
+         * Inflates the image data until the output is full, reading the IDAT chunks as needed.
+         */
+        private void inflateFully(byte[] output, int length) throws IOException, DataFormatException {
+            int offset = 0;
+            while (offset < length) {
+                int inflated = inflater.inflate(output, offset, length - offset);
+                offset += inflated;
+                if (inflated > 0) {
+                    continue;
+                }
+
+                if (inflater.finished() || inflater.needsDictionary()) {
+                    throw new EyesException("The PNG image data ended before the last row");
+                }
+                if (inflater.needsInput()) {
+                    int size = readImageData();
+                    if (size < 0) {
+                        throw new EyesException("The PNG image data ended before the last row");
+                    }
+                    inflater.setInput(buffer, 0, size);
+                }
+            }
+        }
+
+        /**
+         * Reads the next bytes of the IDAT chunks into the buffer, skipping any chunk in between.
+         * @return The number of bytes read, or -1 if there are no more IDAT chunks.
+         */
+        private int readImageData() throws IOException {
+            while (idatRemaining == 0) {
+                if (isImageDataEnded) {
+                    return -1;
+                }
+
+                int length = readInt();
+                int type = readInt();
+                if (type == IDAT) {
+                    idatRemaining = length;
+                } else if (type == IEND) {
+                    isImageDataEnded = true;
+                } else {
+                    skipFully(length);
+                }
+
+                // The CRC of the IDAT chunk follows its data
+                if (type != IDAT) {
+                    readInt();
+                }
+            }
+
+            int size = Math.min(idatRemaining, buffer.length);
+            readFully(buffer, 0, size);
+            idatRemaining -= size;
+            if (idatRemaining == 0) {
+                readInt(); // CRC
+            }
+            return size;
+        }
+
+        private int readInt() throws IOException {
+            readFully(intBytes, 0, 4);
+            return ((intBytes[0] & 0xff) << 24) | ((intBytes[1] & 0xff) << 16) | ((intBytes[2] & 0xff) << 8)
+                    | (intBytes[3] & 0xff);
+        }
+
+        /**
+         * @return false if the stream ended before the array was filled.
+         */
+        private boolean readAtMost(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                int read = stream.read(bytes, offset, bytes.length - offset);
+                if (read < 0) {
+                    return false;
+                }
+                offset += read;
+            }
+            return true;
+        }
+
+        private void readFully(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                int read = stream.read(bytes, offset, length);
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of the PNG image");
+                }
+                offset += read;
+                length -= read;
+            }
+        }
+
+        private void skipFully(int length) throws IOException {
+            while (length > 0) {
+                int read = stream.read(buffer, 0, Math.min(length, buffer.length));
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of the PNG image");
+                }
+                length -= read;
+            }
+        }
+    }
+
+    /**
+     * Reads the characters of a string as ASCII bytes, without copying the string.
+     */
+    private static class StringInputStream extends InputStream {
+        private final String string;
+        private int position = 0;
+
+        StringInputStream(String string) {
+            this.string = string;
+        }
+
+        @Override
+        public int read() {
+            return position < string.length() ? string.charAt(position++) & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position >= string.length()) {
+                return -1;
+            }
+
+            int end = Math.min(string.length(), position + length);
+            for (int i = position; i < end; i++) {
+                bytes[offset++] = (byte) string.charAt(i);
+            }
+            int read = end - position;
+            position = end;
+            return read;
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package com.applitools.utils;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.WritableRaster;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Encodes {@link BufferedImage#TYPE_4BYTE_ABGR} images as PNG directly from their pixel bytes.
+ * The rows are split to chunks which are filtered and deflated in parallel. Each chunk is primed with the end of
+ * the previous chunk as a dictionary and all the chunks form a single zlib stream, written as an IDAT chunk each.
+ */
+public class PngEncoder {
+
+    /**
+     * The filter applied to every row before compression.
+     */
+    public enum Filter {
+        NONE(0), SUB(1), UP(2), AVERAGE(3), PAETH(4);
+
+        private final byte type;
+
+        Filter(int type) {
+            this.type = (byte) type;
+        }
+    }
+
+    public static final int DEFAULT_COMPRESSION_LEVEL = 4;
+    public static final Filter DEFAULT_FILTER = Filter.UP;
+
+    private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+    private static final byte[] IHDR = "IHDR".getBytes(Charset.forName("US-ASCII"));
+    private static final byte[] IDAT = "IDAT".getBytes(Charset.forName("US-ASCII"));
+    private static final byte[] IEND = "IEND".getBytes(Charset.forName("US-ASCII"));
+    private static final int CHUNK_OVERHEAD = 12; // Length, type and CRC
+    private static final int IHDR_LENGTH = 13;
+    private static final byte COLOR_TYPE_RGB = 2;
+    private static final byte COLOR_TYPE_RGBA = 6;
+
+    // The deflate window size, the maximum distance of a back reference
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    // Below this amount of filtered bytes per chunk, splitting costs more than it saves
+    private static final int MIN_BYTES_PER_CHUNK = 512 * 1024;
+
+    // ABGR band offsets of the red, green, blue and alpha samples
+    private static final int[] ABGR_BAND_OFFSETS = {3, 2, 1, 0};
+
+    private final int compressionLevel;
+    private final Filter filter;
+
+    public PngEncoder() {
+        this(DEFAULT_COMPRESSION_LEVEL, DEFAULT_FILTER);
+    }
+
+    /**
+     * @param compressionLevel The zlib compression level (0-9), see {@link Deflater}.
+     * @param filter           The filter applied to the rows.
+     */
+    public PngEncoder(int compressionLevel, Filter filter) {
+        ArgumentGuard.notNull(filter, "filter");
+        if (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("compressionLevel must be between 0 and 9");
+        }
+
+        this.compressionLevel = compressionLevel;
+        this.filter = filter;
+    }
+
+    /**
+     * @return true if the image pixels can be read directly by the encoder.
+     */
+    public static boolean isSupported(BufferedImage image) {
+        if (image.getType() != BufferedImage.TYPE_4BYTE_ABGR) {
+            return false;
+        }
+
+        WritableRaster raster = image.getRaster();
+        return raster.getDataBuffer() instanceof DataBufferByte
+                && raster.getSampleModel() instanceof ComponentSampleModel
+                && ((ComponentSampleModel) raster.getSampleModel()).getPixelStride() == 4
+                && Arrays.equals(((ComponentSampleModel) raster.getSampleModel()).getBandOffsets(), ABGR_BAND_OFFSETS);
+    }
+
+    /**
+     * Encodes a given image as PNG.
+     * @param image The image to encode, must be supported by {@link #isSupported(BufferedImage)}.
+     * @return The PNG bytes representation of the image.
+     */
+    public byte[] encode(BufferedImage image) {
+        ArgumentGuard.notNull(image, "image");
+        if (!isSupported(image)) {
+            throw new IllegalArgumentException("Only TYPE_4BYTE_ABGR images are supported");
+        }
+
+        Pixels pixels = new Pixels(image);
+        int rowLength = 1 + pixels.width * pixels.bytesPerPixel;
+        byte[] filtered = new byte[rowLength * pixels.height];
+
+        int rowsPerChunk = Math.max(1, MIN_BYTES_PER_CHUNK / rowLength);
+        List<FilterTask> filterTasks = new ArrayList<>();
+        List<DeflateTask> deflateTasks = new ArrayList<>();
+        for (int firstRow = 0; firstRow < pixels.height; firstRow += rowsPerChunk) {
+            int lastRow = Math.min(firstRow + rowsPerChunk, pixels.height);
+            filterTasks.add(new FilterTask(pixels, filtered, rowLength, firstRow, lastRow));
+            deflateTasks.add(new DeflateTask(filtered, firstRow * rowLength, (lastRow - firstRow) * rowLength,
+                    firstRow == 0, lastRow == pixels.height));
+        }
+
+        // The dictionary of every chunk is the end of the previous one, so all the rows are filtered first
+        ImageUtils.invokeAll(filterTasks);
+        ImageUtils.invokeAll(deflateTasks);
+
+        int resultLength = SIGNATURE.length + CHUNK_OVERHEAD + IHDR_LENGTH + CHUNK_OVERHEAD + 4 + CHUNK_OVERHEAD;
+        long adler = 1;
+        for (DeflateTask task : deflateTasks) {
+            resultLength += CHUNK_OVERHEAD + task.size;
+            adler = adler32Combine(adler, task.adler, task.length);
+        }
+
+        ByteBuffer result = ByteBuffer.allocate(resultLength);
+        result.put(SIGNATURE);
+
+        ByteBuffer header = ByteBuffer.allocate(IHDR_LENGTH);
+        header.putInt(pixels.width).putInt(pixels.height).put((byte) 8)
+                .put(pixels.bytesPerPixel == 3 ? COLOR_TYPE_RGB : COLOR_TYPE_RGBA)
+                .put((byte) 0).put((byte) 0).put((byte) 0);
+        writeChunk(result, IHDR, header.array(), IHDR_LENGTH, crc(IHDR, header.array(), IHDR_LENGTH));
+
+        for (DeflateTask task : deflateTasks) {
+            writeChunk(result, IDAT, task.output, task.size, task.crc);
+        }
+
+        byte[] adlerBytes = ByteBuffer.allocate(4).putInt((int) adler).array();
+        writeChunk(result, IDAT, adlerBytes, 4, crc(IDAT, adlerBytes, 4));
+        writeChunk(result, IEND, new byte[0], 0, crc(IEND, new byte[0], 0));
+        return result.array();
+    }
+
+    private static void writeChunk(ByteBuffer buffer, byte[] type, byte[] data, int length, long crc) {
+        buffer.putInt(length).put(type).put(data, 0, length).putInt((int) crc);
+    }
+
+    private static long crc(byte[] type, byte[] data, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(data, 0, length);
+        return crc.getValue();
+    }
+
+    /**
+     * Combines the Adler-32 checksums of two consecutive sequences, like zlib's adler32_combine.
+     * @param length2 The length of the second sequence.
+     */
+    static long adler32Combine(long adler1, long adler2, long length2) {
+        final long base = 65521;
+        long remainder = length2 % base;
+        long sum1 = adler1 & 0xffff;
+        long sum2 = (remainder * sum1) % base;
+        sum1 += (adler2 & 0xffff) + base - 1;
+        sum2 += ((adler1 >> 16) & 0xffff) + ((adler2 >> 16) & 0xffff) + base - remainder;
+        if (sum1 >= base) {
+            sum1 -= base;
+        }
+        if (sum1 >= base) {
+            sum1 -= base;
+        }
+        if (sum2 >= (base << 1)) {
+            sum2 -= (base << 1);
+        }
+        if (sum2 >= base) {
+            sum2 -= base;
+        }
+        return sum1 | (sum2 << 16);
+    }
+
+    /**
+     * The pixel bytes of the image and their layout.
+     */
+    private static class Pixels {
+        private final byte[] data;
+        private final int width;
+        private final int height;
+        private final int stride;
+        private final int offset;
+
+        // Fully opaque images are encoded without the alpha channel
+        private final int bytesPerPixel;
+
+        Pixels(BufferedImage image) {
+            WritableRaster raster = image.getRaster();
+            DataBufferByte dataBuffer = (DataBufferByte) raster.getDataBuffer();
+            ComponentSampleModel sampleModel = (ComponentSampleModel) raster.getSampleModel();
+            data = dataBuffer.getData();
+            width = image.getWidth();
+            height = image.getHeight();
+            stride = sampleModel.getScanlineStride();
+
+            // Sub images share the data of their parent
+            offset = dataBuffer.getOffset() - raster.getSampleModelTranslateY() * stride
+                    - raster.getSampleModelTranslateX() * 4;
+            bytesPerPixel = isOpaque() ? 3 : 4;
+        }
+
+        private boolean isOpaque() {
+            for (int y = 0; y < height; y++) {
+                int end = offset + y * stride + width * 4;
+                for (int i = offset + y * stride; i < end; i += 4) {
+                    if (data[i] != (byte) 0xff) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Copies a row in PNG order (RGB or RGBA).
+         */
+        void readRow(int y, byte[] row) {
+            int i = offset + y * stride;
+            int end = i + width * 4;
+            int j = 0;
+            if (bytesPerPixel == 3) {
+                for (; i < end; i += 4) {
+                    row[j++] = data[i + 3];
+                    row[j++] = data[i + 2];
+                    row[j++] = data[i + 1];
+                }
+            } else {
+                for (; i < end; i += 4) {
+                    row[j++] = data[i + 3];
+                    row[j++] = data[i + 2];
+                    row[j++] = data[i + 1];
+                    row[j++] = data[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Filters the rows of a chunk into their place in the filtered data.
+     */
+    private class FilterTask extends RecursiveAction {
+        private final Pixels pixels;
+        private final byte[] filtered;
+        private final int rowLength;
+        private final int firstRow;
+        private final int lastRow;
+
+        FilterTask(Pixels pixels, byte[] filtered, int rowLength, int firstRow, int lastRow) {
+            this.pixels = pixels;
+            this.filtered = filtered;
+            this.rowLength = rowLength;
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+        }
+
+        @Override
+        protected void compute() {
+            int bpp = pixels.bytesPerPixel;
+            byte[] previous = new byte[rowLength - 1];
+            byte[] current = new byte[rowLength - 1];
+
+            // The row before the first row of the image is considered to be all zeros
+            if (firstRow > 0) {
+                pixels.readRow(firstRow - 1, previous);
+            }
+
+            for (int y = firstRow; y < lastRow; y++) {
+                pixels.readRow(y, current);
+                int out = y * rowLength;
+                filtered[out++] = filter.type;
+                switch (filter) {
+                    case NONE:
+                        System.arraycopy(current, 0, filtered, out, current.length);
+                        break;
+                    case SUB:
+                        for (int i = 0; i < current.length; i++) {
+                            int left = i < bpp ? 0 : current[i - bpp];
+                            filtered[out + i] = (byte) (current[i] - left);
+                        }
+                        break;
+                    case UP:
+                        for (int i = 0; i < current.length; i++) {
+                            filtered[out + i] = (byte) (current[i] - previous[i]);
+                        }
+                        break;
+                    case AVERAGE:
+                        for (int i = 0; i < current.length; i++) {
+                            int left = i < bpp ? 0 : current[i - bpp] & 0xff;
+                            filtered[out + i] = (byte) (current[i] - ((left + (previous[i] & 0xff)) >>> 1));
+                        }
+                        break;
+                    case PAETH:
+                        for (int i = 0; i < current.length; i++) {
+                            int left = i < bpp ? 0 : current[i - bpp] & 0xff;
+                            int up = previous[i] & 0xff;
+                            int upLeft = i < bpp ? 0 : previous[i - bpp] & 0xff;
+                            filtered[out + i] = (byte) (current[i] - paethPredictor(left, up, upLeft));
+                        }
+                        break;
+                }
+
+                byte[] temp = previous;
+                previous = current;
+                current = temp;
+            }
+        }
+    }
+
+    private static int paethPredictor(int left, int up, int upLeft) {
+        int estimate = left + up - upLeft;
+        int distanceLeft = Math.abs(estimate - left);
+        int distanceUp = Math.abs(estimate - up);
+        int distanceUpLeft = Math.abs(estimate - upLeft);
+        if (distanceLeft <= distanceUp && distanceLeft <= distanceUpLeft) {
+            return left;
+        }
+        return distanceUp <= distanceUpLeft ? up : upLeft;
+    }
+
+    /**
+     * Deflates a chunk of the filtered data. All the chunks but the last end with a sync flush so they can be
+     * concatenated into a single stream.
+     */
+    private class DeflateTask extends RecursiveAction {
+        private final byte[] filtered;
+        private final int start;
+        private final int length;
+        private final boolean isFirst;
+        private final boolean isLast;
+
+        private byte[] output;
+        private int size;
+        private long crc;
+        private long adler;
+
+        DeflateTask(byte[] filtered, int start, int length, boolean isFirst, boolean isLast) {
+            this.filtered = filtered;
+            this.start = start;
+            this.length = length;
+            this.isFirst = isFirst;
+            this.isLast = isLast;
+        }
+
+        @Override
+        protected void compute() {
+            output = new byte[length / 4 + 64];
+            if (isFirst) {
+                writeZlibHeader();
+            }
+
+            Deflater deflater = new Deflater(compressionLevel, true);
+            try {
+                if (!isFirst) {
+                    int dictionaryLength = Math.min(start, DICTIONARY_SIZE);
+                    deflater.setDictionary(filtered, start - dictionaryLength, dictionaryLength);
+                }
+
+                deflater.setInput(filtered, start, length);
+                if (isLast) {
+                    deflater.finish();
+                    while (!deflater.finished()) {
+                        deflate(deflater, Deflater.NO_FLUSH);
+                    }
+                } else {
+                    // The flush is complete when the deflater didn't fill the output buffer
+                    while (deflate(deflater, Deflater.SYNC_FLUSH)) {
+                    }
+                }
+            } finally {
+                deflater.end();
+            }
+
+            Adler32 adler32 = new Adler32();
+            adler32.update(filtered, start, length);
+            adler = adler32.getValue();
+            crc = crc(IDAT, output, size);
+        }
+
+        /**
+         * @return true if the output buffer was filled.
+         */
+        private boolean deflate(Deflater deflater, int flush) {
+            if (output.length - size < 64) {
+                output = Arrays.copyOf(output, output.length * 2);
+            }
+
+            int available = output.length - size;
+            int written = deflater.deflate(output, size, available, flush);
+            size += written;
+            return written == available;
+        }
+
+        private void writeZlibHeader() {
+            int compressionMethod = 0x78; // Deflate with a 32K window
+            // Only informative: fastest, fast, default (6) or maximum compression
+            int levelFlags;
+            if (compressionLevel <= Deflater.BEST_SPEED) {
+                levelFlags = 0;
+            } else if (compressionLevel < 6) {
+                levelFlags = 1;
+            } else if (compressionLevel == 6) {
+                levelFlags = 2;
+            } else {
+                levelFlags = 3;
+            }
+
+            int flags = levelFlags << 6;
+            flags += (31 - ((compressionMethod << 8) + flags) % 31) % 31;
+            output[size++] = (byte) compressionMethod;
+            output[size++] = (byte) flags;
+        }
+    }
+}
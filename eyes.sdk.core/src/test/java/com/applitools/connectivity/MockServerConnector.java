@@ -120,7 +120,11 @@ public class MockServerConnector extends ServerConnector {
 
     @Override
     public void getJobInfo(TaskListener<JobInfo[]> listener, RenderRequest[] browserInfos) {
-        listener.onComplete(new JobInfo[]{new JobInfo()});
+        JobInfo[] jobInfos = new JobInfo[browserInfos.length];
+        for (int i = 0; i < jobInfos.length; i++) {
+            jobInfos[i] = new JobInfo();
+        }
+        listener.onComplete(jobInfos);
     }
 
     @Override
@@ -2,11 +2,15 @@ package com.applitools.connectivity;
 
 import com.applitools.connectivity.api.*;
 import com.applitools.eyes.*;
+import com.applitools.eyes.logging.ClientEvent;
+import com.applitools.eyes.logging.LogSessionsClientEvents;
+import com.applitools.eyes.logging.TraceLevel;
 import com.applitools.eyes.utils.ReportingTestSuite;
 import com.applitools.eyes.visualgrid.model.RGridResource;
 import com.applitools.utils.GeneralUtils;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.http.HttpStatus;
 import org.mockito.ArgumentMatchers;
@@ -336,4 +340,56 @@ public class TestServerConnector extends ReportingTestSuite {
                 thirdPollingCompletionTime.get() - secondPollingCompletionTime.get() < 1000);
         Assert.assertTrue(lastRequestCompletionTime.get() - thirdPollingCompletionTime.get() < 100);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSendLogsCompressionFallback() {
+        final AtomicBoolean isRejectingAll = new AtomicBoolean(true);
+        final List<Boolean> compressedRequests = new ArrayList<>();
+        ServerConnector connector = spy(new ServerConnector());
+        connector.updateClient(restClient);
+        connector.setApiKey("apiKey");
+        when(endPoint.asyncRequest(anyString())).thenReturn(new MockedAsyncRequest());
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                boolean isCompressed = invocation.getArgument(3) instanceof byte[];
+                compressedRequests.add(isCompressed);
+                AsyncRequestCallback callback = invocation.getArgument(2);
+                boolean isRejected = isCompressed || isRejectingAll.get();
+                callback.onComplete(new MockedResponse(isRejected ? HttpStatus.SC_BAD_REQUEST : HttpStatus.SC_OK));
+                return null;
+            }
+        }).when(connector).sendAsyncRequest(ArgumentMatchers.<AsyncRequest>any(), eq(HttpMethod.POST),
+                ArgumentMatchers.<AsyncRequestCallback>any(), any(), anyString());
+
+        final List<Integer> statusCodes = new ArrayList<>();
+        AsyncRequestCallback callback = new AsyncRequestCallback() {
+            @Override
+            public void onComplete(Response response) {
+                statusCodes.add(response.getStatusCode());
+            }
+
+            @Override
+            public void onFail(Throwable throwable) {
+                Assert.fail();
+            }
+        };
+
+        LogSessionsClientEvents clientEvents = new LogSessionsClientEvents();
+        for (int i = 0; i < 20; i++) {
+            clientEvents.addEvent(new ClientEvent(String.valueOf(i), StringUtils.repeat("a", 100), TraceLevel.Notice));
+        }
+
+        // The logs are rejected uncompressed as well, so the compression isn't blamed
+        connector.sendLogs(callback, clientEvents);
+        Assert.assertEquals(compressedRequests, Arrays.asList(true, false));
+        Assert.assertEquals(statusCodes, Collections.singletonList(HttpStatus.SC_BAD_REQUEST));
+
+        // The logs are accepted uncompressed, so the next logs aren't compressed
+        isRejectingAll.set(false);
+        connector.sendLogs(callback, clientEvents);
+        connector.sendLogs(callback, clientEvents);
+        Assert.assertEquals(compressedRequests, Arrays.asList(true, false, true, false, false));
+        Assert.assertEquals(statusCodes, Arrays.asList(HttpStatus.SC_BAD_REQUEST, HttpStatus.SC_OK, HttpStatus.SC_OK));
+    }
+}
@@ -0,0 +1,127 @@
+package com.applitools.eyes;
+
+import com.applitools.eyes.config.Configuration;
+import com.applitools.eyes.config.Feature;
+import com.applitools.eyes.selenium.BrowserType;
+import com.applitools.eyes.utils.ReportingTestSuite;
+import com.applitools.eyes.visualgrid.model.RenderBrowserInfo;
+import com.applitools.eyes.visualgrid.model.VisualGridOption;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+
+public class TestConfiguration extends ReportingTestSuite {
+
+    public TestConfiguration() {
+        super.setGroupName("core");
+    }
+
+    @Test
+    public void testSnapshotIsShared() {
+        Configuration configuration = new Configuration().setAppName("app").setTestName("test");
+        Configuration snapshot = configuration.getSnapshot();
+        Assert.assertNotSame(snapshot, configuration);
+        Assert.assertSame(configuration.getSnapshot(), snapshot);
+        Assert.assertSame(snapshot.getSnapshot(), snapshot);
+        Assert.assertEquals(snapshot.getAppName(), "app");
+        Assert.assertEquals(snapshot.getTestName(), "test");
+    }
+
+    @Test
+    public void testSnapshotRebuiltAfterChange() {
+        Configuration configuration = new Configuration().setAppName("app");
+        Configuration snapshot = configuration.getSnapshot();
+
+        configuration.setAppName("other app");
+        Configuration newSnapshot = configuration.getSnapshot();
+        Assert.assertNotSame(newSnapshot, snapshot);
+        Assert.assertEquals(newSnapshot.getAppName(), "other app");
+        Assert.assertEquals(snapshot.getAppName(), "app");
+    }
+
+    @Test
+    public void testSnapshotRebuiltAfterNestedChange() {
+        Configuration configuration = new Configuration();
+        Configuration snapshot = configuration.getSnapshot();
+
+        configuration.getDefaultMatchSettings().setMatchLevel(MatchLevel.LAYOUT);
+        Configuration newSnapshot = configuration.getSnapshot();
+        Assert.assertNotSame(newSnapshot, snapshot);
+        Assert.assertEquals(newSnapshot.getMatchLevel(), MatchLevel.LAYOUT);
+        Assert.assertEquals(snapshot.getMatchLevel(), MatchLevel.STRICT);
+
+        configuration.getBrowsersInfo().add(new RenderBrowserInfo(800, 600, BrowserType.FIREFOX));
+        Assert.assertNotSame(configuration.getSnapshot(), newSnapshot);
+        Assert.assertEquals(configuration.getSnapshot().getBrowsersInfo().size(), 1);
+    }
+
+    @Test
+    public void testSnapshotRebuiltAfterInPlaceChange() {
+        Configuration configuration = new Configuration().addBrowser(800, 600, BrowserType.CHROME);
+        configuration.getDefaultMatchSettings().setExact(new ExactMatchSettings());
+        Configuration snapshot = configuration.getSnapshot();
+
+        configuration.getDefaultMatchSettings().getExact().setMinDiffIntensity(10);
+        Assert.assertNotSame(configuration.getSnapshot(), snapshot);
+        snapshot = configuration.getSnapshot();
+        Assert.assertEquals(snapshot.getDefaultMatchSettings().getExact().getMinDiffIntensity(), 10);
+
+        configuration.getDefaultMatchSettings().setExact(new ExactMatchSettings());
+        Assert.assertNotSame(configuration.getSnapshot(), snapshot);
+        snapshot = configuration.getSnapshot();
+        Assert.assertEquals(snapshot.getDefaultMatchSettings().getExact().getMinDiffIntensity(), 0);
+
+        configuration.getVisualGridOptions().add(new VisualGridOption("key", "value"));
+        Assert.assertNotSame(configuration.getSnapshot(), snapshot);
+        snapshot = configuration.getSnapshot();
+        Assert.assertEquals(snapshot.getVisualGridOptions().size(), 1);
+
+        configuration.getLayoutBreakpoints().add(500);
+        Assert.assertNotSame(configuration.getSnapshot(), snapshot);
+        snapshot = configuration.getSnapshot();
+        Assert.assertEquals(snapshot.getLayoutBreakpoints(), Collections.singletonList(500));
+
+        configuration.getBrowsersInfo().get(0).setViewportSize(new RectangleSize(1200, 800));
+        Assert.assertNotSame(configuration.getSnapshot(), snapshot);
+        snapshot = configuration.getSnapshot();
+        Assert.assertEquals(snapshot.getBrowsersInfo().get(0).getViewportSize(), new RectangleSize(1200, 800));
+
+        // The features are returned as a copy, so changing it doesn't change the configuration
+        configuration.getFeatures().add(Feature.NO_SWITCH_WITHOUT_FRAME_CHAIN);
+        Assert.assertSame(configuration.getSnapshot(), snapshot);
+        Assert.assertFalse(configuration.isFeatureActivated(Feature.NO_SWITCH_WITHOUT_FRAME_CHAIN));
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testSnapshotIsImmutable() {
+        new Configuration().getSnapshot().setAppName("app");
+    }
+
+    @Test
+    public void testSnapshotNestedValuesAreImmutable() {
+        Configuration configuration = new Configuration()
+                .setBatch(new BatchInfo("batch"))
+                .addBrowser(800, 600, BrowserType.CHROME);
+        Configuration snapshot = configuration.getSnapshot();
+
+        snapshot.getDefaultMatchSettings().setMatchLevel(MatchLevel.LAYOUT);
+        Assert.assertEquals(snapshot.getMatchLevel(), MatchLevel.STRICT);
+        Assert.assertEquals(snapshot.getBatch().getId(), configuration.getBatch().getId());
+        Assert.assertNotSame(snapshot.getBatch(), configuration.getBatch());
+        try {
+            snapshot.getBrowsersInfo().add(new RenderBrowserInfo(1200, 800, BrowserType.FIREFOX));
+            Assert.fail("The browsers of a snapshot were changed");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertEquals(snapshot.getBrowsersInfo().size(), 1);
+        }
+        Assert.assertSame(configuration.getSnapshot(), snapshot);
+    }
+
+    @Test
+    public void testCopyOfSnapshotIsMutable() {
+        Configuration configuration = new Configuration(new Configuration().setAppName("app").getSnapshot());
+        configuration.setAppName("other app");
+        Assert.assertEquals(configuration.getAppName(), "other app");
+    }
+}
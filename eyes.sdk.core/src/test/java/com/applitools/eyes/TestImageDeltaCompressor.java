@@ -0,0 +1,66 @@
+package com.applitools.eyes;
+
+import com.applitools.eyes.utils.ReportingTestSuite;
+import com.applitools.utils.ImageDeltaCompressor;
+import com.applitools.utils.ImageUtils;
+import org.apache.commons.io.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+
+public class TestImageDeltaCompressor extends ReportingTestSuite {
+
+    public TestImageDeltaCompressor() {
+        super.setGroupName("core");
+    }
+
+    @Test
+    public void testCompressByRawBlocks() throws IOException {
+        BufferedImage source = ImageUtils.imageFromResource("compression-source.png");
+        BufferedImage target = ImageUtils.imageFromResource("compression-target.png");
+        byte[] targetEncoded = readResource("compression-target.png");
+        byte[] expectedResult = readResource("compression-block-size-10-result.bin");
+
+        byte[] result = ImageDeltaCompressor.compressByRawBlocks(target, targetEncoded, source, 10);
+        Assert.assertEquals(result, expectedResult);
+    }
+
+    @Test
+    public void testCompressByRawBlocksParallel() throws IOException {
+        BufferedImage source = ImageUtils.imageFromResource("compression-source.png");
+        BufferedImage target = ImageUtils.imageFromResource("compression-target.png");
+        byte[] targetEncoded = readResource("compression-target.png");
+        byte[] expectedResult = readResource("compression-block-size-10-result.bin");
+
+        // Splitting the image to bands mustn't change the compressed stream
+        for (int bandHeight = 1; bandHeight <= 4; bandHeight++) {
+            byte[] result = ImageDeltaCompressor.compressByRawBlocks(target, targetEncoded, source, 10,
+                    Deflater.BEST_COMPRESSION, bandHeight);
+            Assert.assertEquals(result, expectedResult);
+        }
+
+        byte[] fastResult = ImageDeltaCompressor.compressByRawBlocks(target, targetEncoded, source, 10,
+                Deflater.BEST_SPEED, 1);
+        Assert.assertTrue(fastResult.length < targetEncoded.length);
+    }
+
+    @Test
+    public void testCompressByRawBlocksDifferentSizes() throws IOException {
+        BufferedImage source = ImageUtils.imageFromResource("compression-source.png");
+        BufferedImage target = ImageUtils.getImagePart(source, new Region(0, 0, 10, 10));
+        byte[] targetEncoded = ImageUtils.encodeAsPng(target);
+
+        byte[] result = ImageDeltaCompressor.compressByRawBlocks(target, targetEncoded, source);
+        Assert.assertSame(result, targetEncoded);
+    }
+
+    private byte[] readResource(String name) throws IOException {
+        try (InputStream stream = getClass().getClassLoader().getResourceAsStream(name)) {
+            return IOUtils.toByteArray(stream);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.applitools.eyes;
+
+import com.applitools.eyes.utils.ReportingTestSuite;
+import com.applitools.utils.ImageRegistration;
+import com.applitools.utils.ImageUtils;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.awt.image.BufferedImage;
+
+public class TestImageRegistration extends ReportingTestSuite {
+
+    public TestImageRegistration() {
+        super.setGroupName("core");
+    }
+
+    @DataProvider(name = "partTops")
+    public static Object[][] partTops() {
+        return new Object[][]{{260, 260}, {260, 240}, {260, 275}, {260, 220}};
+    }
+
+    @Test(dataProvider = "partTops")
+    public void testFindTop(int expectedTop, int actualTop) {
+        BufferedImage content = ImageUtils.imageFromResource("compression-target.png");
+        BufferedImage stitched = stitchedUntil(content, 300);
+        BufferedImage part = content.getSubimage(0, actualTop, content.getWidth(), 400);
+
+        Integer top = ImageRegistration.findTop(stitched, 300, part, expectedTop, 50, content.getWidth());
+        Assert.assertEquals(top, Integer.valueOf(actualTop));
+    }
+
+    @Test
+    public void testFindTopOutOfRange() {
+        BufferedImage content = ImageUtils.imageFromResource("compression-target.png");
+        BufferedImage stitched = stitchedUntil(content, 300);
+        BufferedImage part = content.getSubimage(0, 200, content.getWidth(), 400);
+
+        Assert.assertNull(ImageRegistration.findTop(stitched, 300, part, 260, 50, content.getWidth()));
+    }
+
+    @Test
+    public void testFindTopOfOtherContent() {
+        BufferedImage content = ImageUtils.imageFromResource("compression-target.png");
+        BufferedImage stitched = stitchedUntil(content, 300);
+        BufferedImage part = content.getSubimage(0, 355, content.getWidth(), 400);
+
+        Assert.assertNull(ImageRegistration.findTop(stitched, 300, part, 260, 50, content.getWidth()));
+    }
+
+    @Test
+    public void testFindTopOfUniformContent() {
+        BufferedImage stitched = new BufferedImage(100, 1000, BufferedImage.TYPE_4BYTE_ABGR);
+        BufferedImage part = new BufferedImage(100, 400, BufferedImage.TYPE_4BYTE_ABGR);
+
+        Assert.assertNull(ImageRegistration.findTop(stitched, 300, part, 260, 50, 100));
+    }
+
+    @Test
+    public void testFindTopIgnoresExcludedColumns() {
+        BufferedImage content = ImageUtils.imageFromResource("compression-target.png");
+        BufferedImage stitched = stitchedUntil(content, 300);
+        BufferedImage part = ImageUtils.copyImageWithType(content.getSubimage(0, 250, content.getWidth(), 400), content.getType());
+        for (int y = 0; y < part.getHeight(); y++) {
+            part.setRGB(part.getWidth() - 1, y, 0xff00ff00);
+        }
+
+        Assert.assertNull(ImageRegistration.findTop(stitched, 300, part, 260, 50, content.getWidth()));
+        Assert.assertEquals(ImageRegistration.findTop(stitched, 300, part, 260, 50, content.getWidth() - 1), Integer.valueOf(250));
+    }
+
+    private static BufferedImage stitchedUntil(BufferedImage content, int bottom) {
+        BufferedImage stitched = new BufferedImage(content.getWidth(), content.getHeight(), content.getType());
+        ImageUtils.pasteImage(stitched, content.getSubimage(0, 0, content.getWidth(), bottom), 0, 0);
+        return stitched;
+    }
+}
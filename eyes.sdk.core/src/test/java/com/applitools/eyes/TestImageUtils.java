@@ -0,0 +1,55 @@
+package com.applitools.eyes;
+
+import com.applitools.eyes.utils.ReportingTestSuite;
+import com.applitools.utils.ImageUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.awt.image.BufferedImage;
+
+public class TestImageUtils extends ReportingTestSuite {
+
+    public TestImageUtils() {
+        super.setGroupName("core");
+    }
+
+    @Test
+    public void testImageFingerprint() {
+        BufferedImage image = ImageUtils.imageFromResource("compression-target.png");
+        BufferedImage copy = ImageUtils.copyImageWithType(image, image.getType());
+        Assert.assertEquals(ImageUtils.getImageFingerprint(copy), ImageUtils.getImageFingerprint(image));
+
+        copy.setRGB(copy.getWidth() / 2, copy.getHeight() / 2, ~image.getRGB(copy.getWidth() / 2, copy.getHeight() / 2));
+        Assert.assertNotEquals(ImageUtils.getImageFingerprint(copy), ImageUtils.getImageFingerprint(image));
+
+        BufferedImage otherImage = ImageUtils.imageFromResource("compression-source.png");
+        Assert.assertNotEquals(ImageUtils.getImageFingerprint(otherImage), ImageUtils.getImageFingerprint(image));
+    }
+
+    @Test
+    public void testSubImageFingerprint() {
+        BufferedImage image = ImageUtils.imageFromResource("compression-target.png");
+        BufferedImage subImage = image.getSubimage(10, 20, 100, 50);
+        BufferedImage subImageCopy = ImageUtils.copyImageWithType(subImage, image.getType());
+        Assert.assertEquals(ImageUtils.getImageFingerprint(subImage), ImageUtils.getImageFingerprint(subImageCopy));
+
+        BufferedImage intImage = ImageUtils.copyImageWithType(subImage, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage intImageCopy = ImageUtils.copyImageWithType(subImageCopy, BufferedImage.TYPE_INT_ARGB);
+        Assert.assertEquals(ImageUtils.getImageFingerprint(intImage), ImageUtils.getImageFingerprint(intImageCopy));
+    }
+
+    @Test
+    public void testPasteImage() {
+        BufferedImage image = ImageUtils.imageFromResource("compression-target.png");
+        BufferedImage part = ImageUtils.imageFromResource("compression-source.png").getSubimage(30, 40, 200, 100);
+        BufferedImage partCopy = ImageUtils.copyImageWithType(part, part.getType());
+        int[][] locations = {{0, 0}, {15, 25}, {-50, -20}, {image.getWidth() - 100, image.getHeight() - 30}};
+        for (int[] location : locations) {
+            BufferedImage expected = ImageUtils.copyImageWithType(image, image.getType());
+            expected.getRaster().setRect(location[0], location[1], partCopy.getData());
+            BufferedImage actual = ImageUtils.copyImageWithType(image, image.getType());
+            ImageUtils.pasteImage(actual, part, location[0], location[1]);
+            Assert.assertTrue(ImageUtils.areImagesEqual(actual, expected));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.applitools.eyes;
+
+import com.applitools.eyes.utils.ReportingTestSuite;
+import com.applitools.utils.ImageScaler;
+import com.applitools.utils.ImageUtils;
+import com.applitools.utils.ImageView;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.awt.image.BufferedImage;
+
+public class TestImageView extends ReportingTestSuite {
+
+    public TestImageView() {
+        super.setGroupName("core");
+    }
+
+    @DataProvider(name = "scaleRatios")
+    public static Object[][] scaleRatios() {
+        return new Object[][]{{0.5, false}, {1 / 3.0, false}, {0.8, false}, {1.5, false}, {0.3, true}, {2.0, true}};
+    }
+
+    @Test
+    public void testCrop() {
+        BufferedImage image = ImageUtils.imageFromResource("compression-target.png");
+        Region[] regions = {new Region(10, 20, 300, 200), new Region(-10, -20, 100, 50),
+                new Region(image.getWidth() - 50, 0, 100, 100), new Region(5000, 5000, 10, 10)};
+        for (Region region : regions) {
+            BufferedImage expected = ImageUtils.cropImage(image, region);
+            BufferedImage actual = ImageView.of(image).crop(region).toBufferedImage();
+            Assert.assertEquals(actual.getType(), BufferedImage.TYPE_4BYTE_ABGR);
+            Assert.assertTrue(ImageUtils.areImagesEqual(actual, expected));
+        }
+    }
+
+    @Test
+    public void testCropOfCrop() {
+        BufferedImage image = ImageUtils.imageFromResource("compression-target.png");
+        ImageView view = ImageView.of(image).crop(new Region(100, 200, 400, 300)).crop(new Region(50, 60, 70, 80));
+        Assert.assertTrue(ImageUtils.areImagesEqual(view.toBufferedImage(), ImageUtils.cropImage(image, new Region(150, 260, 70, 80))));
+        Assert.assertTrue(ImageUtils.areImagesEqual(view.copy().toBufferedImage(), view.toBufferedImage()));
+    }
+
+    @Test(dataProvider = "scaleRatios")
+    public void testScale(double scaleRatio, boolean isMobile) {
+        BufferedImage image = ImageUtils.imageFromResource("compression-target.png");
+        Region region = new Region(13, 17, 321, 250);
+        BufferedImage expected = ImageUtils.scaleImage(ImageUtils.cropImage(image, region), scaleRatio, isMobile);
+
+        ImageScaler scaler = new ImageScaler();
+        ImageView actual = scaler.scale(ImageView.of(image).crop(region), scaleRatio, isMobile);
+        Assert.assertTrue(ImageUtils.areImagesEqual(actual.toBufferedImage(), expected));
+
+        // The buffers of the previous scale are reused
+        actual = scaler.scale(ImageView.of(image).crop(region), scaleRatio, isMobile);
+        Assert.assertTrue(ImageUtils.areImagesEqual(actual.toBufferedImage(), expected));
+    }
+
+    @Test
+    public void testScaleRetinaScreenshot() {
+        // Large enough to be interpolated by several tasks, and reduced by exactly 2 and 3
+        BufferedImage image = ImageUtils.imageFromResource("compression-target.png");
+        BufferedImage retinaImage = ImageUtils.resizeImage(image, 1440, 1800);
+        ImageScaler scaler = new ImageScaler();
+        for (double scaleRatio : new double[]{0.5, 1 / 3.0}) {
+            BufferedImage expected = ImageUtils.scaleImage(retinaImage, scaleRatio);
+            ImageView actual = scaler.scale(ImageView.of(retinaImage), scaleRatio);
+            Assert.assertTrue(ImageUtils.areImagesEqual(actual.toBufferedImage(), expected));
+        }
+    }
+
+    @Test
+    public void testResizeByMultiple() {
+        // Enlarging the height while reducing the width by 3 is done in a single step
+        BufferedImage image = ImageUtils.imageFromResource("compression-target.png");
+        BufferedImage expected = ImageUtils.resizeImage(image, image.getWidth() / 3, image.getHeight() + 10);
+        ImageView actual = new ImageScaler().resize(ImageView.of(image), image.getWidth() / 3, image.getHeight() + 10);
+        Assert.assertTrue(ImageUtils.areImagesEqual(actual.toBufferedImage(), expected));
+    }
+
+    @Test
+    public void testPasteInto() {
+        BufferedImage image = ImageUtils.imageFromResource("compression-target.png");
+        ImageView part = ImageView.of(ImageUtils.imageFromResource("compression-source.png")).crop(new Region(30, 40, 200, 100));
+        int[][] locations = {{0, 0}, {15, 25}, {-50, -20}, {image.getWidth() - 100, image.getHeight() - 30}};
+        for (int[] location : locations) {
+            BufferedImage expected = ImageUtils.copyImageWithType(image, image.getType());
+            ImageUtils.pasteImage(expected, part.copy().toBufferedImage(), location[0], location[1]);
+            BufferedImage actual = ImageUtils.copyImageWithType(image, image.getType());
+            part.pasteInto(actual, location[0], location[1]);
+            Assert.assertTrue(ImageUtils.areImagesEqual(actual, expected));
+        }
+    }
+}
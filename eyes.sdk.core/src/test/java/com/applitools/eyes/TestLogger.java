@@ -1,6 +1,9 @@
 package com.applitools.eyes;
 
+import com.applitools.connectivity.MockServerConnector;
+import com.applitools.connectivity.MockedResponse;
 import com.applitools.connectivity.ServerConnector;
+import com.applitools.connectivity.api.AsyncRequestCallback;
 import com.applitools.eyes.logging.*;
 import com.applitools.eyes.utils.ReportingTestSuite;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -9,9 +12,18 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
 
 public class TestLogger extends ReportingTestSuite {
 
@@ -27,7 +39,7 @@ public class TestLogger extends ReportingTestSuite {
         logger.setAgentId("agentId");
         logger.log(TraceLevel.Warn, Collections.singleton("testId"), Stage.GENERAL, Type.CLOSE_BATCH, Pair.of("message", "hello"));
         Assert.assertEquals(networkLogHandler.clientEvents.size(), 1);
-        ClientEvent event = networkLogHandler.clientEvents.getEvents().get(0);
+        ClientEvent event = networkLogHandler.clientEvents.peek();
 
         Map<String, Object> data = new HashMap<>();
         data.put("message", "hello");
@@ -39,6 +51,217 @@ public class TestLogger extends ReportingTestSuite {
         Assert.assertEquals(networkLogHandler.clientEvents.size(), 0);
     }
 
+    @Test
+    public void testNetworkLoggerUnderPressure() throws InterruptedException {
+        final CountDownLatch serverReady = new CountDownLatch(1);
+        final AtomicInteger sentEvents = new AtomicInteger();
+        final AtomicInteger maxBatchSize = new AtomicInteger();
+        ServerConnector serverConnector = new MockServerConnector() {
+            @Override
+            public void sendLogs(AsyncRequestCallback callback, LogSessionsClientEvents clientEvents) {
+                try {
+                    serverReady.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                sentEvents.addAndGet(clientEvents.size());
+                maxBatchSize.set(Math.max(maxBatchSize.get(), clientEvents.size()));
+                super.sendLogs(callback, clientEvents);
+            }
+        };
+
+        // The server doesn't respond, so the logs pile up without blocking the logging thread
+        NetworkLogHandler networkLogHandler = new NetworkLogHandler(serverConnector);
+        Logger logger = new Logger(networkLogHandler);
+        int noticeEvents = 5000;
+        int errorEvents = 50;
+        for (int i = 0; i < noticeEvents; i++) {
+            logger.log(TraceLevel.Notice, Collections.singleton("testId"), Stage.GENERAL, Type.CLOSE_BATCH, Pair.of("index", i));
+        }
+        for (int i = 0; i < errorEvents; i++) {
+            logger.log(TraceLevel.Error, Collections.singleton("testId"), Stage.GENERAL, Type.CLOSE_BATCH, Pair.of("index", i));
+        }
+
+        Assert.assertTrue(networkLogHandler.getDroppedEventsCount(TraceLevel.Notice) > 0);
+        Assert.assertEquals(networkLogHandler.getDroppedEventsCount(TraceLevel.Error), 0);
+
+        serverReady.countDown();
+        networkLogHandler.close();
+        Assert.assertEquals(networkLogHandler.clientEvents.size(), 0);
+        Assert.assertEquals(sentEvents.get() + networkLogHandler.getDroppedEventsCount(), noticeEvents + errorEvents);
+        Assert.assertTrue(maxBatchSize.get() <= 100);
+    }
+
+    @Test
+    public void testNetworkLoggerSendingFailed() {
+        ServerConnector serverConnector = new MockServerConnector() {
+            @Override
+            public void sendLogs(AsyncRequestCallback callback, LogSessionsClientEvents clientEvents) {
+                throw new IllegalStateException("Server connector isn't initialized");
+            }
+        };
+
+        NetworkLogHandler networkLogHandler = new NetworkLogHandler(serverConnector);
+        Logger logger = new Logger(networkLogHandler);
+        int eventsCount = 250;
+        for (int i = 0; i < eventsCount; i++) {
+            logger.log(TraceLevel.Warn, Collections.singleton("testId"), Stage.GENERAL, Type.CLOSE_BATCH, Pair.of("index", i));
+        }
+
+        networkLogHandler.close();
+        Assert.assertEquals(networkLogHandler.clientEvents.size(), 0);
+        Assert.assertEquals(networkLogHandler.getDroppedEventsCount(), eventsCount);
+    }
+
+    @Test
+    public void testNetworkLoggerServerErrors() {
+        final AtomicInteger requests = new AtomicInteger();
+        ServerConnector serverConnector = new MockServerConnector() {
+            @Override
+            public void sendLogs(AsyncRequestCallback callback, LogSessionsClientEvents clientEvents) {
+                if (requests.getAndIncrement() % 2 == 0) {
+                    callback.onFail(new IllegalStateException("Connection refused"));
+                } else {
+                    callback.onComplete(new MockedResponse(new Logger(), 500, "Internal Server Error", new byte[0]));
+                }
+            }
+        };
+
+        NetworkLogHandler networkLogHandler = new NetworkLogHandler(serverConnector);
+        Logger logger = new Logger(networkLogHandler);
+        int eventsCount = 250;
+        for (int i = 0; i < eventsCount; i++) {
+            logger.log(TraceLevel.Warn, Collections.singleton("testId"), Stage.GENERAL, Type.CLOSE_BATCH, Pair.of("index", i));
+        }
+
+        networkLogHandler.close();
+        Assert.assertTrue(requests.get() > 1);
+        Assert.assertEquals(networkLogHandler.clientEvents.size(), 0);
+        Assert.assertEquals(networkLogHandler.getDroppedEventsCount(), eventsCount);
+    }
+
+    @Test
+    public void testAsyncFileLoggerReopen() throws IOException {
+        File file = File.createTempFile("eyes", ".log");
+        AsyncFileLogger fileLogger = new AsyncFileLogger(file.getPath(), true, TraceLevel.Debug);
+        Logger logger = new Logger(fileLogger);
+        int eventsCount = 100;
+        for (int i = 0; i < 3; i++) {
+            fileLogger.open();
+            Assert.assertTrue(fileLogger.isOpen());
+            for (int j = 0; j < eventsCount; j++) {
+                logger.log(TraceLevel.Debug, Collections.singleton("testId"), Stage.GENERAL, Type.CLOSE_BATCH, Pair.of("index", j));
+            }
+            fileLogger.close();
+            Assert.assertFalse(fileLogger.isOpen());
+        }
+
+        // The queue holds far more than these events, so none of them is dropped
+        Assert.assertEquals(fileLogger.getDroppedEventsCount(), 0);
+        Assert.assertEquals(countLines(file), 3 * eventsCount);
+    }
+
+    @Test
+    public void testAsyncFileLoggerCloseWhileLogging() throws Exception {
+        File file = File.createTempFile("eyes", ".log");
+        final AsyncFileLogger fileLogger = new AsyncFileLogger(file.getPath(), false, TraceLevel.Debug);
+        final Logger logger = new Logger(fileLogger);
+        final AtomicBoolean isLogging = new AtomicBoolean(true);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    while (isLogging.get()) {
+                        logger.log(TraceLevel.Debug, Collections.singleton("testId"), Stage.GENERAL, Type.CLOSE_BATCH, Pair.of("message", "hello"));
+                    }
+                }
+            }));
+        }
+
+        for (int i = 0; i < 20; i++) {
+            fileLogger.open();
+            if (i == 0) {
+                for (Thread thread : threads) {
+                    thread.start();
+                }
+            }
+            Thread.sleep(5);
+            fileLogger.close();
+        }
+
+        isLogging.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Messages which were queued after the writer thread stopped don't stay in the queue
+        Assert.assertTrue(fileLogger.events.isEmpty());
+    }
+
+    @Test
+    public void testAsyncFileLoggerRolling() throws IOException {
+        File directory = Files.createTempDirectory("logs").toFile();
+        File file = new File(directory, "eyes.log");
+        AsyncFileLogger fileLogger = new AsyncFileLogger(file.getPath(), false, TraceLevel.Debug)
+                .setMaxFileSize(10 * 1024)
+                .setMaxArchives(1000)
+                .setCompressingArchives(true);
+        fileLogger.open();
+        Logger logger = new Logger(fileLogger);
+        int eventsCount = 2000;
+        for (int i = 0; i < eventsCount; i++) {
+            logger.log(TraceLevel.Debug, Collections.singleton("testId"), Stage.GENERAL, Type.CLOSE_BATCH, Pair.of("index", i));
+        }
+        fileLogger.close();
+
+        int lines = 0;
+        File[] files = directory.listFiles();
+        Assert.assertNotNull(files);
+        Assert.assertTrue(files.length > 2);
+        for (File logFile : files) {
+            if (!logFile.equals(file)) {
+                Assert.assertTrue(logFile.getName().endsWith(".gz"));
+                Assert.assertTrue(logFile.length() < 10 * 1024);
+            }
+            lines += countLines(logFile);
+        }
+
+        // The queue holds far more than these events, so none of them is dropped
+        Assert.assertEquals(fileLogger.getDroppedEventsCount(), 0);
+        Assert.assertEquals(lines, eventsCount);
+    }
+
+    @Test
+    public void testAsyncFileLoggerMaxArchives() throws IOException {
+        File directory = Files.createTempDirectory("logs").toFile();
+        AsyncFileLogger fileLogger = new AsyncFileLogger(new File(directory, "eyes.log").getPath(), false, TraceLevel.Debug)
+                .setMaxFileSize(1024)
+                .setMaxArchives(2);
+        fileLogger.open();
+        Logger logger = new Logger(fileLogger);
+        for (int i = 0; i < 500; i++) {
+            logger.log(TraceLevel.Debug, Collections.singleton("testId"), Stage.GENERAL, Type.CLOSE_BATCH, Pair.of("index", i));
+        }
+        fileLogger.close();
+
+        File[] files = directory.listFiles();
+        Assert.assertNotNull(files);
+        Assert.assertEquals(files.length, 3);
+    }
+
+    private static int countLines(File file) throws IOException {
+        try (InputStream fileStream = new FileInputStream(file);
+             InputStream stream = file.getName().endsWith(".gz") ? new GZIPInputStream(fileStream) : fileStream;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            int lines = 0;
+            while (reader.readLine() != null) {
+                lines++;
+            }
+            return lines;
+        }
+    }
+
     @Test
     public void testMultiLogHandler() {
         MultiLogHandler multiLogHandler = new MultiLogHandler(new StdoutLogHandler(), new StdoutLogHandler(),
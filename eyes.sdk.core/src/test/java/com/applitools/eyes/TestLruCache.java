@@ -0,0 +1,43 @@
+package com.applitools.eyes;
+
+import com.applitools.eyes.utils.ReportingTestSuite;
+import com.applitools.utils.LruCache;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestLruCache extends ReportingTestSuite {
+
+    public TestLruCache() {
+        super.setGroupName("core");
+    }
+
+    @Test
+    public void testEviction() {
+        LruCache<String, Integer> cache = new LruCache<>(2, 0);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        Assert.assertEquals(cache.get("a"), Integer.valueOf(1));
+
+        // "b" is the least recently used entry
+        cache.put("c", 3);
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals(cache.get("a"), Integer.valueOf(1));
+        Assert.assertEquals(cache.get("c"), Integer.valueOf(3));
+        Assert.assertEquals(cache.getHitCount(), 3);
+        Assert.assertEquals(cache.getMissCount(), 1);
+    }
+
+    @Test
+    public void testExpiration() throws InterruptedException {
+        LruCache<String, Integer> cache = new LruCache<>(10, 50);
+        cache.put("a", 1);
+        Assert.assertEquals(cache.get("a"), Integer.valueOf(1));
+        Thread.sleep(100);
+        Assert.assertNull(cache.get("a"));
+        Assert.assertEquals(cache.size(), 0);
+
+        cache.put("a", 2);
+        Assert.assertEquals(cache.get("a"), Integer.valueOf(2));
+    }
+}
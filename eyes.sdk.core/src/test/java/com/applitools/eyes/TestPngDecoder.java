@@ -0,0 +1,98 @@
+package com.applitools.eyes;
+
+import com.applitools.eyes.utils.ImageFixtures;
+import com.applitools.eyes.utils.ReportingTestSuite;
+import com.applitools.utils.ImageUtils;
+import com.applitools.utils.PngDecoder;
+import com.applitools.utils.PngEncoder;
+import org.apache.commons.codec.binary.Base64;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class TestPngDecoder extends ReportingTestSuite {
+
+    public TestPngDecoder() {
+        super.setGroupName("core");
+    }
+
+    @DataProvider(name = "filters")
+    public static Object[][] filters() {
+        return TestPngEncoder.filters();
+    }
+
+    @Test(dataProvider = "filters")
+    public void testDecodeOpaqueImage(PngEncoder.Filter filter) {
+        // Encoded as RGB, in several IDAT chunks
+        BufferedImage image = ImageFixtures.createNoisyImage(600, 1000, true);
+        String image64 = Base64.encodeBase64String(new PngEncoder(PngEncoder.DEFAULT_COMPRESSION_LEVEL, filter).encode(image));
+        BufferedImage decoded = new PngDecoder().decode(image64, null);
+        Assert.assertEquals(decoded.getType(), ImageUtils.REQUIRED_IMAGE_TYPE);
+        Assert.assertTrue(ImageUtils.areImagesEqual(decoded, image));
+    }
+
+    @Test(dataProvider = "filters")
+    public void testDecodeTranslucentImage(PngEncoder.Filter filter) {
+        BufferedImage image = ImageFixtures.createNoisyImage(300, 700, false);
+        String image64 = Base64.encodeBase64String(new PngEncoder(PngEncoder.DEFAULT_COMPRESSION_LEVEL, filter).encode(image));
+        Assert.assertTrue(ImageUtils.areImagesEqual(new PngDecoder().decode(image64, null), image));
+    }
+
+    @Test
+    public void testDecodeImageIOImage() throws IOException {
+        // ImageIO chooses the filter of every row
+        BufferedImage image = ImageUtils.imageFromResource("compression-target.png");
+        String image64 = Base64.encodeBase64String(writeImageIO(image));
+        Assert.assertTrue(ImageUtils.areImagesEqual(new PngDecoder().decode(image64, null), image));
+    }
+
+    @Test
+    public void testReuseTarget() {
+        PngDecoder decoder = new PngDecoder();
+        BufferedImage first = ImageFixtures.createNoisyImage(200, 100, true);
+        BufferedImage second = ImageFixtures.createNoisyImage(200, 100, false);
+        BufferedImage target = decoder.decode(ImageUtils.base64FromImage(first), null);
+        Assert.assertTrue(PngDecoder.isReusable(target));
+
+        BufferedImage decoded = decoder.decode(ImageUtils.base64FromImage(second), target);
+        Assert.assertSame(decoded, target);
+        Assert.assertTrue(ImageUtils.areImagesEqual(decoded, second));
+
+        // Images of another size or sub images aren't reused
+        BufferedImage other = decoder.decode(ImageUtils.base64FromImage(ImageFixtures.createNoisyImage(100, 100, true)), target);
+        Assert.assertNotSame(other, target);
+        Assert.assertFalse(PngDecoder.isReusable(target.getSubimage(0, 0, 200, 50)));
+        Assert.assertFalse(PngDecoder.isReusable(new BufferedImage(200, 100, BufferedImage.TYPE_INT_ARGB)));
+    }
+
+    @Test
+    public void testUnsupportedImage() throws IOException {
+        BufferedImage image = new BufferedImage(50, 30, BufferedImage.TYPE_BYTE_GRAY);
+        image.getRaster().setSample(10, 10, 0, 200);
+        String image64 = Base64.encodeBase64String(writeImageIO(image));
+        Assert.assertNull(new PngDecoder().decode(image64, null));
+
+        // ImageUtils falls back to ImageIO
+        Assert.assertTrue(ImageUtils.areImagesEqual(ImageUtils.imageFromBase64(image64),
+                ImageUtils.normalizeImageType(image)));
+    }
+
+    @Test(expectedExceptions = EyesException.class)
+    public void testTruncatedImage() {
+        byte[] encoded = new PngEncoder().encode(ImageFixtures.createNoisyImage(100, 100, true));
+        String image64 = Base64.encodeBase64String(Arrays.copyOf(encoded, encoded.length / 2));
+        new PngDecoder().decode(image64, null);
+    }
+
+    private static byte[] writeImageIO(BufferedImage image) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", stream);
+        return stream.toByteArray();
+    }
+}
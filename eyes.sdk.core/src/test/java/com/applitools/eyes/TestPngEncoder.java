@@ -0,0 +1,69 @@
+package com.applitools.eyes;
+
+import com.applitools.eyes.utils.ImageFixtures;
+import com.applitools.eyes.utils.ReportingTestSuite;
+import com.applitools.utils.ImageUtils;
+import com.applitools.utils.PngEncoder;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.zip.Deflater;
+
+public class TestPngEncoder extends ReportingTestSuite {
+
+    public TestPngEncoder() {
+        super.setGroupName("core");
+    }
+
+    @DataProvider(name = "filters")
+    public static Object[][] filters() {
+        Object[][] filters = new Object[PngEncoder.Filter.values().length][];
+        for (int i = 0; i < filters.length; i++) {
+            filters[i] = new Object[]{PngEncoder.Filter.values()[i]};
+        }
+        return filters;
+    }
+
+    @Test(dataProvider = "filters")
+    public void testEncodeOpaqueImage(PngEncoder.Filter filter) {
+        // Tall enough to be split to several chunks
+        BufferedImage image = ImageFixtures.createNoisyImage(600, 1000, true);
+        for (int level = Deflater.NO_COMPRESSION; level <= Deflater.BEST_COMPRESSION; level += 3) {
+            byte[] encoded = new PngEncoder(level, filter).encode(image);
+            Assert.assertTrue(ImageUtils.areImagesEqual(ImageUtils.imageFromBytes(encoded), image));
+        }
+    }
+
+    @Test(dataProvider = "filters")
+    public void testEncodeTranslucentImage(PngEncoder.Filter filter) {
+        BufferedImage image = ImageFixtures.createNoisyImage(300, 700, false);
+        byte[] encoded = new PngEncoder(PngEncoder.DEFAULT_COMPRESSION_LEVEL, filter).encode(image);
+        Assert.assertTrue(ImageUtils.areImagesEqual(ImageUtils.imageFromBytes(encoded), image));
+    }
+
+    @Test
+    public void testEncodeSubImage() {
+        BufferedImage image = ImageFixtures.createNoisyImage(200, 200, true);
+        BufferedImage subImage = image.getSubimage(13, 27, 150, 100);
+        Assert.assertTrue(PngEncoder.isSupported(subImage));
+        byte[] encoded = new PngEncoder().encode(subImage);
+        Assert.assertTrue(ImageUtils.areImagesEqual(ImageUtils.imageFromBytes(encoded), subImage));
+    }
+
+    @Test
+    public void testEncodeScreenshot() {
+        BufferedImage image = ImageUtils.imageFromResource("compression-target.png");
+        Assert.assertTrue(PngEncoder.isSupported(image));
+        Assert.assertTrue(ImageUtils.areImagesEqual(ImageUtils.imageFromBytes(ImageUtils.encodeAsPng(image)), image));
+    }
+
+    @Test
+    public void testUnsupportedImageType() {
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+        Assert.assertFalse(PngEncoder.isSupported(image));
+        Assert.assertTrue(ImageUtils.areImagesEqual(ImageUtils.imageFromBytes(ImageUtils.encodeAsPng(image)),
+                ImageUtils.normalizeImageType(image)));
+    }
+}
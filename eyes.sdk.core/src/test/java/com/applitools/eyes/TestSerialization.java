@@ -289,6 +289,32 @@ public class TestSerialization extends ReportingTestSuite {
                 expectedSerialization, "ImageMatchSettings serialization does not match!");
     }
 
+    @Test
+    public void test_AgentSetup_Serialization() throws JsonProcessingException {
+        TestEyes eyes = new TestEyes();
+        eyes.getConfigurationInstance().setAppName("app").setTestName("test");
+        ICheckSettingsInternal settings = (ICheckSettingsInternal) new CheckSettings(0).fully();
+        String agentSetup = (String) eyes.prepareForMatch(settings, new ArrayList<Trigger>(), null, "tag", false,
+                new ImageMatchSettings(), null, null).getAgentSetup();
+        Assert.assertTrue(agentSetup.contains("\"configuration\":" + jsonMapper.writeValueAsString(eyes.getConfigurationSnapshot())));
+
+        // The configuration is serialized again after it changed
+        eyes.getConfigurationInstance().setAppName("other app");
+        agentSetup = (String) eyes.prepareForMatch(settings, new ArrayList<Trigger>(), null, "tag", false,
+                new ImageMatchSettings(), null, null).getAgentSetup();
+        Assert.assertTrue(agentSetup.contains("\"configuration\":" + jsonMapper.writeValueAsString(eyes.getConfigurationSnapshot())));
+        Assert.assertTrue(agentSetup.contains("\"appName\":\"other app\""));
+
+        // And after its match settings were changed in place
+        eyes.getConfigurationInstance().getDefaultMatchSettings().setExact(new ExactMatchSettings());
+        eyes.prepareForMatch(settings, new ArrayList<Trigger>(), null, "tag", false, new ImageMatchSettings(), null, null);
+        eyes.getConfigurationInstance().getDefaultMatchSettings().getExact().setMinDiffIntensity(10);
+        agentSetup = (String) eyes.prepareForMatch(settings, new ArrayList<Trigger>(), null, "tag", false,
+                new ImageMatchSettings(), null, null).getAgentSetup();
+        Assert.assertTrue(agentSetup.contains("\"configuration\":" + jsonMapper.writeValueAsString(eyes.getConfigurationSnapshot())));
+        Assert.assertTrue(agentSetup.contains("\"minDiffIntensity\":10"));
+    }
+
     @Test
     public void test_SessionStartInfo_Serialization() throws JsonProcessingException {
         ArrayList<PropertyData> properties = new ArrayList<>();
@@ -0,0 +1,25 @@
+package com.applitools.eyes.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The common settings of the benchmarks, which may be overridden by annotating the benchmark class.
+ * Every benchmark has a main method which runs it with {@link #run(Class)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public abstract class BaseBenchmark {
+
+    protected static void run(Class<? extends BaseBenchmark> benchmark) throws RunnerException {
+        new Runner(new OptionsBuilder().include(benchmark.getSimpleName()).build()).run();
+    }
+}
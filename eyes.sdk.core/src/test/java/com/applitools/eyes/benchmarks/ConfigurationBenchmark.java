@@ -0,0 +1,50 @@
+package com.applitools.eyes.benchmarks;
+
+import com.applitools.eyes.BatchInfo;
+import com.applitools.eyes.MatchLevel;
+import com.applitools.eyes.RectangleSize;
+import com.applitools.eyes.config.Configuration;
+import com.applitools.eyes.selenium.BrowserType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares copying the configuration, as every read did before, with sharing its snapshot.
+ * Run with {@code -prof gc} to see the allocation per read, which drops to none while the configuration is unchanged.
+ */
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConfigurationBenchmark extends BaseBenchmark {
+
+    private Configuration configuration;
+
+    @Setup
+    public void setup() {
+        configuration = new Configuration()
+                .setAppName("app")
+                .setTestName("test")
+                .setBatch(new BatchInfo("batch"))
+                .setServerUrl("https://eyesapi.applitools.com")
+                .setViewportSize(new RectangleSize(1200, 800))
+                .setMatchLevel(MatchLevel.LAYOUT)
+                .addBrowser(800, 600, BrowserType.CHROME)
+                .addBrowser(1200, 800, BrowserType.FIREFOX);
+    }
+
+    @Benchmark
+    public Configuration copy() {
+        return new Configuration(configuration);
+    }
+
+    @Benchmark
+    public Configuration snapshot() {
+        return configuration.getSnapshot();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        run(ConfigurationBenchmark.class);
+    }
+}
@@ -0,0 +1,93 @@
+package com.applitools.eyes.benchmarks;
+
+import com.applitools.connectivity.MockServerConnector;
+import com.applitools.eyes.*;
+import com.applitools.eyes.services.CheckService;
+import com.applitools.eyes.services.EyesService;
+import com.applitools.eyes.services.OpenService;
+import com.applitools.eyes.services.RenderService;
+import com.applitools.eyes.visualgrid.model.RenderRequest;
+import com.applitools.eyes.visualgrid.model.RenderStatus;
+import com.applitools.eyes.visualgrid.model.RunningRender;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Measures the overhead of the services queues by pushing many tasks through a service with a server connector
+ * which completes every request immediately.
+ */
+public class EyesServicesBenchmark extends BaseBenchmark {
+    private static final int TASKS_COUNT = 10000;
+
+    private final List<String> ids = new ArrayList<>();
+    private final List<SessionStartInfo> sessionStartInfos = new ArrayList<>();
+    private final List<RenderRequest> renderRequests = new ArrayList<>();
+    private final List<MatchWindowData> matchWindowDataList = new ArrayList<>();
+    private MockServerConnector serverConnector;
+
+    @Setup
+    public void setup() {
+        serverConnector = new MockServerConnector() {
+            @Override
+            public void render(TaskListener<List<RunningRender>> listener, List<RenderRequest> renderRequests) {
+                // Not keeping the requests like the base class does
+                List<RunningRender> runningRenders = new ArrayList<>();
+                for (int i = 0; i < renderRequests.size(); i++) {
+                    RunningRender runningRender = new RunningRender();
+                    runningRender.setRenderId(String.valueOf(i));
+                    runningRender.setRenderStatus(RenderStatus.RENDERED);
+                    runningRenders.add(runningRender);
+                }
+
+                listener.onComplete(runningRenders);
+            }
+        };
+
+        for (int i = 0; i < TASKS_COUNT; i++) {
+            ids.add(UUID.randomUUID().toString());
+            sessionStartInfos.add(new SessionStartInfo());
+            renderRequests.add(new RenderRequest(null, null, null));
+            AppOutput appOutput = new AppOutput(null, null, null, "https://image.com", null);
+            matchWindowDataList.add(new MatchWindowData(new RunningSession(), new Trigger[0], appOutput, null, false, null, null, null));
+        }
+    }
+
+    @Benchmark
+    public int openService() {
+        OpenService openService = new OpenService(new Logger(), serverConnector, TASKS_COUNT);
+        return runService(openService, sessionStartInfos);
+    }
+
+    @Benchmark
+    public int renderService() {
+        RenderService renderService = new RenderService(new Logger(), serverConnector);
+        return runService(renderService, renderRequests);
+    }
+
+    @Benchmark
+    public int checkService() {
+        CheckService checkService = new CheckService(new Logger(), serverConnector);
+        return runService(checkService, matchWindowDataList);
+    }
+
+    private <INPUT> int runService(EyesService<INPUT, ?> service, List<INPUT> inputs) {
+        for (int i = 0; i < TASKS_COUNT; i++) {
+            service.addInput(ids.get(i), inputs.get(i));
+        }
+
+        int finishedTasks = 0;
+        while (finishedTasks < TASKS_COUNT) {
+            service.run();
+            finishedTasks += service.getSucceededTasks().size() + service.getFailedTasks().size();
+        }
+        return finishedTasks;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        run(EyesServicesBenchmark.class);
+    }
+}
@@ -0,0 +1,56 @@
+package com.applitools.eyes.benchmarks;
+
+import com.applitools.eyes.RectangleSize;
+import com.applitools.eyes.utils.ImageFixtures;
+import com.applitools.utils.ImageDeltaCompressor;
+import com.applitools.utils.ImageUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.zip.Deflater;
+
+/**
+ * Measures the delta compression of a screenshot against a slightly different baseline, on a single band
+ * (sequential comparison) and on automatically sized bands (parallel comparison).
+ */
+public class ImageDeltaCompressorBenchmark extends BaseBenchmark {
+    private static final int BLOCK_SIZE = 10;
+
+    @Param({"1920x1080", "1280x10000"})
+    public String imageSize;
+
+    @Param({"" + Deflater.BEST_SPEED, "" + Deflater.BEST_COMPRESSION})
+    public int deflateLevel;
+
+    private BufferedImage source;
+    private BufferedImage target;
+    private byte[] targetEncoded;
+
+    @Setup
+    public void setup() {
+        // A target in which every tenth line of text is different
+        RectangleSize size = RectangleSize.parse(imageSize);
+        source = ImageFixtures.createTextPage(size.getWidth(), size.getHeight(), ImageUtils.REQUIRED_IMAGE_TYPE);
+        target = ImageFixtures.createTextPage(size.getWidth(), size.getHeight(), ImageUtils.REQUIRED_IMAGE_TYPE, 10);
+        targetEncoded = ImageUtils.encodeAsPng(target);
+    }
+
+    @Benchmark
+    public byte[] singleBand() throws IOException {
+        return ImageDeltaCompressor.compressByRawBlocks(target, targetEncoded, source, BLOCK_SIZE, deflateLevel,
+                Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public byte[] parallelBands() throws IOException {
+        return ImageDeltaCompressor.compressByRawBlocks(target, targetEncoded, source, BLOCK_SIZE, deflateLevel);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        run(ImageDeltaCompressorBenchmark.class);
+    }
+}
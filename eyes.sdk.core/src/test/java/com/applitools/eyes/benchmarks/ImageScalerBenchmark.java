@@ -0,0 +1,60 @@
+package com.applitools.eyes.benchmarks;
+
+import com.applitools.eyes.RectangleSize;
+import com.applitools.eyes.utils.ImageFixtures;
+import com.applitools.utils.ImageScaler;
+import com.applitools.utils.ImageUtils;
+import com.applitools.utils.ImageView;
+import org.imgscalr.Scalr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Compares the downscaling of HiDPI screenshots by {@link ImageUtils#scaleImage(BufferedImage, double)},
+ * imgscalr and {@link ImageScaler}.
+ */
+public class ImageScalerBenchmark extends BaseBenchmark {
+
+    // A retina viewport of a laptop and of a phone
+    @Param({"2880x1800", "1125x2436"})
+    public String imageSize;
+
+    // Device pixel ratios of 2 and 3
+    @Param({"0.5", "0.3333333333333333"})
+    public double scaleRatio;
+
+    private BufferedImage image;
+    private ImageScaler scaler;
+
+    @Setup
+    public void setup() {
+        // A page with text like content
+        RectangleSize size = RectangleSize.parse(imageSize);
+        image = ImageFixtures.createTextPage(size.getWidth(), size.getHeight(), ImageUtils.REQUIRED_IMAGE_TYPE);
+        scaler = new ImageScaler();
+    }
+
+    @Benchmark
+    public BufferedImage imageUtils() {
+        return ImageUtils.scaleImage(image, scaleRatio);
+    }
+
+    @Benchmark
+    public BufferedImage imgscalr() {
+        return Scalr.resize(image, Scalr.Method.ULTRA_QUALITY, Scalr.Mode.FIT_EXACT,
+                (int) Math.ceil(image.getWidth() * scaleRatio), (int) Math.ceil(image.getHeight() * scaleRatio));
+    }
+
+    @Benchmark
+    public ImageView imageScaler() {
+        return scaler.scale(ImageView.of(image), scaleRatio);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        run(ImageScalerBenchmark.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.applitools.eyes.benchmarks;
+
+import com.applitools.eyes.RectangleSize;
+import com.applitools.eyes.utils.ImageFixtures;
+import com.applitools.utils.ImageUtils;
+import com.applitools.utils.PngDecoder;
+import org.apache.commons.codec.binary.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * Compares the decoding of base64 screenshots by {@link ImageIO} with {@link PngDecoder}, with and without reusing
+ * the pixels of the previous screenshot as done while stitching.
+ */
+public class PngDecoderBenchmark extends BaseBenchmark {
+
+    // Retina viewports of common laptops
+    @Param({"2560x1600", "2880x1800"})
+    public String imageSize;
+
+    private String image64;
+    private PngDecoder decoder;
+    private BufferedImage previousImage;
+
+    @Setup
+    public void setup() throws IOException {
+        // A page with text like content, encoded as an opaque RGB image like the screenshots of browsers
+        RectangleSize size = RectangleSize.parse(imageSize);
+        BufferedImage image = ImageFixtures.createTextPage(size.getWidth(), size.getHeight(), BufferedImage.TYPE_3BYTE_BGR);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", stream);
+        image64 = Base64.encodeBase64String(stream.toByteArray());
+        decoder = new PngDecoder();
+        previousImage = decoder.decode(image64, null);
+    }
+
+    @Benchmark
+    public BufferedImage imageIO() throws IOException {
+        byte[] imageBytes = Base64.decodeBase64(image64.getBytes(Charset.forName("UTF-8")));
+        return ImageUtils.normalizeImageType(ImageIO.read(new ByteArrayInputStream(imageBytes)));
+    }
+
+    @Benchmark
+    public BufferedImage pngDecoder() {
+        return decoder.decode(image64, null);
+    }
+
+    @Benchmark
+    public BufferedImage pngDecoderReused() {
+        return decoder.decode(image64, previousImage);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        run(PngDecoderBenchmark.class);
+    }
+}
@@ -0,0 +1,56 @@
+package com.applitools.eyes.benchmarks;
+
+import com.applitools.eyes.RectangleSize;
+import com.applitools.eyes.utils.ImageFixtures;
+import com.applitools.utils.ImageUtils;
+import com.applitools.utils.PngEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Compares the PNG encoding of screenshots by {@link ImageIO} with {@link PngEncoder}.
+ */
+public class PngEncoderBenchmark extends BaseBenchmark {
+
+    @Param({"1920x1080", "1280x10000"})
+    public String imageSize;
+
+    @Param({"1", "4", "6"})
+    public int compressionLevel;
+
+    @Param({"SUB", "UP", "PAETH"})
+    public PngEncoder.Filter filter;
+
+    private BufferedImage image;
+    private PngEncoder encoder;
+
+    @Setup
+    public void setup() {
+        RectangleSize size = RectangleSize.parse(imageSize);
+        image = ImageFixtures.createTextPage(size.getWidth(), size.getHeight(), ImageUtils.REQUIRED_IMAGE_TYPE);
+        encoder = new PngEncoder(compressionLevel, filter);
+    }
+
+    @Benchmark
+    public byte[] imageIO() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", stream);
+        return stream.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] pngEncoder() {
+        return encoder.encode(image);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        run(PngEncoderBenchmark.class);
+    }
+}
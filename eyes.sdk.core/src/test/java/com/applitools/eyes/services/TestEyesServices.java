@@ -3,8 +3,11 @@ package com.applitools.eyes.services;
 import com.applitools.connectivity.MockServerConnector;
 import com.applitools.connectivity.ServerConnector;
 import com.applitools.eyes.*;
+import com.applitools.eyes.config.Configuration;
+import com.applitools.eyes.selenium.ClassicRunner;
 import com.applitools.eyes.visualgrid.model.*;
 import com.applitools.eyes.visualgrid.services.ServiceTaskListener;
+import com.applitools.eyes.visualgrid.services.VisualGridRunningTest;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import org.apache.commons.lang3.tuple.Pair;
 import org.testng.Assert;
@@ -93,6 +96,88 @@ public class TestEyesServices {
         Assert.assertEquals(openService.outputQueue.size(), 1);
     }
 
+    @Test
+    public void testWorkSignalRaisedOnNewWork() throws InterruptedException {
+        WorkSignal workSignal = new WorkSignal();
+        CloseService closeService = new CloseService(new Logger(), new MockServerConnector());
+        closeService.setWorkSignal(workSignal);
+        Assert.assertFalse(workSignal.await(0));
+
+        closeService.addInput("1", null);
+        Assert.assertTrue(workSignal.await(0));
+        Assert.assertFalse(workSignal.await(0));
+
+        // Completing the task should signal the runner to collect the output
+        closeService.run();
+        Assert.assertTrue(workSignal.await(0));
+        Assert.assertEquals(getSuccessTasks(closeService), Collections.singleton("1"));
+    }
+
+    @Test
+    public void testServiceStatistics() {
+        CloseService closeService = new CloseService(new Logger(), new MockServerConnector());
+        closeService.addInput("1", null);
+        closeService.addInput("2", null);
+
+        ServiceStatistics statistics = closeService.getStatistics();
+        Assert.assertEquals(statistics.getServiceName(), "CloseService");
+        Assert.assertEquals(statistics.getQueueDepth(), 2);
+        Assert.assertEquals(statistics.getCompletedTasks(), 0);
+
+        closeService.run();
+        statistics = closeService.getStatistics();
+        Assert.assertEquals(statistics.getQueueDepth(), 0);
+        Assert.assertEquals(statistics.getInProgress(), 0);
+        Assert.assertEquals(statistics.getCompletedTasks(), 2);
+    }
+
+    @Test
+    public void testRunnerClosesTestWhenReady() throws InterruptedException {
+        ServerConnector serverConnector = new MockServerConnector();
+        serverConnector.setApiKey("apiKey");
+        EyesServiceRunner eyesServiceRunner = new EyesServiceRunner(new Logger(), serverConnector, 5, null, new HashMap<String, RGridResource>());
+        Configuration configuration = new Configuration().setAppName("app").setTestName("test");
+        VisualGridRunningTest runningTest = new VisualGridRunningTest(new Logger(), "eyes", configuration,
+                new RenderBrowserInfo(800, 600), null, serverConnector, "run");
+
+        eyesServiceRunner.openTests(Collections.singletonList(runningTest));
+        eyesServiceRunner.start();
+        try {
+            long start = System.currentTimeMillis();
+            while (!runningTest.getIsOpen() && System.currentTimeMillis() - start < 5000) {
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(runningTest.getIsOpen());
+            Assert.assertFalse(runningTest.isCompleted());
+
+            runningTest.issueClose();
+            while (!runningTest.isCompleted() && System.currentTimeMillis() - start < 5000) {
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(runningTest.isCompleted());
+            Assert.assertNull(eyesServiceRunner.getError());
+        } finally {
+            eyesServiceRunner.stopServices();
+        }
+    }
+
+    @Test
+    public void testMemoryBudget() throws InterruptedException {
+        MemoryBudget memoryBudget = new MemoryBudget(100);
+        Assert.assertTrue(memoryBudget.tryAcquire(60, 0));
+        Assert.assertFalse(memoryBudget.tryAcquire(60, 10));
+        Assert.assertTrue(memoryBudget.tryAcquire(40, 0));
+        Assert.assertEquals(memoryBudget.getHeldBytes(), 100);
+
+        memoryBudget.release(100);
+        Assert.assertEquals(memoryBudget.getHeldBytes(), 0);
+        Assert.assertEquals(memoryBudget.getReleasedBytes(), 100);
+
+        // An object larger than the budget is accepted when nothing else is held
+        Assert.assertTrue(memoryBudget.tryAcquire(150, 0));
+        Assert.assertEquals(memoryBudget.getPeakBytes(), 150);
+    }
+
     @Test
     public void testCheckService() {
         final byte[] uploadFailed = new byte[] {1, 2, 3};
@@ -158,6 +243,68 @@ public class TestEyesServices {
         Assert.assertEquals(getFailedTasks(checkService), new HashSet<>(Arrays.asList("2", "3", "4", "5")));
     }
 
+    @Test
+    public void testClassicRunnerCheckAll() {
+        final int matchesCount = 5;
+        final List<TaskListener<String>> uploadListeners = new ArrayList<>();
+        final List<String> matchTags = Collections.synchronizedList(new ArrayList<String>());
+        final AtomicInteger matchesInFlight = new AtomicInteger();
+        final AtomicInteger maxMatchesInFlight = new AtomicInteger();
+        ServerConnector serverConnector = new MockServerConnector() {
+            @Override
+            public void uploadData(TaskListener<String> listener, byte[] bytes, String contentType, String mediaType) {
+                // All the screenshots are uploaded together, and the uploads complete in reverse order
+                synchronized (uploadListeners) {
+                    uploadListeners.add(listener);
+                    if (uploadListeners.size() < matchesCount) {
+                        return;
+                    }
+                }
+
+                for (int i = matchesCount - 1; i >= 0; i--) {
+                    uploadListeners.get(i).onComplete("url");
+                }
+            }
+
+            @Override
+            public void matchWindow(final TaskListener<MatchResult> listener, final MatchWindowData data) {
+                matchTags.add(data.getTag());
+                maxMatchesInFlight.set(Math.max(maxMatchesInFlight.get(), matchesInFlight.incrementAndGet()));
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        MatchResult result = new MatchResult();
+                        result.setWindowId(data.getTag());
+                        matchesInFlight.decrementAndGet();
+                        listener.onComplete(result);
+                    }
+                }).start();
+            }
+        };
+
+        ClassicRunner runner = new ClassicRunner();
+        runner.setServerConnector(serverConnector);
+        List<MatchWindowData> matchWindowDataList = new ArrayList<>();
+        for (int i = 0; i < matchesCount; i++) {
+            AppOutput appOutput = mock(AppOutput.class);
+            when(appOutput.getScreenshotBytes()).thenReturn(new byte[0]);
+            MatchWindowData matchWindowData = mock(MatchWindowData.class);
+            when(matchWindowData.getAppOutput()).thenReturn(appOutput);
+            when(matchWindowData.getTag()).thenReturn(String.valueOf(i));
+            matchWindowDataList.add(matchWindowData);
+        }
+
+        List<MatchResult> results = runner.checkAll("test", matchWindowDataList);
+        Assert.assertEquals(results.size(), matchesCount);
+        for (int i = 0; i < matchesCount; i++) {
+            Assert.assertEquals(results.get(i).getWindowId(), String.valueOf(i));
+        }
+
+        // The steps reach the server in order, one at a time
+        Assert.assertEquals(matchTags, Arrays.asList("0", "1", "2", "3", "4"));
+        Assert.assertEquals(maxMatchesInFlight.get(), 1);
+    }
+
     @Test
     public void testCloseService() {
         final SessionStopInfo openFailedStopInfo = mock(SessionStopInfo.class);
@@ -233,7 +380,7 @@ public class TestEyesServices {
     }
 
     @Test
-    public void testRenderServiceRenderStatusFailed() {
+    public void testRenderServiceRenderStatusFailed() throws InterruptedException {
         ServerConnector serverConnector = new MockServerConnector() {
             @Override
             public void renderStatusById(final TaskListener<List<RenderStatusResults>> listener, List<String> testIds, List<String> renderIds) {
@@ -245,10 +392,54 @@ public class TestEyesServices {
         renderService.RENDER_STATUS_POLLING_TIMEOUT = 1000;
         renderService.addInput("1", mock(RenderRequest.class));
         renderService.addInput("2", mock(RenderRequest.class));
-        renderService.run();
+
+        // Failed polls are retried without blocking, so the service is run until the renders time out
+        long start = System.currentTimeMillis();
+        while (renderService.errorQueue.size() < 2 && System.currentTimeMillis() - start < 5000) {
+            renderService.run();
+            Thread.sleep(50);
+        }
         Assert.assertEquals(getFailedTasks(renderService), new HashSet<>(Arrays.asList("1", "2")));
     }
 
+    @Test
+    public void testRenderServicePollsAllRendersTogether() {
+        final AtomicInteger statusRequests = new AtomicInteger(0);
+        final AtomicInteger pendingPolls = new AtomicInteger(2);
+        ServerConnector serverConnector = new MockServerConnector() {
+            @Override
+            public void renderStatusById(final TaskListener<List<RenderStatusResults>> listener, List<String> testIds, List<String> renderIds) {
+                statusRequests.incrementAndGet();
+                Assert.assertEquals(renderIds.size(), 3);
+                if (pendingPolls.getAndDecrement() > 0) {
+                    List<RenderStatusResults> results = new ArrayList<>();
+                    for (String renderId : renderIds) {
+                        RenderStatusResults renderStatusResults = new RenderStatusResults();
+                        renderStatusResults.setRenderId(renderId);
+                        renderStatusResults.setStatus(RenderStatus.RENDERING);
+                        results.add(renderStatusResults);
+                    }
+                    listener.onComplete(results);
+                    return;
+                }
+
+                super.renderStatusById(listener, testIds, renderIds);
+            }
+        };
+
+        RenderService renderService = new RenderService(new Logger(), serverConnector);
+        renderService.addInput("1", mock(RenderRequest.class));
+        renderService.addInput("2", mock(RenderRequest.class));
+        renderService.addInput("3", mock(RenderRequest.class));
+        long start = System.currentTimeMillis();
+        while (renderService.outputQueue.size() < 3 && System.currentTimeMillis() - start < 5000) {
+            renderService.run();
+        }
+
+        Assert.assertEquals(getSuccessTasks(renderService), new HashSet<>(Arrays.asList("1", "2", "3")));
+        Assert.assertEquals(statusRequests.get(), 3);
+    }
+
     @Test
     public void testRenderServiceRenderStatusException() {
         ServerConnector serverConnector = new MockServerConnector() {
@@ -352,7 +543,7 @@ public class TestEyesServices {
         Assert.assertEquals(resourceCollectionService.errorQueue.size(), 0);
         Assert.assertEquals(resourceCollectionService.outputQueue.size(), 1);
 
-        Pair<String, Map<String, RGridResource>> pair = resourceCollectionService.outputQueue.get(0);
+        Pair<String, Map<String, RGridResource>> pair = resourceCollectionService.outputQueue.peek();
         Assert.assertEquals(pair.getLeft(), "1");
         Assert.assertEquals(pair.getRight().keySet(), new HashSet<>(urls));
     }
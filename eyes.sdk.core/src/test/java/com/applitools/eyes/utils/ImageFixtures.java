@@ -0,0 +1,70 @@
+package com.applitools.eyes.utils;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Generated images for the tests and benchmarks of the image processing.
+ */
+public class ImageFixtures {
+
+    /**
+     * See {@link #createTextPage(int, int, int, int)}. No line is changed.
+     */
+    public static BufferedImage createTextPage(int width, int height, int imageType) {
+        return createTextPage(width, height, imageType, 0);
+    }
+
+    /**
+     * Draws a page with text like content: lines of colored words on a white background.
+     * The same words are drawn for every page of the same size.
+     * @param width                The width of the page.
+     * @param height               The height of the page.
+     * @param imageType            The type of the image, such as {@link BufferedImage#TYPE_4BYTE_ABGR}.
+     * @param changedLinesInterval If positive, every line at this interval is drawn darker, so the page differs from
+     *                             the unchanged page only in these lines.
+     * @return The page.
+     */
+    public static BufferedImage createTextPage(int width, int height, int imageType, int changedLinesInterval) {
+        Random random = new Random(0);
+        BufferedImage image = new BufferedImage(width, height, imageType);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        for (int line = 0; line * 20 < height; line++) {
+            boolean isChanged = changedLinesInterval > 0 && line % changedLinesInterval == 0;
+            for (int word = 0; word < width / 60; word++) {
+                Color color = new Color(random.nextInt(0x1000000));
+                graphics.setColor(isChanged ? color.darker() : color);
+                graphics.fillRect(word * 60, line * 20 + 4, 20 + random.nextInt(30), 12);
+            }
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    /**
+     * Creates a {@link BufferedImage#TYPE_4BYTE_ABGR} image of flat areas with some noise, so its rows can be
+     * compressed but aren't trivial.
+     * @param width    The width of the image.
+     * @param height   The height of the image.
+     * @param isOpaque Whether all the pixels are opaque, or have a random alpha.
+     * @return The image.
+     */
+    public static BufferedImage createNoisyImage(int width, int height, boolean isOpaque) {
+        Random random = new Random(0);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_4BYTE_ABGR);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int rgb = ((x / 16) * 0x102030 + (y / 8) * 0x030201) & 0xffffff;
+                if (random.nextInt(10) == 0) {
+                    rgb = random.nextInt(0x1000000);
+                }
+                int alpha = isOpaque ? 0xff : random.nextInt(0x100);
+                image.setRGB(x, y, (alpha << 24) | rgb);
+            }
+        }
+        return image;
+    }
+}
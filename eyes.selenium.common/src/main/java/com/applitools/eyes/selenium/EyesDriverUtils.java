@@ -12,14 +12,18 @@ import org.openqa.selenium.interactions.Coordinates;
 import java.io.IOException;
 import java.lang.reflect.*;
 import java.lang.reflect.Proxy;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 public class EyesDriverUtils {
     private static final String NATIVE_APP = "NATIVE_APP";
     private static final String PLATFORM_VERSION = "platformVersion";
     private static final String DEVICE_NAME = "deviceName";
+    private static final long RESIZE_TIMEOUT_MS = 1000;
+    private static final long RESIZE_POLL_INTERVAL_MS = 50;
+
+    // The difference between the browser size and the viewport size of every browser, learned on the first resize
+    private static final Map<WebDriver, RectangleSize> BROWSER_BORDERS =
+            Collections.synchronizedMap(new WeakHashMap<WebDriver, RectangleSize>());
     // See Applitools WiKi for explanation.
     private static final String JS_GET_VIEWPORT_SIZE =
             "var height = undefined;"
@@ -74,9 +78,20 @@ public class EyesDriverUtils {
 
     private static String JS_GET_VISIBLE_ELEMENT_RECT;
 
+    // Runs the visible rect script on each of the elements, and adds the size of the element to its result
+    private static String JS_GET_VISIBLE_ELEMENTS_RECTS;
+
     static {
         try {
             JS_GET_VISIBLE_ELEMENT_RECT = GeneralUtils.readInputStreamAsString(EyesDriverUtils.class.getResourceAsStream("/getVisibleRect.js"));
+            JS_GET_VISIBLE_ELEMENTS_RECTS =
+                    "var getVisibleRect = function() {" + JS_GET_VISIBLE_ELEMENT_RECT + "};" +
+                            "var elements = arguments[0], result = [];" +
+                            "for (var i = 0; i < elements.length; i++) {" +
+                            "var bcr = elements[i].getBoundingClientRect();" +
+                            "result.push(getVisibleRect(elements[i]) + ';' + bcr.width + ';' + bcr.height);" +
+                            "}" +
+                            "return result;";
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -392,20 +407,46 @@ public class EyesDriverUtils {
      * @return the browser size
      */
     public static boolean setBrowserSize(WebDriver driver, RectangleSize requiredSize) {
-        final int SLEEP = 1000;
         int retriesLeft = 3;
         Dimension dRequiredSize = new Dimension(requiredSize.getWidth(), requiredSize.getHeight());
-        Dimension dCurrentSize;
         RectangleSize currentSize;
         do {
             driver.manage().window().setSize(dRequiredSize);
-            GeneralUtils.sleep(SLEEP);
-            dCurrentSize = driver.manage().window().getSize();
-            currentSize = new RectangleSize(dCurrentSize.getWidth(),
-                    dCurrentSize.getHeight());
+            currentSize = waitForBrowserSize(driver, requiredSize);
         } while (--retriesLeft > 0 && !currentSize.equals(requiredSize));
 
-        return currentSize == requiredSize;
+        return currentSize.equals(requiredSize);
+    }
+
+    private static RectangleSize waitForBrowserSize(WebDriver driver, RectangleSize requiredSize) {
+        long timeout = System.currentTimeMillis() + RESIZE_TIMEOUT_MS;
+        RectangleSize currentSize;
+        while (true) {
+            Dimension dCurrentSize = driver.manage().window().getSize();
+            currentSize = new RectangleSize(dCurrentSize.getWidth(), dCurrentSize.getHeight());
+            if (currentSize.equals(requiredSize) || System.currentTimeMillis() >= timeout) {
+                return currentSize;
+            }
+            GeneralUtils.sleep(RESIZE_POLL_INTERVAL_MS);
+        }
+    }
+
+    /**
+     * Waits until the viewport reaches the required size, or until the resize timeout passes.
+     * @param executor     The executor to use.
+     * @param requiredSize The size the viewport was resized to.
+     * @return The viewport size.
+     */
+    public static RectangleSize waitForViewportSize(JavascriptExecutor executor, RectangleSize requiredSize) {
+        long timeout = System.currentTimeMillis() + RESIZE_TIMEOUT_MS;
+        RectangleSize viewportSize;
+        while (true) {
+            viewportSize = getViewportSize(executor);
+            if (viewportSize.equals(requiredSize) || System.currentTimeMillis() >= timeout) {
+                return viewportSize;
+            }
+            GeneralUtils.sleep(RESIZE_POLL_INTERVAL_MS);
+        }
     }
 
     /**
@@ -455,6 +496,21 @@ public class EyesDriverUtils {
             return;
         }
 
+        // Once the border of the browser is known, the browser size is set in one call
+        WebDriver browser = getUnderlyingDriver(driver);
+        RectangleSize browserBorder = BROWSER_BORDERS.get(browser);
+        if (browserBorder != null) {
+            setBrowserSize(driver, new RectangleSize(requiredSize.getWidth() + browserBorder.getWidth(),
+                    requiredSize.getHeight() + browserBorder.getHeight()));
+            actualViewportSize = waitForViewportSize((JavascriptExecutor) driver, requiredSize);
+            if (actualViewportSize.equals(requiredSize)) {
+                return;
+            }
+
+            // The border changed, e.g. the browser was maximized, so it is learned again
+            BROWSER_BORDERS.remove(browser);
+        }
+
         // We move the window to (0,0) to have the best chance to be able to
         // set the viewport size as requested.
         try {
@@ -465,9 +521,10 @@ public class EyesDriverUtils {
 
         setBrowserSizeByViewportSize(driver, actualViewportSize, requiredSize);
 
-        actualViewportSize = getViewportSize((JavascriptExecutor) driver);
+        actualViewportSize = waitForViewportSize((JavascriptExecutor) driver, requiredSize);
 
         if (actualViewportSize.equals(requiredSize)) {
+            rememberBrowserBorder(driver, requiredSize);
             return;
         }
 
@@ -477,8 +534,9 @@ public class EyesDriverUtils {
         // wrong).
         setBrowserSizeByViewportSize(driver, actualViewportSize, requiredSize);
 
-        actualViewportSize = getViewportSize((JavascriptExecutor) driver);
+        actualViewportSize = waitForViewportSize((JavascriptExecutor) driver, requiredSize);
         if (actualViewportSize.equals(requiredSize)) {
+            rememberBrowserBorder(driver, requiredSize);
             return;
         }
 
@@ -522,6 +580,7 @@ public class EyesDriverUtils {
                 actualViewportSize = getViewportSize((JavascriptExecutor) driver);
 
                 if (actualViewportSize.equals(requiredSize)) {
+                    rememberBrowserBorder(driver, requiredSize);
                     return;
                 }
             } while ((Math.abs(currWidthChange) <= Math.abs(widthDiff) ||
@@ -532,6 +591,12 @@ public class EyesDriverUtils {
         throw new EyesException("Failed to set viewport size!");
     }
 
+    private static void rememberBrowserBorder(WebDriver driver, RectangleSize viewportSize) {
+        Dimension browserSize = driver.manage().window().getSize();
+        BROWSER_BORDERS.put(getUnderlyingDriver(driver), new RectangleSize(browserSize.getWidth() - viewportSize.getWidth(),
+                browserSize.getHeight() - viewportSize.getHeight()));
+    }
+
     /**
      * Is android boolean.
      * @param driver The driver to test.
@@ -746,4 +811,36 @@ public class EyesDriverUtils {
                 Math.round(Float.parseFloat(data[3])),
                 Math.round(Float.parseFloat(data[2])));
     }
+
+    /**
+     * Gets the rectangles of the elements in a single script call, instead of a call per element.
+     * @param webElements The elements to get the rectangles of.
+     * @param driver      The driver to use.
+     * @return For each element, a rectangle with the location of its visible part and the size of the element.
+     */
+    public static List<Rectangle> getVisibleElementsRects(List<WebElement> webElements, EyesWebDriver driver) {
+        List<Rectangle> rects = new ArrayList<>(webElements.size());
+        if (webElements.isEmpty()) {
+            return rects;
+        }
+
+        if (isMobileDevice(driver)) {
+            for (WebElement webElement : webElements) {
+                rects.add(new Rectangle(webElement.getLocation(), webElement.getSize()));
+            }
+            return rects;
+        }
+
+        List<?> results = (List<?>) driver.executeScript(JS_GET_VISIBLE_ELEMENTS_RECTS, webElements);
+        for (Object result : results) {
+            String[] data = ((String) result).split(";");
+            // The size is rounded up like the size of EyesRemoteWebElement
+            rects.add(new Rectangle(
+                    Math.round(Float.parseFloat(data[0])),
+                    Math.round(Float.parseFloat(data[1])),
+                    (int) Math.ceil(Double.parseDouble(data[5])),
+                    (int) Math.ceil(Double.parseDouble(data[4]))));
+        }
+        return rects;
+    }
 }
@@ -1,6 +1,6 @@
 package com.applitools.eyes.selenium.capture;
 
-import com.applitools.eyes.capture.ImageProvider;
+import com.applitools.eyes.capture.EncodedImageProvider;
 import com.applitools.eyes.Logger;
 import com.applitools.utils.ImageUtils;
 import org.openqa.selenium.OutputType;
@@ -11,7 +11,7 @@ import java.awt.image.BufferedImage;
 /**
  * An image provider based on WebDriver's {@link TakesScreenshot} interface.
  */
-public class TakesScreenshotImageProvider implements ImageProvider {
+public class TakesScreenshotImageProvider implements EncodedImageProvider {
 
     protected final Logger logger;
     protected final TakesScreenshot tsInstance;
@@ -26,4 +26,9 @@ public class TakesScreenshotImageProvider implements ImageProvider {
         String screenshot64 = tsInstance.getScreenshotAs(OutputType.BASE64);
         return ImageUtils.imageFromBase64(screenshot64);
     }
+
+    @Override
+    public String getBase64Image() {
+        return tsInstance.getScreenshotAs(OutputType.BASE64);
+    }
 }
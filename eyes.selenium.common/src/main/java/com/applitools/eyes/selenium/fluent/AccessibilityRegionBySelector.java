@@ -2,20 +2,17 @@ package com.applitools.eyes.selenium.fluent;
 
 import com.applitools.eyes.*;
 import com.applitools.eyes.fluent.IGetAccessibilityRegionType;
-import com.applitools.eyes.selenium.EyesDriverUtils;
 import com.applitools.eyes.selenium.wrappers.EyesWebDriver;
 import com.applitools.eyes.serializers.BySerializer;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.openqa.selenium.By;
-import org.openqa.selenium.Dimension;
-import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.WebElement;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public class AccessibilityRegionBySelector implements GetAccessibilityRegion, IGetSeleniumRegion, IGetAccessibilityRegionType, ImplicitInitiation {
+public class AccessibilityRegionBySelector extends RegionBySelector<AccessibilityRegionByRectangle> implements GetAccessibilityRegion, IGetSeleniumRegion, IGetAccessibilityRegionType, ImplicitInitiation {
 
     @JsonIgnore
     private EyesWebDriver driver;
@@ -35,13 +32,15 @@ public class AccessibilityRegionBySelector implements GetAccessibilityRegion, IG
 
     @Override
     public List<AccessibilityRegionByRectangle> getRegions(EyesScreenshot screenshot) {
-        List<WebElement> elements = driver.findElements(selector);
+        return getRegions(screenshot, getElementsRegions(driver));
+    }
+
+    @Override
+    public List<AccessibilityRegionByRectangle> getRegions(EyesScreenshot screenshot, List<Region> elementsRegions) {
         List<AccessibilityRegionByRectangle> retVal = new ArrayList<>();
-        for (WebElement element : elements) {
-            Rectangle rectangle = EyesDriverUtils.getVisibleElementRect(element, driver);
-            Dimension size = element.getSize();
-            Location pTag = screenshot.convertLocation(new Location(rectangle.x, rectangle.y), CoordinatesType.CONTEXT_RELATIVE, CoordinatesType.SCREENSHOT_AS_IS);
-            retVal.add(new AccessibilityRegionByRectangle(new Region(pTag, new RectangleSize(size.width, size.height)), regionType));
+        for (Region elementRegion : elementsRegions) {
+            Location pTag = screenshot.convertLocation(elementRegion.getLocation(), CoordinatesType.CONTEXT_RELATIVE, CoordinatesType.SCREENSHOT_AS_IS);
+            retVal.add(new AccessibilityRegionByRectangle(new Region(pTag, elementRegion.getSize()), regionType));
         }
         return retVal;
     }
@@ -55,4 +54,9 @@ public class AccessibilityRegionBySelector implements GetAccessibilityRegion, IG
     public List<WebElement> getElements() {
         return driver.findElements(selector);
     }
+
+    @Override
+    By getSelector() {
+        return selector;
+    }
 }
@@ -2,21 +2,18 @@ package com.applitools.eyes.selenium.fluent;
 
 import com.applitools.eyes.*;
 import com.applitools.eyes.fluent.GetFloatingRegion;
-import com.applitools.eyes.selenium.EyesDriverUtils;
 import com.applitools.eyes.selenium.wrappers.EyesWebDriver;
 import com.applitools.eyes.serializers.BySerializer;
 import com.applitools.eyes.visualgrid.model.IGetFloatingRegionOffsets;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.openqa.selenium.By;
-import org.openqa.selenium.Dimension;
-import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.WebElement;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public class FloatingRegionBySelector implements GetFloatingRegion , IGetSeleniumRegion, IGetFloatingRegionOffsets, ImplicitInitiation {
+public class FloatingRegionBySelector extends RegionBySelector<FloatingMatchSettings> implements GetFloatingRegion , IGetSeleniumRegion, IGetFloatingRegionOffsets, ImplicitInitiation {
 
     @JsonIgnore
     private EyesWebDriver driver;
@@ -42,13 +39,15 @@ public class FloatingRegionBySelector implements GetFloatingRegion , IGetSeleniu
 
     @Override
     public List<FloatingMatchSettings> getRegions(EyesScreenshot screenshot) {
-        List<WebElement> elements = driver.findElements(this.selector);
+        return getRegions(screenshot, getElementsRegions(driver));
+    }
+
+    @Override
+    public List<FloatingMatchSettings> getRegions(EyesScreenshot screenshot, List<Region> elementsRegions) {
         List<FloatingMatchSettings> values = new ArrayList<>();
 
-        for (WebElement element : elements) {
-            Rectangle rectangle = EyesDriverUtils.getVisibleElementRect(element, driver);
-            Location location = new Location(rectangle.x, rectangle.y);
-            Dimension size = element.getSize();
+        for (Region elementRegion : elementsRegions) {
+            Location location = elementRegion.getLocation();
 
             Location adjustedLocation;
             if (screenshot != null) {
@@ -58,8 +57,8 @@ public class FloatingRegionBySelector implements GetFloatingRegion , IGetSeleniu
                 adjustedLocation = location;
             }
 
-            values.add(new FloatingMatchSettings(adjustedLocation.getX(), adjustedLocation.getY(), size.width,
-                    size.height, maxUpOffset, maxDownOffset, maxLeftOffset, maxRightOffset));
+            values.add(new FloatingMatchSettings(adjustedLocation.getX(), adjustedLocation.getY(), elementRegion.getWidth(),
+                    elementRegion.getHeight(), maxUpOffset, maxDownOffset, maxLeftOffset, maxRightOffset));
         }
 
         return values;
@@ -70,6 +69,11 @@ public class FloatingRegionBySelector implements GetFloatingRegion , IGetSeleniu
         return driver.findElements(this.selector);
     }
 
+    @Override
+    By getSelector() {
+        return selector;
+    }
+
     @Override
     public int getMaxLeftOffset() {
         return maxLeftOffset;
@@ -0,0 +1,36 @@
+package com.applitools.eyes.selenium.fluent;
+
+import com.applitools.eyes.CoordinatesType;
+import com.applitools.eyes.Region;
+import com.applitools.eyes.fluent.IGetRegions;
+import com.applitools.eyes.selenium.EyesDriverUtils;
+import com.applitools.eyes.selenium.wrappers.EyesWebDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Rectangle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The base of the regions which are defined by a selector.
+ * The regions of the elements may be resolved for the whole check by {@link SelectorRegionsResolver}.
+ */
+abstract class RegionBySelector<T> implements IGetRegions<T> {
+
+    abstract By getSelector();
+
+    /**
+     * @return The context relative regions of the elements matching the selector.
+     */
+    List<Region> getElementsRegions(EyesWebDriver driver) {
+        return toRegions(EyesDriverUtils.getVisibleElementsRects(driver.findElements(getSelector()), driver));
+    }
+
+    static List<Region> toRegions(List<Rectangle> rects) {
+        List<Region> regions = new ArrayList<>(rects.size());
+        for (Rectangle rect : rects) {
+            regions.add(new Region(rect.x, rect.y, rect.width, rect.height, CoordinatesType.CONTEXT_RELATIVE));
+        }
+        return regions;
+    }
+}
@@ -0,0 +1,59 @@
+package com.applitools.eyes.selenium.fluent;
+
+import com.applitools.eyes.Region;
+import com.applitools.eyes.fluent.GetRegion;
+import com.applitools.eyes.fluent.IGetRegions;
+import com.applitools.eyes.selenium.EyesDriverUtils;
+import com.applitools.eyes.selenium.wrappers.EyesWebDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.*;
+
+/**
+ * Resolves the regions of all the selectors of a check together. The elements of each selector are found once,
+ * and the rectangles of all the elements are fetched in a single script call.
+ */
+public class SelectorRegionsResolver {
+
+    /**
+     * Resolves the regions of the elements of the selector based regions of a check.
+     * @param driver       The driver to find the elements with.
+     * @param regionGroups The regions of the check, regions which aren't defined by a selector are ignored.
+     * @return The context relative regions of the elements of each selector based region. The regions should be used
+     * only by the current check, since the elements may move afterwards.
+     */
+    public static Map<IGetRegions<?>, List<Region>> resolve(EyesWebDriver driver, GetRegion[]... regionGroups) {
+        List<RegionBySelector<?>> regions = new ArrayList<>();
+        Map<By, int[]> ranges = new HashMap<>();
+        List<WebElement> elements = new ArrayList<>();
+        for (GetRegion[] regionGroup : regionGroups) {
+            for (GetRegion region : regionGroup) {
+                if (!(region instanceof RegionBySelector)) {
+                    continue;
+                }
+
+                RegionBySelector<?> regionBySelector = (RegionBySelector<?>) region;
+                regions.add(regionBySelector);
+                By selector = regionBySelector.getSelector();
+                if (!ranges.containsKey(selector)) {
+                    List<WebElement> selectorElements = driver.findElements(selector);
+                    ranges.put(selector, new int[]{elements.size(), elements.size() + selectorElements.size()});
+                    elements.addAll(selectorElements);
+                }
+            }
+        }
+
+        Map<IGetRegions<?>, List<Region>> resolvedRegions = new IdentityHashMap<>();
+        if (regions.isEmpty()) {
+            return resolvedRegions;
+        }
+
+        List<Region> elementsRegions = RegionBySelector.toRegions(EyesDriverUtils.getVisibleElementsRects(elements, driver));
+        for (RegionBySelector<?> region : regions) {
+            int[] range = ranges.get(region.getSelector());
+            resolvedRegions.put(region, new ArrayList<>(elementsRegions.subList(range[0], range[1])));
+        }
+        return resolvedRegions;
+    }
+}
@@ -3,7 +3,6 @@ package com.applitools.eyes.selenium.fluent;
 import com.applitools.eyes.*;
 import com.applitools.eyes.fluent.GetSimpleRegion;
 import com.applitools.eyes.selenium.Borders;
-import com.applitools.eyes.selenium.EyesDriverUtils;
 import com.applitools.eyes.selenium.wrappers.EyesWebDriver;
 import com.applitools.eyes.serializers.BySerializer;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -13,7 +12,7 @@ import org.openqa.selenium.*;
 import java.util.ArrayList;
 import java.util.List;
 
-public class SimpleRegionBySelector implements GetSimpleRegion, IGetSeleniumRegion, ImplicitInitiation {
+public class SimpleRegionBySelector extends RegionBySelector<Region> implements GetSimpleRegion, IGetSeleniumRegion, ImplicitInitiation {
 
     @JsonIgnore
     private EyesWebDriver driver;
@@ -38,19 +37,20 @@ public class SimpleRegionBySelector implements GetSimpleRegion, IGetSeleniumRegi
 
     @Override
     public List<Region> getRegions(EyesScreenshot screenshot) {
-        List<WebElement> elements = driver.findElements(this.selector);
-        List<Region> values = new ArrayList<>(elements.size());
-        for (WebElement element : elements) {
-            Rectangle rectangle = EyesDriverUtils.getVisibleElementRect(element, driver);
-            Dimension size = element.getSize();
-            Location adjustedLocation = new Location(rectangle.x, rectangle.y);
+        return getRegions(screenshot, getElementsRegions(driver));
+    }
+
+    @Override
+    public List<Region> getRegions(EyesScreenshot screenshot, List<Region> elementsRegions) {
+        List<Region> values = new ArrayList<>(elementsRegions.size());
+        for (Region elementRegion : elementsRegions) {
+            Location adjustedLocation = elementRegion.getLocation();
             if (screenshot != null) {
                 // Element's coordinates are context relative, so we need to convert them first.
                 adjustedLocation = screenshot.convertLocation(adjustedLocation,
                         CoordinatesType.CONTEXT_RELATIVE, CoordinatesType.SCREENSHOT_AS_IS);
             }
-            Region region = new Region(adjustedLocation, new RectangleSize(size.width, size.height),
-                    CoordinatesType.SCREENSHOT_AS_IS);
+            Region region = new Region(adjustedLocation, elementRegion.getSize(), CoordinatesType.SCREENSHOT_AS_IS);
             region = region.addPadding(padding);
             values.add(region);
         }
@@ -61,4 +61,9 @@ public class SimpleRegionBySelector implements GetSimpleRegion, IGetSeleniumRegi
     public List<WebElement> getElements() {
         return driver.findElements(selector);
     }
+
+    @Override
+    By getSelector() {
+        return selector;
+    }
 }
@@ -30,9 +30,9 @@ public abstract class EyesWebDriver implements WebDriver, JavascriptExecutor, Ta
     }
 
     public double getDevicePixelRatio() {
-        if (eyesBase.getConfiguration().isFeatureActivated(Feature.USE_PREDEFINED_DEVICE_INFO)) {
+        if (eyesBase.getConfigurationSnapshot().isFeatureActivated(Feature.USE_PREDEFINED_DEVICE_INFO)) {
             Map<String, MobileDeviceInfo> mobileDevicesInfo = eyesBase.getMobileDeviceInfo();
-            String deviceName = eyesBase.getConfiguration().getDeviceInfo();
+            String deviceName = eyesBase.getConfigurationSnapshot().getDeviceInfo();
             deviceName = deviceName == null ? EyesDriverUtils.getMobileDeviceName(this) : deviceName;
             for (MobileDeviceInfo mobileDeviceInfo : mobileDevicesInfo.values()) {
                 for (String name : mobileDeviceInfo.getAliases()) {
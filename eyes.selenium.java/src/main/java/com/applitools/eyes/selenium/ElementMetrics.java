@@ -0,0 +1,118 @@
+package com.applitools.eyes.selenium;
+
+import com.applitools.eyes.EyesException;
+import com.applitools.eyes.Location;
+import com.applitools.eyes.RectangleSize;
+import com.applitools.eyes.Region;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+
+/**
+ * A snapshot of the geometry of an element, fetched in a single script call.
+ */
+public class ElementMetrics {
+
+    private static final String JS_GET_ELEMENT_METRICS =
+            "var el = arguments[0], r = el.getBoundingClientRect();" +
+                    "var style = window.getComputedStyle ? window.getComputedStyle(el, null) : el.currentStyle;" +
+                    "var css = function(name) { return (style.getPropertyValue ? style.getPropertyValue(name) : style[name]) || '0'; };" +
+                    "var width = r.width === undefined ? r.right - r.left : r.width;" +
+                    "var height = r.height === undefined ? r.bottom - r.top : r.height;" +
+                    "return [r.left, r.top, width, height," +
+                    "el.clientLeft, el.clientTop, el.clientWidth, el.clientHeight," +
+                    "el.scrollLeft, el.scrollTop, el.scrollWidth, el.scrollHeight," +
+                    "css('border-left-width'), css('border-top-width'), css('border-right-width'), css('border-bottom-width')," +
+                    "css('position'), el.style.overflow].join(';');";
+
+    private final Region bounds;
+    private final Region innerBounds;
+    private final RectangleSize clientSize;
+    private final Location scrollLocation;
+    private final RectangleSize scrollSize;
+    private final Borders borders;
+    private final String position;
+    private final String overflow;
+
+    private ElementMetrics(String[] data) {
+        float left = parse(data[0]);
+        float top = parse(data[1]);
+        bounds = new Region(Math.round(left), Math.round(top), Math.round(parse(data[2])), Math.round(parse(data[3])));
+        clientSize = new RectangleSize(Math.round(parse(data[6])), Math.round(parse(data[7])));
+        innerBounds = new Region(Math.round(left + parse(data[4])), Math.round(top + parse(data[5])),
+                clientSize.getWidth(), clientSize.getHeight());
+        scrollLocation = new Location((int) Math.ceil(parse(data[8])), (int) Math.ceil(parse(data[9])));
+        scrollSize = new RectangleSize(Math.round(parse(data[10])), Math.round(parse(data[11])));
+        borders = new Borders(Math.round(parse(data[12])), Math.round(parse(data[13])),
+                Math.round(parse(data[14])), Math.round(parse(data[15])));
+        position = data[16];
+        overflow = data.length > 17 ? data[17] : "";
+    }
+
+    private static float parse(String value) {
+        return Float.parseFloat(value.replace("px", "").trim());
+    }
+
+    /**
+     * Fetches the metrics of the element.
+     * @param element  The element to get the metrics of.
+     * @param executor The executor to run the script with.
+     * @return The metrics of the element.
+     */
+    public static ElementMetrics fetch(WebElement element, JavascriptExecutor executor) {
+        Object result = executor.executeScript(JS_GET_ELEMENT_METRICS, element);
+        if (result == null) {
+            throw new EyesException("Failed getting the metrics of the element");
+        }
+
+        // Split with a negative limit to keep an empty overflow
+        return new ElementMetrics(result.toString().split(";", -1));
+    }
+
+    /**
+     * @return The bounding client rect of the element.
+     */
+    public Region getBounds() {
+        return new Region(bounds);
+    }
+
+    /**
+     * @return The bounding client rect of the element, without its borders and scrollbars.
+     */
+    public Region getInnerBounds() {
+        return new Region(innerBounds);
+    }
+
+    public RectangleSize getClientSize() {
+        return clientSize;
+    }
+
+    public Location getScrollLocation() {
+        return scrollLocation;
+    }
+
+    public RectangleSize getScrollSize() {
+        return scrollSize;
+    }
+
+    public Borders getBorders() {
+        return borders;
+    }
+
+    /**
+     * @return The computed position style of the element.
+     */
+    public String getPosition() {
+        return position;
+    }
+
+    /**
+     * @return The overflow style of the element.
+     */
+    public String getOverflow() {
+        return overflow;
+    }
+
+    public boolean isScrollable() {
+        return scrollSize.getHeight() > innerBounds.getHeight() || scrollSize.getWidth() > innerBounds.getWidth();
+    }
+}
@@ -85,7 +85,7 @@ public class Eyes implements IEyesBase {
                 seleniumEyes.getServerConnector(),
                 seleniumEyes.getScreenshotProvider(),
                 seleniumEyes.getDevicePixelRatio(),
-                seleniumEyes.getConfiguration().getAppName(),
+                seleniumEyes.getConfigurationSnapshot().getAppName(),
                 getDebugScreenshotsProvider());
         if (isVisualGridEyes) {
             visualGridEyes.setImageProvider(seleniumEyes.getImageProvider());
@@ -17,12 +17,18 @@ import com.applitools.eyes.selenium.wrappers.EyesRemoteWebElement;
 import com.applitools.eyes.selenium.wrappers.EyesSeleniumDriver;
 import com.applitools.eyes.selenium.wrappers.EyesWebDriver;
 import com.applitools.utils.GeneralUtils;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.tuple.Pair;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -33,6 +39,12 @@ public class EyesSeleniumUtils {
 
     private static final long DOM_EXTRACTION_TIMEOUT = 5 * 60 * 1000;
     private static final String DOM_SCRIPTS_WRAPPER = "return (%s)(%s);";
+    private static final long MIN_POLL_INTERVAL_MS = 50;
+    private static final long MAX_POLL_INTERVAL_MS = 1000;
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final Map<String, String> DOM_SCRIPTS = new ConcurrentHashMap<>();
 
     private static class TimeoutTask extends TimerTask {
         private final AtomicBoolean isCheckTimerTimedOut;
@@ -183,8 +195,67 @@ public class EyesSeleniumUtils {
         return scrollRootElement;
     }
 
+    /**
+     * Returns the dom script at the given resource path. The scripts are read once and kept for the next checks.
+     */
+    public static String getDomScript(String resourcePath) {
+        String script = DOM_SCRIPTS.get(resourcePath);
+        if (script != null) {
+            return script;
+        }
+
+        InputStream stream = EyesSeleniumUtils.class.getResourceAsStream(resourcePath);
+        if (stream == null) {
+            throw new EyesException(String.format("Failed getting resources for dom scripts: %s is missing", resourcePath));
+        }
+
+        try {
+            script = GeneralUtils.readInputStreamAsString(stream);
+        } catch (IOException e) {
+            throw new EyesException("Failed getting resources for dom scripts", e);
+        }
+
+        DOM_SCRIPTS.put(resourcePath, script);
+        return script;
+    }
+
     public static String runDomScript(Logger logger, EyesWebDriver driver, UserAgent userAgent, Set<String> testIds, String domScript,
                                       Map<String, Object> domScriptArguments, String pollingScript) throws Exception {
+        DomScriptResult result = pollDomScript(logger, driver, userAgent, testIds, domScript, domScriptArguments, pollingScript);
+        if (result.value != null) {
+            return result.value.toString();
+        }
+
+        int length = 0;
+        for (String chunk : result.chunks) {
+            length += chunk.length();
+        }
+
+        StringBuilder value = new StringBuilder(length);
+        for (String chunk : result.chunks) {
+            value.append(chunk);
+        }
+        return value.toString();
+    }
+
+    /**
+     * Runs the dom script and parses its result to the given type.
+     * A chunked result is parsed while reading the chunks, so the chunks are never joined into a single string.
+     */
+    public static <T> T runDomScript(Logger logger, EyesWebDriver driver, UserAgent userAgent, Set<String> testIds, String domScript,
+                                     Map<String, Object> domScriptArguments, String pollingScript, Class<T> resultType) throws Exception {
+        DomScriptResult result = pollDomScript(logger, driver, userAgent, testIds, domScript, domScriptArguments, pollingScript);
+        if (result.value != null) {
+            return JSON_MAPPER.treeToValue(result.value, resultType);
+        }
+
+        try (Reader reader = new ChunksReader(result.chunks)) {
+            return JSON_MAPPER.readValue(reader, resultType);
+        }
+    }
+
+    private static DomScriptResult pollDomScript(Logger logger, EyesWebDriver driver, UserAgent userAgent, Set<String> testIds, String domScript,
+                                                 Map<String, Object> domScriptArguments, String pollingScript) throws Exception {
         if (domScriptArguments == null) {
             domScriptArguments = new HashMap<>();
         }
@@ -194,24 +265,27 @@ public class EyesSeleniumUtils {
         int chunkByteLength = userAgent.getOS().toLowerCase().contains("ios") ? 10 * 1024 * 1024 : 240 * 1024 * 1024;
         domScriptArguments.put("chunkByteLength", chunkByteLength);
         pollingScriptArguments.put("chunkByteLength", chunkByteLength);
-        ObjectMapper mapper = new ObjectMapper();
-        String domScriptWrapped = String.format(DOM_SCRIPTS_WRAPPER, domScript, mapper.writeValueAsString(domScriptArguments));
-        String pollingScriptWrapped = String.format(DOM_SCRIPTS_WRAPPER, pollingScript, mapper.writeValueAsString(pollingScriptArguments));
+        String domScriptWrapped = String.format(DOM_SCRIPTS_WRAPPER, domScript, JSON_MAPPER.writeValueAsString(domScriptArguments));
+        String pollingScriptWrapped = String.format(DOM_SCRIPTS_WRAPPER, pollingScript, JSON_MAPPER.writeValueAsString(pollingScriptArguments));
 
         AtomicBoolean isCheckTimerTimedOut = new AtomicBoolean(false);
         Timer timer = new Timer("VG_Check_StopWatch", true);
         timer.schedule(new TimeoutTask(isCheckTimerTimedOut), DOM_EXTRACTION_TIMEOUT);
         try {
             String resultAsString = (String) driver.executeScript(domScriptWrapped);
-            ScriptResponse scriptResponse = GeneralUtils.parseJsonToObject(resultAsString, ScriptResponse.class);
+            ScriptResponse scriptResponse = JSON_MAPPER.readValue(resultAsString, ScriptResponse.class);
             ScriptResponse.Status status = scriptResponse.getStatus();
 
             logger.log(TraceLevel.Info, testIds, Stage.CHECK, Type.DOM_SCRIPT, Pair.of("message", "Starting dom script"));
+
+            // Small pages are ready almost immediately, so the polling starts fast and slows down for bigger pages
+            long pollInterval = MIN_POLL_INTERVAL_MS;
             while (status == ScriptResponse.Status.WIP && !isCheckTimerTimedOut.get()) {
+                Thread.sleep(pollInterval);
+                pollInterval = Math.min(pollInterval * 2, MAX_POLL_INTERVAL_MS);
                 resultAsString = (String) driver.executeScript(pollingScriptWrapped);
-                scriptResponse = GeneralUtils.parseJsonToObject(resultAsString, ScriptResponse.class);
+                scriptResponse = JSON_MAPPER.readValue(resultAsString, ScriptResponse.class);
                 status = scriptResponse.getStatus();
-                Thread.sleep(200);
             }
 
             if (status == ScriptResponse.Status.ERROR) {
@@ -223,17 +297,17 @@ public class EyesSeleniumUtils {
             }
 
             if (status == ScriptResponse.Status.SUCCESS) {
-                return scriptResponse.getValue().toString();
+                return new DomScriptResult(scriptResponse.getValue(), null);
             }
 
+            // The chunks are already waiting in the browser, so they are polled without a delay
             logger.log(TraceLevel.Info, testIds, Stage.CHECK, Type.DOM_SCRIPT, Pair.of("message", "Collecting chunks"));
-            StringBuilder value = new StringBuilder();
+            List<String> chunks = new ArrayList<>();
             while (status == ScriptResponse.Status.SUCCESS_CHUNKED && !scriptResponse.isDone() && !isCheckTimerTimedOut.get()) {
-                value.append(GeneralUtils.parseJsonToObject(scriptResponse.getValue().toString(), String.class));
+                chunks.add(scriptResponse.getValue().asText());
                 resultAsString = (String) driver.executeScript(pollingScriptWrapped);
-                scriptResponse = GeneralUtils.parseJsonToObject(resultAsString, ScriptResponse.class);
+                scriptResponse = JSON_MAPPER.readValue(resultAsString, ScriptResponse.class);
                 status = scriptResponse.getStatus();
-                Thread.sleep(200);
             }
 
             if (status == ScriptResponse.Status.ERROR) {
@@ -244,11 +318,60 @@ public class EyesSeleniumUtils {
                 throw new EyesException("Domsnapshot Timed out");
             }
 
-            value.append(GeneralUtils.parseJsonToObject(scriptResponse.getValue().toString(), String.class));
-            return value.toString();
+            chunks.add(scriptResponse.getValue().asText());
+            logger.log(TraceLevel.Info, testIds, Stage.CHECK, Type.DOM_SCRIPT, Pair.of("chunksCount", chunks.size()));
+            return new DomScriptResult(null, chunks);
         } finally {
             timer.cancel();
             logger.log(TraceLevel.Info, testIds, Stage.CHECK, Type.DOM_SCRIPT, Pair.of("message", "Finished dom script"));
         }
     }
+
+    private static class DomScriptResult {
+        private final JsonNode value;
+        private final List<String> chunks;
+
+        private DomScriptResult(JsonNode value, List<String> chunks) {
+            this.value = value;
+            this.chunks = chunks;
+        }
+    }
+
+    /**
+     * Reads the chunks of a dom script result one after the other.
+     * Every chunk is released once it was read, so it can be collected while the rest of the result is parsed.
+     */
+    private static class ChunksReader extends Reader {
+        private final List<String> chunks;
+        private int chunkIndex = 0;
+        private int offset = 0;
+
+        private ChunksReader(List<String> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public int read(char[] buffer, int bufferOffset, int length) {
+            while (chunkIndex < chunks.size()) {
+                String chunk = chunks.get(chunkIndex);
+                if (offset < chunk.length()) {
+                    int count = Math.min(length, chunk.length() - offset);
+                    chunk.getChars(offset, offset + count, buffer, bufferOffset);
+                    offset += count;
+                    return count;
+                }
+
+                chunks.set(chunkIndex++, null);
+                offset = 0;
+            }
+
+            return -1;
+        }
+
+        @Override
+        public void close() {
+            chunks.clear();
+            chunkIndex = 0;
+        }
+    }
 }
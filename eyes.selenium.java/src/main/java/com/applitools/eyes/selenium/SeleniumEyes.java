@@ -11,6 +11,7 @@ import com.applitools.eyes.debug.DebugScreenshotsProvider;
 import com.applitools.eyes.exceptions.TestFailedException;
 import com.applitools.eyes.fluent.GetSimpleRegion;
 import com.applitools.eyes.fluent.ICheckSettingsInternal;
+import com.applitools.eyes.fluent.IGetRegions;
 import com.applitools.eyes.fluent.SimpleRegionByRectangle;
 import com.applitools.eyes.locators.BaseOcrRegion;
 import com.applitools.eyes.locators.OcrRegion;
@@ -32,6 +33,7 @@ import com.applitools.eyes.selenium.wrappers.EyesRemoteWebElement;
 import com.applitools.eyes.selenium.wrappers.EyesSeleniumDriver;
 import com.applitools.eyes.selenium.wrappers.EyesTargetLocator;
 import com.applitools.eyes.triggers.MouseAction;
+import com.applitools.eyes.visualgrid.model.RGridResource;
 import com.applitools.eyes.visualgrid.model.RenderingInfo;
 import com.applitools.eyes.visualgrid.model.VisualGridSelector;
 import com.applitools.eyes.visualgrid.services.CheckTask;
@@ -42,6 +44,8 @@ import org.openqa.selenium.*;
 import org.openqa.selenium.remote.RemoteWebDriver;
 
 import java.awt.image.BufferedImage;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URI;
 import java.util.*;
 
@@ -148,7 +152,7 @@ public class SeleniumEyes extends RunningTest implements ISeleniumEyes {
 
     @Override
     public String getBatchId() {
-        return getConfiguration().getBatch().getId();
+        return getConfigurationSnapshot().getBatch().getId();
     }
 
     @Override
@@ -522,12 +526,14 @@ public class SeleniumEyes extends RunningTest implements ISeleniumEyes {
         debugScreenshotsProvider.save(screenshotImage, "original");
         EyesWebDriverScreenshot screenshot = new EyesWebDriverScreenshot(logger, driver, screenshotImage, EyesWebDriverScreenshot.ScreenshotType.VIEWPORT, Location.ZERO);
 
+        // The regions are collected from the page first, then all the sub screenshots are matched together
+        List<MatchWindowData> matchWindowData = new ArrayList<>();
         for (int i = 0; i < checkSettings.length; ++i) {
             if (((Hashtable<Integer, GetSimpleRegion>) getRegions).containsKey(i)) {
                 GetSimpleRegion simpleRegion = getRegions.get(i);
                 ICheckSettingsInternal checkSettingsInternal = checkSettingsInternalDictionary.get(i);
                 List<EyesScreenshot> subScreenshots = getSubScreenshots(hasFrames ? Region.EMPTY : bBox, screenshot, simpleRegion);
-                matchRegion(checkSettingsInternal, subScreenshots);
+                matchWindowData.addAll(prepareForRegionMatch(checkSettingsInternal, subScreenshots));
             }
         }
 
@@ -540,6 +546,10 @@ public class SeleniumEyes extends RunningTest implements ISeleniumEyes {
         }
 
         ((EyesTargetLocator) driver.switchTo()).frames(this.originalFC);
+
+        if (!matchWindowData.isEmpty()) {
+            performMatches(matchWindowData);
+        }
     }
 
     private List<EyesScreenshot> getSubScreenshots(Region bBox, EyesWebDriverScreenshot screenshot, GetSimpleRegion getSimpleRegion) {
@@ -552,8 +562,8 @@ public class SeleniumEyes extends RunningTest implements ISeleniumEyes {
         return subScreenshots;
     }
 
-    private void matchRegion(ICheckSettingsInternal checkSettingsInternal, List<EyesScreenshot> subScreenshots) {
-
+    private List<MatchWindowData> prepareForRegionMatch(ICheckSettingsInternal checkSettingsInternal, List<EyesScreenshot> subScreenshots) {
+        List<MatchWindowData> matchWindowData = new ArrayList<>(subScreenshots.size());
         String name = checkSettingsInternal.getName();
         String source = EyesDriverUtils.isMobileDevice(driver) ? null : driver.getCurrentUrl();
         for (EyesScreenshot subScreenshot : subScreenshots) {
@@ -563,10 +573,10 @@ public class SeleniumEyes extends RunningTest implements ISeleniumEyes {
             ImageMatchSettings ims = MatchWindowTask.createImageMatchSettings(checkSettingsInternal, subScreenshot, this);
             Location location = subScreenshot.getLocationInScreenshot(Location.ZERO, CoordinatesType.SCREENSHOT_AS_IS);
             AppOutput appOutput = new AppOutput(name, subScreenshot, null, null, location);
-            MatchWindowData data = prepareForMatch(checkSettingsInternal, new ArrayList<Trigger>(), appOutput, name, false,
-                    ims, null, source);
-            performMatch(data);
+            matchWindowData.add(prepareForMatch(checkSettingsInternal, new ArrayList<Trigger>(), appOutput, name, false,
+                    ims, null, source));
         }
+        return matchWindowData;
     }
 
     private Region findBoundingBox(Dictionary<Integer, GetSimpleRegion> getRegions, ICheckSettings[] checkSettings) {
@@ -635,9 +645,18 @@ public class SeleniumEyes extends RunningTest implements ISeleniumEyes {
         super.setIsDisabled(disabled);
     }
 
+    /**
+     * Captures the dom of the page as a string. Checks don't call this method, they write the dom directly into the
+     * upload with {@link #tryCaptureDom(Writer)}, which should be overridden to intercept the dom of checks.
+     */
     @Override
     public String tryCaptureDom() {
-        String fullWindowDom = "";
+        StringWriter writer = new StringWriter();
+        return tryCaptureDom(writer) ? writer.toString() : "";
+    }
+
+    @Override
+    protected boolean tryCaptureDom(Writer writer) {
         FrameChain fc = driver.getFrameChain().clone();
         try {
             Frame frame = fc.peek();
@@ -651,13 +670,14 @@ public class SeleniumEyes extends RunningTest implements ISeleniumEyes {
             PositionProvider positionProvider = ScrollPositionProviderFactory.getScrollPositionProvider(userAgent, logger, jsExecutor, scrollRootElement);
 
             DomCapture domCapture = new DomCapture(this);
-            fullWindowDom = domCapture.getPageDom(positionProvider);
+            domCapture.writePageDom(positionProvider, writer);
+            return true;
         } catch (Exception e) {
             GeneralUtils.logExceptionStackTrace(logger, Stage.CHECK, Type.DOM_SCRIPT, e, getBaseAgentId());
+            return false;
         } finally {
             ((EyesTargetLocator) driver.switchTo()).frames(fc);
         }
-        return fullWindowDom;
     }
 
     @Override
@@ -671,7 +691,7 @@ public class SeleniumEyes extends RunningTest implements ISeleniumEyes {
         }
 
         logger.log(TraceLevel.Info, Collections.singleton(getTestId()), Stage.CHECK, Type.CALLED,
-                Pair.of("configuration", getConfiguration()),
+                Pair.of("configuration", getConfigurationSnapshot()),
                 Pair.of("checkSettings", checkSettings));
         try {
             ArgumentGuard.isValidState(isOpen, "Eyes not open");
@@ -875,37 +895,30 @@ public class SeleniumEyes extends RunningTest implements ISeleniumEyes {
     private void checkFullElement(ICheckSettingsInternal checkSettingsInternal, WebElement targetElement,
                                   Region targetRegion, CheckState state, String source) {
         // Hide scrollbars
-        String originalOverflow = EyesDriverUtils.setOverflow(driver, "hidden", targetElement);
+        EyesRemoteWebElement eyesTargetElement = (EyesRemoteWebElement) targetElement;
+        String originalOverflow = eyesTargetElement.setOverflow("hidden");
 
         ScrollPositionProvider scrollingElementProvider = new SeleniumScrollPositionProvider(logger, driver, getCurrentFrameScrollRootElement());
         Location originalLocation = scrollingElementProvider.getCurrentPosition();
         scrollingElementProvider.setPosition(Location.ZERO);
 
         // Get element's scroll size and bounds
-        RectangleSize scrollSize = EyesRemoteWebElement.getScrollSize(targetElement, driver, logger);
-        Region elementBounds = EyesRemoteWebElement.getClientBounds(targetElement, driver, logger);
-        Region elementInnerBounds = EyesRemoteWebElement.getClientBoundsWithoutBorders(targetElement, driver);
-
-        boolean isScrollableElement = scrollSize.getHeight() > elementInnerBounds.getHeight() || scrollSize.getWidth() > elementInnerBounds.getWidth();
-
-        if (isScrollableElement) {
-            elementBounds = elementInnerBounds;
-        }
+        ElementMetrics elementMetrics = eyesTargetElement.getMetrics();
+        RectangleSize scrollSize = elementMetrics.getScrollSize();
+        boolean isScrollableElement = elementMetrics.isScrollable();
+        Region elementBounds = isScrollableElement ? elementMetrics.getInnerBounds() : elementMetrics.getBounds();
         initPositionProvidersForCheckElement(isScrollableElement, targetElement, state);
 
         Location location = SeleniumScrollPositionProvider.getCurrentPosition(driver, EyesSeleniumUtils.getDefaultRootElement(logger, driver));
         state.setOriginalLocation(elementBounds.offset(location).getLocation());
         Location originalElementLocation = elementBounds.getLocation();
 
-        String positionStyle = ((EyesRemoteWebElement) targetElement).getComputedStyle("position");
-        if (!positionStyle.equalsIgnoreCase("fixed")) {
-            if (getConfiguration().getStitchMode().equals(StitchMode.CSS)) {
+        if (!elementMetrics.getPosition().equalsIgnoreCase("fixed")) {
+            if (getConfigurationSnapshot().getStitchMode().equals(StitchMode.CSS)) {
                 bringRegionToViewCss(elementBounds, state.getEffectiveViewport().getLocation());
-                if (isScrollableElement) {
-                    elementBounds = EyesRemoteWebElement.getClientBoundsWithoutBorders(targetElement, driver);
-                } else {
-                    elementBounds = EyesRemoteWebElement.getClientBounds(targetElement, driver, logger);
-                }
+                eyesTargetElement.invalidateMetrics();
+                elementMetrics = eyesTargetElement.getMetrics();
+                elementBounds = isScrollableElement ? elementMetrics.getInnerBounds() : elementMetrics.getBounds();
                 state.setEffectiveViewport(computeEffectiveViewport(driver.getFrameChain().clone(), effectiveViewport.getSize()));
             } else {
                 elementBounds = bringRegionToView(elementBounds, state.getEffectiveViewport().getLocation());
@@ -940,7 +953,8 @@ public class SeleniumEyes extends RunningTest implements ISeleniumEyes {
         // already has an offset caused by "BringRegionToView", so we should consider this offset.
         if (getConfigurationInstance().getStitchMode() == StitchMode.SCROLL && !isScrollableElement) {
             EyesRemoteWebElement sre = (EyesRemoteWebElement) getCurrentFrameScrollRootElement();
-            state.setStitchOffset(new RectangleSize(sre.getScrollLeft(), sre.getScrollTop()));
+            Location sreScrollLocation = sre.getScrollLocation();
+            state.setStitchOffset(new RectangleSize(sreScrollLocation.getX(), sreScrollLocation.getY()));
         }
 
         // 2. Intersect the element and the effective viewport
@@ -952,7 +966,7 @@ public class SeleniumEyes extends RunningTest implements ISeleniumEyes {
         checkWindowBase(crop, checkSettingsInternal, source);
 
         scrollingElementProvider.setPosition(originalLocation);
-        EyesDriverUtils.setOverflow(driver, originalOverflow, targetElement);
+        eyesTargetElement.setOverflow(originalOverflow);
     }
 
     private void checkNativeElement(ICheckSettingsInternal checkSettingsInternal, WebElement targetElement) {
@@ -1545,6 +1559,23 @@ public class SeleniumEyes extends RunningTest implements ISeleniumEyes {
         return getConfigurationInstance();
     }
 
+    @Override
+    protected Map<IGetRegions<?>, List<Region>> resolveRegions(ICheckSettingsInternal checkSettingsInternal) {
+        // Regions which failed to resolve are resolved again when collected
+        try {
+            return SelectorRegionsResolver.resolve(driver,
+                    checkSettingsInternal.getIgnoreRegions(),
+                    checkSettingsInternal.getLayoutRegions(),
+                    checkSettingsInternal.getStrictRegions(),
+                    checkSettingsInternal.getContentRegions(),
+                    checkSettingsInternal.getFloatingRegions(),
+                    checkSettingsInternal.getAccessibilityRegions());
+        } catch (WebDriverException e) {
+            GeneralUtils.logExceptionStackTrace(logger, Stage.CHECK, e, getTestId());
+            return Collections.emptyMap();
+        }
+    }
+
     @Override
     protected EyesScreenshot getScreenshot(Region targetRegion, ICheckSettingsInternal checkSettingsInternal) {
         if (!EyesDriverUtils.isMobileDevice(driver)) {
@@ -1642,7 +1673,7 @@ public class SeleniumEyes extends RunningTest implements ISeleniumEyes {
         ScaleProvider scaleProvider = scaleProviderFactory.getScaleProvider(screenshotImage.getWidth());
         CutProvider cutProvider = cutProviderHandler.get();
         if (scaleProvider.getScaleRatio() != 1.0) {
-            screenshotImage = ImageUtils.scaleImage(screenshotImage, scaleProvider.getScaleRatio());
+            screenshotImage = new ImageScaler().scale(ImageView.of(screenshotImage), scaleProvider.getScaleRatio()).toBufferedImage();
             debugScreenshotsProvider.save(screenshotImage, "scaled");
             cutProvider.scale(scaleProvider.getScaleRatio());
         }
@@ -1829,6 +1860,13 @@ public class SeleniumEyes extends RunningTest implements ISeleniumEyes {
         return userAgent;
     }
 
+    /**
+     * @return The cache of the stylesheets downloaded for the dom capture, shared by the tests of the runner.
+     */
+    public LruCache<String, RGridResource> getCssResourcesCache() {
+        return runner.getCssResourcesCache();
+    }
+
     /**
      * Gets scale provider.
      * @return the scale provider
@@ -40,6 +40,15 @@ class CssTreeNode {
         this.css = css;
     }
 
+    /**
+     * @return A node with the parsed rules of this node, without the nodes of the imported stylesheets.
+     */
+    CssTreeNode copy() {
+        CssTreeNode node = new CssTreeNode(css);
+        node.cssRules.addAll(cssRules);
+        return node;
+    }
+
     List<String> getImportedUrls() {
         List<String> urls = new ArrayList<>();
         for (CssRule rule: cssRules) {
@@ -10,19 +10,19 @@ import com.applitools.eyes.positioning.PositionProvider;
 import com.applitools.eyes.selenium.EyesSeleniumUtils;
 import com.applitools.eyes.selenium.SeleniumEyes;
 import com.applitools.eyes.selenium.frames.FrameChain;
-import com.applitools.eyes.selenium.rendering.VisualGridEyes;
 import com.applitools.eyes.selenium.wrappers.EyesSeleniumDriver;
 import com.applitools.eyes.selenium.wrappers.EyesTargetLocator;
 import com.applitools.eyes.visualgrid.model.RGridResource;
-import com.applitools.utils.EfficientStringReplace;
 import com.applitools.utils.GeneralUtils;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.applitools.utils.LruCache;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import org.apache.commons.lang3.tuple.Pair;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URI;
 import java.util.*;
 import java.util.concurrent.Phaser;
@@ -30,19 +30,23 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 public class DomCapture {
-    private final String CAPTURE_DOM;
-    private final String CAPTURE_DOM_FOR_IE;
-    private final String POLL_RESULT;
-    private final String POLL_RESULT_FOR_IE;
+    private static final String CAPTURE_DOM = "/dom-capture/dist/captureDomAndPoll.js";
+    private static final String CAPTURE_DOM_FOR_IE = "/dom-capture/dist/captureDomAndPollForIE.js";
+    private static final String POLL_RESULT = "/dom-capture/dist/pollResult.js";
+    private static final String POLL_RESULT_FOR_IE = "/dom-capture/dist/pollResultForIE.js";
+    private static final int PARSED_CSS_CACHE_SIZE = 500;
+    private static final int CSS_RESOURCES_CACHE_SIZE = 100;
+
+    // Keyed by the hash of the stylesheet, so a parsed stylesheet is valid as long as it is in the cache
+    private static final LruCache<String, CssTreeNode> PARSED_CSS_CACHE = new LruCache<>(PARSED_CSS_CACHE_SIZE, 0);
 
     private final Phaser cssPhaser = new Phaser(); // Phaser for syncing all callbacks on a single Frame
 
     private static ServerConnector serverConnector = null;
     private final String testId;
     private final EyesSeleniumDriver driver;
+    private final LruCache<String, RGridResource> cssResourcesCache;
     private final Logger logger;
-    String cssStartToken;
-    String cssEndToken;
     final Map<String, CssTreeNode> cssNodesToReplace = Collections.synchronizedMap(new HashMap<String, CssTreeNode>());
     private boolean shouldWaitForPhaser = false;
 
@@ -54,25 +58,33 @@ public class DomCapture {
         driver = (EyesSeleniumDriver) eyes.getDriver();
         userAgent = eyes.getUserAgent();
         testId = eyes.getTestId();
+        LruCache<String, RGridResource> runnerCssResourcesCache = eyes.getCssResourcesCache();
+        cssResourcesCache = runnerCssResourcesCache != null ? runnerCssResourcesCache
+                : new LruCache<String, RGridResource>(CSS_RESOURCES_CACHE_SIZE, 0);
+    }
 
+    public String getPageDom(PositionProvider positionProvider) {
+        StringWriter writer = new StringWriter();
         try {
-            CAPTURE_DOM = GeneralUtils.readInputStreamAsString(DomCapture.class.getResourceAsStream("/dom-capture/dist/captureDomAndPoll.js"));
-            CAPTURE_DOM_FOR_IE = GeneralUtils.readInputStreamAsString(DomCapture.class.getResourceAsStream("/dom-capture/dist/captureDomAndPollForIE.js"));
-            POLL_RESULT = GeneralUtils.readInputStreamAsString(VisualGridEyes.class.getResourceAsStream("/dom-capture/dist/pollResult.js"));
-            POLL_RESULT_FOR_IE = GeneralUtils.readInputStreamAsString(VisualGridEyes.class.getResourceAsStream("/dom-capture/dist/pollResultForIE.js"));
+            writePageDom(positionProvider, writer);
         } catch (IOException e) {
-            throw new EyesException("Failed getting resources for dom scripts", e);
+            throw new EyesException("Failed writing the dom", e);
         }
+        return writer.toString();
     }
 
-    public String getPageDom(PositionProvider positionProvider) {
+    /**
+     * Captures the dom of the page and its frames, and writes it to the given writer.
+     * The stylesheets and the frames are written in place of their tokens, so the complete dom is never held in memory.
+     */
+    public void writePageDom(PositionProvider positionProvider, Writer writer) throws IOException {
         PositionMemento originalPosition = positionProvider.getState();
         positionProvider.setPosition(Location.ZERO);
         FrameChain originalFC = driver.getFrameChain().clone();
         EyesTargetLocator switchTo = (EyesTargetLocator) driver.switchTo();
         switchTo.defaultContent();
         String baseUrl = (String) driver.executeScript("return document.location.href");
-        String dom = getFrameDom(baseUrl, Collections.singletonList(baseUrl));
+        FrameDom dom = getFrameDom(baseUrl, Collections.singletonList(baseUrl));
         if (originalFC != null) {
             switchTo.frames(originalFC);
         }
@@ -86,26 +98,18 @@ public class DomCapture {
         }
 
         shouldWaitForPhaser = false;
-        Map<String, String> cssStringsToReplace = new HashMap<>();
-        for (String url : cssNodesToReplace.keySet()) {
-            try {
-                String escapedCss = new ObjectMapper().writeValueAsString(cssNodesToReplace.get(url).toString());
-                if (escapedCss.startsWith("\"") && escapedCss.endsWith("\"")) {
-                    escapedCss = escapedCss.substring(1, escapedCss.length() - 1); // remove quotes
-                }
-                cssStringsToReplace.put(url, escapedCss);
-            } catch (JsonProcessingException e) {
-                GeneralUtils.logExceptionStackTrace(logger, Stage.CHECK, Type.DOM_SCRIPT, e);
-            }
-        }
-        String domJson = EfficientStringReplace.efficientStringReplace(cssStartToken, cssEndToken, dom, cssStringsToReplace);
+        logger.log(testId, Stage.CHECK, Type.DOM_SCRIPT,
+                Pair.of("cssResourcesCacheHits", cssResourcesCache.getHitCount()),
+                Pair.of("cssResourcesCacheMisses", cssResourcesCache.getMissCount()),
+                Pair.of("parsedCssCacheHits", PARSED_CSS_CACHE.getHitCount()),
+                Pair.of("parsedCssCacheMisses", PARSED_CSS_CACHE.getMissCount()));
         positionProvider.restoreState(originalPosition);
-        return domJson;
+        writeFrameDom(dom, writer);
     }
 
-    public String getFrameDom(String baseUrl, List<String> framesPath) {
-        String domScript = userAgent.isInternetExplorer() ? CAPTURE_DOM_FOR_IE : CAPTURE_DOM;
-        String pollingScript = userAgent.isInternetExplorer() ? POLL_RESULT_FOR_IE : POLL_RESULT;
+    FrameDom getFrameDom(String baseUrl, List<String> framesPath) {
+        String domScript = EyesSeleniumUtils.getDomScript(userAgent.isInternetExplorer() ? CAPTURE_DOM_FOR_IE : CAPTURE_DOM);
+        String pollingScript = EyesSeleniumUtils.getDomScript(userAgent.isInternetExplorer() ? POLL_RESULT_FOR_IE : POLL_RESULT);
 
         List<String> missingCssList = new ArrayList<>();
         List<String> missingFramesList = new ArrayList<>();
@@ -113,26 +117,72 @@ public class DomCapture {
         Separators separators;
         try {
             String scriptResult = EyesSeleniumUtils.runDomScript(logger, driver, userAgent, Collections.singleton(testId),
-                    domScript, null, pollingScript);
-            scriptResult = GeneralUtils.parseJsonToObject(scriptResult, String.class);
+                    domScript, null, pollingScript, String.class);
             separators = parseScriptResult(scriptResult, missingCssList, missingFramesList, data);
         } catch (Exception e) {
             throw new EyesException("Failed running dom capture script", e);
         }
 
-        cssStartToken = separators.cssStartToken;
-        cssEndToken = separators.cssEndToken;
-
         fetchCssFiles(baseUrl, missingCssList, null);
 
-        Map<String, String> framesData = new HashMap<>();
+        Map<String, FrameDom> framesData = new HashMap<>();
         try {
             framesData = recurseFrames(missingFramesList, framesPath);
         } catch (Exception e) {
             GeneralUtils.logExceptionStackTrace(logger, Stage.CHECK, Type.DOM_SCRIPT, e, testId);
         }
 
-        return EfficientStringReplace.efficientStringReplace(separators.iframeStartToken, separators.iframeEndToken, data.get(0), framesData);
+        return new FrameDom(separators, data.get(0), framesData);
+    }
+
+    /**
+     * Writes the dom of the frame, with the stylesheets and the dom of the inner frames in place of their tokens.
+     */
+    private void writeFrameDom(FrameDom frameDom, Writer writer) throws IOException {
+        String dom = frameDom.dom;
+        Separators separators = frameDom.separators;
+        if (separators == null) {
+            writer.write(dom);
+            return;
+        }
+
+        int position = 0;
+        int cssStart = dom.indexOf(separators.cssStartToken);
+        int frameStart = dom.indexOf(separators.iframeStartToken);
+        while (cssStart != -1 || frameStart != -1) {
+            boolean isCss = frameStart == -1 || (cssStart != -1 && cssStart < frameStart);
+            int tokenStart = isCss ? cssStart : frameStart;
+            int idStart = tokenStart + (isCss ? separators.cssStartToken : separators.iframeStartToken).length();
+            String endToken = isCss ? separators.cssEndToken : separators.iframeEndToken;
+            int idEnd = dom.indexOf(endToken, idStart);
+            if (idEnd == -1) {
+                break;
+            }
+
+            writer.write(dom, position, tokenStart - position);
+            String id = dom.substring(idStart, idEnd);
+            if (isCss) {
+                CssTreeNode cssNode = cssNodesToReplace.get(id);
+                if (cssNode != null) {
+                    writer.write(JsonStringEncoder.getInstance().quoteAsString(cssNode.toString()));
+                }
+            } else {
+                FrameDom innerFrameDom = frameDom.frames.get(id);
+                if (innerFrameDom != null) {
+                    writeFrameDom(innerFrameDom, writer);
+                }
+            }
+
+            position = idEnd + endToken.length();
+            if (cssStart != -1 && cssStart < position) {
+                cssStart = dom.indexOf(separators.cssStartToken, position);
+            }
+            if (frameStart != -1 && frameStart < position) {
+                frameStart = dom.indexOf(separators.iframeStartToken, position);
+            }
+        }
+
+        writer.write(dom, position, dom.length() - position);
     }
 
     private Separators parseScriptResult(String scriptResult, List<String> missingCssList, List<String> missingFramesList, List<String> data) {
@@ -164,7 +214,7 @@ public class DomCapture {
         return separators;
     }
 
-    private void fetchCssFiles(final String baseUrl, List<String> cssUrls, final CssTreeNode parentNode) {
+    void fetchCssFiles(final String baseUrl, List<String> cssUrls, final CssTreeNode parentNode) {
         for (final String cssUrl : cssUrls) {
             if (cssUrl == null || cssUrl.isEmpty()) {
                 continue;
@@ -174,6 +224,13 @@ public class DomCapture {
             if (uri == null) {
                 continue;
             }
+
+            RGridResource cachedResource = cssResourcesCache.get(uri.toString());
+            if (cachedResource != null) {
+                addCssNode(uri, cssUrl, cachedResource, parentNode);
+                continue;
+            }
+
             try {
                 cssPhaser.register();
                 shouldWaitForPhaser = true;
@@ -181,18 +238,11 @@ public class DomCapture {
                     @Override
                     public void onComplete(RGridResource resource) {
                         try {
-                            CssTreeNode node = new CssTreeNode(new String(resource.getContent()));
-                            node.parse(logger);
-                            List<String> importedUrls = node.getImportedUrls();
-                            if (!importedUrls.isEmpty()) {
-                                fetchCssFiles(uri.toString(), importedUrls, node);
-                            }
-
-                            if (parentNode != null) {
-                                parentNode.addChildNode(cssUrl, node);
-                            } else {
-                                cssNodesToReplace.put(cssUrl, node);
+                            // Failed downloads are empty, they are downloaded again in the next check
+                            if (resource.getErrorStatusCode() == null && resource.getContent() != null && resource.getContent().length > 0) {
+                                cssResourcesCache.put(uri.toString(), resource);
                             }
+                            addCssNode(uri, cssUrl, resource, parentNode);
                         } catch (Throwable e) {
                             GeneralUtils.logExceptionStackTrace(logger, Stage.CHECK, Type.DOM_SCRIPT, e, testId);
                         } finally {
@@ -211,8 +261,42 @@ public class DomCapture {
         }
     }
 
-    public Map<String, String> recurseFrames(List<String> missingFramesList, List<String> framesPath) {
-        Map<String, String> framesData = new HashMap<>();
+    private void addCssNode(URI uri, String cssUrl, RGridResource resource, CssTreeNode parentNode) {
+        CssTreeNode node = getParsedCss(resource).copy();
+        List<String> importedUrls = node.getImportedUrls();
+        if (!importedUrls.isEmpty()) {
+            fetchCssFiles(uri.toString(), importedUrls, node);
+        }
+
+        if (parentNode != null) {
+            parentNode.addChildNode(cssUrl, node);
+        } else {
+            cssNodesToReplace.put(cssUrl, node);
+        }
+    }
+
+    /**
+     * Parses the stylesheet, or returns the parsed stylesheet if a stylesheet with the same content was already parsed.
+     */
+    private CssTreeNode getParsedCss(RGridResource resource) {
+        byte[] content = resource.getContent();
+        if (content == null) {
+            return new CssTreeNode(null);
+        }
+
+        String hash = resource.getSha256();
+        CssTreeNode node = PARSED_CSS_CACHE.get(hash);
+        if (node == null) {
+            node = new CssTreeNode(new String(content));
+            node.parse(logger);
+            PARSED_CSS_CACHE.put(hash, node);
+        }
+
+        return node;
+    }
+
+    Map<String, FrameDom> recurseFrames(List<String> missingFramesList, List<String> framesPath) {
+        Map<String, FrameDom> framesData = new HashMap<>();
         EyesTargetLocator switchTo = (EyesTargetLocator) driver.switchTo();
 
         FrameChain fc = driver.getFrameChain().clone();
@@ -225,17 +309,17 @@ public class DomCapture {
                 }
                 String locationAfterSwitch = (String) driver.executeScript("return document.location.href");
                 if (framesPath.contains(locationAfterSwitch)) {
-                    framesData.put(missingFrameLine, "");
+                    framesData.put(missingFrameLine, FrameDom.EMPTY);
                     continue;
                 }
 
                 List<String> newFramePath = new ArrayList<>(framesPath);
                 newFramePath.add(locationAfterSwitch);
-                String result = getFrameDom(locationAfterSwitch, newFramePath);
+                FrameDom result = getFrameDom(locationAfterSwitch, newFramePath);
                 framesData.put(missingFrameLine, result);
             } catch (Exception e) {
                 GeneralUtils.logExceptionStackTrace(logger, Stage.CHECK, Type.DOM_SCRIPT, e, testId);
-                framesData.put(missingFrameLine, "");
+                framesData.put(missingFrameLine, FrameDom.EMPTY);
             } finally {
                 switchTo.frames(fc);
             }
@@ -255,4 +339,21 @@ public class DomCapture {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The captured dom of a frame. The dom still contains the tokens of its stylesheets and inner frames.
+     */
+    static class FrameDom {
+        static final FrameDom EMPTY = new FrameDom(null, "", Collections.<String, FrameDom>emptyMap());
+
+        final Separators separators;
+        final String dom;
+        final Map<String, FrameDom> frames;
+
+        FrameDom(Separators separators, String dom, Map<String, FrameDom> frames) {
+            this.separators = separators;
+            this.dom = dom;
+            this.frames = frames;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.applitools.eyes.selenium.capture;
 
 import com.applitools.eyes.*;
+import com.applitools.eyes.capture.EncodedImageProvider;
 import com.applitools.eyes.capture.EyesScreenshotFactory;
 import com.applitools.eyes.capture.ImageProvider;
 import com.applitools.eyes.debug.DebugScreenshotsProvider;
@@ -14,15 +15,22 @@ import com.applitools.eyes.selenium.positioning.NullRegionPositionCompensation;
 import com.applitools.eyes.selenium.positioning.RegionPositionCompensation;
 import com.applitools.utils.ArgumentGuard;
 import com.applitools.utils.GeneralUtils;
+import com.applitools.utils.ImageScaler;
 import com.applitools.utils.ImageUtils;
+import com.applitools.utils.ImageView;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
 
 public class FullPageCaptureAlgorithm {
     private static final int MIN_SCREENSHOT_PART_SIZE = 10;
+    private static final int MAX_STITCHING_THREADS = 4;
 
     private final Logger logger;
     private final String testId;
@@ -37,6 +45,7 @@ public class FullPageCaptureAlgorithm {
     private final ISizeAdjuster sizeAdjuster;
     private final int maxHeight;
     private final int maxArea;
+    private boolean isPipelinedStitching = true;
 
     public FullPageCaptureAlgorithm(Logger logger, String testId, RegionPositionCompensation regionPositionCompensation,
                                     int waitBeforeScreenshots, DebugScreenshotsProvider debugScreenshotsProvider,
@@ -66,6 +75,14 @@ public class FullPageCaptureAlgorithm {
                         : new NullRegionPositionCompensation();
     }
 
+    /**
+     * @param isPipelinedStitching If true, the screenshot parts are processed by worker threads while the next parts are
+     *                             captured. Otherwise, every part is processed before capturing the next one.
+     */
+    public void setPipelinedStitching(boolean isPipelinedStitching) {
+        this.isPipelinedStitching = isPipelinedStitching;
+    }
+
     private void saveDebugScreenshotPart(BufferedImage image, Region region, String name) {
 
         String suffix = String.format("part-%s-%d_%d_%dx%d",
@@ -120,7 +137,8 @@ public class FullPageCaptureAlgorithm {
         BufferedImage croppedInitialScreenshot = cropScreenshot(initialScreenshot, regionInScreenshot);
         debugScreenshotsProvider.save(croppedInitialScreenshot, "cropped");
 
-        BufferedImage scaledInitialScreenshot = ImageUtils.scaleImage(croppedInitialScreenshot, scaleProvider.getScaleRatio());
+        BufferedImage scaledInitialScreenshot = scaleProvider.getScaleRatio() == 1 ? croppedInitialScreenshot
+                : new ImageScaler().scale(ImageView.of(croppedInitialScreenshot), scaleProvider.getScaleRatio()).toBufferedImage();
         if (scaledInitialScreenshot != croppedInitialScreenshot) {
             saveDebugScreenshotPart(scaledInitialScreenshot, regionInScreenshot, "scaled");
         }
@@ -255,62 +273,223 @@ public class FullPageCaptureAlgorithm {
     private void stitchScreenshot(RectangleSize stitchOffset, PositionProvider stitchProvider,
                                   SubregionForStitching[] screenshotParts, BufferedImage stitchedImage, double scaleRatio,
                                   CutProvider scaledCutProvider, float sizeRatio) {
-        //noinspection unused
-        int index = 0;
         logger.log(testId, Stage.CHECK, Type.CAPTURE_SCREENSHOT,
                 Pair.of("stitchOffset", stitchOffset),
-                Pair.of("scaleRatio", scaleRatio));
-
-        for (SubregionForStitching partRegion : screenshotParts) {
-            logger.log(TraceLevel.Info, Collections.singleton(testId), Stage.CHECK, Type.CAPTURE_SCREENSHOT,
-                    Pair.of("scrollTo", new Location(partRegion.getScrollTo())),
-                    Pair.of("pastePhysicalLocation", new Location(partRegion.getPastePhysicalLocation())),
-                    Pair.of("physicalCropArea", new Region(partRegion.getLogicalCropArea())),
-                    Pair.of("logicalCropArea", new Region(partRegion.getPhysicalCropArea())));
-
-            // Scroll to the part's top/left
-            Point partAbsoluteLocationInCurrentFrame = partRegion.getScrollTo();
-            partAbsoluteLocationInCurrentFrame.translate(stitchOffset.getWidth(), stitchOffset.getHeight());
-            Location scrollPosition = new Location(Math.round(partAbsoluteLocationInCurrentFrame.x * sizeRatio), Math.round(partAbsoluteLocationInCurrentFrame.y * sizeRatio));
-            Location originPosition = stitchProvider.setPosition(scrollPosition);
-
-            int dx = scrollPosition.getX() - originPosition.getX();
-            int dy = scrollPosition.getY() - originPosition.getY();
-
-            Point partPastePosition = partRegion.getPastePhysicalLocation();
-            partPastePosition.translate(-dx, -dy);
-            logger.log(TraceLevel.Info, Collections.singleton(testId), Stage.CHECK, Type.CAPTURE_SCREENSHOT,
-                    Pair.of("scrollPosition", scrollPosition),
-                    Pair.of("originPosition", originPosition),
-                    Pair.of("pastePhysicalLocation", new Location(partPastePosition)));
-
-            // Actually taking the screenshot.
+                Pair.of("scaleRatio", scaleRatio),
+                Pair.of("isPipelinedStitching", isPipelinedStitching));
+
+        // The driver is only used by the current thread. When pipelined, the processing of a part is done by the
+        // workers while the next part is captured, and the parts are pasted in their original order.
+        ExecutorService stitchingExecutor = isPipelinedStitching && screenshotParts.length > 1 ? createStitchingExecutor() : null;
+        List<Future<?>> stitchedParts = new ArrayList<>();
+        Future<?> previousPart = null;
+
+        // A scaler reuses its buffers, so every worker takes one which isn't used by the other workers
+        Queue<ImageScaler> scalers = new ConcurrentLinkedQueue<>();
+
+        // The parts are decoded into the pixels of parts which were already pasted
+        Queue<BufferedImage> partImages = new ConcurrentLinkedQueue<>();
+        try {
+            for (SubregionForStitching partRegion : screenshotParts) {
+                logger.log(TraceLevel.Info, Collections.singleton(testId), Stage.CHECK, Type.CAPTURE_SCREENSHOT,
+                        Pair.of("scrollTo", new Location(partRegion.getScrollTo())),
+                        Pair.of("pastePhysicalLocation", new Location(partRegion.getPastePhysicalLocation())),
+                        Pair.of("physicalCropArea", new Region(partRegion.getLogicalCropArea())),
+                        Pair.of("logicalCropArea", new Region(partRegion.getPhysicalCropArea())));
+
+                // Scroll to the part's top/left
+                Point partAbsoluteLocationInCurrentFrame = partRegion.getScrollTo();
+                partAbsoluteLocationInCurrentFrame.translate(stitchOffset.getWidth(), stitchOffset.getHeight());
+                Location scrollPosition = new Location(Math.round(partAbsoluteLocationInCurrentFrame.x * sizeRatio), Math.round(partAbsoluteLocationInCurrentFrame.y * sizeRatio));
+                Location originPosition = stitchProvider.setPosition(scrollPosition);
+
+                int dx = scrollPosition.getX() - originPosition.getX();
+                int dy = scrollPosition.getY() - originPosition.getY();
+
+                Point partPastePosition = partRegion.getPastePhysicalLocation();
+                partPastePosition.translate(-dx, -dy);
+                logger.log(TraceLevel.Info, Collections.singleton(testId), Stage.CHECK, Type.CAPTURE_SCREENSHOT,
+                        Pair.of("scrollPosition", scrollPosition),
+                        Pair.of("originPosition", originPosition),
+                        Pair.of("pastePhysicalLocation", new Location(partPastePosition)));
+
+                // Actually taking the screenshot.
+                try {
+                    Thread.sleep(waitBeforeScreenshots);
+                } catch (InterruptedException ignored) {}
+
+                StitchPartTask stitchPartTask = new StitchPartTask(captureImagePart(partImages), partRegion,
+                        dx, dy, originPosition, partPastePosition, stitchedImage, scaleRatio, scaledCutProvider, scalers, previousPart);
+                if (stitchingExecutor == null) {
+                    stitchPartTask.call();
+                } else {
+                    previousPart = stitchingExecutor.submit(stitchPartTask);
+                    stitchedParts.add(previousPart);
+                }
+            }
+
+            for (Future<?> stitchedPart : stitchedParts) {
+                waitForPart(stitchedPart);
+            }
+        } finally {
+            if (stitchingExecutor != null) {
+                stitchingExecutor.shutdownNow();
+            }
+        }
+
+        debugScreenshotsProvider.save(stitchedImage, "stitched");
+    }
+
+    /**
+     * Takes the screenshot of the current part.
+     * If the image provider returns it encoded, the image is decoded by the returned task into one of the given images,
+     * and the image is returned to them once the part is pasted.
+     * @param partImages The images of the parts which were already pasted.
+     */
+    private PartImageProvider captureImagePart(final Queue<BufferedImage> partImages) {
+        final String image64 = imageProvider instanceof EncodedImageProvider ?
+                ((EncodedImageProvider) imageProvider).getBase64Image() : null;
+        if (image64 != null) {
+            return new PartImageProvider() {
+                @Override
+                public BufferedImage call() {
+                    return ImageUtils.imageFromBase64(image64, partImages.poll());
+                }
+
+                @Override
+                public void release(BufferedImage image) {
+                    partImages.offer(image);
+                }
+            };
+        }
+
+        final BufferedImage image = imageProvider.getImage();
+        return new PartImageProvider() {
+            @Override
+            public BufferedImage call() {
+                return image;
+            }
+
+            @Override
+            public void release(BufferedImage image) {
+            }
+        };
+    }
+
+    /**
+     * Provides the image of a part, which may be reused once it is released.
+     */
+    private interface PartImageProvider extends Callable<BufferedImage> {
+        @Override
+        BufferedImage call();
+
+        /**
+         * Called when the image of the part is no longer used.
+         */
+        void release(BufferedImage image);
+    }
+
+    private ExecutorService createStitchingExecutor() {
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), MAX_STITCHING_THREADS));
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "StitchingWorker");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    private static void waitForPart(Future<?> part) {
+        try {
+            part.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EyesException("Interrupted while stitching the screenshot", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new EyesException("Failed stitching the screenshot", e.getCause());
+        }
+    }
+
+    /**
+     * Decodes, cuts, crops and scales a screenshot part and pastes it into the stitched image,
+     * after the previous part was pasted.
+     */
+    private class StitchPartTask implements Callable<Void> {
+        private final PartImageProvider partImageProvider;
+        private final SubregionForStitching partRegion;
+        private final int dx;
+        private final int dy;
+        private final Location originPosition;
+        private final Point partPastePosition;
+        private final BufferedImage stitchedImage;
+        private final double scaleRatio;
+        private final CutProvider scaledCutProvider;
+        private final Queue<ImageScaler> scalers;
+        private final Future<?> previousPart;
+
+        StitchPartTask(PartImageProvider partImageProvider, SubregionForStitching partRegion, int dx, int dy,
+                       Location originPosition, Point partPastePosition, BufferedImage stitchedImage, double scaleRatio,
+                       CutProvider scaledCutProvider, Queue<ImageScaler> scalers, Future<?> previousPart) {
+            this.partImageProvider = partImageProvider;
+            this.partRegion = partRegion;
+            this.dx = dx;
+            this.dy = dy;
+            this.originPosition = originPosition;
+            this.partPastePosition = partPastePosition;
+            this.stitchedImage = stitchedImage;
+            this.scaleRatio = scaleRatio;
+            this.scaledCutProvider = scaledCutProvider;
+            this.scalers = scalers;
+            this.previousPart = previousPart;
+        }
+
+        @Override
+        public Void call() {
+            BufferedImage partImage;
             try {
-                Thread.sleep(waitBeforeScreenshots);
-            } catch (InterruptedException ignored) {}
+                partImage = partImageProvider.call();
+            } catch (Exception e) {
+                throw new EyesException("Failed getting the screenshot part", e);
+            }
 
-            BufferedImage partImage = imageProvider.getImage();
-            BufferedImage cutPart = scaledCutProvider.cut(partImage);
-            BufferedImage croppedPart;
+            // The part is cropped by views of its pixels, and only the scaling writes new pixels
+            ImageView croppedPart = ImageView.of(scaledCutProvider.cut(partImage));
             Rectangle r = partRegion.getPhysicalCropArea();
             if (!r.isEmpty()) {
-                croppedPart = ImageUtils.cropImage(cutPart, new Region(r.x, r.y, r.width + dx, r.height + dy));
-            } else {
-                croppedPart = cutPart;
+                croppedPart = croppedPart.crop(new Region(r.x, r.y, r.width + dx, r.height + dy));
             }
 
             Rectangle r2 = partRegion.getLogicalCropArea();
 
-            BufferedImage scaledPartImage = ImageUtils.scaleImage(croppedPart, scaleRatio);
-            BufferedImage scaledCroppedPartImage = ImageUtils.cropImage(scaledPartImage,  new Region(r2.x, r2.y, r2.width + dx, r2.height + dy));
+            ImageScaler scaler = scalers.poll();
+            if (scaler == null) {
+                scaler = new ImageScaler();
+            }
+            try {
+                ImageView scaledPart = scaler.scale(croppedPart, scaleRatio);
+                ImageView scaledCroppedPart = scaledPart.crop(new Region(r2.x, r2.y, r2.width + dx, r2.height + dy));
+
+                debugScreenshotsProvider.save(partImage, "partImage-" + originPosition.getX() + "_" + originPosition.getY());
+                debugScreenshotsProvider.save(scaledCroppedPart.toBufferedImage(), "scaledCroppedPartImage-" + partPastePosition.getX() + "_" + partPastePosition.getY());
+
+                // Parts may overlap, so they are pasted in order
+                if (previousPart != null) {
+                    waitForPart(previousPart);
+                }
+                scaledCroppedPart.pasteInto(stitchedImage, partPastePosition.x, partPastePosition.y);
+            } finally {
+                scalers.offer(scaler);
+            }
 
-            debugScreenshotsProvider.save(partImage, "partImage-" + originPosition.getX() + "_" + originPosition.getY());
-            debugScreenshotsProvider.save(scaledCroppedPartImage, "scaledCroppedPartImage-" + partPastePosition.getX() + "_" + partPastePosition.getY());
-            stitchedImage.getRaster().setRect(partPastePosition.x, partPastePosition.y, scaledCroppedPartImage.getData());
-            index++;
+            // Nothing refers to the pixels of the part after it was pasted
+            partImageProvider.release(partImage);
+            return null;
         }
-
-        debugScreenshotsProvider.save(stitchedImage, "stitched");
     }
 
     private Region getRegionInScreenshot(Region region, BufferedImage image, double pixelRatio) {
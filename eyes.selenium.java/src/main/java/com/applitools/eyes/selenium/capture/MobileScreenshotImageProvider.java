@@ -25,6 +25,15 @@ public class MobileScreenshotImageProvider extends TakesScreenshotImageProvider
         this.userAgent = userAgent;
     }
 
+    /**
+     * The screenshots are processed using the driver after they are decoded, so they can't be decoded on another
+     * thread, and are only returned by {@link #getImage()}.
+     */
+    @Override
+    public String getBase64Image() {
+        return null;
+    }
+
     protected RectangleSize getViewportSize() {
         EyesSeleniumDriver driver = (EyesSeleniumDriver)eyes.getDriver();
         if (cachedViewportSize == null || !driver.getCurrentUrl().equals(cachedUrl)) {
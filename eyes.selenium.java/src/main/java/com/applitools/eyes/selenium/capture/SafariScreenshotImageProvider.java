@@ -43,7 +43,7 @@ public class SafariScreenshotImageProvider extends MobileScreenshotImageProvider
         if (userAgent.getOS().equals(OSNames.IOS) || deviceName.contains("iPad")) {
             image = cropIOSImage(image, originalViewportSize, logger);
         } else {
-            Boolean forceFullPageScreenshot = eyes.getConfiguration().getForceFullPageScreenshot();
+            Boolean forceFullPageScreenshot = eyes.getConfigurationSnapshot().getForceFullPageScreenshot();
             if (forceFullPageScreenshot != null && !forceFullPageScreenshot) {
 
                 Location loc;
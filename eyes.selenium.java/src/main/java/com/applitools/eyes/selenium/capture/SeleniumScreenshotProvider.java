@@ -9,7 +9,8 @@ import com.applitools.eyes.debug.DebugScreenshotsProvider;
 import com.applitools.eyes.logging.Stage;
 import com.applitools.eyes.selenium.SeleniumEyes;
 import com.applitools.eyes.selenium.wrappers.EyesSeleniumDriver;
-import com.applitools.utils.ImageUtils;
+import com.applitools.utils.ImageScaler;
+import com.applitools.utils.ImageView;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.awt.image.BufferedImage;
@@ -51,6 +52,6 @@ public class SeleniumScreenshotProvider implements ScreenshotProvider {
         }
 
         logger.log(eyes.getTestId(), stage, Pair.of("scaleRatio", scaleRatio));
-        return ImageUtils.scaleImage(image, scaleRatio);
+        return new ImageScaler().scale(ImageView.of(image), scaleRatio).toBufferedImage();
     }
 }
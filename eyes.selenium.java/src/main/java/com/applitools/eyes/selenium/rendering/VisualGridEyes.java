@@ -38,7 +38,6 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.RemoteWebDriver;
 
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
@@ -91,14 +90,10 @@ public class VisualGridEyes implements ISeleniumEyes {
         this.runner = renderingGridManager;
         this.logger = renderingGridManager.getLogger();
 
-        try {
-            PROCESS_PAGE = GeneralUtils.readInputStreamAsString(VisualGridEyes.class.getResourceAsStream("/dom-snapshot/dist/processPagePoll.js"));
-            PROCESS_PAGE_FOR_IE = GeneralUtils.readInputStreamAsString(VisualGridEyes.class.getResourceAsStream("/dom-snapshot/dist/processPagePollForIE.js"));
-            POLL_RESULT = GeneralUtils.readInputStreamAsString(VisualGridEyes.class.getResourceAsStream("/dom-snapshot/dist/pollResult.js"));
-            POLL_RESULT_FOR_IE = GeneralUtils.readInputStreamAsString(VisualGridEyes.class.getResourceAsStream("/dom-snapshot/dist/pollResultForIE.js"));
-        } catch (IOException e) {
-            throw new EyesException("Failed getting resources for dom scripts", e);
-        }
+        PROCESS_PAGE = EyesSeleniumUtils.getDomScript("/dom-snapshot/dist/processPagePoll.js");
+        PROCESS_PAGE_FOR_IE = EyesSeleniumUtils.getDomScript("/dom-snapshot/dist/processPagePollForIE.js");
+        POLL_RESULT = EyesSeleniumUtils.getDomScript("/dom-snapshot/dist/pollResult.js");
+        POLL_RESULT_FOR_IE = EyesSeleniumUtils.getDomScript("/dom-snapshot/dist/pollResultForIE.js");
     }
 
     /**
@@ -468,7 +463,6 @@ public class VisualGridEyes implements ISeleniumEyes {
 
             try {
                 EyesDriverUtils.setViewportSize(logger, webDriver, viewportSize);
-                Thread.sleep(300);
             } catch (Throwable t) {
                 GeneralUtils.logExceptionStackTrace(logger, Stage.CHECK, Type.DOM_SCRIPT, t, testIds.toArray(new String[0]));
             }
@@ -572,7 +566,6 @@ public class VisualGridEyes implements ISeleniumEyes {
         if (width != 0) {
             try {
                 EyesDriverUtils.setViewportSize(logger, webDriver, new RectangleSize(width, viewportSize.getHeight()));
-                Thread.sleep(300);
             } catch (Throwable t) {
                 GeneralUtils.logExceptionStackTrace(logger, Stage.CHECK, Type.DOM_SCRIPT, t, testIds.toArray(new String[0]));
             }
@@ -626,8 +619,7 @@ public class VisualGridEyes implements ISeleniumEyes {
             put("dontFetchResources", getConfiguration().isDisableBrowserFetching());
         }};
 
-        String result = EyesSeleniumUtils.runDomScript(logger, webDriver, userAgent, testIds, domScript, arguments, pollingScript);
-        FrameData frameData = GeneralUtils.parseJsonToObject(result, FrameData.class);
+        FrameData frameData = EyesSeleniumUtils.runDomScript(logger, webDriver, userAgent, testIds, domScript, arguments, pollingScript, FrameData.class);
         analyzeFrameData(testIds, frameData, switchTo);
         return frameData;
     }
@@ -3,6 +3,7 @@ package com.applitools.eyes.selenium.wrappers;
 import com.applitools.eyes.*;
 import com.applitools.eyes.logging.Stage;
 import com.applitools.eyes.positioning.PositionProvider;
+import com.applitools.eyes.selenium.ElementMetrics;
 import com.applitools.eyes.selenium.EyesDriverUtils;
 import com.applitools.eyes.selenium.SeleniumEyes;
 import com.applitools.eyes.selenium.SizeAndBorders;
@@ -106,6 +107,9 @@ public class EyesRemoteWebElement extends RemoteWebElement {
 
     private PositionProvider positionProvider;
 
+    // Cleared when the element is scrolled or its overflow changes
+    private ElementMetrics metrics;
+
     public EyesRemoteWebElement(Logger logger, EyesSeleniumDriver eyesDriver, WebElement webElement) {
         super();
 
@@ -249,28 +253,28 @@ public class EyesRemoteWebElement extends RemoteWebElement {
      * @return The width of the left border.
      */
     public int getBorderLeftWidth() {
-        return getComputedStyleInteger("border-left-width");
+        return getMetrics().getBorders().getLeft();
     }
 
     /**
      * @return The width of the right border.
      */
     public int getBorderRightWidth() {
-        return getComputedStyleInteger("border-right-width");
+        return getMetrics().getBorders().getRight();
     }
 
     /**
      * @return The width of the top border.
      */
     public int getBorderTopWidth() {
-        return getComputedStyleInteger("border-top-width");
+        return getMetrics().getBorders().getTop();
     }
 
     /**
      * @return The width of the bottom border.
      */
     public int getBorderBottomWidth() {
-        return getComputedStyleInteger("border-bottom-width");
+        return getMetrics().getBorders().getBottom();
     }
 
     /**
@@ -279,6 +283,7 @@ public class EyesRemoteWebElement extends RemoteWebElement {
      * @return the current location after scroll.
      */
     public Location scrollTo(Location location) {
+        invalidateMetrics();
         Object position = eyesDriver.executeScript(String.format(JS_SCROLL_TO_FORMATTED_STR,
                 location.getX(), location.getY()) + JS_GET_SCROLL_POSITION, this);
         return EyesDriverUtils.parseLocationString(position);
@@ -296,6 +301,7 @@ public class EyesRemoteWebElement extends RemoteWebElement {
      * @param overflow The overflow to set.
      */
     public String setOverflow(String overflow) {
+        invalidateMetrics();
         return EyesDriverUtils.setOverflow(eyesDriver, overflow, this);
     }
 
@@ -537,6 +543,25 @@ public class EyesRemoteWebElement extends RemoteWebElement {
         return "EyesRemoteWebElement: " + webElement.getId();
     }
 
+    /**
+     * Gets the metrics of the element in a single script call. The metrics are kept until the element is scrolled,
+     * its overflow is changed or {@link #invalidateMetrics()} is called.
+     * @return The metrics of the element.
+     */
+    public ElementMetrics getMetrics() {
+        if (metrics == null) {
+            metrics = ElementMetrics.fetch(this, eyesDriver);
+        }
+        return metrics;
+    }
+
+    /**
+     * Clears the metrics of the element, so they are fetched again on the next call to {@link #getMetrics()}.
+     */
+    public void invalidateMetrics() {
+        metrics = null;
+    }
+
     public PositionProvider getPositionProvider() {
         return positionProvider;
     }
@@ -45,7 +45,7 @@ public class EyesTargetLocator implements WebDriver.TargetLocator {
         this.logger = logger;
         this.targetLocator = targetLocator;
         this.jsExecutor = new SeleniumJavaScriptExecutor(driver);
-        this.configuration = driver.getEyes().getConfiguration();
+        this.configuration = driver.getEyes().getConfigurationSnapshot();
     }
 
     /**
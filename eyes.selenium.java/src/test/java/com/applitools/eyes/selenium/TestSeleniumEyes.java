@@ -6,8 +6,13 @@ import com.applitools.eyes.*;
 import com.applitools.eyes.config.Configuration;
 import com.applitools.eyes.config.ConfigurationProvider;
 import com.applitools.eyes.debug.DebugScreenshotsProvider;
+import com.applitools.eyes.fluent.GetRegion;
+import com.applitools.eyes.fluent.IGetRegions;
 import com.applitools.eyes.selenium.capture.EyesWebDriverScreenshot;
 import com.applitools.eyes.selenium.capture.TakesScreenshotImageProvider;
+import com.applitools.eyes.selenium.fluent.FloatingRegionBySelector;
+import com.applitools.eyes.selenium.fluent.SelectorRegionsResolver;
+import com.applitools.eyes.selenium.fluent.SimpleRegionBySelector;
 import com.applitools.eyes.selenium.fluent.Target;
 import com.applitools.eyes.selenium.wrappers.EyesRemoteWebElement;
 import com.applitools.eyes.selenium.wrappers.EyesSeleniumDriver;
@@ -15,8 +20,11 @@ import com.applitools.eyes.utils.ReportingTestSuite;
 import com.applitools.eyes.utils.SeleniumUtils;
 import com.applitools.eyes.visualgrid.model.RenderingInfo;
 import org.mockito.ArgumentMatchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.openqa.selenium.*;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.remote.RemoteWebElement;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
@@ -24,8 +32,11 @@ import org.testng.annotations.Test;
 
 import java.awt.image.BufferedImage;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.mockito.Mockito.*;
 
@@ -216,6 +227,33 @@ public class TestSeleniumEyes extends ReportingTestSuite {
         Assert.assertEquals(remoteWebElement.getBoundingClientRect(), resultRect);
     }
 
+    @Test
+    public void testElementMetrics() {
+        EyesSeleniumDriver driver = mock(EyesSeleniumDriver.class);
+        RemoteWebElement element = mock(RemoteWebElement.class);
+        EyesRemoteWebElement remoteWebElement = new EyesRemoteWebElement(new Logger(), driver, element);
+
+        String result = "10.4;20.6;100;50;2;3;96;44;0;5.2;96;300;2px;3px;2px;3px;relative;";
+        when(driver.executeScript(ArgumentMatchers.<String>any(), ArgumentMatchers.<Object[]>any())).thenReturn(result);
+        ElementMetrics metrics = remoteWebElement.getMetrics();
+        Assert.assertEquals(metrics.getBounds(), new Region(10, 21, 100, 50));
+        Assert.assertEquals(metrics.getInnerBounds(), new Region(12, 24, 96, 44));
+        Assert.assertEquals(metrics.getClientSize(), new RectangleSize(96, 44));
+        Assert.assertEquals(metrics.getScrollLocation(), new Location(0, 6));
+        Assert.assertEquals(metrics.getScrollSize(), new RectangleSize(96, 300));
+        Assert.assertEquals(metrics.getPosition(), "relative");
+        Assert.assertEquals(metrics.getOverflow(), "");
+        Assert.assertTrue(metrics.isScrollable());
+
+        // The metrics are fetched once until invalidated
+        Assert.assertEquals(remoteWebElement.getBorderLeftWidth(), 2);
+        Assert.assertEquals(remoteWebElement.getBorderBottomWidth(), 3);
+        verify(driver, times(1)).executeScript(ArgumentMatchers.<String>any(), ArgumentMatchers.<Object[]>any());
+        remoteWebElement.invalidateMetrics();
+        remoteWebElement.getMetrics();
+        verify(driver, times(2)).executeScript(ArgumentMatchers.<String>any(), ArgumentMatchers.<Object[]>any());
+    }
+
     @Test
     public void testGetRootElementNoBody() {
         EyesSeleniumDriver driver = mock(EyesSeleniumDriver.class);
@@ -253,4 +291,75 @@ public class TestSeleniumEyes extends ReportingTestSuite {
             driver.quit();
         }
     }
+
+    @Test
+    public void testSetViewportSizeWithKnownBrowserBorder() {
+        final AtomicReference<Dimension> browserSize = new AtomicReference<>(new Dimension(1000, 800));
+        WebDriver.Window window = mock(WebDriver.Window.class);
+        when(window.getSize()).thenAnswer(new Answer<Dimension>() {
+            @Override
+            public Dimension answer(InvocationOnMock invocation) {
+                return browserSize.get();
+            }
+        });
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                browserSize.set((Dimension) invocation.getArgument(0));
+                return null;
+            }
+        }).when(window).setSize(ArgumentMatchers.<Dimension>any());
+
+        WebDriver.Options options = mock(WebDriver.Options.class);
+        when(options.window()).thenReturn(window);
+        RemoteWebDriver driver = mock(RemoteWebDriver.class);
+        when(driver.manage()).thenReturn(options);
+        when(driver.executeScript(anyString())).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                return String.format("%d;%d", browserSize.get().getWidth() - 16, browserSize.get().getHeight() - 120);
+            }
+        });
+
+        EyesDriverUtils.setViewportSize(new Logger(), driver, new RectangleSize(800, 600));
+        Assert.assertEquals(EyesDriverUtils.getViewportSize(driver), new RectangleSize(800, 600));
+
+        // The border of the browser is known, so the browser is resized once
+        clearInvocations(window);
+        EyesDriverUtils.setViewportSize(new Logger(), driver, new RectangleSize(500, 400));
+        Assert.assertEquals(EyesDriverUtils.getViewportSize(driver), new RectangleSize(500, 400));
+        verify(window, times(1)).setSize(ArgumentMatchers.<Dimension>any());
+        verify(window, never()).setPosition(ArgumentMatchers.<Point>any());
+    }
+
+    @Test
+    public void testResolveSelectorRegions() {
+        EyesSeleniumDriver driver = mock(EyesSeleniumDriver.class);
+        WebElement element = mock(RemoteWebElement.class);
+        when(driver.findElements(By.id("a"))).thenReturn(Arrays.asList(element, element));
+        when(driver.findElements(By.id("b"))).thenReturn(Arrays.asList(element));
+        when(driver.executeScript(anyString(), any())).thenReturn(Arrays.asList(
+                "10;20;30.5;40.5;30.5;40.5", "0;0;0;0;0;0", "1.4;2.6;5;6;50.2;60"));
+
+        SimpleRegionBySelector ignoreRegion = new SimpleRegionBySelector(By.id("a"));
+        FloatingRegionBySelector floatingRegion = new FloatingRegionBySelector(By.id("b"), 1, 2, 3, 4);
+        SimpleRegionBySelector layoutRegion = new SimpleRegionBySelector(By.id("a"));
+        ignoreRegion.init(new Logger(), driver);
+        floatingRegion.init(new Logger(), driver);
+        layoutRegion.init(new Logger(), driver);
+        Map<IGetRegions<?>, List<Region>> resolvedRegions = SelectorRegionsResolver.resolve(driver,
+                new GetRegion[]{ignoreRegion, layoutRegion}, new GetRegion[]{floatingRegion});
+
+        // All the elements are resolved with a single script
+        verify(driver, times(1)).executeScript(anyString(), any());
+        verify(driver, times(1)).findElements(By.id("a"));
+        List<Region> expectedRegions = Arrays.asList(
+                new Region(10, 20, 31, 41, CoordinatesType.SCREENSHOT_AS_IS),
+                new Region(0, 0, 0, 0, CoordinatesType.SCREENSHOT_AS_IS));
+        Assert.assertEquals(ignoreRegion.getRegions(null, resolvedRegions.get(ignoreRegion)), expectedRegions);
+        Assert.assertEquals(layoutRegion.getRegions(null, resolvedRegions.get(layoutRegion)), expectedRegions);
+        Assert.assertEquals(floatingRegion.getRegions(null, resolvedRegions.get(floatingRegion)), Collections.singletonList(
+                new FloatingMatchSettings(1, 3, 51, 60, 1, 2, 3, 4)));
+        verify(driver, times(1)).executeScript(anyString(), any());
+    }
 }
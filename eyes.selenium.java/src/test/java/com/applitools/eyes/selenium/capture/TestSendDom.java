@@ -1,5 +1,6 @@
 package com.applitools.eyes.selenium.capture;
 
+import com.applitools.connectivity.Cookie;
 import com.applitools.connectivity.MockServerConnector;
 import com.applitools.connectivity.ServerConnector;
 import com.applitools.eyes.*;
@@ -15,7 +16,9 @@ import com.applitools.eyes.selenium.wrappers.EyesTargetLocator;
 import com.applitools.eyes.utils.ReportingTestSuite;
 import com.applitools.eyes.utils.SeleniumUtils;
 import com.applitools.eyes.utils.TestUtils;
+import com.applitools.eyes.visualgrid.model.RGridResource;
 import com.applitools.utils.GeneralUtils;
+import com.applitools.utils.LruCache;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.mockito.ArgumentMatchers;
@@ -29,10 +32,12 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Map;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.mockito.Mockito.*;
@@ -90,9 +95,19 @@ public final class TestSendDom extends ReportingTestSuite {
         }
 
         @Override
-        public String tryCaptureDom() {
-            this.domJson = super.tryCaptureDom();
-            return this.domJson;
+        protected boolean tryCaptureDom(Writer writer) {
+            // Checks write the dom directly into the upload, so it is intercepted on its way there
+            StringWriter domWriter = new StringWriter();
+            boolean hasDom = super.tryCaptureDom(domWriter);
+            this.domJson = hasDom ? domWriter.toString() : null;
+            if (hasDom) {
+                try {
+                    writer.write(this.domJson);
+                } catch (IOException e) {
+                    throw new EyesException("Failed writing the dom", e);
+                }
+            }
+            return hasDom;
         }
 
         @Override
@@ -275,12 +290,13 @@ public final class TestSendDom extends ReportingTestSuite {
         DomCapture domCapture = spy(new DomCapture(eyes));
         List<String> missingFrame = Arrays.asList("url1", "url2");
         List<String> path = Arrays.asList("url3", "url1", "url4");
-        doReturn("content").when(domCapture).getFrameDom(anyString(), ArgumentMatchers.<String>anyList());
+        doReturn(new DomCapture.FrameDom(null, "content", Collections.<String, DomCapture.FrameDom>emptyMap()))
+                .when(domCapture).getFrameDom(anyString(), ArgumentMatchers.<String>anyList());
 
-        Map<String, String> result = domCapture.recurseFrames(missingFrame, path);
+        Map<String, DomCapture.FrameDom> result = domCapture.recurseFrames(missingFrame, path);
         Assert.assertEquals(result.size(), 2);
-        Assert.assertEquals(result.get("url1"), "");
-        Assert.assertEquals(result.get("url2"), "content");
+        Assert.assertEquals(result.get("url1").dom, "");
+        Assert.assertEquals(result.get("url2").dom, "content");
         verify(domCapture, never()).getFrameDom(eq("url1"), ArgumentMatchers.<String>anyList());
         verify(domCapture, times(1)).getFrameDom("url2", Arrays.asList("url3", "url1", "url4", "url2"));
     }
@@ -302,9 +318,8 @@ public final class TestSendDom extends ReportingTestSuite {
 
 
         DomCapture domCapture = spy(new DomCapture(eyes));
-        domCapture.cssStartToken = "#####";
-        domCapture.cssEndToken = domCapture.cssStartToken;
-        doReturn("{\"css\":\"#####a.css#####\"}").when(domCapture).getFrameDom(anyString(), ArgumentMatchers.<String>anyList());
+        doReturn(new DomCapture.FrameDom(getSeparators(), "{\"css\":\"#####a.css#####\"}", Collections.<String, DomCapture.FrameDom>emptyMap()))
+                .when(domCapture).getFrameDom(anyString(), ArgumentMatchers.<String>anyList());
 
         CssTreeNode cssTreeNode = mock(CssTreeNode.class);
         when(cssTreeNode.toString()).thenReturn("{font-family: \"David\"}");
@@ -313,6 +328,120 @@ public final class TestSendDom extends ReportingTestSuite {
         Assert.assertEquals(dom, "{\"css\":\"{font-family: \\\"David\\\"}\"}");
     }
 
+    @Test
+    public void TestFramesInlining() {
+        EyesSeleniumDriver driver = mock(EyesSeleniumDriver.class);
+        when(driver.getFrameChain()).thenReturn(new FrameChain(new Logger()));
+        when(driver.switchTo()).thenReturn(mock(EyesTargetLocator.class));
+        when(driver.executeScript("return document.location.href")).thenReturn("url");
+
+        SeleniumEyes eyes = mock(SeleniumEyes.class);
+        when(eyes.getServerConnector()).thenReturn(new MockServerConnector());
+        when(eyes.getLogger()).thenReturn(new Logger());
+        when(eyes.getUserAgent()).thenReturn(UserAgent.parseUserAgentString("Mozilla/5.0 (Windows NT 6.1; WOW64; rv:54.0) Gecko/20100101 Firefox/54.0"));
+        when(eyes.getDriver()).thenReturn(driver);
+
+        Map<String, DomCapture.FrameDom> innerFrames = new HashMap<>();
+        innerFrames.put("frame2", new DomCapture.FrameDom(getSeparators(), "{\"css\":\"#####b.css#####\"}", Collections.<String, DomCapture.FrameDom>emptyMap()));
+        Map<String, DomCapture.FrameDom> frames = new HashMap<>();
+        frames.put("frame1", new DomCapture.FrameDom(getSeparators(), "{\"css\":\"#####a.css#####\",\"frames\":[\"@@@@@frame2@@@@@\"]}", innerFrames));
+        String dom = "{\"css\":\"#####a.css#####\",\"frames\":[\"@@@@@frame1@@@@@\"],\"text\":\"#####c.css#####\"}";
+
+        DomCapture domCapture = spy(new DomCapture(eyes));
+        doReturn(new DomCapture.FrameDom(getSeparators(), dom, frames)).when(domCapture).getFrameDom(anyString(), ArgumentMatchers.<String>anyList());
+
+        CssTreeNode cssTreeNode = mock(CssTreeNode.class);
+        when(cssTreeNode.toString()).thenReturn("a {color: red}");
+        domCapture.cssNodesToReplace.put("a.css", cssTreeNode);
+        cssTreeNode = mock(CssTreeNode.class);
+        when(cssTreeNode.toString()).thenReturn("b {content: \"\\n\"}");
+        domCapture.cssNodesToReplace.put("b.css", cssTreeNode);
+
+        Assert.assertEquals(domCapture.getPageDom(new NullPositionProvider()),
+                "{\"css\":\"a {color: red}\",\"frames\":[{\"css\":\"a {color: red}\",\"frames\":[{\"css\":\"b {content: \\\"\\\\n\\\"}\"}]}],\"text\":\"\"}");
+    }
+
+    @Test
+    public void TestCssResourcesCache() {
+        final AtomicInteger downloadsCount = new AtomicInteger();
+        ServerConnector serverConnector = new MockServerConnector() {
+            @Override
+            public Future<?> downloadResource(URI url, String userAgent, String refererUrl, Set<Cookie> cookies,
+                                              TaskListener<RGridResource> listener) {
+                downloadsCount.incrementAndGet();
+                String css = url.getPath().endsWith("a.css") ? "@import \"b.css\";\na {color: red}" : "b {color: blue}";
+                listener.onComplete(new RGridResource(url.toString(), "text/css", css.getBytes()));
+                return null;
+            }
+        };
+
+        EyesSeleniumDriver driver = mock(EyesSeleniumDriver.class);
+        SeleniumEyes eyes = mock(SeleniumEyes.class);
+        when(eyes.getServerConnector()).thenReturn(serverConnector);
+        when(eyes.getLogger()).thenReturn(new Logger());
+        when(eyes.getUserAgent()).thenReturn(UserAgent.parseUserAgentString("Mozilla/5.0 (Windows NT 6.1; WOW64; rv:54.0) Gecko/20100101 Firefox/54.0"));
+        when(eyes.getDriver()).thenReturn(driver);
+        LruCache<String, RGridResource> cssResourcesCache = new LruCache<>(10, 0);
+        when(eyes.getCssResourcesCache()).thenReturn(cssResourcesCache);
+
+        // The second capture takes the stylesheet and its import from the cache
+        String expectedCss = null;
+        for (int i = 0; i < 2; i++) {
+            DomCapture domCapture = new DomCapture(eyes);
+            domCapture.fetchCssFiles("http://localhost/", Collections.singletonList("a.css"), null);
+            String css = domCapture.cssNodesToReplace.get("a.css").toString();
+            Assert.assertTrue(css.contains("blue") && css.contains("red"), css);
+            if (expectedCss != null) {
+                Assert.assertEquals(css, expectedCss);
+            }
+            expectedCss = css;
+        }
+
+        Assert.assertEquals(downloadsCount.get(), 2);
+        Assert.assertEquals(cssResourcesCache.getHitCount(), 2);
+        Assert.assertEquals(cssResourcesCache.getMissCount(), 2);
+    }
+
+    private static Separators getSeparators() {
+        Separators separators = new Separators();
+        separators.separator = "-----";
+        separators.cssStartToken = "#####";
+        separators.cssEndToken = "#####";
+        separators.iframeStartToken = "\"@@@@@";
+        separators.iframeEndToken = "@@@@@\"";
+        return separators;
+    }
+
+    @Test
+    public void TestChunkedDomScriptResult() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        String dom = "{\"css\":\"a.css\",\"text\":\"" + new String(new char[1000]).replace('\0', 'a') + "\"}";
+        String encodedDom = mapper.writeValueAsString(dom);
+        List<String> responses = new ArrayList<>();
+        responses.add("{\"status\":\"WIP\"}");
+        responses.add("{\"status\":\"WIP\"}");
+        for (int i = 0; i < encodedDom.length(); i += 300) {
+            String chunk = encodedDom.substring(i, Math.min(i + 300, encodedDom.length()));
+            boolean isDone = i + 300 >= encodedDom.length();
+            responses.add(String.format("{\"status\":\"SUCCESS_CHUNKED\",\"done\":%s,\"value\":%s}", isDone, mapper.writeValueAsString(chunk)));
+        }
+
+        EyesSeleniumDriver driver = mock(EyesSeleniumDriver.class);
+        when(driver.executeScript(anyString())).thenReturn(responses.get(0), responses.subList(1, responses.size()).toArray());
+        UserAgent userAgent = UserAgent.parseUserAgentString("Mozilla/5.0 (Windows NT 6.1; WOW64; rv:54.0) Gecko/20100101 Firefox/54.0");
+        String result = EyesSeleniumUtils.runDomScript(new Logger(), driver, userAgent, Collections.singleton("testId"), "script", null, "poll", String.class);
+        Assert.assertEquals(result, dom);
+        verify(driver, times(responses.size())).executeScript(anyString());
+
+        when(driver.executeScript(anyString())).thenReturn(responses.get(0), responses.subList(1, responses.size()).toArray());
+        result = EyesSeleniumUtils.runDomScript(new Logger(), driver, userAgent, Collections.singleton("testId"), "script", null, "poll");
+        Assert.assertEquals(result, encodedDom);
+
+        when(driver.executeScript(anyString())).thenReturn("{\"status\":\"SUCCESS\",\"value\":" + encodedDom + "}");
+        result = EyesSeleniumUtils.runDomScript(new Logger(), driver, userAgent, Collections.singleton("testId"), "script", null, "poll", String.class);
+        Assert.assertEquals(result, dom);
+    }
+
     private static boolean getHasDom(IEyesBase eyes, TestResults results) throws IOException {
         SessionResults sessionResults = TestUtils.getSessionResults(eyes.getApiKey(), results);
         ActualAppOutput[] actualAppOutputs = sessionResults.getActualAppOutput();
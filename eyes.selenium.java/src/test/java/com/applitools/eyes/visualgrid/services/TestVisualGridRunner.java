@@ -21,7 +21,9 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -354,4 +356,122 @@ public class TestVisualGridRunner {
         Assert.assertEquals(visualGridRunner.getProxy(), p1);
         Assert.assertNull(visualGridRunner.eyesServiceRunner.getAutProxy());
     }
+
+    @Test
+    public void testResolveJobInfos() {
+        final AtomicInteger requestsCount = new AtomicInteger(0);
+        final AtomicInteger browsersCount = new AtomicInteger(0);
+        ServerConnector serverConnector = new MockServerConnector() {
+            @Override
+            public void getJobInfo(TaskListener<JobInfo[]> listener, RenderRequest[] browserInfos) {
+                requestsCount.incrementAndGet();
+                browsersCount.addAndGet(browserInfos.length);
+                super.getJobInfo(listener, browserInfos);
+            }
+        };
+
+        VisualGridRunner runner = new VisualGridRunner(10);
+        runner.setServerConnector(serverConnector);
+        try {
+            RenderBrowserInfo[] browsers = {new RenderBrowserInfo(800, 600, BrowserType.CHROME),
+                    new RenderBrowserInfo(800, 600, BrowserType.FIREFOX),
+                    new RenderBrowserInfo(800, 600, BrowserType.CHROME),
+                    new RenderBrowserInfo(new IosDeviceInfo(IosDeviceName.iPhone_7))};
+            List<VisualGridRunningTest> tests = createTests(browsers, serverConnector);
+
+            // The two chrome tests share the same job info
+            runner.resolveJobInfos(tests);
+            Assert.assertEquals(requestsCount.get(), 1);
+            Assert.assertEquals(browsersCount.get(), 3);
+            Assert.assertSame(tests.get(0).getJobInfo(), tests.get(2).getJobInfo());
+            Assert.assertNotSame(tests.get(0).getJobInfo(), tests.get(1).getJobInfo());
+            tests.get(3).getRenderer();
+            Assert.assertEquals(requestsCount.get(), 1);
+
+            // The job info of browsers which were already resolved is cached for the next tests
+            List<VisualGridRunningTest> nextTests = createTests(new RenderBrowserInfo[]{
+                    new RenderBrowserInfo(800, 600, BrowserType.FIREFOX),
+                    new RenderBrowserInfo(1024, 768, BrowserType.FIREFOX)}, serverConnector);
+            runner.resolveJobInfos(nextTests);
+            Assert.assertEquals(requestsCount.get(), 2);
+            Assert.assertEquals(browsersCount.get(), 4);
+            Assert.assertSame(nextTests.get(0).getJobInfo(), tests.get(1).getJobInfo());
+        } finally {
+            runner.getAllTestResults(false);
+        }
+    }
+
+    @Test
+    public void testResolveJobInfosDoesNotWaitForServer() {
+        final CountDownLatch serverReady = new CountDownLatch(1);
+        final AtomicInteger requestsCount = new AtomicInteger(0);
+        final AtomicBoolean isFailing = new AtomicBoolean(false);
+        ServerConnector serverConnector = new MockServerConnector() {
+            @Override
+            public void getJobInfo(final TaskListener<JobInfo[]> listener, final RenderRequest[] browserInfos) {
+                requestsCount.incrementAndGet();
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            serverReady.await();
+                        } catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+
+                        if (isFailing.get() && browserInfos.length > 1) {
+                            listener.onFail();
+                            return;
+                        }
+
+                        JobInfo[] jobInfos = new JobInfo[browserInfos.length];
+                        for (int i = 0; i < jobInfos.length; i++) {
+                            jobInfos[i] = new JobInfo();
+                        }
+                        listener.onComplete(jobInfos);
+                    }
+                }).start();
+            }
+        };
+
+        VisualGridRunner runner = new VisualGridRunner(10);
+        runner.setServerConnector(serverConnector);
+        try {
+            List<VisualGridRunningTest> tests = createTests(new RenderBrowserInfo[]{
+                    new RenderBrowserInfo(800, 600, BrowserType.CHROME)}, serverConnector);
+            runner.resolveJobInfos(tests);
+            Assert.assertEquals(requestsCount.get(), 1);
+
+            // The job info which is still on its way isn't requested again
+            List<VisualGridRunningTest> nextTests = createTests(new RenderBrowserInfo[]{
+                    new RenderBrowserInfo(800, 600, BrowserType.CHROME)}, serverConnector);
+            runner.resolveJobInfos(nextTests);
+            Assert.assertEquals(requestsCount.get(), 1);
+
+            serverReady.countDown();
+            Assert.assertNotNull(tests.get(0).getJobInfo());
+            Assert.assertSame(nextTests.get(0).getJobInfo(), tests.get(0).getJobInfo());
+            Assert.assertEquals(requestsCount.get(), 1);
+
+            // When the request fails, every test requests its job info by itself
+            isFailing.set(true);
+            List<VisualGridRunningTest> failedTests = createTests(new RenderBrowserInfo[]{
+                    new RenderBrowserInfo(800, 600, BrowserType.FIREFOX),
+                    new RenderBrowserInfo(800, 600, BrowserType.SAFARI)}, serverConnector);
+            runner.resolveJobInfos(failedTests);
+            Assert.assertNotNull(failedTests.get(0).getJobInfo());
+            Assert.assertNotNull(failedTests.get(1).getJobInfo());
+            Assert.assertEquals(requestsCount.get(), 4);
+        } finally {
+            runner.getAllTestResults(false);
+        }
+    }
+
+    private List<VisualGridRunningTest> createTests(RenderBrowserInfo[] browsers, ServerConnector serverConnector) {
+        List<VisualGridRunningTest> tests = new ArrayList<>();
+        for (RenderBrowserInfo browser : browsers) {
+            tests.add(new VisualGridRunningTest(new Logger(), "eyes", configuration, browser, null, serverConnector, "run"));
+        }
+        return tests;
+    }
 }